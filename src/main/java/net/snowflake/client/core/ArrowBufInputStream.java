@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import java.io.InputStream;
+import org.apache.arrow.memory.ArrowBuf;
+
+/** Reads a range of an Arrow buffer without copying it first */
+final class ArrowBufInputStream extends InputStream {
+  private final ArrowBuf buffer;
+  private long position;
+  private final long end;
+
+  /**
+   * @param buffer the buffer
+   * @param start offset of the first byte
+   * @param end offset after the last byte
+   */
+  ArrowBufInputStream(ArrowBuf buffer, long start, long end) {
+    this.buffer = buffer;
+    this.position = start;
+    this.end = end;
+  }
+
+  @Override
+  public int read() {
+    return position < end ? buffer.getByte(position++) & 0xFF : -1;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) {
+    if (len == 0) {
+      return 0;
+    }
+    if (position >= end) {
+      return -1;
+    }
+    int count = (int) Math.min(len, end - position);
+    buffer.getBytes(position, b, off, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public long skip(long n) {
+    long skipped = Math.max(0, Math.min(n, end - position));
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, end - position);
+  }
+}
@@ -0,0 +1,465 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Types;
+import net.snowflake.client.core.arrow.ArrowVectorConverter;
+import net.snowflake.client.core.arrow.BigIntToFixedConverter;
+import net.snowflake.client.core.arrow.BitToBooleanConverter;
+import net.snowflake.client.core.arrow.DoubleToRealConverter;
+import net.snowflake.client.core.arrow.IntToFixedConverter;
+import net.snowflake.client.core.arrow.SmallIntToFixedConverter;
+import net.snowflake.client.core.arrow.TinyIntToFixedConverter;
+import net.snowflake.client.core.arrow.VarCharConverter;
+import net.snowflake.client.jdbc.ArrowResultChunk.ArrowChunkIterator;
+import net.snowflake.client.jdbc.ErrorCode;
+import net.snowflake.client.jdbc.SnowflakeColumnAccessor;
+import net.snowflake.client.jdbc.SnowflakeSQLException;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+
+/**
+ * Accessor of a column of an {@link SFArrowResultSet}.
+ *
+ * <p>Each column type has its own final accessor class, so a loop reading a column calls a single
+ * implementation and the JIT can inline the read. Whenever the result set moves to another record
+ * batch the accessor binds to the buffers of the column's vector, and cells are read from the
+ * buffers directly. Vectors the accessor has no fast path for are read through the converter of the
+ * record batch, which gives the same values as the getters of the result set.
+ */
+abstract class ArrowColumnAccessor implements SnowflakeColumnAccessor {
+  private final SFArrowResultSet resultSet;
+
+  // 0-based index of the column
+  private final int columnIndex;
+
+  // converter of the column in the record batch the accessor is bound to
+  ArrowVectorConverter converter;
+
+  // index of the current row in the record batch
+  int row;
+
+  ArrowColumnAccessor(SFArrowResultSet resultSet, int columnIndex) {
+    this.resultSet = resultSet;
+    this.columnIndex = columnIndex;
+  }
+
+  /**
+   * Create the accessor for the type of a column.
+   *
+   * @param resultSet result set to read from
+   * @param columnIndex 0-based index of the column
+   * @param columnType column type from {@link SFResultSetMetaData#getInternalColumnType(int)}
+   * @return accessor of the column
+   */
+  static ArrowColumnAccessor create(SFArrowResultSet resultSet, int columnIndex, int columnType) {
+    switch (columnType) {
+      case Types.BIGINT:
+      case Types.DECIMAL:
+        return new FixedAccessor(resultSet, columnIndex);
+      case Types.DOUBLE:
+        return new RealAccessor(resultSet, columnIndex);
+      case Types.VARCHAR:
+        return new TextAccessor(resultSet, columnIndex);
+      case Types.BOOLEAN:
+        return new BooleanAccessor(resultSet, columnIndex);
+      default:
+        return new GenericAccessor(resultSet, columnIndex);
+    }
+  }
+
+  /** Bind to the record batch of the current row if needed, and set {@link #row} */
+  final void position() throws SQLException {
+    ArrowChunkIterator iterator = resultSet.getCurrentRowIterator();
+    if (iterator == null) {
+      throw toSQLException(new SFException(ErrorCode.ROW_DOES_NOT_EXIST));
+    }
+    try {
+      ArrowVectorConverter current = iterator.getCurrentConverter(columnIndex);
+      if (current != converter) {
+        bind(current, iterator.getCurrentVector(columnIndex));
+        converter = current;
+      }
+    } catch (SFException ex) {
+      throw toSQLException(ex);
+    }
+    row = iterator.getCurrentRowInRecordBatch();
+  }
+
+  /**
+   * @param converter converter of the vector
+   * @param vector vector of a NUMBER column
+   * @return width in bytes of the integers of the vector if its data buffer holds the values as
+   *     they are, 0 if the vector must be read through the converter
+   */
+  static int integerWidth(ArrowVectorConverter converter, ValueVector vector) {
+    // the scaled converters extend these classes, so the classes are compared exactly
+    Class<?> converterClass = converter.getClass();
+    if (converterClass == BigIntToFixedConverter.class
+        || converterClass == IntToFixedConverter.class
+        || converterClass == SmallIntToFixedConverter.class
+        || converterClass == TinyIntToFixedConverter.class) {
+      return ((BaseFixedWidthVector) vector).getTypeWidth();
+    }
+    return 0;
+  }
+
+  /**
+   * @param data data buffer of a vector of integers
+   * @param width width of the integers in bytes, see {@link #integerWidth(ArrowVectorConverter,
+   *     ValueVector)}
+   * @param index index of the value in the vector
+   * @return the integer at the index
+   */
+  static long integerAt(ArrowBuf data, int width, int index) {
+    switch (width) {
+      case 1:
+        return data.getByte(index);
+      case 2:
+        return data.getShort(index * 2L);
+      case 4:
+        return data.getInt(index * 4L);
+      default:
+        return data.getLong(index * 8L);
+    }
+  }
+
+  /**
+   * @param converter converter of the vector
+   * @param vector vector of a FLOAT column
+   * @return true if the data buffer of the vector holds the values as they are
+   */
+  static boolean isPlainReal(ArrowVectorConverter converter, ValueVector vector) {
+    return converter.getClass() == DoubleToRealConverter.class && vector instanceof Float8Vector;
+  }
+
+  /**
+   * Bind to the vector of the column in a new record batch.
+   *
+   * @param converter converter of the vector
+   * @param vector vector of the column
+   */
+  abstract void bind(ArrowVectorConverter converter, ValueVector vector);
+
+  private static SQLException toSQLException(SFException ex) {
+    return new SnowflakeSQLException(
+        ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+  }
+
+  @Override
+  public boolean isNull() throws SQLException {
+    position();
+    return converter.isNull(row);
+  }
+
+  @Override
+  public boolean getBoolean() throws SQLException {
+    position();
+    return convertToBoolean();
+  }
+
+  @Override
+  public int getInt() throws SQLException {
+    position();
+    return convertToInt();
+  }
+
+  @Override
+  public long getLong() throws SQLException {
+    position();
+    return convertToLong();
+  }
+
+  @Override
+  public double getDouble() throws SQLException {
+    position();
+    return convertToDouble();
+  }
+
+  @Override
+  public BigDecimal getBigDecimal() throws SQLException {
+    position();
+    return convertToBigDecimal();
+  }
+
+  @Override
+  public String getString() throws SQLException {
+    position();
+    return convertToString();
+  }
+
+  final boolean convertToBoolean() throws SQLException {
+    try {
+      return converter.toBoolean(row);
+    } catch (SFException ex) {
+      throw toSQLException(ex);
+    }
+  }
+
+  final int convertToInt() throws SQLException {
+    try {
+      return converter.toInt(row);
+    } catch (SFException ex) {
+      throw toSQLException(ex);
+    }
+  }
+
+  final long convertToLong() throws SQLException {
+    try {
+      return converter.toLong(row);
+    } catch (SFException ex) {
+      throw toSQLException(ex);
+    }
+  }
+
+  final double convertToDouble() throws SQLException {
+    try {
+      return converter.toDouble(row);
+    } catch (SFException ex) {
+      throw toSQLException(ex);
+    }
+  }
+
+  final BigDecimal convertToBigDecimal() throws SQLException {
+    try {
+      return converter.toBigDecimal(row);
+    } catch (SFException ex) {
+      throw toSQLException(ex);
+    }
+  }
+
+  final String convertToString() throws SQLException {
+    try {
+      return converter.toString(row);
+    } catch (SFException ex) {
+      throw toSQLException(ex);
+    }
+  }
+
+  /** Accessor of columns without a fast path */
+  static final class GenericAccessor extends ArrowColumnAccessor {
+    GenericAccessor(SFArrowResultSet resultSet, int columnIndex) {
+      super(resultSet, columnIndex);
+    }
+
+    @Override
+    void bind(ArrowVectorConverter converter, ValueVector vector) {}
+  }
+
+  /** Accessor of NUMBER columns, integers of scale 0 are read from the data buffer */
+  static final class FixedAccessor extends ArrowColumnAccessor {
+    private ArrowBuf validity;
+    private ArrowBuf data;
+
+    // width of the integers in bytes, 0 if the vector is read through the converter
+    private int width;
+
+    FixedAccessor(SFArrowResultSet resultSet, int columnIndex) {
+      super(resultSet, columnIndex);
+    }
+
+    @Override
+    void bind(ArrowVectorConverter converter, ValueVector vector) {
+      width = integerWidth(converter, vector);
+      if (width != 0) {
+        validity = vector.getValidityBuffer();
+        data = vector.getDataBuffer();
+      } else {
+        validity = null;
+        data = null;
+      }
+    }
+
+    private boolean isNullAt() {
+      return BitVectorHelper.get(validity, row) == 0;
+    }
+
+    private long valueAt() {
+      return integerAt(data, width, row);
+    }
+
+    @Override
+    public boolean isNull() throws SQLException {
+      position();
+      return width == 0 ? converter.isNull(row) : isNullAt();
+    }
+
+    @Override
+    public int getInt() throws SQLException {
+      position();
+      if (width != 0) {
+        long value = isNullAt() ? 0 : valueAt();
+        if ((int) value == value) {
+          return (int) value;
+        }
+      }
+      // the converter reports values out of range
+      return convertToInt();
+    }
+
+    @Override
+    public long getLong() throws SQLException {
+      position();
+      if (width == 0) {
+        return convertToLong();
+      }
+      return isNullAt() ? 0 : valueAt();
+    }
+
+    @Override
+    public double getDouble() throws SQLException {
+      position();
+      if (width == 0) {
+        return convertToDouble();
+      }
+      return isNullAt() ? 0 : valueAt();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() throws SQLException {
+      position();
+      if (width == 0) {
+        return convertToBigDecimal();
+      }
+      return isNullAt() ? null : BigDecimal.valueOf(valueAt());
+    }
+
+    @Override
+    public String getString() throws SQLException {
+      position();
+      if (width == 0) {
+        return convertToString();
+      }
+      return isNullAt() ? null : Long.toString(valueAt());
+    }
+  }
+
+  /** Accessor of FLOAT columns */
+  static final class RealAccessor extends ArrowColumnAccessor {
+    private ArrowBuf validity;
+    private ArrowBuf data;
+
+    RealAccessor(SFArrowResultSet resultSet, int columnIndex) {
+      super(resultSet, columnIndex);
+    }
+
+    @Override
+    void bind(ArrowVectorConverter converter, ValueVector vector) {
+      if (isPlainReal(converter, vector)) {
+        validity = vector.getValidityBuffer();
+        data = vector.getDataBuffer();
+      } else {
+        validity = null;
+        data = null;
+      }
+    }
+
+    @Override
+    public boolean isNull() throws SQLException {
+      position();
+      return data == null ? converter.isNull(row) : BitVectorHelper.get(validity, row) == 0;
+    }
+
+    @Override
+    public double getDouble() throws SQLException {
+      position();
+      if (data == null) {
+        return convertToDouble();
+      }
+      return BitVectorHelper.get(validity, row) == 0
+          ? 0
+          : data.getDouble((long) row * Float8Vector.TYPE_WIDTH);
+    }
+  }
+
+  /** Accessor of VARCHAR columns, strings are decoded from the data buffer */
+  static final class TextAccessor extends ArrowColumnAccessor {
+    private ArrowBuf validity;
+    private ArrowBuf offsets;
+    private ArrowBuf data;
+
+    TextAccessor(SFArrowResultSet resultSet, int columnIndex) {
+      super(resultSet, columnIndex);
+    }
+
+    @Override
+    void bind(ArrowVectorConverter converter, ValueVector vector) {
+      if (converter.getClass() == VarCharConverter.class && vector instanceof VarCharVector) {
+        validity = vector.getValidityBuffer();
+        offsets = vector.getOffsetBuffer();
+        data = vector.getDataBuffer();
+      } else {
+        validity = null;
+        offsets = null;
+        data = null;
+      }
+    }
+
+    @Override
+    public boolean isNull() throws SQLException {
+      position();
+      return data == null ? converter.isNull(row) : BitVectorHelper.get(validity, row) == 0;
+    }
+
+    @Override
+    public String getString() throws SQLException {
+      position();
+      if (data == null) {
+        return convertToString();
+      }
+      if (BitVectorHelper.get(validity, row) == 0) {
+        return null;
+      }
+      int start = offsets.getInt((long) row * VarCharVector.OFFSET_WIDTH);
+      int end = offsets.getInt((long) (row + 1) * VarCharVector.OFFSET_WIDTH);
+      byte[] bytes = new byte[end - start];
+      data.getBytes(start, bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+
+  /** Accessor of BOOLEAN columns */
+  static final class BooleanAccessor extends ArrowColumnAccessor {
+    private ArrowBuf validity;
+    private ArrowBuf data;
+
+    BooleanAccessor(SFArrowResultSet resultSet, int columnIndex) {
+      super(resultSet, columnIndex);
+    }
+
+    @Override
+    void bind(ArrowVectorConverter converter, ValueVector vector) {
+      if (converter.getClass() == BitToBooleanConverter.class && vector instanceof BitVector) {
+        validity = vector.getValidityBuffer();
+        data = vector.getDataBuffer();
+      } else {
+        validity = null;
+        data = null;
+      }
+    }
+
+    @Override
+    public boolean isNull() throws SQLException {
+      position();
+      return data == null ? converter.isNull(row) : BitVectorHelper.get(validity, row) == 0;
+    }
+
+    @Override
+    public boolean getBoolean() throws SQLException {
+      position();
+      if (data == null) {
+        return convertToBoolean();
+      }
+      return BitVectorHelper.get(validity, row) != 0 && BitVectorHelper.get(data, row) != 0;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import net.snowflake.client.core.arrow.ArrowVectorConverter;
+import net.snowflake.client.jdbc.ArrowResultChunk.ArrowChunkIterator;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.ValueVector;
+
+/**
+ * Copies a range of rows of a column of the current record batch of an {@link SFArrowResultSet}
+ * into arrays.
+ *
+ * <p>Integers of scale 0 and FLOAT values are copied straight from the data buffer of the vector in
+ * a single loop, without a converter call per row, for the same vectors the fast paths of {@link
+ * ArrowColumnAccessor} read. Other vectors, and record batches whose rows are reordered, are read
+ * through the converter of the record batch, which gives the same values as the getters of the
+ * result set. The null bitmap must have been cleared for the range.
+ */
+final class ArrowColumnCopier {
+  private ArrowColumnCopier() {}
+
+  /** Flag the SQL NULL values of the range from the validity buffer */
+  private static void copyNulls(ValueVector vector, int fromRow, int count, long[] nulls) {
+    if (nulls == null || vector.getNullCount() == 0) {
+      return;
+    }
+    ArrowBuf validity = vector.getValidityBuffer();
+    for (int i = 0; i < count; i++) {
+      if (BitVectorHelper.get(validity, fromRow + i) == 0) {
+        nulls[i >>> 6] |= 1L << i;
+      }
+    }
+  }
+
+  static void copyLongs(
+      ArrowChunkIterator iterator,
+      ArrowVectorConverter converter,
+      ValueVector vector,
+      int fromRow,
+      int count,
+      long[] values,
+      long[] nulls)
+      throws SFException {
+    int width =
+        iterator.isCurrentRecordBatchInVectorOrder()
+            ? ArrowColumnAccessor.integerWidth(converter, vector)
+            : 0;
+    if (width == 0) {
+      for (int i = 0; i < count; i++) {
+        int index = iterator.getRowInRecordBatch(fromRow + i);
+        values[i] = converter.toLong(index);
+        if (converter.isNull(index)) {
+          SFBaseResultSet.setBatchNull(nulls, i);
+        }
+      }
+      return;
+    }
+    ArrowBuf data = vector.getDataBuffer();
+    ArrowBuf validity = vector.getValidityBuffer();
+    boolean hasNulls = vector.getNullCount() != 0;
+    for (int i = 0; i < count; i++) {
+      int index = fromRow + i;
+      values[i] =
+          hasNulls && BitVectorHelper.get(validity, index) == 0
+              ? 0
+              : ArrowColumnAccessor.integerAt(data, width, index);
+    }
+    copyNulls(vector, fromRow, count, nulls);
+  }
+
+  static void copyInts(
+      ArrowChunkIterator iterator,
+      ArrowVectorConverter converter,
+      ValueVector vector,
+      int fromRow,
+      int count,
+      int[] values,
+      long[] nulls)
+      throws SFException {
+    int width =
+        iterator.isCurrentRecordBatchInVectorOrder()
+            ? ArrowColumnAccessor.integerWidth(converter, vector)
+            : 0;
+    if (width == 0) {
+      for (int i = 0; i < count; i++) {
+        int index = iterator.getRowInRecordBatch(fromRow + i);
+        values[i] = converter.toInt(index);
+        if (converter.isNull(index)) {
+          SFBaseResultSet.setBatchNull(nulls, i);
+        }
+      }
+      return;
+    }
+    ArrowBuf data = vector.getDataBuffer();
+    ArrowBuf validity = vector.getValidityBuffer();
+    boolean hasNulls = vector.getNullCount() != 0;
+    for (int i = 0; i < count; i++) {
+      int index = fromRow + i;
+      if (hasNulls && BitVectorHelper.get(validity, index) == 0) {
+        values[i] = 0;
+        continue;
+      }
+      long value = ArrowColumnAccessor.integerAt(data, width, index);
+      // the converter reports values out of range
+      values[i] = (int) value == value ? (int) value : converter.toInt(index);
+    }
+    copyNulls(vector, fromRow, count, nulls);
+  }
+
+  static void copyDoubles(
+      ArrowChunkIterator iterator,
+      ArrowVectorConverter converter,
+      ValueVector vector,
+      int fromRow,
+      int count,
+      double[] values,
+      long[] nulls)
+      throws SFException {
+    boolean inVectorOrder = iterator.isCurrentRecordBatchInVectorOrder();
+    int width = inVectorOrder ? ArrowColumnAccessor.integerWidth(converter, vector) : 0;
+    boolean isReal = inVectorOrder && ArrowColumnAccessor.isPlainReal(converter, vector);
+    if (width == 0 && !isReal) {
+      for (int i = 0; i < count; i++) {
+        int index = iterator.getRowInRecordBatch(fromRow + i);
+        values[i] = converter.toDouble(index);
+        if (converter.isNull(index)) {
+          SFBaseResultSet.setBatchNull(nulls, i);
+        }
+      }
+      return;
+    }
+    ArrowBuf data = vector.getDataBuffer();
+    ArrowBuf validity = vector.getValidityBuffer();
+    boolean hasNulls = vector.getNullCount() != 0;
+    for (int i = 0; i < count; i++) {
+      int index = fromRow + i;
+      if (hasNulls && BitVectorHelper.get(validity, index) == 0) {
+        values[i] = 0;
+      } else if (isReal) {
+        values[i] = data.getDouble((long) index * Float8Vector.TYPE_WIDTH);
+      } else {
+        values[i] = ArrowColumnAccessor.integerAt(data, width, index);
+      }
+    }
+    copyNulls(vector, fromRow, count, nulls);
+  }
+}
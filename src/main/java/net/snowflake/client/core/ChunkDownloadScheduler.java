@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * Driver-wide scheduler for result chunk downloads, used instead of a thread pool per result set.
+ *
+ * <p>The scheduler owns a fixed set of daemon worker threads. Every result set gets its own queue,
+ * in which chunks are ordered by their index. Workers serve the queues round robin, so a result set
+ * with many chunks cannot starve the others, and chunks the consumer is already waiting for (index
+ * not greater than the next chunk to consume) are served before any plain prefetch.
+ *
+ * <p>The number of workers is read from the system property {@value #THREADS_PROPERTY} when the
+ * scheduler is first used.
+ */
+@SnowflakeJdbcInternalApi
+public class ChunkDownloadScheduler {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(ChunkDownloadScheduler.class);
+
+  public static final String THREADS_PROPERTY = "net.snowflake.jdbc.chunkDownloadSchedulerThreads";
+
+  private static final int DEFAULT_THREADS =
+      Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+  private static ChunkDownloadScheduler instance;
+
+  // queue of the task run by the current worker thread
+  private static final ThreadLocal<Queue> currentQueue = new ThreadLocal<>();
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // signalled when a task is added to any queue
+  private final Condition taskAvailable = lock.newCondition();
+
+  // signalled when the last running task of a queue finishes
+  private final Condition queueIdle = lock.newCondition();
+
+  // queues which have pending tasks, in round robin order
+  private final Set<Queue> readyQueues = new LinkedHashSet<>();
+
+  private final int threadCount;
+  private int registeredQueues;
+  private int queuedTasks;
+  private int runningTasks;
+  private long completedTasks;
+
+  /**
+   * @return the driver-wide scheduler, which is created on first use
+   */
+  public static synchronized ChunkDownloadScheduler getInstance() {
+    if (instance == null) {
+      int threads = SystemUtil.convertSystemPropertyToIntValue(THREADS_PROPERTY, DEFAULT_THREADS);
+      instance = new ChunkDownloadScheduler(threads > 0 ? threads : DEFAULT_THREADS);
+    }
+    return instance;
+  }
+
+  ChunkDownloadScheduler(int threadCount) {
+    this.threadCount = threadCount;
+    logger.debug("Starting shared chunk download scheduler with {} threads", threadCount);
+    for (int i = 1; i <= threadCount; i++) {
+      Thread thread = new Thread(this::runWorker, "result-chunk-downloader-shared-" + i);
+      thread.setDaemon(true);
+      thread.setUncaughtExceptionHandler(
+          (t, e) -> logger.error("Uncaught Exception in thread {}: {}", t, e));
+      thread.start();
+    }
+  }
+
+  /**
+   * Create the queue for a new result set
+   *
+   * @param queryId query id of the result set, used for logging
+   * @return the queue to submit chunk downloads to
+   */
+  public Queue register(String queryId) {
+    lock.lock();
+    try {
+      registeredQueues++;
+      return new Queue(queryId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Pending chunk downloads of one result set */
+  public class Queue {
+    private final String queryId;
+    private final PriorityQueue<ChunkTask> tasks = new PriorityQueue<>();
+    private int nextChunkToConsume;
+    private int runningTasks;
+    private boolean closed;
+
+    private Queue(String queryId) {
+      this.queryId = queryId;
+    }
+
+    /**
+     * Queue the download of a chunk
+     *
+     * @param chunkIndex index of the chunk in the result set
+     * @param callable downloads the chunk
+     * @return future used to cancel the download
+     */
+    public Future<Void> submit(int chunkIndex, Callable<Void> callable) {
+      ChunkTask task = new ChunkTask(this, chunkIndex, callable);
+      lock.lock();
+      try {
+        if (closed) {
+          task.cancel(false);
+          return task;
+        }
+        tasks.add(task);
+        queuedTasks++;
+        readyQueues.add(this);
+        taskAvailable.signal();
+      } finally {
+        lock.unlock();
+      }
+      return task;
+    }
+
+    /**
+     * Tell the scheduler which chunk the consumer needs next. Chunks up to this index are served
+     * before prefetched chunks of any result set.
+     *
+     * @param chunkIndex index of the next chunk to consume
+     */
+    public void setNextChunkToConsume(int chunkIndex) {
+      lock.lock();
+      try {
+        nextChunkToConsume = chunkIndex;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * @return number of chunks waiting for a worker thread
+     */
+    public int getQueueDepth() {
+      lock.lock();
+      try {
+        return tasks.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Cancel all pending downloads, remove the queue from the scheduler and wait for the running
+     * downloads to finish, so that their chunks can be freed. Running downloads are not interrupted
+     * here, their futures are cancelled by the caller.
+     *
+     * @param timeout maximum time to wait for the running downloads
+     * @param unit unit of the timeout
+     * @return true if no download of the queue is running anymore, false if the wait timed out
+     * @throws InterruptedException if the wait is interrupted
+     */
+    public boolean close(long timeout, TimeUnit unit) throws InterruptedException {
+      List<ChunkTask> cancelled = new ArrayList<>();
+      lock.lock();
+      try {
+        if (!closed) {
+          closed = true;
+          registeredQueues--;
+          queuedTasks -= tasks.size();
+          cancelled.addAll(tasks);
+          tasks.clear();
+          readyQueues.remove(this);
+        }
+      } finally {
+        lock.unlock();
+      }
+      cancelled.forEach(task -> task.cancel(false));
+      logger.debug("Closed chunk download queue for query {}", queryId);
+
+      // a download of this queue may close it from its own worker thread
+      int ownTasks = currentQueue.get() == this ? 1 : 0;
+      long remainingNanos = unit.toNanos(timeout);
+      lock.lock();
+      try {
+        while (runningTasks > ownTasks) {
+          if (remainingNanos <= 0) {
+            logger.debug(
+                "{} chunk downloads of query {} are still running",
+                runningTasks - ownTasks,
+                queryId);
+            return false;
+          }
+          remainingNanos = queueIdle.awaitNanos(remainingNanos);
+        }
+        return true;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean hasUrgentTask() {
+      return !tasks.isEmpty() && tasks.peek().chunkIndex <= nextChunkToConsume;
+    }
+  }
+
+  private static class ChunkTask extends FutureTask<Void> implements Comparable<ChunkTask> {
+    private final Queue queue;
+    private final int chunkIndex;
+
+    ChunkTask(Queue queue, int chunkIndex, Callable<Void> callable) {
+      super(callable);
+      this.queue = queue;
+      this.chunkIndex = chunkIndex;
+    }
+
+    @Override
+    public int compareTo(ChunkTask other) {
+      return Integer.compare(chunkIndex, other.chunkIndex);
+    }
+  }
+
+  /**
+   * Pick the next task: the first queue in round robin order whose consumer waits for its head
+   * chunk, otherwise the first queue with any pending task. The served queue moves to the end.
+   */
+  private ChunkTask takeTask() throws InterruptedException {
+    lock.lock();
+    try {
+      while (readyQueues.isEmpty()) {
+        taskAvailable.await();
+      }
+      Queue selected = null;
+      for (Queue queue : readyQueues) {
+        if (queue.hasUrgentTask()) {
+          selected = queue;
+          break;
+        }
+      }
+      if (selected == null) {
+        Iterator<Queue> iterator = readyQueues.iterator();
+        selected = iterator.next();
+      }
+      readyQueues.remove(selected);
+      ChunkTask task = selected.tasks.poll();
+      if (!selected.tasks.isEmpty()) {
+        readyQueues.add(selected);
+      }
+      queuedTasks--;
+      runningTasks++;
+      selected.runningTasks++;
+      return task;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void runWorker() {
+    while (true) {
+      ChunkTask task;
+      try {
+        task = takeTask();
+      } catch (InterruptedException ex) {
+        // workers live as long as the driver, ignore stray interrupts
+        continue;
+      }
+      currentQueue.set(task.queue);
+      try {
+        task.run();
+      } finally {
+        currentQueue.remove();
+        // clear the interrupt left by a cancelled download
+        Thread.interrupted();
+        lock.lock();
+        try {
+          runningTasks--;
+          completedTasks++;
+          if (--task.queue.runningTasks == 0) {
+            queueIdle.signalAll();
+          }
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * @return number of worker threads
+   */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  /**
+   * @return number of result sets which currently use the scheduler
+   */
+  public int getRegisteredQueues() {
+    lock.lock();
+    try {
+      return registeredQueues;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of chunk downloads waiting for a worker thread across all result sets
+   */
+  public int getQueuedTasks() {
+    lock.lock();
+    try {
+      return queuedTasks;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of chunk downloads currently running
+   */
+  public int getRunningTasks() {
+    lock.lock();
+    try {
+      return runningTasks;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of chunk downloads which have finished, failed or been cancelled while running
+   */
+  public long getCompletedTasks() {
+    lock.lock();
+    try {
+      return completedTasks;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -23,4 +23,46 @@ public interface ChunkDownloader {
    * @return metrics measuring downloader performance
    */
   DownloaderMetrics terminate() throws InterruptedException;
+
+  /**
+   * Limit the prefetch to the chunks which hold the given number of rows, counted from the next
+   * chunk to consume. By default the prefetch is only limited by the prefetch slots and the memory
+   * limit.
+   *
+   * @param rows number of rows the consumer is going to read
+   */
+  default void setPrefetchRowDemand(long rows) {}
+
+  /**
+   * Check if {@link #getNextChunkToConsume()} would return without waiting for a download in
+   * progress, and start the prefetch of the chunks allowed. This never blocks: if there is no
+   * memory for the next chunk yet, it is submitted by a later call, and the chunk completion
+   * listener is notified when memory is released.
+   *
+   * @return false if the next chunk is still being downloaded or waits for memory
+   * @throws SnowflakeSQLException if the prefetch fails
+   */
+  default boolean isNextChunkReady() throws SnowflakeSQLException {
+    return true;
+  }
+
+  /**
+   * Set the listener called whenever the download of a chunk completes or fails, or memory the next
+   * chunk waits for is released. The listener runs on the download threads, or the thread which
+   * releases the memory, and must not block.
+   *
+   * @param listener the listener, null to remove it
+   */
+  default void setChunkCompletionListener(Runnable listener) {}
+
+  /**
+   * Keep the memory of the chunk last returned by {@link #getNextChunkToConsume()} reserved after
+   * the chunk has been freed, because the consumer has taken over its data. The memory of the last
+   * chunk of the result is already released when the chunk is returned.
+   *
+   * @return releases the memory, may be run from any thread and more than once
+   */
+  default Runnable holdChunkMemory() {
+    return () -> {};
+  }
 }
@@ -3,6 +3,7 @@
  */
 package net.snowflake.client.core;
 
+import java.time.ZoneId;
 import java.util.TimeZone;
 import net.snowflake.common.core.SFBinaryFormat;
 import net.snowflake.common.core.SnowflakeDateTimeFormat;
@@ -43,6 +44,16 @@ public interface DataConversionContext {
    */
   TimeZone getTimeZone();
 
+  /**
+   * @return JVM default time zone, resolved once per result set
+   */
+  ZoneId getDefaultZoneId();
+
+  /**
+   * @return session time zone, resolved once per result set
+   */
+  ZoneId getSessionZoneId();
+
   /**
    * @return whether to honor client time zone for timestamp_ntz
    */
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Decodes a stream of hex digits, as BINARY values are sent in JSON results */
+final class HexDecodingInputStream extends InputStream {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final InputStream source;
+  private final byte[] digits = new byte[BUFFER_SIZE];
+
+  HexDecodingInputStream(InputStream source) {
+    this.source = source;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int high = source.read();
+    if (high == -1) {
+      return -1;
+    }
+    return decode(high, source.read());
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    int wanted = Math.min(len, BUFFER_SIZE / 2) * 2;
+    int count = 0;
+    while (count < wanted) {
+      int n = source.read(digits, count, wanted - count);
+      if (n == -1) {
+        break;
+      }
+      count += n;
+      if (count % 2 == 0) {
+        break;
+      }
+    }
+    if (count == 0) {
+      return -1;
+    }
+    if (count % 2 != 0) {
+      throw new IOException("Odd number of hex digits in a BINARY value");
+    }
+    for (int i = 0; i < count; i += 2) {
+      b[off + i / 2] = (byte) decode(digits[i], digits[i + 1]);
+    }
+    return count / 2;
+  }
+
+  private static int decode(int high, int low) throws IOException {
+    int highValue = Character.digit(high, 16);
+    int lowValue = low == -1 ? -1 : Character.digit(low, 16);
+    if (highValue == -1 || lowValue == -1) {
+      throw new IOException("Invalid hex digits in a BINARY value");
+    }
+    return highValue << 4 | lowValue;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return source.available() / 2;
+  }
+
+  @Override
+  public void close() throws IOException {
+    source.close();
+  }
+}
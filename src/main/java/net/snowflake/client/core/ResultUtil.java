@@ -10,15 +10,22 @@ import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
 import net.snowflake.client.jdbc.ErrorCode;
+import net.snowflake.client.jdbc.SnowflakeTimestampWithTimezone;
 import net.snowflake.client.jdbc.SnowflakeUtil;
 import net.snowflake.client.log.ArgSupplier;
 import net.snowflake.client.log.SFLogger;
@@ -335,6 +342,83 @@ public class ResultUtil {
     }
   }
 
+  /**
+   * Convert a timestamp returned by the driver to LocalDateTime. The timestamps are adjusted by
+   * {@link #adjustTimestamp(Timestamp)}, so their fields hold the proleptic Gregorian wall clock
+   * that the Arrow converters return directly. A timestamp with time zone is read in its own time
+   * zone.
+   *
+   * @param ts timestamp, may be null
+   * @return the wall clock of the timestamp, null if the timestamp is null
+   */
+  public static LocalDateTime toLocalDateTime(Timestamp ts) {
+    if (ts == null) {
+      return null;
+    }
+    if (!(ts instanceof SnowflakeTimestampWithTimezone)) {
+      return ts.toLocalDateTime();
+    }
+    Calendar cal = new GregorianCalendar(((SnowflakeTimestampWithTimezone) ts).getTimezone());
+    cal.setTimeInMillis(ts.getTime());
+    int year = cal.get(Calendar.YEAR);
+    if (cal.get(Calendar.ERA) == GregorianCalendar.BC) {
+      year = 1 - year;
+    }
+    return LocalDateTime.of(
+        year,
+        cal.get(Calendar.MONTH) + 1,
+        cal.get(Calendar.DAY_OF_MONTH),
+        cal.get(Calendar.HOUR_OF_DAY),
+        cal.get(Calendar.MINUTE),
+        cal.get(Calendar.SECOND),
+        ts.getNanos());
+  }
+
+  /**
+   * Convert a timestamp returned by the driver to OffsetDateTime, see {@link
+   * #toLocalDateTime(Timestamp)}. A timestamp with time zone keeps its offset, other timestamps get
+   * the offset of the default time zone.
+   *
+   * @param ts timestamp, may be null
+   * @return the timestamp with its offset, null if the timestamp is null
+   */
+  public static OffsetDateTime toOffsetDateTime(Timestamp ts) {
+    if (ts == null) {
+      return null;
+    }
+    ZoneId zoneId =
+        ts instanceof SnowflakeTimestampWithTimezone
+            ? ((SnowflakeTimestampWithTimezone) ts).getTimezone().toZoneId()
+            : ZoneId.systemDefault();
+    if (ts.getTime() < -12220156800000L) {
+      // the millis of an adjusted timestamp before 1582-10-05 are not the proleptic instant
+      return toLocalDateTime(ts).atZone(zoneId).toOffsetDateTime();
+    }
+    return OffsetDateTime.ofInstant(ts.toInstant(), zoneId);
+  }
+
+  /**
+   * Convert a timestamp returned by the driver to Instant, see {@link
+   * #toOffsetDateTime(Timestamp)}.
+   *
+   * @param ts timestamp, may be null
+   * @return the instant of the timestamp, null if the timestamp is null
+   */
+  public static Instant toInstant(Timestamp ts) {
+    return ts == null ? null : toOffsetDateTime(ts).toInstant();
+  }
+
+  /**
+   * Convert a date returned by the driver to LocalDate. The dates are adjusted by {@link
+   * #adjustDate(Date)}, so their fields hold the proleptic Gregorian date.
+   *
+   * @param date date, may be null
+   * @return the date, null if the date is null
+   */
+  public static LocalDate toLocalDate(Date date) {
+    return date == null ? null : date.toLocalDate();
+  }
+
   /**
    * Convert a date internal object to a Date object in specified timezone.
    *
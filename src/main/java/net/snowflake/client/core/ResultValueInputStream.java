@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream of a column value which reads from the buffers of the result set instead of a copy. The
+ * buffers may be freed or reused when the cursor moves, so like JDBC demands the stream is only
+ * valid at the row it has been created for.
+ */
+final class ResultValueInputStream extends InputStream {
+  private final SFBaseResultSet resultSet;
+  private final int row;
+  private final InputStream source;
+
+  ResultValueInputStream(SFBaseResultSet resultSet, InputStream source) {
+    this.resultSet = resultSet;
+    this.row = resultSet.row;
+    this.source = source;
+  }
+
+  private void checkCursor() throws IOException {
+    if (resultSet.isClosed() || resultSet.row != row) {
+      throw new IOException(
+          "The stream of a column value cannot be read after the cursor has moved");
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    checkCursor();
+    return source.read();
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    checkCursor();
+    return source.read(b, off, len);
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    checkCursor();
+    return source.skip(n);
+  }
+
+  @Override
+  public int available() throws IOException {
+    checkCursor();
+    return source.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    source.close();
+  }
+}
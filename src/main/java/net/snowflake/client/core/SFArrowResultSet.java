@@ -11,6 +11,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.Array;
@@ -20,13 +21,23 @@ import java.sql.SQLInput;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import net.snowflake.client.core.arrow.ArrayConverter;
 import net.snowflake.client.core.arrow.ArrowVectorConverter;
 import net.snowflake.client.core.arrow.StructConverter;
+import net.snowflake.client.core.arrow.VarBinaryToBinaryConverter;
 import net.snowflake.client.core.arrow.VarCharConverter;
 import net.snowflake.client.core.arrow.VectorTypeConverter;
 import net.snowflake.client.core.json.Converters;
@@ -34,6 +45,9 @@ import net.snowflake.client.jdbc.ArrowResultChunk;
 import net.snowflake.client.jdbc.ArrowResultChunk.ArrowChunkIterator;
 import net.snowflake.client.jdbc.ErrorCode;
 import net.snowflake.client.jdbc.FieldMetadata;
+import net.snowflake.client.jdbc.SnowflakeArrowBatches;
+import net.snowflake.client.jdbc.SnowflakeColumnAccessor;
+import net.snowflake.client.jdbc.SnowflakeLoggedFeatureNotSupportedException;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializableV1;
 import net.snowflake.client.jdbc.SnowflakeSQLException;
 import net.snowflake.client.jdbc.SnowflakeSQLLoggedException;
@@ -49,6 +63,8 @@ import net.snowflake.common.core.SFBinaryFormat;
 import net.snowflake.common.core.SnowflakeDateTimeFormat;
 import net.snowflake.common.core.SqlState;
 import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.util.JsonStringHashMap;
 
 /** Arrow result set implementation */
@@ -106,6 +122,11 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
   /** Set to true if want to use wallclock time */
   private boolean useSessionTimezone;
 
+  /** time zones of java.time values, resolved on first use */
+  private ZoneId defaultZoneId;
+
+  private ZoneId sessionZoneId;
+
   /**
    * If customer wants getDate(int col, Calendar cal) function to format date with Calendar
    * timezone, set to true
@@ -114,6 +135,9 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
 
   @SnowflakeJdbcInternalApi protected Converters converters;
 
+  /** set if the data is read as Arrow record batches instead of rows */
+  private ArrowBatchIterator arrowBatches;
+
   /**
    * Constructor takes a result from the API response that we get from executing a SQL statement.
    *
@@ -313,6 +337,275 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     }
   }
 
+  @Override
+  public SnowflakeArrowBatches getArrowBatches() throws SQLException {
+    if (sortResult) {
+      throw new SnowflakeLoggedFeatureNotSupportedException(
+          session, "Arrow record batches are not supported for sorted results.");
+    }
+    if (row > 0 || arrowBatches != null) {
+      throw new SnowflakeSQLLoggedException(
+          queryId,
+          session,
+          ErrorCode.INTERNAL_ERROR.getMessageCode(),
+          SqlState.INTERNAL_ERROR,
+          "Arrow record batches can only be requested once, before reading any row");
+    }
+    arrowBatches = new ArrowBatchIterator();
+    return arrowBatches;
+  }
+
+  @Override
+  public SnowflakeColumnAccessor getColumnAccessor(int columnIndex) throws SQLException {
+    try {
+      return ArrowColumnAccessor.create(
+          this, columnIndex - 1, resultSetMetaData.getInternalColumnType(columnIndex));
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
+  /**
+   * @return iterator positioned on the current row, null if there is no current row
+   */
+  ArrowChunkIterator getCurrentRowIterator() {
+    return row > 0 && !isClosed() && !currentChunkIterator.isAfterLast()
+        ? currentChunkIterator
+        : null;
+  }
+
+  /** The batch of a row is the record batch it belongs to */
+  @Override
+  public int getBatchRowCount() {
+    ArrowChunkIterator iterator = getCurrentRowIterator();
+    return iterator == null ? 0 : iterator.getRowCountInCurrentRecordBatch();
+  }
+
+  @Override
+  public int getBatchRowIndex() throws SFException {
+    ArrowChunkIterator iterator = getCurrentRowIterator();
+    if (iterator == null) {
+      throw new SFException(ErrorCode.ROW_DOES_NOT_EXIST);
+    }
+    return iterator.getCurrentPositionInRecordBatch();
+  }
+
+  @Override
+  public int skipToEndOfBatch() {
+    ArrowChunkIterator iterator = getCurrentRowIterator();
+    if (iterator == null) {
+      return 0;
+    }
+    int skipped = iterator.skipToLastRowInRecordBatch();
+    row += skipped;
+    return skipped;
+  }
+
+  @Override
+  public boolean isNextRowReady() throws SnowflakeSQLException {
+    if (currentChunkIterator.hasNextInChunk()
+        || nextChunkIndex >= chunkCount
+        || chunkDownloader == null) {
+      return true;
+    }
+    return chunkDownloader.isNextChunkReady();
+  }
+
+  @Override
+  public void setPrefetchRowDemand(long rows) {
+    if (chunkDownloader != null) {
+      chunkDownloader.setPrefetchRowDemand(rows);
+    }
+  }
+
+  @Override
+  public void setChunkCompletionListener(Runnable listener) {
+    if (chunkDownloader != null) {
+      chunkDownloader.setChunkCompletionListener(listener);
+    }
+  }
+
+  @Override
+  public void stopChunkDownloads() throws SnowflakeSQLException {
+    try {
+      if (chunkDownloader != null) {
+        logChunkDownloaderMetrics(chunkDownloader.terminate());
+      }
+    } catch (InterruptedException ex) {
+      throw new SnowflakeSQLLoggedException(
+          queryId, session, ErrorCode.INTERRUPTED.getMessageCode(), SqlState.QUERY_CANCELED);
+    }
+  }
+
+  @Override
+  public int getLongs(int columnIndex, int fromRow, int rowCount, long[] values, long[] nulls)
+      throws SFException {
+    int count = checkBatchRange(fromRow, rowCount, values.length, nulls);
+    ArrowColumnCopier.copyLongs(
+        currentChunkIterator,
+        currentChunkIterator.getCurrentConverter(columnIndex - 1),
+        currentChunkIterator.getCurrentVector(columnIndex - 1),
+        fromRow,
+        count,
+        values,
+        nulls);
+    return count;
+  }
+
+  @Override
+  public int getInts(int columnIndex, int fromRow, int rowCount, int[] values, long[] nulls)
+      throws SFException {
+    int count = checkBatchRange(fromRow, rowCount, values.length, nulls);
+    ArrowColumnCopier.copyInts(
+        currentChunkIterator,
+        currentChunkIterator.getCurrentConverter(columnIndex - 1),
+        currentChunkIterator.getCurrentVector(columnIndex - 1),
+        fromRow,
+        count,
+        values,
+        nulls);
+    return count;
+  }
+
+  @Override
+  public int getDoubles(int columnIndex, int fromRow, int rowCount, double[] values, long[] nulls)
+      throws SFException {
+    int count = checkBatchRange(fromRow, rowCount, values.length, nulls);
+    ArrowColumnCopier.copyDoubles(
+        currentChunkIterator,
+        currentChunkIterator.getCurrentConverter(columnIndex - 1),
+        currentChunkIterator.getCurrentVector(columnIndex - 1),
+        fromRow,
+        count,
+        values,
+        nulls);
+    return count;
+  }
+
+  /**
+   * Hands out the record batches of the first chunk and of each downloaded chunk in turn. The
+   * memory reserved for a downloaded chunk is released once all its batches have been closed.
+   */
+  private class ArrowBatchIterator implements SnowflakeArrowBatches {
+    private final Deque<VectorSchemaRoot> pendingBatches = new ArrayDeque<>();
+    private boolean firstChunkTaken = false;
+    private boolean closed = false;
+
+    // chunks whose batches have been taken and are not all closed yet
+    private final AtomicInteger chunksInUse = new AtomicInteger();
+    private volatile boolean resultSetClosed = false;
+
+    @Override
+    public boolean hasNext() throws SQLException {
+      while (pendingBatches.isEmpty()) {
+        if (closed || isClosed() || !loadNextChunk()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public VectorSchemaRoot next() throws SQLException {
+      if (!hasNext()) {
+        throw new NoSuchElementException("No more Arrow record batches");
+      }
+      return pendingBatches.poll();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      pendingBatches.forEach(VectorSchemaRoot::close);
+      pendingBatches.clear();
+    }
+
+    /**
+     * Called once the result set has been closed. Its allocator could not be closed if batches are
+     * still in use, it is closed with the last of them then.
+     */
+    void resultSetClosed() {
+      resultSetClosed = true;
+      if (chunksInUse.get() == 0) {
+        closeRootAllocator(rootAllocator);
+      } else {
+        logger.debug(
+            "Arrow record batches of {} chunks are still in use after closing the result set",
+            chunksInUse.get());
+      }
+    }
+
+    /**
+     * @param chunk chunk whose batches are handed out
+     * @param releaseMemory releases the memory reserved for the chunk
+     */
+    private void takeRecordBatches(ArrowResultChunk chunk, Runnable releaseMemory) {
+      chunksInUse.incrementAndGet();
+      pendingBatches.addAll(
+          chunk.takeRecordBatches(
+              () -> {
+                releaseMemory.run();
+                if (chunksInUse.decrementAndGet() == 0 && resultSetClosed) {
+                  closeRootAllocator(rootAllocator);
+                }
+              }));
+    }
+
+    /**
+     * Take the record batches of the next chunk
+     *
+     * @return false if there are no more chunks
+     */
+    private boolean loadNextChunk() throws SQLException {
+      if (!firstChunkTaken) {
+        firstChunkTaken = true;
+        // the first chunk is part of the query response, no memory is reserved for it
+        takeRecordBatches(currentChunkIterator.getChunk(), () -> {});
+        return true;
+      }
+      try {
+        if (nextChunkIndex >= chunkCount) {
+          if (chunkCount > 0 && nextChunkIndex == chunkCount) {
+            logger.debug("End of chunks", false);
+            DownloaderMetrics metrics = chunkDownloader.terminate();
+            logChunkDownloaderMetrics(metrics);
+            // terminate the downloader only once
+            nextChunkIndex++;
+          }
+          return false;
+        }
+
+        eventHandler.triggerStateTransition(
+            BasicEvent.QueryState.CONSUMING_RESULT,
+            String.format(
+                BasicEvent.QueryState.CONSUMING_RESULT.getArgString(), queryId, nextChunkIndex));
+
+        ArrowResultChunk nextChunk = (ArrowResultChunk) chunkDownloader.getNextChunkToConsume();
+        if (nextChunk == null) {
+          throw new SnowflakeSQLLoggedException(
+              queryId,
+              session,
+              ErrorCode.INTERNAL_ERROR.getMessageCode(),
+              SqlState.INTERNAL_ERROR,
+              "Expect chunk but got null for chunk index " + nextChunkIndex);
+        }
+        // the memory of the chunk stays reserved while its batches are in use
+        Runnable releaseMemory = chunkDownloader.holdChunkMemory();
+        currentChunkIterator.getChunk().freeData();
+        takeRecordBatches(nextChunk, releaseMemory);
+        currentChunkIterator = nextChunk.getIterator(SFArrowResultSet.this);
+        logger.debug(
+            "Moving to chunk index: {}, row count: {}", nextChunkIndex, nextChunk.getRowCount());
+        nextChunkIndex++;
+        return true;
+      } catch (InterruptedException ex) {
+        throw new SnowflakeSQLLoggedException(
+            queryId, session, ErrorCode.INTERRUPTED.getMessageCode(), SqlState.QUERY_CANCELED);
+      }
+    }
+  }
+
   /**
    * Decode rowset returned in query response the load data into arrow vectors
    *
@@ -431,6 +724,14 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     if (isClosed()) {
       return false;
     }
+    if (arrowBatches != null) {
+      throw new SnowflakeSQLLoggedException(
+          queryId,
+          session,
+          ErrorCode.INTERNAL_ERROR.getMessageCode(),
+          SqlState.INTERNAL_ERROR,
+          "Rows cannot be read after the result has been requested as Arrow record batches");
+    }
 
     // otherwise try to fetch again
     if (fetchNextRow()) {
@@ -531,6 +832,44 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     return converter.toBytes(index);
   }
 
+  @Override
+  public InputStream getBinaryStream(int columnIndex) throws SFException {
+    ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
+    if (converter instanceof VarBinaryToBinaryConverter || converter instanceof VarCharConverter) {
+      return getVectorBufferStream(columnIndex, converter);
+    }
+    return super.getBinaryStream(columnIndex);
+  }
+
+  @Override
+  public InputStream getUtf8Stream(int columnIndex) throws SFException {
+    ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
+    if (converter instanceof VarCharConverter) {
+      return getVectorBufferStream(columnIndex, converter);
+    }
+    return super.getUtf8Stream(columnIndex);
+  }
+
+  /**
+   * @return stream over the bytes of the current value in the data buffer of a variable width
+   *     vector
+   */
+  private InputStream getVectorBufferStream(int columnIndex, ArrowVectorConverter converter)
+      throws SFException {
+    int index = currentChunkIterator.getCurrentRowInRecordBatch();
+    wasNull = converter.isNull(index);
+    if (wasNull) {
+      return null;
+    }
+    BaseVariableWidthVector vector =
+        (BaseVariableWidthVector) currentChunkIterator.getCurrentVector(columnIndex - 1);
+    long start = vector.getStartOffset(index);
+    return new ResultValueInputStream(
+        this,
+        new ArrowBufInputStream(
+            vector.getDataBuffer(), start, start + vector.getValueLength(index)));
+  }
+
   @Override
   public Date getDate(int columnIndex, TimeZone tz) throws SFException {
     ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
@@ -561,6 +900,58 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     return converter.toTimestamp(index, tz);
   }
 
+  @Override
+  public LocalDateTime getLocalDateTime(int columnIndex) throws SFException {
+    ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
+    int index = currentChunkIterator.getCurrentRowInRecordBatch();
+    converter.setTreatNTZAsUTC(treatNTZAsUTC);
+    converter.setUseSessionTimezone(useSessionTimezone);
+    converter.setSessionTimeZone(sessionTimeZone);
+    wasNull = converter.isNull(index);
+    return converter.toLocalDateTime(index);
+  }
+
+  @Override
+  public OffsetDateTime getOffsetDateTime(int columnIndex) throws SFException {
+    ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
+    int index = currentChunkIterator.getCurrentRowInRecordBatch();
+    converter.setTreatNTZAsUTC(treatNTZAsUTC);
+    converter.setUseSessionTimezone(useSessionTimezone);
+    converter.setSessionTimeZone(sessionTimeZone);
+    wasNull = converter.isNull(index);
+    return converter.toOffsetDateTime(index);
+  }
+
+  @Override
+  public Instant getInstant(int columnIndex) throws SFException {
+    ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
+    int index = currentChunkIterator.getCurrentRowInRecordBatch();
+    converter.setTreatNTZAsUTC(treatNTZAsUTC);
+    converter.setUseSessionTimezone(useSessionTimezone);
+    converter.setSessionTimeZone(sessionTimeZone);
+    wasNull = converter.isNull(index);
+    return converter.toInstant(index);
+  }
+
+  @Override
+  public LocalDate getLocalDate(int columnIndex) throws SFException {
+    ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
+    int index = currentChunkIterator.getCurrentRowInRecordBatch();
+    converter.setTreatNTZAsUTC(treatNTZAsUTC);
+    converter.setUseSessionTimezone(useSessionTimezone);
+    converter.setSessionTimeZone(sessionTimeZone);
+    wasNull = converter.isNull(index);
+    return converter.toLocalDate(index);
+  }
+
+  @Override
+  public long getUnscaledLong(int columnIndex) throws SFException {
+    ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
+    int index = currentChunkIterator.getCurrentRowInRecordBatch();
+    wasNull = converter.isNull(index);
+    return converter.toUnscaledLong(index);
+  }
+
   @Override
   public Object getObject(int columnIndex) throws SFException {
     int type = resultSetMetaData.getColumnType(columnIndex);
@@ -777,6 +1168,11 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
   public void close() throws SnowflakeSQLException {
     super.close();
 
+    // release the record batches which have not been handed out
+    if (arrowBatches != null) {
+      arrowBatches.close();
+    }
+
     // always make sure to free this current chunk
     currentChunkIterator.getChunk().freeData();
 
@@ -791,6 +1187,10 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     } catch (InterruptedException ex) {
       throw new SnowflakeSQLLoggedException(
           queryId, session, ErrorCode.INTERRUPTED.getMessageCode(), SqlState.QUERY_CANCELED);
+    } finally {
+      if (arrowBatches != null) {
+        arrowBatches.resultSetClosed();
+      }
     }
   }
 
@@ -895,6 +1295,22 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     return sessionTimeZone;
   }
 
+  @Override
+  public ZoneId getDefaultZoneId() {
+    if (defaultZoneId == null) {
+      defaultZoneId = ZoneId.systemDefault();
+    }
+    return defaultZoneId;
+  }
+
+  @Override
+  public ZoneId getSessionZoneId() {
+    if (sessionZoneId == null) {
+      sessionZoneId = sessionTimeZone != null ? sessionTimeZone.toZoneId() : getDefaultZoneId();
+    }
+    return sessionZoneId;
+  }
+
   @Override
   public boolean getHonorClientTZForTimestampNTZ() {
     return honorClientTZForTimestampNTZ;
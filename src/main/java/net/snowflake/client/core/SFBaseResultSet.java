@@ -10,7 +10,10 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Array;
 import java.sql.Date;
 import java.sql.SQLException;
@@ -18,7 +21,12 @@ import java.sql.SQLInput;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -32,6 +40,9 @@ import java.util.stream.StreamSupport;
 import net.snowflake.client.core.json.Converters;
 import net.snowflake.client.jdbc.ErrorCode;
 import net.snowflake.client.jdbc.FieldMetadata;
+import net.snowflake.client.jdbc.SnowflakeArrowBatches;
+import net.snowflake.client.jdbc.SnowflakeColumnAccessor;
+import net.snowflake.client.jdbc.SnowflakeLoggedFeatureNotSupportedException;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializable;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializableV1;
 import net.snowflake.client.jdbc.SnowflakeSQLException;
@@ -113,6 +124,295 @@ public abstract class SFBaseResultSet {
 
   public abstract Object getObject(int columnIndex) throws SFException;
 
+  /**
+   * Get the value of a column as LocalDateTime. This converts the value of {@link
+   * #getTimestamp(int, TimeZone)} by {@link ResultUtil#toLocalDateTime(Timestamp)}, result sets
+   * which can skip the Timestamp override it.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return the value, null if the value is SQL NULL
+   * @throws SFException if the value cannot be converted
+   */
+  public LocalDateTime getLocalDateTime(int columnIndex) throws SFException {
+    return ResultUtil.toLocalDateTime(getTimestamp(columnIndex, TimeZone.getDefault()));
+  }
+
+  /**
+   * Get the value of a column as OffsetDateTime, see {@link #getLocalDateTime(int)}.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return the value, null if the value is SQL NULL
+   * @throws SFException if the value cannot be converted
+   */
+  public OffsetDateTime getOffsetDateTime(int columnIndex) throws SFException {
+    return ResultUtil.toOffsetDateTime(getTimestamp(columnIndex, TimeZone.getDefault()));
+  }
+
+  /**
+   * Get the value of a column as Instant, see {@link #getLocalDateTime(int)}.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return the value, null if the value is SQL NULL
+   * @throws SFException if the value cannot be converted
+   */
+  public Instant getInstant(int columnIndex) throws SFException {
+    return ResultUtil.toInstant(getTimestamp(columnIndex, TimeZone.getDefault()));
+  }
+
+  /**
+   * Get the value of a column as LocalDate. This converts the value of {@link #getDate(int,
+   * TimeZone)}, result sets which can skip the Date override it.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return the value, null if the value is SQL NULL
+   * @throws SFException if the value cannot be converted
+   */
+  public LocalDate getLocalDate(int columnIndex) throws SFException {
+    return ResultUtil.toLocalDate(getDate(columnIndex, TimeZone.getDefault()));
+  }
+
+  /**
+   * Get the value of a column as a stream of the bytes of {@link #getBytes(int)}. This wraps a copy
+   * of the value, result sets which can read it from their buffers override it. The stream is only
+   * valid until the cursor moves.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return the stream, null if the value is SQL NULL
+   * @throws SFException if the value cannot be converted
+   */
+  public InputStream getBinaryStream(int columnIndex) throws SFException {
+    byte[] bytes = getBytes(columnIndex);
+    return bytes == null ? null : new ByteArrayInputStream(bytes);
+  }
+
+  /**
+   * Get the value of a column as a stream of the UTF-8 encoded text of {@link #getString(int)}, see
+   * {@link #getBinaryStream(int)}.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return the stream, null if the value is SQL NULL
+   * @throws SFException if the value cannot be converted
+   */
+  public InputStream getUtf8Stream(int columnIndex) throws SFException {
+    String str = getString(columnIndex);
+    return str == null ? null : new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Get the unscaled value of a fixed-point column, the number is the unscaled value divided by ten
+   * to the power of {@link #getScale(int)}. This converts the value of {@link #getBigDecimal(int)},
+   * result sets which can skip the BigDecimal override it.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return the unscaled value, 0 if the value is SQL NULL
+   * @throws SFException if the value is not a number of the scale of the column or does not fit in
+   *     a long
+   */
+  public long getUnscaledLong(int columnIndex) throws SFException {
+    BigDecimal value = getBigDecimal(columnIndex);
+    if (value == null) {
+      return 0;
+    }
+    try {
+      return value.setScale(getScale(columnIndex)).unscaledValue().longValueExact();
+    } catch (ArithmeticException ex) {
+      throw new SFException(
+          ErrorCode.INVALID_VALUE_CONVERT,
+          resultSetMetaData.getColumnTypeName(columnIndex),
+          "unscaled long",
+          value.toPlainString());
+    }
+  }
+
+  /**
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return scale of the column
+   */
+  public int getScale(int columnIndex) {
+    return resultSetMetaData.getScale(columnIndex);
+  }
+
+  /**
+   * Get the number of rows of the batch of the current row, the block of rows the result set holds
+   * in memory at once. The result sets which buffer rows override the batch methods, by default a
+   * batch is the current row alone.
+   *
+   * @return number of rows of the current batch, 0 if there is no current row
+   */
+  public int getBatchRowCount() {
+    return isBeforeFirst() || isAfterLast() ? 0 : 1;
+  }
+
+  /**
+   * @return 0-based index of the current row in its batch
+   * @throws SFException if there is no current row
+   */
+  public int getBatchRowIndex() throws SFException {
+    if (getBatchRowCount() == 0) {
+      throw new SFException(ErrorCode.ROW_DOES_NOT_EXIST);
+    }
+    return 0;
+  }
+
+  /**
+   * Move to a row of the current batch for {@link #getLongs(int, int, int, long[], long[])} and the
+   * like, which read the rows through the getters. The row counter does not change.
+   *
+   * @param batchRowIndex 0-based index of the row in the batch
+   */
+  void moveInBatch(int batchRowIndex) {}
+
+  /**
+   * Move to the last row of the current batch.
+   *
+   * @return number of rows skipped
+   */
+  public int skipToEndOfBatch() {
+    return 0;
+  }
+
+  /**
+   * Copy the values of {@link #getLong(int)} for a range of rows of the current batch. This reads
+   * every row through the getter, result sets which can copy from their buffers override it.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @param fromRow 0-based index of the first row in the batch
+   * @param rowCount maximum number of rows to copy
+   * @param values receives the values, 0 for SQL NULL
+   * @param nulls receives a set bit for each SQL NULL, may be null
+   * @return number of rows copied
+   * @throws SFException if there is no current row, the range is invalid or a value cannot be
+   *     converted
+   */
+  public int getLongs(int columnIndex, int fromRow, int rowCount, long[] values, long[] nulls)
+      throws SFException {
+    int count = checkBatchRange(fromRow, rowCount, values.length, nulls);
+    int currentRow = getBatchRowIndex();
+    boolean currentWasNull = wasNull;
+    try {
+      for (int i = 0; i < count; i++) {
+        moveInBatch(fromRow + i);
+        values[i] = getLong(columnIndex);
+        if (wasNull) {
+          setBatchNull(nulls, i);
+        }
+      }
+    } finally {
+      moveInBatch(currentRow);
+      wasNull = currentWasNull;
+    }
+    return count;
+  }
+
+  /**
+   * Copy the values of {@link #getInt(int)} for a range of rows of the current batch, see {@link
+   * #getLongs(int, int, int, long[], long[])}.
+   */
+  public int getInts(int columnIndex, int fromRow, int rowCount, int[] values, long[] nulls)
+      throws SFException {
+    int count = checkBatchRange(fromRow, rowCount, values.length, nulls);
+    int currentRow = getBatchRowIndex();
+    boolean currentWasNull = wasNull;
+    try {
+      for (int i = 0; i < count; i++) {
+        moveInBatch(fromRow + i);
+        values[i] = getInt(columnIndex);
+        if (wasNull) {
+          setBatchNull(nulls, i);
+        }
+      }
+    } finally {
+      moveInBatch(currentRow);
+      wasNull = currentWasNull;
+    }
+    return count;
+  }
+
+  /**
+   * Copy the values of {@link #getDouble(int)} for a range of rows of the current batch, see {@link
+   * #getLongs(int, int, int, long[], long[])}.
+   */
+  public int getDoubles(int columnIndex, int fromRow, int rowCount, double[] values, long[] nulls)
+      throws SFException {
+    int count = checkBatchRange(fromRow, rowCount, values.length, nulls);
+    int currentRow = getBatchRowIndex();
+    boolean currentWasNull = wasNull;
+    try {
+      for (int i = 0; i < count; i++) {
+        moveInBatch(fromRow + i);
+        values[i] = getDouble(columnIndex);
+        if (wasNull) {
+          setBatchNull(nulls, i);
+        }
+      }
+    } finally {
+      moveInBatch(currentRow);
+      wasNull = currentWasNull;
+    }
+    return count;
+  }
+
+  /**
+   * Check a range of rows of the current batch to copy, and clear the null bitmap for it.
+   *
+   * @return number of rows to copy
+   */
+  final int checkBatchRange(int fromRow, int rowCount, int valuesLength, long[] nulls)
+      throws SFException {
+    int batchRowCount = getBatchRowCount();
+    if (batchRowCount == 0) {
+      throw new SFException(ErrorCode.ROW_DOES_NOT_EXIST);
+    }
+    if (fromRow < 0 || fromRow > batchRowCount) {
+      throw new SFException(ErrorCode.INVALID_PARAMETER_VALUE, fromRow, "fromRow");
+    }
+    if (rowCount < 0 || rowCount > valuesLength) {
+      throw new SFException(ErrorCode.INVALID_PARAMETER_VALUE, rowCount, "rowCount");
+    }
+    int count = Math.min(rowCount, batchRowCount - fromRow);
+    int nullWords = (count + 63) >>> 6;
+    if (nulls != null) {
+      if (nulls.length < nullWords) {
+        throw new SFException(ErrorCode.INVALID_PARAMETER_VALUE, nulls.length, "nulls length");
+      }
+      Arrays.fill(nulls, 0, nullWords, 0L);
+    }
+    return count;
+  }
+
+  /** Flag the i-th copied row as SQL NULL in a null bitmap, which may be null */
+  static void setBatchNull(long[] nulls, int i) {
+    if (nulls != null) {
+      nulls[i >>> 6] |= 1L << i;
+    }
+  }
+
+  /**
+   * Check if {@link #next()} would return without waiting for the download of a result chunk. The
+   * result sets which download chunks override it, by default the rows are always ready.
+   *
+   * @return false if the next row is in a chunk which is still being downloaded
+   * @throws SnowflakeSQLException if the prefetch of the chunks fails
+   */
+  public boolean isNextRowReady() throws SnowflakeSQLException {
+    return true;
+  }
+
+  /**
+   * Limit the chunk prefetch to the chunks which hold the next rows the consumer is going to read.
+   *
+   * @param rows number of rows the consumer is going to read, counted from the next chunk
+   */
+  public void setPrefetchRowDemand(long rows) {}
+
+  /**
+   * Set the listener called whenever the download of a result chunk completes or fails, from the
+   * download threads.
+   *
+   * @param listener the listener, null to remove it
+   */
+  public void setChunkCompletionListener(Runnable listener) {}
+
   public Array getArray(int columnIndex) throws SFException {
     throw new UnsupportedOperationException();
   }
@@ -222,6 +522,53 @@ public abstract class SFBaseResultSet {
     return this.resultSetSerializable.splitBySize(maxSizeInBytes);
   }
 
+  /**
+   * Split the result into one serializable per result chunk, for readers which read the chunks
+   * independently of this result set.
+   *
+   * @return one serializable per chunk, null if the result has no chunks to download
+   * @throws SQLException if fails to split objects.
+   */
+  public List<SnowflakeResultSetSerializable> getChunkSerializables() throws SQLException {
+    if (resultSetSerializable == null || resultSetSerializable.getChunkFileCount() == 0) {
+      return null;
+    }
+    // every chunk exceeds the size of a single byte, so each piece holds one chunk
+    return resultSetSerializable.splitBySize(1);
+  }
+
+  /**
+   * Stop downloading the result chunks and drop the chunks which have been prefetched, when the
+   * rows are read through the serializables of {@link #getChunkSerializables()} instead. The rows
+   * of the chunks cannot be read from this result set afterwards.
+   *
+   * @throws SnowflakeSQLException if the downloader has been interrupted
+   */
+  public void stopChunkDownloads() throws SnowflakeSQLException {}
+
+  /**
+   * Get the data of this result set as Arrow record batches.
+   *
+   * @return iterator over the record batches
+   * @throws SQLException if the result is not in ARROW format
+   */
+  public SnowflakeArrowBatches getArrowBatches() throws SQLException {
+    throw new SnowflakeLoggedFeatureNotSupportedException(
+        session, "Arrow record batches are only available for results in ARROW format.");
+  }
+
+  /**
+   * Get an accessor which reads a column of this result set at the current row.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return accessor of the column
+   * @throws SQLException if the result is not in ARROW format or the column does not exist
+   */
+  public SnowflakeColumnAccessor getColumnAccessor(int columnIndex) throws SQLException {
+    throw new SnowflakeLoggedFeatureNotSupportedException(
+        session, "Column accessors are only available for results in ARROW format.");
+  }
+
   @SnowflakeJdbcInternalApi
   public Converters getConverters() {
     logger.debug("Json converters weren't created");
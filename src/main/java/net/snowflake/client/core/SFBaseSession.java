@@ -146,6 +146,43 @@ public abstract class SFBaseSession {
 
   private boolean isJdbcArrowTreatDecimalAsInt = true;
 
+  // Size the result chunk prefetch window dynamically instead of using CLIENT_PREFETCH_THREADS * 2
+  private boolean enableAdaptivePrefetch = false;
+
+  // Download result chunks on the driver-wide ChunkDownloadScheduler
+  private boolean useSharedChunkDownloadScheduler = false;
+
+  // Download result chunks on virtual threads if the runtime supports them
+  private boolean useVirtualThreadsForChunkDownload = false;
+
+  // Hedge result chunk downloads which are much slower than the recent ones
+  private boolean enableChunkDownloadHedging = false;
+
+  // Return result chunks in download completion order, for readers which do not need row order
+  private boolean enableUnorderedChunkConsumption = false;
+
+  // Store numeric, boolean and date cells of JSON result chunks as primitives instead of text
+  private boolean enableTypedJsonResultColumns = false;
+
+  // Spill prefetched result chunks to local files instead of stopping the prefetch at the memory
+  // limit
+  private boolean enableResultChunkSpill = false;
+
+  // Directory of the spilled result chunk files, null for the default temporary directory
+  private String resultChunkSpillDirectory;
+
+  // Run network read, inflate and parsing of a result chunk as pipelined stages
+  private boolean enablePipelinedChunkDecoding = false;
+
+  // Cache the Strings of repeated values of VARCHAR columns in Arrow results
+  private boolean enableArrowStringCache = false;
+
+  // Status requests per second the polls of the pending async queries are spread to
+  private int asyncQueryStatusPollsPerSecond = 100;
+
+  // Status requests of the pending async queries which may run at the same time
+  private int asyncQueryStatusRequestsInFlight = 10;
+
   protected SFBaseSession(SFConnectionHandler sfConnectionHandler) {
     this.sfConnectionHandler = sfConnectionHandler;
   }
@@ -805,6 +842,102 @@ public abstract class SFBaseSession {
     this.disableGcsDefaultCredentials = disableGcsDefaultCredentials;
   }
 
+  public boolean isAdaptivePrefetchEnabled() {
+    return enableAdaptivePrefetch;
+  }
+
+  public void setEnableAdaptivePrefetch(boolean enableAdaptivePrefetch) {
+    this.enableAdaptivePrefetch = enableAdaptivePrefetch;
+  }
+
+  public boolean isSharedChunkDownloadSchedulerEnabled() {
+    return useSharedChunkDownloadScheduler;
+  }
+
+  public void setUseSharedChunkDownloadScheduler(boolean useSharedChunkDownloadScheduler) {
+    this.useSharedChunkDownloadScheduler = useSharedChunkDownloadScheduler;
+  }
+
+  public boolean isVirtualThreadsForChunkDownloadEnabled() {
+    return useVirtualThreadsForChunkDownload;
+  }
+
+  public void setUseVirtualThreadsForChunkDownload(boolean useVirtualThreadsForChunkDownload) {
+    this.useVirtualThreadsForChunkDownload = useVirtualThreadsForChunkDownload;
+  }
+
+  public boolean isChunkDownloadHedgingEnabled() {
+    return enableChunkDownloadHedging;
+  }
+
+  public void setEnableChunkDownloadHedging(boolean enableChunkDownloadHedging) {
+    this.enableChunkDownloadHedging = enableChunkDownloadHedging;
+  }
+
+  public boolean isUnorderedChunkConsumptionEnabled() {
+    return enableUnorderedChunkConsumption;
+  }
+
+  public void setEnableUnorderedChunkConsumption(boolean enableUnorderedChunkConsumption) {
+    this.enableUnorderedChunkConsumption = enableUnorderedChunkConsumption;
+  }
+
+  public boolean isTypedJsonResultColumnsEnabled() {
+    return enableTypedJsonResultColumns;
+  }
+
+  public void setEnableTypedJsonResultColumns(boolean enableTypedJsonResultColumns) {
+    this.enableTypedJsonResultColumns = enableTypedJsonResultColumns;
+  }
+
+  public boolean isResultChunkSpillEnabled() {
+    return enableResultChunkSpill;
+  }
+
+  public void setEnableResultChunkSpill(boolean enableResultChunkSpill) {
+    this.enableResultChunkSpill = enableResultChunkSpill;
+  }
+
+  public String getResultChunkSpillDirectory() {
+    return resultChunkSpillDirectory;
+  }
+
+  public void setResultChunkSpillDirectory(String resultChunkSpillDirectory) {
+    this.resultChunkSpillDirectory = resultChunkSpillDirectory;
+  }
+
+  public boolean isPipelinedChunkDecodingEnabled() {
+    return enablePipelinedChunkDecoding;
+  }
+
+  public void setEnablePipelinedChunkDecoding(boolean enablePipelinedChunkDecoding) {
+    this.enablePipelinedChunkDecoding = enablePipelinedChunkDecoding;
+  }
+
+  public boolean isArrowStringCacheEnabled() {
+    return enableArrowStringCache;
+  }
+
+  public void setEnableArrowStringCache(boolean enableArrowStringCache) {
+    this.enableArrowStringCache = enableArrowStringCache;
+  }
+
+  public int getAsyncQueryStatusPollsPerSecond() {
+    return asyncQueryStatusPollsPerSecond;
+  }
+
+  public void setAsyncQueryStatusPollsPerSecond(int asyncQueryStatusPollsPerSecond) {
+    this.asyncQueryStatusPollsPerSecond = asyncQueryStatusPollsPerSecond;
+  }
+
+  public int getAsyncQueryStatusRequestsInFlight() {
+    return asyncQueryStatusRequestsInFlight;
+  }
+
+  public void setAsyncQueryStatusRequestsInFlight(int asyncQueryStatusRequestsInFlight) {
+    this.asyncQueryStatusRequestsInFlight = asyncQueryStatusRequestsInFlight;
+  }
+
   public int getClientResultChunkSize() {
     return clientResultChunkSize;
   }
@@ -198,4 +198,18 @@ public abstract class SFBaseStatement {
    * @return the child query IDs for the multiple statements query.
    */
   public abstract String[] getChildQueryIds(String queryID) throws SQLException;
+
+  /**
+   * Retrieves the result of a completed query from the result the server keeps for its query ID,
+   * without running another query. This is invoked by SnowflakeStatement and should return an
+   * SFBaseResultSet, which is then wrapped in a SnowflakeResultSet.
+   *
+   * @param queryID the query ID of a completed query
+   * @return the result of the query, null if this implementation cannot retrieve results by query
+   *     ID
+   * @throws SQLException if the result cannot be retrieved
+   */
+  public SFBaseResultSet getQueryResult(String queryID) throws SQLException {
+    return null;
+  }
 }
@@ -8,7 +8,10 @@ import static net.snowflake.client.core.StmtUtil.eventHandler;
 import static net.snowflake.client.jdbc.SnowflakeUtil.systemGetProperty;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.Arrays;
 import java.util.Comparator;
 import net.snowflake.client.core.BasicEvent.QueryState;
@@ -19,6 +22,7 @@ import net.snowflake.client.jdbc.SnowflakeResultChunk;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializableV1;
 import net.snowflake.client.jdbc.SnowflakeSQLException;
 import net.snowflake.client.jdbc.SnowflakeSQLLoggedException;
+import net.snowflake.client.jdbc.SnowflakeUtil;
 import net.snowflake.client.jdbc.telemetry.Telemetry;
 import net.snowflake.client.jdbc.telemetry.TelemetryData;
 import net.snowflake.client.jdbc.telemetry.TelemetryField;
@@ -351,6 +355,156 @@ public class SFResultSet extends SFJsonResultSet {
     return retValue;
   }
 
+  /**
+   * @param columnIndex one based column
+   * @return true if the cell of the current row has been parsed into a primitive value
+   */
+  private boolean isTypedCell(int columnIndex) {
+    return !sortResult
+        && firstChunkRowset == null
+        && currentChunk != null
+        && columnIndex > 0
+        && columnIndex <= columnCount
+        && currentChunk.isTypedCell(currentChunkRowIndex, columnIndex - 1);
+  }
+
+  /**
+   * @param columnIndex one based column
+   * @return true if the cell of the current row can be read from the blocks of the chunk
+   */
+  private boolean isStreamableCell(int columnIndex) {
+    return !sortResult
+        && firstChunkRowset == null
+        && currentChunk != null
+        && columnIndex > 0
+        && columnIndex <= columnCount
+        && !currentChunk.isTypedCell(currentChunkRowIndex, columnIndex - 1);
+  }
+
+  @Override
+  public InputStream getBinaryStream(int columnIndex) throws SFException {
+    if (isStreamableCell(columnIndex)
+        && resultSetMetaData.getColumnType(columnIndex) == Types.BINARY) {
+      InputStream cell = currentChunk.getCellStream(currentChunkRowIndex, columnIndex - 1);
+      wasNull = cell == null;
+      return wasNull ? null : new ResultValueInputStream(this, new HexDecodingInputStream(cell));
+    }
+    return super.getBinaryStream(columnIndex);
+  }
+
+  @Override
+  public InputStream getUtf8Stream(int columnIndex) throws SFException {
+    if (isStreamableCell(columnIndex)
+        && (resultSetMetaData.getColumnType(columnIndex) == Types.VARCHAR
+            || resultSetMetaData.getColumnType(columnIndex) == Types.CHAR)) {
+      InputStream cell = currentChunk.getCellStream(currentChunkRowIndex, columnIndex - 1);
+      wasNull = cell == null;
+      return wasNull ? null : new ResultValueInputStream(this, cell);
+    }
+    return super.getUtf8Stream(columnIndex);
+  }
+
+  private long getTypedCell(int columnIndex) {
+    wasNull = false;
+    return currentChunk.getTypedCell(currentChunkRowIndex, columnIndex - 1);
+  }
+
+  /**
+   * @param columnIndex one based column
+   * @param typeName name of the requested type
+   * @param value typed value of the cell
+   * @return the error the conversion of the text of the cell raises for a value out of range
+   */
+  private SFException valueOutOfRange(int columnIndex, String typeName, long value)
+      throws SFException {
+    return new SFException(
+        queryId,
+        ErrorCode.INVALID_VALUE_CONVERT,
+        resultSetMetaData.getColumnType(columnIndex),
+        typeName,
+        Long.toString(value));
+  }
+
+  // The typed values are the numbers the text of the cells represents, so the conversions below
+  // return the same as parsing the text. Values which do not fit raise INVALID_VALUE_CONVERT
+  // instead of being truncated.
+
+  @Override
+  public boolean getBoolean(int columnIndex) throws SFException {
+    if (isTypedCell(columnIndex) && resultSetMetaData.getColumnType(columnIndex) == Types.BOOLEAN) {
+      return getTypedCell(columnIndex) != 0;
+    }
+    return super.getBoolean(columnIndex);
+  }
+
+  @Override
+  public byte getByte(int columnIndex) throws SFException {
+    if (isTypedCell(columnIndex)) {
+      long value = getTypedCell(columnIndex);
+      if (value != (byte) value) {
+        throw valueOutOfRange(columnIndex, SnowflakeUtil.BYTE_STR, value);
+      }
+      return (byte) value;
+    }
+    return super.getByte(columnIndex);
+  }
+
+  @Override
+  public short getShort(int columnIndex) throws SFException {
+    if (isTypedCell(columnIndex)) {
+      long value = getTypedCell(columnIndex);
+      if (value != (short) value) {
+        throw valueOutOfRange(columnIndex, SnowflakeUtil.SHORT_STR, value);
+      }
+      return (short) value;
+    }
+    return super.getShort(columnIndex);
+  }
+
+  @Override
+  public int getInt(int columnIndex) throws SFException {
+    if (isTypedCell(columnIndex)) {
+      long value = getTypedCell(columnIndex);
+      if (value != (int) value) {
+        throw valueOutOfRange(columnIndex, SnowflakeUtil.INT_STR, value);
+      }
+      return (int) value;
+    }
+    return super.getInt(columnIndex);
+  }
+
+  @Override
+  public long getLong(int columnIndex) throws SFException {
+    if (isTypedCell(columnIndex)) {
+      return getTypedCell(columnIndex);
+    }
+    return super.getLong(columnIndex);
+  }
+
+  @Override
+  public float getFloat(int columnIndex) throws SFException {
+    if (isTypedCell(columnIndex)) {
+      return getTypedCell(columnIndex);
+    }
+    return super.getFloat(columnIndex);
+  }
+
+  @Override
+  public double getDouble(int columnIndex) throws SFException {
+    if (isTypedCell(columnIndex)) {
+      return getTypedCell(columnIndex);
+    }
+    return super.getDouble(columnIndex);
+  }
+
+  @Override
+  public BigDecimal getBigDecimal(int columnIndex) throws SFException {
+    if (isTypedCell(columnIndex)) {
+      return BigDecimal.valueOf(getTypedCell(columnIndex));
+    }
+    return super.getBigDecimal(columnIndex);
+  }
+
   private void sortResultSet() {
     // first fetch rows into firstChunkSortedRowSet
     firstChunkSortedRowSet = new Object[currentChunkRowCount][];
@@ -410,6 +564,72 @@ public class SFResultSet extends SFJsonResultSet {
     return nextChunkIndex == chunkCount && currentChunkRowIndex >= currentChunkRowCount;
   }
 
+  /** The batch of a row is the result chunk it belongs to */
+  @Override
+  public int getBatchRowCount() {
+    return row > 0 && currentChunkRowIndex < currentChunkRowCount ? currentChunkRowCount : 0;
+  }
+
+  @Override
+  public int getBatchRowIndex() throws SFException {
+    if (getBatchRowCount() == 0) {
+      throw new SFException(ErrorCode.ROW_DOES_NOT_EXIST);
+    }
+    return currentChunkRowIndex;
+  }
+
+  @Override
+  void moveInBatch(int batchRowIndex) {
+    currentChunkRowIndex = batchRowIndex;
+  }
+
+  @Override
+  public int skipToEndOfBatch() {
+    if (getBatchRowCount() == 0) {
+      return 0;
+    }
+    int skipped = currentChunkRowCount - 1 - currentChunkRowIndex;
+    currentChunkRowIndex += skipped;
+    row += skipped;
+    return skipped;
+  }
+
+  @Override
+  public boolean isNextRowReady() throws SnowflakeSQLException {
+    if (currentChunkRowIndex + 1 < currentChunkRowCount
+        || nextChunkIndex >= chunkCount
+        || chunkDownloader == null) {
+      return true;
+    }
+    return chunkDownloader.isNextChunkReady();
+  }
+
+  @Override
+  public void setPrefetchRowDemand(long rows) {
+    if (chunkDownloader != null) {
+      chunkDownloader.setPrefetchRowDemand(rows);
+    }
+  }
+
+  @Override
+  public void setChunkCompletionListener(Runnable listener) {
+    if (chunkDownloader != null) {
+      chunkDownloader.setChunkCompletionListener(listener);
+    }
+  }
+
+  @Override
+  public void stopChunkDownloads() throws SnowflakeSQLException {
+    try {
+      if (chunkDownloader != null) {
+        logChunkDownloaderMetrics(chunkDownloader.terminate());
+      }
+    } catch (InterruptedException ex) {
+      throw new SnowflakeSQLLoggedException(
+          queryId, session, ErrorCode.INTERRUPTED.getMessageCode(), SqlState.QUERY_CANCELED);
+    }
+  }
+
   @Override
   public void close() throws SnowflakeSQLException {
     super.close();
@@ -537,6 +537,78 @@ public class SFSession extends SFBaseSession {
           }
           break;
 
+        case ENABLE_ADAPTIVE_PREFETCH:
+          if (propertyValue != null) {
+            setEnableAdaptivePrefetch(getBooleanValue(propertyValue));
+          }
+          break;
+
+        case USE_SHARED_CHUNK_DOWNLOAD_SCHEDULER:
+          if (propertyValue != null) {
+            setUseSharedChunkDownloadScheduler(getBooleanValue(propertyValue));
+          }
+          break;
+
+        case USE_VIRTUAL_THREADS_FOR_CHUNK_DOWNLOAD:
+          if (propertyValue != null) {
+            setUseVirtualThreadsForChunkDownload(getBooleanValue(propertyValue));
+          }
+          break;
+
+        case ENABLE_CHUNK_DOWNLOAD_HEDGING:
+          if (propertyValue != null) {
+            setEnableChunkDownloadHedging(getBooleanValue(propertyValue));
+          }
+          break;
+
+        case ENABLE_UNORDERED_CHUNK_CONSUMPTION:
+          if (propertyValue != null) {
+            setEnableUnorderedChunkConsumption(getBooleanValue(propertyValue));
+          }
+          break;
+
+        case ENABLE_TYPED_JSON_RESULT_COLUMNS:
+          if (propertyValue != null) {
+            setEnableTypedJsonResultColumns(getBooleanValue(propertyValue));
+          }
+          break;
+
+        case ENABLE_RESULT_CHUNK_SPILL:
+          if (propertyValue != null) {
+            setEnableResultChunkSpill(getBooleanValue(propertyValue));
+          }
+          break;
+
+        case RESULT_CHUNK_SPILL_DIRECTORY:
+          if (propertyValue != null) {
+            setResultChunkSpillDirectory((String) propertyValue);
+          }
+          break;
+
+        case ENABLE_PIPELINED_CHUNK_DECODING:
+          if (propertyValue != null) {
+            setEnablePipelinedChunkDecoding(getBooleanValue(propertyValue));
+          }
+          break;
+
+        case ENABLE_ARROW_STRING_CACHE:
+          if (propertyValue != null) {
+            setEnableArrowStringCache(getBooleanValue(propertyValue));
+          }
+          break;
+
+        case ASYNC_QUERY_STATUS_POLLS_PER_SECOND:
+          if (propertyValue != null) {
+            setAsyncQueryStatusPollsPerSecond((Integer) propertyValue);
+          }
+          break;
+
+        case ASYNC_QUERY_STATUS_REQUESTS_IN_FLIGHT:
+          if (propertyValue != null) {
+            setAsyncQueryStatusRequestsInFlight((Integer) propertyValue);
+          }
+          break;
+
         default:
           break;
       }
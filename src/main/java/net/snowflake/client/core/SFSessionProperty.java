@@ -112,7 +112,43 @@ public enum SFSessionProperty {
 
   HTTP_CLIENT_CONNECTION_TIMEOUT("HTTP_CLIENT_CONNECTION_TIMEOUT", false, Integer.class),
 
-  HTTP_CLIENT_SOCKET_TIMEOUT("HTTP_CLIENT_SOCKET_TIMEOUT", false, Integer.class);
+  HTTP_CLIENT_SOCKET_TIMEOUT("HTTP_CLIENT_SOCKET_TIMEOUT", false, Integer.class),
+
+  // Size the result chunk prefetch window from the observed consumer and download speed
+  ENABLE_ADAPTIVE_PREFETCH("enableAdaptivePrefetch", false, Boolean.class),
+
+  // Download result chunks on the driver-wide scheduler instead of a thread pool per result set
+  USE_SHARED_CHUNK_DOWNLOAD_SCHEDULER("useSharedChunkDownloadScheduler", false, Boolean.class),
+
+  // Download each result chunk on its own virtual thread when running on Java 21+
+  USE_VIRTUAL_THREADS_FOR_CHUNK_DOWNLOAD("useVirtualThreadsForChunkDownload", false, Boolean.class),
+
+  // Send a duplicate request for result chunks which take much longer than the recent ones
+  ENABLE_CHUNK_DOWNLOAD_HEDGING("enableChunkDownloadHedging", false, Boolean.class),
+
+  // Consume result chunks in the order their downloads complete, rows are not in result order
+  ENABLE_UNORDERED_CHUNK_CONSUMPTION("enableUnorderedChunkConsumption", false, Boolean.class),
+
+  // Parse numeric, boolean and date columns of JSON result chunks into primitive values
+  ENABLE_TYPED_JSON_RESULT_COLUMNS("enableTypedJsonResultColumns", false, Boolean.class),
+
+  // Write prefetched result chunks which exceed the memory limit to local temporary files
+  ENABLE_RESULT_CHUNK_SPILL("enableResultChunkSpill", false, Boolean.class),
+
+  // Directory of the local files of spilled result chunks, the temporary directory by default
+  RESULT_CHUNK_SPILL_DIRECTORY("resultChunkSpillDirectory", false, String.class),
+
+  // Read, inflate and parse result chunks on separate threads
+  ENABLE_PIPELINED_CHUNK_DECODING("enablePipelinedChunkDecoding", false, Boolean.class),
+
+  // Cache the Strings of repeated short values of VARCHAR columns in Arrow record batches
+  ENABLE_ARROW_STRING_CACHE("enableArrowStringCache", false, Boolean.class),
+
+  // Status requests per second the polls of the pending async queries of a session are spread to
+  ASYNC_QUERY_STATUS_POLLS_PER_SECOND("asyncQueryStatusPollsPerSecond", false, Integer.class),
+
+  // Status requests of the pending async queries of a session which may run at the same time
+  ASYNC_QUERY_STATUS_REQUESTS_IN_FLIGHT("asyncQueryStatusRequestsInFlight", false, Integer.class);
 
   // property key in string
   private String propertyKey;
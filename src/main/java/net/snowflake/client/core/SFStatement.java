@@ -683,6 +683,18 @@ public class SFStatement extends SFBaseStatement {
     }
   }
 
+  @Override
+  public SFBaseResultSet getQueryResult(String queryID) throws SQLException {
+    try {
+      JsonNode result = StmtUtil.getQueryResultJSON(queryID, session);
+      Object sortProperty = session.getSessionPropertyByKey("sort");
+      boolean sortResult = sortProperty != null && (Boolean) sortProperty;
+      return SFResultSetFactory.getResultSet(result, this, sortResult, new ExecTimeTelemetryData());
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(ex);
+    }
+  }
+
   @Override
   public SFBaseResultSet execute(
       String sql,
@@ -7,8 +7,15 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
+import net.snowflake.client.core.ResultUtil;
 import net.snowflake.client.core.SFException;
 import net.snowflake.client.jdbc.ErrorCode;
 import net.snowflake.client.jdbc.SnowflakeUtil;
@@ -144,6 +151,35 @@ abstract class AbstractArrowVectorConverter implements ArrowVectorConverter {
         ErrorCode.INVALID_VALUE_CONVERT, logicalTypeStr, SnowflakeUtil.TIMESTAMP_STR, "");
   }
 
+  // converters without a direct conversion convert the Timestamp or Date like JSON result sets
+  @Override
+  public LocalDateTime toLocalDateTime(int index) throws SFException {
+    return ResultUtil.toLocalDateTime(toTimestamp(index, TimeZone.getDefault()));
+  }
+
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) throws SFException {
+    return ResultUtil.toOffsetDateTime(toTimestamp(index, TimeZone.getDefault()));
+  }
+
+  @Override
+  public Instant toInstant(int index) throws SFException {
+    return ResultUtil.toInstant(toTimestamp(index, TimeZone.getDefault()));
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) throws SFException {
+    return ResultUtil.toLocalDate(toDate(index, TimeZone.getDefault(), false));
+  }
+
+  @Override
+  public long toUnscaledLong(int index) throws SFException {
+    if (isNull(index)) {
+      return 0;
+    }
+    throw new SFException(ErrorCode.INVALID_VALUE_CONVERT, logicalTypeStr, "unscaled long", "");
+  }
+
   @Override
   public BigDecimal toBigDecimal(int index) throws SFException {
     if (isNull(index)) {
@@ -153,6 +189,22 @@ abstract class AbstractArrowVectorConverter implements ArrowVectorConverter {
         ErrorCode.INVALID_VALUE_CONVERT, logicalTypeStr, SnowflakeUtil.BIG_DECIMAL_STR, "");
   }
 
+  /**
+   * @return zone of TIMESTAMP_LTZ values as java.time values
+   */
+  ZoneId getLocalZoneId() {
+    return useSessionTimezone ? context.getSessionZoneId() : context.getDefaultZoneId();
+  }
+
+  /**
+   * @return zone in which TIMESTAMP_NTZ values are placed on the time line
+   */
+  ZoneId getNTZZoneId() {
+    return treatNTZasUTC || !context.getHonorClientTZForTimestampNTZ()
+        ? ZoneOffset.UTC
+        : context.getDefaultZoneId();
+  }
+
   boolean shouldTreatDecimalAsInt() {
     return shouldTreatDecimalAsInt;
   }
@@ -4,9 +4,16 @@
 
 package net.snowflake.client.core.arrow;
 
+import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
 import java.util.Calendar;
 import java.util.TimeZone;
 import net.snowflake.client.core.ResultUtil;
@@ -23,12 +30,23 @@ import net.snowflake.common.core.CalendarCache;
 public class ArrowResultUtil {
   private static final SFLogger logger = SFLoggerFactory.getLogger(ArrowResultUtil.class);
 
+  private static final long SECONDS_IN_ONE_DAY = 24 * 60 * 60;
+
   private static final int[] POWERS_OF_10 = {
     1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000
   };
 
   public static final int MAX_SCALE_POWERS_OF_10 = 9;
 
+  // powers of ten which are exact doubles
+  private static final double[] DOUBLE_POWERS_OF_10 = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  // largest magnitude of a long which converts to double exactly
+  private static final long MAX_EXACT_DOUBLE_LONG = 1L << 53;
+
   public static long powerOfTen(int pow) {
     long val = 1;
     while (pow > MAX_SCALE_POWERS_OF_10) {
@@ -38,6 +56,26 @@ public class ArrowResultUtil {
     return val * POWERS_OF_10[pow];
   }
 
+  /**
+   * Convert a fixed-point number to the nearest double. If the unscaled value and the power of ten
+   * are exact doubles, a single division is correctly rounded, otherwise the number is converted
+   * through BigDecimal.
+   *
+   * @param unscaledValue unscaled value of the number
+   * @param scale scale of the number
+   * @return the double nearest to unscaledValue / 10^scale
+   */
+  @SnowflakeJdbcInternalApi
+  public static double scaledToDouble(long unscaledValue, int scale) {
+    if (unscaledValue >= -MAX_EXACT_DOUBLE_LONG
+        && unscaledValue <= MAX_EXACT_DOUBLE_LONG
+        && scale >= 0
+        && scale < DOUBLE_POWERS_OF_10.length) {
+      return unscaledValue / DOUBLE_POWERS_OF_10[scale];
+    }
+    return BigDecimal.valueOf(unscaledValue, scale).doubleValue();
+  }
+
   public static String getStringFormat(int scale) {
     StringBuilder sb = new StringBuilder();
     return sb.append("%.").append(scale).append('f').toString();
@@ -210,4 +248,91 @@ public class ArrowResultUtil {
     ts.setNanos(fraction);
     return ts;
   }
+
+  /**
+   * @param epoch the value since epoch time
+   * @param scale the scale of the value
+   * @return seconds since epoch, rounded towards negative infinity
+   */
+  @SnowflakeJdbcInternalApi
+  public static long epochSeconds(long epoch, int scale) {
+    return Math.floorDiv(epoch, powerOfTen(scale));
+  }
+
+  /**
+   * @param epoch the value since epoch time
+   * @param scale the scale of the value
+   * @return nanoseconds within the second of {@link #epochSeconds(long, int)}
+   */
+  @SnowflakeJdbcInternalApi
+  public static int epochNanos(long epoch, int scale) {
+    return (int) (Math.floorMod(epoch, powerOfTen(scale)) * powerOfTen(9 - scale));
+  }
+
+  /**
+   * Offset of a time zone at an instant. Fixed offset zones need no Instant to look up.
+   *
+   * @param seconds seconds since epoch
+   * @param zone time zone
+   * @return offset of the zone at the instant
+   */
+  @SnowflakeJdbcInternalApi
+  public static ZoneOffset getOffset(long seconds, ZoneId zone) {
+    if (zone instanceof ZoneOffset) {
+      return (ZoneOffset) zone;
+    }
+    ZoneRules rules = zone.getRules();
+    return rules.isFixedOffset()
+        ? rules.getOffset(Instant.EPOCH)
+        : rules.getOffset(Instant.ofEpochSecond(seconds));
+  }
+
+  /**
+   * @param timeZoneIndex time zone index of a TIMESTAMP_TZ value, its offset in minutes plus 1440
+   * @param resultVersion result version, the values of version 0 are in UTC
+   * @return offset of the TIMESTAMP_TZ value
+   */
+  @SnowflakeJdbcInternalApi
+  public static ZoneOffset toZoneOffset(int timeZoneIndex, long resultVersion) {
+    return resultVersion > 0
+        ? ZoneOffset.ofTotalSeconds((timeZoneIndex - 1440) * 60)
+        : ZoneOffset.UTC;
+  }
+
+  /**
+   * java.time values count in the proleptic Gregorian calendar like Snowflake does, so unlike the
+   * Timestamp based methods no Julian calendar adjustment is needed.
+   *
+   * @param seconds seconds since epoch
+   * @param nanos nanoseconds within the second
+   * @param zone time zone
+   * @return wallclock time of the instant in the zone
+   */
+  @SnowflakeJdbcInternalApi
+  public static LocalDateTime toLocalDateTime(long seconds, int nanos, ZoneId zone) {
+    return LocalDateTime.ofEpochSecond(seconds, nanos, getOffset(seconds, zone));
+  }
+
+  /**
+   * @param seconds seconds since epoch
+   * @param nanos nanoseconds within the second
+   * @param zone time zone
+   * @return the instant with the offset of the zone at the instant
+   */
+  @SnowflakeJdbcInternalApi
+  public static OffsetDateTime toOffsetDateTime(long seconds, int nanos, ZoneId zone) {
+    ZoneOffset offset = getOffset(seconds, zone);
+    return OffsetDateTime.of(LocalDateTime.ofEpochSecond(seconds, nanos, offset), offset);
+  }
+
+  /**
+   * @param seconds seconds since epoch
+   * @param zone time zone
+   * @return date of the instant in the zone
+   */
+  @SnowflakeJdbcInternalApi
+  public static LocalDate toLocalDate(long seconds, ZoneId zone) {
+    return LocalDate.ofEpochDay(
+        Math.floorDiv(seconds + getOffset(seconds, zone).getTotalSeconds(), SECONDS_IN_ONE_DAY));
+  }
 }
@@ -7,6 +7,10 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.TimeZone;
 import net.snowflake.client.core.SFException;
 
@@ -141,6 +145,60 @@ public interface ArrowVectorConverter {
    */
   Timestamp toTimestamp(int index, TimeZone tz) throws SFException;
 
+  /**
+   * Convert value in arrow vector to LocalDateTime without an intermediate Timestamp. TIMESTAMP_NTZ
+   * values are returned as they are, TIMESTAMP_LTZ values in the session time zone if the session
+   * time zone is used and in the JVM time zone otherwise, TIMESTAMP_TZ values in their own time
+   * zone, and DATE values at the start of the day. Values of other types are converted from {@link
+   * #toTimestamp(int, TimeZone)} like the JSON result sets do.
+   *
+   * @param index index of the value to be converted in the vector
+   * @return LocalDateTime converted from arrow vector
+   * @throws SFException invalid data conversion
+   */
+  LocalDateTime toLocalDateTime(int index) throws SFException;
+
+  /**
+   * Convert value in arrow vector to OffsetDateTime without an intermediate Timestamp.
+   * TIMESTAMP_NTZ values are placed in the JVM time zone if the client time zone is honored and in
+   * UTC otherwise, TIMESTAMP_LTZ values in the zone of {@link #toLocalDateTime(int)}.
+   *
+   * @param index index of the value to be converted in the vector
+   * @return OffsetDateTime converted from arrow vector
+   * @throws SFException invalid data conversion
+   */
+  OffsetDateTime toOffsetDateTime(int index) throws SFException;
+
+  /**
+   * Convert value in arrow vector to Instant without an intermediate Timestamp. TIMESTAMP_NTZ
+   * values are placed in time zones like {@link #toOffsetDateTime(int)} does.
+   *
+   * @param index index of the value to be converted in the vector
+   * @return Instant converted from arrow vector
+   * @throws SFException invalid data conversion
+   */
+  Instant toInstant(int index) throws SFException;
+
+  /**
+   * Convert value in arrow vector to LocalDate without an intermediate Date, the date of {@link
+   * #toLocalDateTime(int)}.
+   *
+   * @param index index of the value to be converted in the vector
+   * @return LocalDate converted from arrow vector
+   * @throws SFException invalid data conversion
+   */
+  LocalDate toLocalDate(int index) throws SFException;
+
+  /**
+   * Get the unscaled value of a fixed-point number, the number is the unscaled value divided by ten
+   * to the power of the scale of the column. This avoids creating a BigDecimal per value.
+   *
+   * @param index index of the value to be converted in the vector
+   * @return unscaled value, 0 if the value is null
+   * @throws SFException if the vector is not fixed-point or the value does not fit in a long
+   */
+  long toUnscaledLong(int index) throws SFException;
+
   /**
    * Convert value in arrow vector to BigDecimal
    *
@@ -124,6 +124,11 @@ public class BigIntToFixedConverter extends AbstractArrowVectorConverter {
     return toLong(index);
   }
 
+  @Override
+  public long toUnscaledLong(int index) throws SFException {
+    return isNull(index) ? 0 : getLong(index);
+  }
+
   @Override
   public BigDecimal toBigDecimal(int index) {
     if (bigIntVector.isNull(index)) {
@@ -37,13 +37,7 @@ public class BigIntToScaledFixedConverter extends BigIntToFixedConverter {
     if (isNull(index)) {
       return 0;
     }
-    if (sfScale > 9) {
-      return toBigDecimal(index).doubleValue();
-    }
-    int scale = sfScale;
-    double res = getLong(index);
-    res = res / ArrowResultUtil.powerOfTen(scale);
-    return res;
+    return ArrowResultUtil.scaledToDouble(getLong(index), sfScale);
   }
 
   @Override
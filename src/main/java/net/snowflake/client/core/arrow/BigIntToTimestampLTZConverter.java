@@ -7,6 +7,10 @@ import java.nio.ByteBuffer;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -69,6 +73,57 @@ public class BigIntToTimestampLTZConverter extends AbstractArrowVectorConverter
     return getTimestamp(val, scale, sessionTimeZone, useSessionTimezone);
   }
 
+  @Override
+  public LocalDateTime toLocalDateTime(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    long val = getEpoch(index);
+    int scale = context.getScale(columnIndex);
+    return ArrowResultUtil.toLocalDateTime(
+        ArrowResultUtil.epochSeconds(val, scale),
+        ArrowResultUtil.epochNanos(val, scale),
+        getLocalZoneId());
+  }
+
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    long val = getEpoch(index);
+    int scale = context.getScale(columnIndex);
+    return ArrowResultUtil.toOffsetDateTime(
+        ArrowResultUtil.epochSeconds(val, scale),
+        ArrowResultUtil.epochNanos(val, scale),
+        getLocalZoneId());
+  }
+
+  @Override
+  public Instant toInstant(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    long val = getEpoch(index);
+    int scale = context.getScale(columnIndex);
+    return Instant.ofEpochSecond(
+        ArrowResultUtil.epochSeconds(val, scale), ArrowResultUtil.epochNanos(val, scale));
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    long val = getEpoch(index);
+    return ArrowResultUtil.toLocalDate(
+        ArrowResultUtil.epochSeconds(val, context.getScale(columnIndex)), getLocalZoneId());
+  }
+
+  private long getEpoch(int index) {
+    return bigIntVector.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+  }
+
   @Override
   public Date toDate(int index, TimeZone tz, boolean useDateFormat) throws SFException {
     return isNull(index) ? null : new Date(getTimestamp(index, TimeZone.getDefault()).getTime());
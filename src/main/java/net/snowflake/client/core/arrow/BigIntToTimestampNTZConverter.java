@@ -7,6 +7,11 @@ import java.nio.ByteBuffer;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -73,6 +78,45 @@ public class BigIntToTimestampNTZConverter extends AbstractArrowVectorConverter
     return getTimestamp(val, tz, scale, context.getHonorClientTZForTimestampNTZ(), fromToString);
   }
 
+  @Override
+  public LocalDateTime toLocalDateTime(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    long val = getEpoch(index);
+    int scale = context.getScale(columnIndex);
+    return LocalDateTime.ofEpochSecond(
+        ArrowResultUtil.epochSeconds(val, scale),
+        ArrowResultUtil.epochNanos(val, scale),
+        ZoneOffset.UTC);
+  }
+
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) {
+    LocalDateTime localDateTime = toLocalDateTime(index);
+    return localDateTime == null ? null : localDateTime.atZone(getNTZZoneId()).toOffsetDateTime();
+  }
+
+  @Override
+  public Instant toInstant(int index) {
+    LocalDateTime localDateTime = toLocalDateTime(index);
+    return localDateTime == null ? null : localDateTime.atZone(getNTZZoneId()).toInstant();
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    return ArrowResultUtil.toLocalDate(
+        ArrowResultUtil.epochSeconds(getEpoch(index), context.getScale(columnIndex)),
+        ZoneOffset.UTC);
+  }
+
+  private long getEpoch(int index) {
+    return bigIntVector.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+  }
+
   @Override
   public Date toDate(int index, TimeZone tz, boolean dateFormat) throws SFException {
     return isNull(index)
@@ -6,6 +6,8 @@ package net.snowflake.client.core.arrow;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -55,6 +57,16 @@ public class DateConverter extends AbstractArrowVectorConverter {
     return getDate(index, jvmTz, useDateFormat);
   }
 
+  @Override
+  public LocalDate toLocalDate(int index) {
+    return isNull(index) ? null : LocalDate.ofEpochDay(toInt(index));
+  }
+
+  @Override
+  public LocalDateTime toLocalDateTime(int index) {
+    return isNull(index) ? null : LocalDate.ofEpochDay(toInt(index)).atStartOfDay();
+  }
+
   @Override
   public int toInt(int index) {
     if (isNull(index)) {
@@ -139,10 +139,39 @@ public class DecimalToScaledFixedConverter extends AbstractArrowVectorConverter
     if (isNull(index)) {
       return 0;
     }
+    if (fitsInLong(index)) {
+      return ArrowResultUtil.scaledToDouble(getLowBits(index), decimalVector.getScale());
+    }
     BigDecimal bigDecimal = toBigDecimal(index);
     return bigDecimal.doubleValue();
   }
 
+  @Override
+  public long toUnscaledLong(int index) throws SFException {
+    if (isNull(index)) {
+      return 0;
+    }
+    if (!fitsInLong(index)) {
+      throw new SFException(
+          ErrorCode.INVALID_VALUE_CONVERT,
+          logicalTypeStr,
+          "unscaled long",
+          toBigDecimal(index).toPlainString());
+    }
+    return getLowBits(index);
+  }
+
+  // the 128-bit values of the vector are stored in little-endian order
+  private long getLowBits(int index) {
+    return decimalVector.getDataBuffer().getLong((long) index * DecimalVector.TYPE_WIDTH);
+  }
+
+  private boolean fitsInLong(int index) {
+    long highBits =
+        decimalVector.getDataBuffer().getLong((long) index * DecimalVector.TYPE_WIDTH + 8);
+    return highBits == getLowBits(index) >> 63;
+  }
+
   @Override
   public BigDecimal toBigDecimal(int index) {
     return decimalVector.getObject(index);
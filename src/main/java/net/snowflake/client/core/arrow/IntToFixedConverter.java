@@ -94,6 +94,11 @@ public class IntToFixedConverter extends AbstractArrowVectorConverter {
     return toInt(index);
   }
 
+  @Override
+  public long toUnscaledLong(int index) throws SFException {
+    return isNull(index) ? 0 : getInt(index);
+  }
+
   @Override
   public BigDecimal toBigDecimal(int index) throws SFException {
     if (intVector.isNull(index)) {
@@ -76,6 +76,11 @@ public class SmallIntToFixedConverter extends AbstractArrowVectorConverter {
     return (long) toShort(index);
   }
 
+  @Override
+  public long toUnscaledLong(int index) throws SFException {
+    return isNull(index) ? 0 : getShort(index);
+  }
+
   @Override
   public BigDecimal toBigDecimal(int index) throws SFException {
     if (smallIntVector.isNull(index)) {
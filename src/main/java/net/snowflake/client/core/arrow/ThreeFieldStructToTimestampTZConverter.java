@@ -6,6 +6,11 @@ package net.snowflake.client.core.arrow;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -91,6 +96,48 @@ public class ThreeFieldStructToTimestampTZConverter extends AbstractArrowVectorC
         fromToString);
   }
 
+  @Override
+  public LocalDateTime toLocalDateTime(int index) {
+    OffsetDateTime offsetDateTime = toOffsetDateTime(index);
+    return offsetDateTime == null ? null : offsetDateTime.toLocalDateTime();
+  }
+
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) {
+    if (epochs.isNull(index)) {
+      return null;
+    }
+    return ArrowResultUtil.toOffsetDateTime(
+        getEpoch(index), getFraction(index), getZoneOffset(index));
+  }
+
+  @Override
+  public Instant toInstant(int index) {
+    return epochs.isNull(index) ? null : Instant.ofEpochSecond(getEpoch(index), getFraction(index));
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) {
+    if (epochs.isNull(index)) {
+      return null;
+    }
+    return ArrowResultUtil.toLocalDate(getEpoch(index), getZoneOffset(index));
+  }
+
+  private long getEpoch(int index) {
+    return epochs.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+  }
+
+  private int getFraction(int index) {
+    return fractions.getDataBuffer().getInt(index * IntVector.TYPE_WIDTH);
+  }
+
+  private ZoneOffset getZoneOffset(int index) {
+    return ArrowResultUtil.toZoneOffset(
+        timeZoneIndices.getDataBuffer().getInt(index * IntVector.TYPE_WIDTH),
+        context.getResultVersion());
+  }
+
   @Override
   public Date toDate(int index, TimeZone tz, boolean dateFormat) throws SFException {
     if (epochs.isNull(index)) {
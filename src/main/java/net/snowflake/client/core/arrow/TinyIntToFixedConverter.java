@@ -79,6 +79,11 @@ public class TinyIntToFixedConverter extends AbstractArrowVectorConverter {
     return (long) toByte(index);
   }
 
+  @Override
+  public long toUnscaledLong(int index) throws SFException {
+    return isNull(index) ? 0 : getByte(index);
+  }
+
   @Override
   public BigDecimal toBigDecimal(int index) throws SFException {
     if (tinyIntVector.isNull(index)) {
@@ -6,6 +6,10 @@ package net.snowflake.client.core.arrow;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -75,6 +79,40 @@ public class TwoFieldStructToTimestampLTZConverter extends AbstractArrowVectorCo
     return getTimestamp(epoch, fraction, sessionTimeZone, useSessionTimezone, fromToString);
   }
 
+  @Override
+  public LocalDateTime toLocalDateTime(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    return ArrowResultUtil.toLocalDateTime(getEpoch(index), getFraction(index), getLocalZoneId());
+  }
+
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    return ArrowResultUtil.toOffsetDateTime(getEpoch(index), getFraction(index), getLocalZoneId());
+  }
+
+  @Override
+  public Instant toInstant(int index) {
+    return isNull(index) ? null : Instant.ofEpochSecond(getEpoch(index), getFraction(index));
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) {
+    return isNull(index) ? null : ArrowResultUtil.toLocalDate(getEpoch(index), getLocalZoneId());
+  }
+
+  private long getEpoch(int index) {
+    return epochs.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+  }
+
+  private int getFraction(int index) {
+    return fractions.getDataBuffer().getInt(index * IntVector.TYPE_WIDTH);
+  }
+
   @Override
   public byte[] toBytes(int index) throws SFException {
     if (epochs.isNull(index)) {
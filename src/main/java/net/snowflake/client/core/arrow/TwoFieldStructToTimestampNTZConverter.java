@@ -6,6 +6,11 @@ package net.snowflake.client.core.arrow;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -85,6 +90,39 @@ public class TwoFieldStructToTimestampNTZConverter extends AbstractArrowVectorCo
         fromToString);
   }
 
+  @Override
+  public LocalDateTime toLocalDateTime(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    return LocalDateTime.ofEpochSecond(getEpoch(index), getFraction(index), ZoneOffset.UTC);
+  }
+
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) {
+    LocalDateTime localDateTime = toLocalDateTime(index);
+    return localDateTime == null ? null : localDateTime.atZone(getNTZZoneId()).toOffsetDateTime();
+  }
+
+  @Override
+  public Instant toInstant(int index) {
+    LocalDateTime localDateTime = toLocalDateTime(index);
+    return localDateTime == null ? null : localDateTime.atZone(getNTZZoneId()).toInstant();
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) {
+    return isNull(index) ? null : ArrowResultUtil.toLocalDate(getEpoch(index), ZoneOffset.UTC);
+  }
+
+  private long getEpoch(int index) {
+    return epochs.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+  }
+
+  private int getFraction(int index) {
+    return fractions.getDataBuffer().getInt(index * IntVector.TYPE_WIDTH);
+  }
+
   @Override
   public byte[] toBytes(int index) throws SFException {
     if (epochs.isNull(index)) {
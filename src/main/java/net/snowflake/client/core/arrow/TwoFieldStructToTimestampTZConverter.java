@@ -6,6 +6,11 @@ package net.snowflake.client.core.arrow;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -74,6 +79,56 @@ public class TwoFieldStructToTimestampTZConverter extends AbstractArrowVectorCon
     return getTimestamp(epoch, timeZoneIndex, context.getScale(columnIndex));
   }
 
+  @Override
+  public LocalDateTime toLocalDateTime(int index) {
+    OffsetDateTime offsetDateTime = toOffsetDateTime(index);
+    return offsetDateTime == null ? null : offsetDateTime.toLocalDateTime();
+  }
+
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) {
+    if (epochs.isNull(index)) {
+      return null;
+    }
+    long epoch = getEpoch(index);
+    int scale = context.getScale(columnIndex);
+    return ArrowResultUtil.toOffsetDateTime(
+        ArrowResultUtil.epochSeconds(epoch, scale),
+        ArrowResultUtil.epochNanos(epoch, scale),
+        getZoneOffset(index));
+  }
+
+  @Override
+  public Instant toInstant(int index) {
+    if (epochs.isNull(index)) {
+      return null;
+    }
+    long epoch = getEpoch(index);
+    int scale = context.getScale(columnIndex);
+    return Instant.ofEpochSecond(
+        ArrowResultUtil.epochSeconds(epoch, scale), ArrowResultUtil.epochNanos(epoch, scale));
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) {
+    if (epochs.isNull(index)) {
+      return null;
+    }
+    return ArrowResultUtil.toLocalDate(
+        ArrowResultUtil.epochSeconds(getEpoch(index), context.getScale(columnIndex)),
+        getZoneOffset(index));
+  }
+
+  private long getEpoch(int index) {
+    return epochs.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+  }
+
+  private ZoneOffset getZoneOffset(int index) {
+    return ArrowResultUtil.toZoneOffset(
+        timeZoneIndices.getDataBuffer().getInt(index * IntVector.TYPE_WIDTH),
+        context.getResultVersion());
+  }
+
   @Override
   public Date toDate(int index, TimeZone tz, boolean dateFormat) throws SFException {
     if (epochs.isNull(index)) {
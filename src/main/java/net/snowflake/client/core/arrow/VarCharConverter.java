@@ -9,28 +9,136 @@ import java.sql.Date;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
+import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.client.core.SFException;
 import net.snowflake.client.jdbc.ErrorCode;
 import net.snowflake.client.jdbc.SnowflakeType;
 import net.snowflake.client.jdbc.SnowflakeUtil;
+import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.VarCharVector;
 
-/** Convert Arrow VarCharVector to Java types */
+/**
+ * Convert Arrow VarCharVector to Java types
+ *
+ * <p>The getters of a row decode the value once. With the connection option enableArrowStringCache
+ * short values are also kept in a small cache of the record batch, so a column with few distinct
+ * values, e.g. a status or country code, creates each String once per record batch instead of once
+ * per row. The cache is dropped when most lookups of the first rows miss.
+ */
 public class VarCharConverter extends AbstractArrowVectorConverter {
+  // values of at most this many bytes are cached
+  static final int MAX_CACHED_STRING_BYTES = 64;
+
+  static final int STRING_CACHE_SIZE = 256;
+
+  // number of lookups after which the hit rate of the cache is checked
+  static final int STRING_CACHE_PROBE_LOOKUPS = 1024;
+
   private VarCharVector varCharVector;
 
+  // last decoded value
+  private int lastIndex = -1;
+  private String lastString;
+
+  // bytes of the value being decoded, if it is at most MAX_CACHED_STRING_BYTES long
+  private final byte[] scratch = new byte[MAX_CACHED_STRING_BYTES];
+
+  // direct-mapped cache from the bytes of a value to its String, null if disabled
+  private byte[][] cachedBytes;
+  private String[] cachedStrings;
+  private int cacheLookups;
+  private int cacheHits;
+
   public VarCharConverter(ValueVector valueVector, int columnIndex, DataConversionContext context) {
     super(SnowflakeType.TEXT.name(), valueVector, columnIndex, context);
     this.varCharVector = (VarCharVector) valueVector;
+    SFBaseSession session = context.getSession();
+    if (session != null && session.isArrowStringCacheEnabled()) {
+      cachedBytes = new byte[STRING_CACHE_SIZE][];
+      cachedStrings = new String[STRING_CACHE_SIZE];
+    }
   }
 
   @Override
   public String toString(int index) {
-    byte[] bytes = toBytes(index);
-    return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    if (isNull(index)) {
+      return null;
+    }
+    if (index == lastIndex) {
+      return lastString;
+    }
+    ArrowBuf offsets = varCharVector.getOffsetBuffer();
+    int start = offsets.getInt((long) index * VarCharVector.OFFSET_WIDTH);
+    int length = offsets.getInt((long) (index + 1) * VarCharVector.OFFSET_WIDTH) - start;
+
+    String str;
+    if (length <= MAX_CACHED_STRING_BYTES) {
+      varCharVector.getDataBuffer().getBytes(start, scratch, 0, length);
+      str = cachedBytes != null ? lookupCache(length) : decode(scratch, length);
+    } else {
+      // long values get their own array, so the scratch buffer stays small
+      byte[] bytes = toBytes(index);
+      str = decode(bytes, bytes.length);
+    }
+    lastIndex = index;
+    lastString = str;
+    return str;
+  }
+
+  /** Look up the value in the scratch buffer in the cache, add it if it is missing */
+  private String lookupCache(int length) {
+    int hash = length;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + scratch[i];
+    }
+    int slot = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+    cacheLookups++;
+
+    byte[] bytes = cachedBytes[slot];
+    if (bytes != null && bytes.length == length && equalsScratch(bytes)) {
+      cacheHits++;
+      return cachedStrings[slot];
+    }
+    String str = decode(scratch, length);
+    if (cacheLookups >= STRING_CACHE_PROBE_LOOKUPS && cacheHits < cacheLookups / 2) {
+      // too many distinct values, hashing only adds cost
+      cachedBytes = null;
+      cachedStrings = null;
+    } else {
+      cachedBytes[slot] = Arrays.copyOf(scratch, length);
+      cachedStrings[slot] = str;
+    }
+    return str;
+  }
+
+  private boolean equalsScratch(byte[] bytes) {
+    for (int i = 0; i < bytes.length; i++) {
+      if (bytes[i] != scratch[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Decode UTF-8, values which are only ASCII are copied without the UTF-8 decoder */
+  private static String decode(byte[] bytes, int length) {
+    for (int i = 0; i < length; i++) {
+      if (bytes[i] < 0) {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+      }
+    }
+    return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * @return true if values are looked up in the string cache
+   */
+  boolean isStringCacheEnabled() {
+    return cachedBytes != null;
   }
 
   @Override
@@ -170,10 +170,12 @@ public class DateTimeConverter {
       return new Date(getTimestamp(obj, columnType, columnSubType, tz, scale).getTime());
 
     } else if (Types.DATE == columnType) {
+      // typed JSON result chunks store the days as number
+      int days = obj instanceof Number ? ((Number) obj).intValue() : Integer.parseInt((String) obj);
       if (tz == null || !formatDateWithTimeZone) {
-        return ArrowResultUtil.getDate(Integer.parseInt((String) obj));
+        return ArrowResultUtil.getDate(days);
       }
-      return ArrowResultUtil.getDate(Integer.parseInt((String) obj), tz, sessionTimeZone);
+      return ArrowResultUtil.getDate(days, tz, sessionTimeZone);
     }
     // for Types.TIME and all other type, throw user error
     else {
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * Computes the prefetch window of a {@link SnowflakeChunkDownloader} from the observed consumer
+ * speed and the observed chunk download and parse latency.
+ *
+ * <p>The number of chunks that have to be in flight so that the consumer never waits is roughly the
+ * time the downloader needs per chunk, which is the time to fetch one chunk divided by the number
+ * of parallel downloads, divided by the time the consumer needs to go through one chunk. The
+ * controller keeps exponentially weighted averages of both values, sizes the window accordingly and
+ * keeps it between a minimum and a maximum window. The maximum window is further limited by the
+ * memory limit of the downloader divided by the average chunk memory.
+ */
+class AdaptivePrefetchController {
+  private static final SFLogger logger =
+      SFLoggerFactory.getLogger(AdaptivePrefetchController.class);
+
+  // weight of the newest sample in the moving averages
+  private static final double SMOOTHING_FACTOR = 0.3;
+
+  private final int minSlots;
+  private final int maxSlots;
+
+  // average time in millis the downloader needs to download and parse one row, taking the
+  // parallel downloads into account
+  private double avgFetchMillisPerRow = -1;
+
+  // average time in millis the consumer spends on one row
+  private double avgConsumeMillisPerRow = -1;
+
+  // average memory needed by one chunk
+  private double avgChunkMemory = -1;
+
+  private int currentSlots;
+
+  /**
+   * @param initialSlots prefetch window used until enough samples have been collected
+   * @param minSlots minimum prefetch window
+   * @param maxSlots maximum prefetch window
+   */
+  AdaptivePrefetchController(int initialSlots, int minSlots, int maxSlots) {
+    this.minSlots = Math.max(1, minSlots);
+    this.maxSlots = Math.max(this.minSlots, maxSlots);
+    this.currentSlots = clamp(initialSlots, this.minSlots, this.maxSlots);
+  }
+
+  /**
+   * Record the time a downloader thread spent on a chunk. The downloader threads fetch chunks in
+   * parallel, so the time is divided by the number of chunks fetched at the same time to get the
+   * time the downloader needs per chunk.
+   *
+   * @param rowCount number of rows in the chunk
+   * @param downloadAndParseMillis download time plus parse time of the chunk
+   * @param concurrentFetches number of chunks being fetched when the chunk was done, including it
+   * @param chunkMemory memory needed by the chunk
+   */
+  synchronized void recordChunkFetched(
+      int rowCount, long downloadAndParseMillis, int concurrentFetches, long chunkMemory) {
+    if (rowCount <= 0) {
+      return;
+    }
+    double fetchMillis =
+        Math.max(1, downloadAndParseMillis) / (double) Math.max(1, concurrentFetches);
+    avgFetchMillisPerRow = smooth(avgFetchMillisPerRow, fetchMillis / rowCount);
+    avgChunkMemory = smooth(avgChunkMemory, chunkMemory);
+  }
+
+  /**
+   * Record the time the consumer spent on a chunk, excluding the time it was blocked waiting for
+   * the chunk to be downloaded.
+   *
+   * @param rowCount number of rows in the chunk
+   * @param consumeMillis time between receiving the chunk and asking for the next one
+   */
+  synchronized void recordChunkConsumed(int rowCount, long consumeMillis) {
+    if (rowCount <= 0) {
+      return;
+    }
+    avgConsumeMillisPerRow =
+        smooth(avgConsumeMillisPerRow, Math.max(0, consumeMillis) / (double) rowCount);
+  }
+
+  /**
+   * Compute the prefetch window for the next round of downloads.
+   *
+   * @param waitedForLastChunk true if the consumer was blocked waiting for the last chunk
+   * @param memoryLimit the memory limit of the downloader
+   * @return the number of chunks that may be downloaded ahead of the consumer
+   */
+  synchronized int nextPrefetchSlots(boolean waitedForLastChunk, long memoryLimit) {
+    int upperBound = maxSlots;
+    if (avgChunkMemory > 0) {
+      upperBound = clamp((int) (memoryLimit / avgChunkMemory), minSlots, maxSlots);
+    }
+
+    if (avgFetchMillisPerRow < 0 || avgConsumeMillisPerRow < 0) {
+      // not enough samples yet, keep the initial window
+      currentSlots = Math.min(currentSlots, upperBound);
+      return currentSlots;
+    }
+
+    // one extra slot for the chunk which is currently being consumed
+    int targetSlots =
+        avgConsumeMillisPerRow == 0
+            ? upperBound
+            : (int) Math.ceil(avgFetchMillisPerRow / avgConsumeMillisPerRow) + 1;
+
+    if (waitedForLastChunk) {
+      // the consumer was starved, never shrink in that case
+      targetSlots = Math.max(targetSlots, currentSlots + 1);
+    } else if (targetSlots < currentSlots) {
+      // shrink one slot at a time to avoid oscillation
+      targetSlots = currentSlots - 1;
+    }
+
+    int newSlots = clamp(targetSlots, minSlots, upperBound);
+    if (newSlots != currentSlots) {
+      logger.debug(
+          "Adjust prefetch window from {} to {} chunks, fetch ms/row: {}, consume ms/row: {}",
+          currentSlots,
+          newSlots,
+          avgFetchMillisPerRow,
+          avgConsumeMillisPerRow);
+    }
+    currentSlots = newSlots;
+    return currentSlots;
+  }
+
+  synchronized int getCurrentSlots() {
+    return currentSlots;
+  }
+
+  private static double smooth(double average, double sample) {
+    return average < 0 ? sample : SMOOTHING_FACTOR * sample + (1 - SMOOTHING_FACTOR) * average;
+  }
+
+  private static int clamp(int value, int min, int max) {
+    return Math.max(min, Math.min(max, value));
+  }
+}
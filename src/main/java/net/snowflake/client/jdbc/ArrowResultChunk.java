@@ -10,6 +10,8 @@ import java.io.InputStream;
 import java.nio.channels.ClosedByInterruptException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.client.core.SFException;
@@ -18,6 +20,7 @@ import net.snowflake.client.core.arrow.ArrowVectorConverter;
 import net.snowflake.client.log.SFLogger;
 import net.snowflake.client.log.SFLoggerFactory;
 import net.snowflake.common.core.SqlState;
+import org.apache.arrow.compression.CommonsCompressionFactory;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.BigIntVector;
 import org.apache.arrow.vector.BitVector;
@@ -34,6 +37,7 @@ import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.complex.StructVector;
 import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.util.TransferPair;
 
 public class ArrowResultChunk extends SnowflakeResultChunk {
@@ -85,7 +89,8 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
    */
   public void readArrowStream(InputStream is) throws IOException {
     ArrayList<ValueVector> valueVectors = new ArrayList<>();
-    try (ArrowStreamReader reader = new ArrowStreamReader(is, rootAllocator)) {
+    try (ArrowStreamReader reader =
+        new ArrowStreamReader(is, rootAllocator, CommonsCompressionFactory.INSTANCE)) {
       root = reader.getVectorSchemaRoot();
       while (reader.loadNextBatch()) {
         valueVectors = new ArrayList<>();
@@ -137,6 +142,62 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
     }
   }
 
+  /**
+   * Hand the record batches of this chunk over to the caller without copying. The vectors are not
+   * owned by the chunk anymore, so they are not released by {@link #freeData()}.
+   *
+   * @param onAllClosed run once all returned batches have been closed, e.g. to release the memory
+   *     reserved for the chunk
+   * @return the record batches of this chunk, which must be closed by the caller
+   */
+  public List<VectorSchemaRoot> takeRecordBatches(Runnable onAllClosed) {
+    List<VectorSchemaRoot> recordBatches = new ArrayList<>(batchOfVectors.size());
+    AtomicInteger openBatches = new AtomicInteger(batchOfVectors.size());
+    Runnable onClose =
+        () -> {
+          if (openBatches.decrementAndGet() == 0) {
+            onAllClosed.run();
+          }
+        };
+    for (List<ValueVector> batch : batchOfVectors) {
+      List<Field> fields = new ArrayList<>(batch.size());
+      List<FieldVector> vectors = new ArrayList<>(batch.size());
+      for (ValueVector vector : batch) {
+        fields.add(vector.getField());
+        vectors.add((FieldVector) vector);
+      }
+      int rowCount = batch.isEmpty() ? 0 : batch.get(0).getValueCount();
+      recordBatches.add(new RecordBatch(fields, vectors, rowCount, onClose));
+    }
+    batchOfVectors.clear();
+    if (recordBatches.isEmpty()) {
+      onAllClosed.run();
+    }
+    return recordBatches;
+  }
+
+  /** Record batch handed over to the caller, which tells the chunk when it is closed */
+  private static class RecordBatch extends VectorSchemaRoot {
+    private final Runnable onClose;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    RecordBatch(List<Field> fields, List<FieldVector> vectors, int rowCount, Runnable onClose) {
+      super(fields, vectors, rowCount);
+      this.onClose = onClose;
+    }
+
+    @Override
+    public void close() {
+      try {
+        super.close();
+      } finally {
+        if (closed.compareAndSet(false, true)) {
+          onClose.run();
+        }
+      }
+    }
+  }
+
   /**
    * @return an iterator to iterate over current chunk
    */
@@ -243,6 +304,14 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
           && currentRowInRecordBatch >= rowCountInCurrentRecordBatch;
     }
 
+    /**
+     * @return true if the chunk has rows after the current one, or record batches to move to
+     */
+    public boolean hasNextInChunk() {
+      return currentRowInRecordBatch + 1 < rowCountInCurrentRecordBatch
+          || currentRecordBatchIndex + 1 < totalRecordBatch;
+    }
+
     public ArrowResultChunk getChunk() {
       return ArrowResultChunk.this;
     }
@@ -255,16 +324,72 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
       return currentConverters.get(columnIdx);
     }
 
+    /**
+     * @param columnIdx 0-based index of the column
+     * @return vector of the column in the current record batch
+     */
+    public ValueVector getCurrentVector(int columnIdx) throws SFException {
+      if (columnIdx < 0 || columnIdx >= currentConverters.size()) {
+        throw new SFException(ErrorCode.COLUMN_DOES_NOT_EXIST, columnIdx + 1);
+      }
+
+      return batchOfVectors.get(currentRecordBatchIndex).get(columnIdx);
+    }
+
     /**
      * @return index of row in current record batch
      */
     public int getCurrentRowInRecordBatch() {
-      if (sortFirstResultChunkEnabled() && currentRecordBatchIndex == 0) {
-        return firstResultChunkSortedIndices.get(currentRowInRecordBatch);
+      return getRowInRecordBatch(currentRowInRecordBatch);
+    }
+
+    /**
+     * @param position position of a row in the current record batch, in the order the iterator
+     *     returns the rows
+     * @return index of the row in the vectors of the current record batch
+     */
+    public int getRowInRecordBatch(int position) {
+      if (isCurrentRecordBatchInVectorOrder()) {
+        return position;
       } else {
-        return currentRowInRecordBatch;
+        return firstResultChunkSortedIndices.get(position);
       }
     }
+
+    /**
+     * @return true if the iterator returns the rows of the current record batch in the order of the
+     *     vectors, false if the rows are sorted on the client
+     */
+    public boolean isCurrentRecordBatchInVectorOrder() {
+      return !sortFirstResultChunkEnabled() || currentRecordBatchIndex != 0;
+    }
+
+    /**
+     * @return position of the current row in the current record batch, in the order the iterator
+     *     returns the rows
+     */
+    public int getCurrentPositionInRecordBatch() {
+      return currentRowInRecordBatch;
+    }
+
+    /**
+     * @return number of rows of the current record batch
+     */
+    public int getRowCountInCurrentRecordBatch() {
+      return rowCountInCurrentRecordBatch;
+    }
+
+    /**
+     * Move to the last row of the current record batch, the following {@link #next()} moves to the
+     * next record batch.
+     *
+     * @return number of rows skipped
+     */
+    public int skipToLastRowInRecordBatch() {
+      int skipped = Math.max(rowCountInCurrentRecordBatch - 1 - currentRowInRecordBatch, 0);
+      currentRowInRecordBatch += skipped;
+      return skipped;
+    }
   }
 
   /**
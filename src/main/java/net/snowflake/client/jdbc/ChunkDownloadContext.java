@@ -1,7 +1,9 @@
 package net.snowflake.client.jdbc;
 
 import java.util.Map;
+import java.util.function.Consumer;
 import net.snowflake.client.core.SFBaseSession;
+import org.apache.http.client.methods.HttpRequestBase;
 
 /**
  * Simple struct to contain download context for a chunk. This is useful to organize the collection
@@ -57,6 +59,9 @@ public class ChunkDownloadContext {
   private final int maxHttpRetries;
   private final SFBaseSession session;
 
+  // receives the HTTP requests sent for the chunk, null if nobody listens
+  private Consumer<HttpRequestBase> requestListener;
+
   public ChunkDownloadContext(
       SnowflakeChunkDownloader chunkDownloader,
       SnowflakeResultChunk resultChunk,
@@ -79,4 +84,36 @@ public class ChunkDownloadContext {
     this.maxHttpRetries = maxHttpRetries;
     this.session = session;
   }
+
+  /**
+   * @param requestListener receives the HTTP requests sent for the chunk, e.g. to abort them
+   * @return a copy of this context whose requests are passed to the listener
+   */
+  ChunkDownloadContext withRequestListener(Consumer<HttpRequestBase> requestListener) {
+    ChunkDownloadContext context =
+        new ChunkDownloadContext(
+            chunkDownloader,
+            resultChunk,
+            qrmk,
+            chunkIndex,
+            chunkHeadersMap,
+            networkTimeoutInMilli,
+            authTimeout,
+            socketTimeout,
+            maxHttpRetries,
+            session);
+    context.requestListener = requestListener;
+    return context;
+  }
+
+  /**
+   * Pass a request sent for the chunk to the listener of this context
+   *
+   * @param request the request, before it is executed
+   */
+  void onRequest(HttpRequestBase request) {
+    if (requestListener != null) {
+      requestListener.accept(request);
+    }
+  }
 }
@@ -7,6 +7,7 @@ import java.io.InputStream;
 import java.io.PushbackInputStream;
 import java.net.URISyntaxException;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.GZIPInputStream;
 import net.snowflake.client.core.ExecTimeTelemetryData;
 import net.snowflake.client.core.HttpUtil;
@@ -16,7 +17,6 @@ import net.snowflake.client.log.SFLoggerFactory;
 import net.snowflake.client.util.SecretDetector;
 import net.snowflake.common.core.SqlState;
 import org.apache.http.Header;
-import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
@@ -40,7 +40,7 @@ public class DefaultResultStreamProvider implements ResultStreamProvider {
   public InputStream getInputStream(ChunkDownloadContext context) throws Exception {
     HttpResponse response;
     try {
-      response = getResultChunk(context);
+      response = getResultChunk(context, 0);
     } catch (URISyntaxException | IOException ex) {
       throw new SnowflakeSQLLoggedException(
           context.getSession(),
@@ -70,12 +70,43 @@ public class DefaultResultStreamProvider implements ResultStreamProvider {
     }
 
     InputStream inputStream;
-    final HttpEntity entity = response.getEntity();
+    PipelinedInputStream readStage = null;
     try {
-      // read the chunk data
-      inputStream = detectContentEncodingAndGetInputStream(response, entity.getContent());
+      // read the chunk data, resuming with a range request if the connection drops and the body
+      // has not been decoded by the HTTP client
+      InputStream content =
+          ResumableChunkInputStream.open(
+              response,
+              offset -> getResultChunk(context, offset),
+              context.getResultChunk().getScrubbedUrl());
+      ExecutorService stageExecutor =
+          context.getSession() != null
+                  && context.getSession().isPipelinedChunkDecodingEnabled()
+                  && context.getChunkDownloader() != null
+              ? context.getChunkDownloader().getPipelineExecutor()
+              : null;
+      if (stageExecutor != null) {
+        // read the network ahead of the inflate stage
+        content =
+            PipelinedInputStream.pipeline(
+                content, "read chunk#" + context.getChunkIndex(), stageExecutor);
+        if (content instanceof PipelinedInputStream) {
+          readStage = (PipelinedInputStream) content;
+        }
+      }
+      inputStream = detectContentEncodingAndGetInputStream(response, content);
+      if (stageExecutor != null && inputStream instanceof GZIPInputStream) {
+        // inflate ahead of the parser
+        inputStream =
+            PipelinedInputStream.pipeline(
+                inputStream, "inflate chunk#" + context.getChunkIndex(), stageExecutor);
+      }
     } catch (Exception ex) {
       logger.error("Failed to decompress data: {}", response);
+      if (readStage != null) {
+        // stop reading the network
+        readStage.close();
+      }
 
       throw new SnowflakeSQLLoggedException(
           context.getSession(),
@@ -90,7 +121,16 @@ public class DefaultResultStreamProvider implements ResultStreamProvider {
     return inputStream;
   }
 
-  private HttpResponse getResultChunk(ChunkDownloadContext context) throws Exception {
+  /**
+   * Fetch the result chunk
+   *
+   * @param context download context of the chunk
+   * @param rangeStart offset of the first byte to fetch, 0 for the whole chunk
+   * @return the response of the storage service
+   * @throws Exception if the request fails
+   */
+  private HttpResponse getResultChunk(ChunkDownloadContext context, long rangeStart)
+      throws Exception {
     URIBuilder uriBuilder = new URIBuilder(context.getResultChunk().getUrl());
 
     HttpGet httpRequest = new HttpGet(uriBuilder.build());
@@ -108,10 +148,16 @@ public class DefaultResultStreamProvider implements ResultStreamProvider {
       logger.debug("Adding SSE-C headers", false);
     }
 
+    if (rangeStart > 0) {
+      httpRequest.addHeader("Range", "bytes=" + rangeStart + "-");
+    }
+    context.onRequest(httpRequest);
+
     logger.debug(
-        "Thread {} Fetching result chunk#{}: {}",
+        "Thread {} Fetching result chunk#{} from byte {}: {}",
         Thread.currentThread().getId(),
         context.getChunkIndex(),
+        rangeStart,
         context.getResultChunk().getScrubbedUrl());
 
     CloseableHttpClient httpClient =
@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+import org.apache.http.client.methods.HttpRequestBase;
+
+/**
+ * Hedging policy for result chunk downloads.
+ *
+ * <p>The body of a chunk is streamed to the parser by the first request, on the thread which
+ * downloads the chunk. The download time of a chunk is the time the parser waits for the body, the
+ * time spent parsing does not count. If the download takes longer than a percentile of the recently
+ * observed download times, scaled by the size of the chunk, a second request for the same chunk is
+ * run on the download threads and its body is buffered. If the second request completes first, the
+ * first one is aborted and the parser continues from the buffer at the offset it has reached.
+ * Otherwise the second request is aborted. The number of hedged requests is limited to a fraction
+ * of all chunk downloads, so hedging cannot double the traffic, and the buffer of a hedged request
+ * is reserved in the memory limit of the result set. A hedged request whose body is larger than its
+ * reservation is aborted.
+ */
+class HedgedChunkFetcher {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(HedgedChunkFetcher.class);
+
+  static final double DEFAULT_PERCENTILE = 0.95;
+
+  static final double DEFAULT_BUDGET_RATIO = 0.1;
+
+  // number of downloads observed before the first hedge may be sent
+  static final int MIN_SAMPLES = 5;
+
+  // number of recent downloads the percentile is computed from
+  private static final int SAMPLE_WINDOW = 50;
+
+  // hedged requests which may be sent on top of the budget ratio
+  private static final int BUDGET_BURST = 1;
+
+  private static final long MIN_HEDGE_DELAY_MILLIS = 10;
+
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+  // marks that the reader is not waiting for the body
+  private static final long NOT_WAITING = Long.MIN_VALUE;
+
+  // only decides when to send the hedged requests, which run on the download threads
+  private static final ScheduledThreadPoolExecutor hedgeTimer = createHedgeTimer();
+
+  private static ScheduledThreadPoolExecutor createHedgeTimer() {
+    ScheduledThreadPoolExecutor timer =
+        new ScheduledThreadPoolExecutor(
+            1,
+            r -> {
+              Thread thread = new Thread(r, "result-chunk-hedge-timer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    timer.setRemoveOnCancelPolicy(true);
+    return timer;
+  }
+
+  /** Request for the body of a chunk */
+  interface Request {
+    /**
+     * Send the request. It may be sent a second time concurrently.
+     *
+     * @param requestListener receives each HTTP request sent for the body, so it can be aborted
+     * @return the body of the chunk
+     * @throws Exception if the request fails
+     */
+    InputStream open(Consumer<HttpRequestBase> requestListener) throws Exception;
+  }
+
+  /** Runs the hedged requests of a chunk and accounts for their buffers */
+  interface HedgeExecutor {
+    /**
+     * @param hedge the hedged request, to run on the threads which download the chunks
+     * @return future used to cancel the hedged request
+     */
+    Future<?> submit(Callable<Void> hedge);
+
+    /**
+     * @param bytes size of the buffer of a hedged request
+     * @return true if the memory has been reserved
+     */
+    boolean tryReserveMemory(long bytes);
+
+    /**
+     * @param bytes size of the buffer of a hedged request which is not used anymore
+     */
+    void releaseMemory(long bytes);
+  }
+
+  private final double percentile;
+  private final double budgetRatio;
+
+  // download time in millis per byte of the recent chunks, used as a ring buffer
+  private final double[] recentMillisPerByte = new double[SAMPLE_WINDOW];
+  private int sampleCount;
+  private int nextSample;
+
+  private long fetches;
+  private long hedgedRequests;
+  private long hedgeWins;
+
+  HedgedChunkFetcher() {
+    this(DEFAULT_PERCENTILE, DEFAULT_BUDGET_RATIO);
+  }
+
+  HedgedChunkFetcher(double percentile, double budgetRatio) {
+    this.percentile = percentile;
+    this.budgetRatio = budgetRatio;
+  }
+
+  /**
+   * Fetch the body of a chunk, hedging the request if it is too slow.
+   *
+   * @param request opens the body of the chunk
+   * @param expectedSize uncompressed size of the chunk in bytes
+   * @param hedgeExecutor runs the hedged request
+   * @return the body of the chunk
+   * @throws Exception the error of the request if no request succeeded
+   */
+  InputStream fetch(Request request, long expectedSize, HedgeExecutor hedgeExecutor)
+      throws Exception {
+    HedgedInputStream body =
+        new HedgedInputStream(
+            request, expectedSize, hedgeExecutor, getHedgeDelayMillis(expectedSize));
+    body.open();
+    return body;
+  }
+
+  /** HTTP request which may be aborted before it has been sent */
+  private static final class Attempt {
+    private HttpRequestBase request;
+    private boolean aborted;
+
+    synchronized void setRequest(HttpRequestBase request) {
+      this.request = request;
+      if (aborted) {
+        request.abort();
+      }
+    }
+
+    void abort() {
+      HttpRequestBase current;
+      synchronized (this) {
+        aborted = true;
+        current = request;
+      }
+      if (current != null) {
+        current.abort();
+      }
+    }
+  }
+
+  /** Buffer of the body of a hedged request */
+  private static final class HedgeBuffer extends ByteArrayOutputStream {
+    HedgeBuffer(long expectedSize) {
+      super((int) Math.min(Math.max(expectedSize, 32), Integer.MAX_VALUE - 8));
+    }
+
+    /**
+     * @param offset number of bytes which have already been read from the other request
+     * @return the rest of the body, without copying it
+     */
+    synchronized InputStream from(long offset) throws IOException {
+      if (offset > count) {
+        throw new IOException(
+            "The hedged chunk response has " + count + " bytes, " + offset + " have been read");
+      }
+      return new ByteArrayInputStream(buf, (int) offset, count - (int) offset);
+    }
+  }
+
+  /**
+   * Body of a chunk which is read from the first request, and from the buffered hedged request once
+   * that one has completed first.
+   */
+  private final class HedgedInputStream extends InputStream {
+    private final Request request;
+    private final long expectedSize;
+    private final HedgeExecutor hedgeExecutor;
+    private final long hedgeDelay;
+
+    // time the reader has waited for the body so far, only written by the reader
+    private volatile long fetchNanos;
+    // start of the current wait for the body, NOT_WAITING while the reader parses the body
+    private volatile long waitStart = NOT_WAITING;
+
+    private final Attempt primary = new Attempt();
+    private final Attempt hedge = new Attempt();
+
+    // set by the hedge when it starts, or by the reader so that it does not start anymore
+    private final AtomicBoolean hedgeClaimed = new AtomicBoolean();
+    private final CountDownLatch hedgeDone = new CountDownLatch(1);
+    private volatile HedgeBuffer hedgeBody;
+
+    // the following fields are guarded by this
+    private boolean finished;
+    private ScheduledFuture<?> hedgeTimerFuture;
+    private Future<?> hedgeFuture;
+    private long reservedBytes;
+
+    // the following fields are only used by the reader
+    private InputStream primaryBody;
+    private InputStream hedgeReader;
+    private long position;
+    private boolean closed;
+
+    HedgedInputStream(
+        Request request, long expectedSize, HedgeExecutor hedgeExecutor, long hedgeDelay) {
+      this.request = request;
+      this.expectedSize = expectedSize;
+      this.hedgeExecutor = hedgeExecutor;
+      this.hedgeDelay = hedgeDelay;
+    }
+
+    void open() throws Exception {
+      if (hedgeDelay >= 0) {
+        synchronized (this) {
+          hedgeTimerFuture =
+              hedgeTimer.schedule(this::sendHedge, hedgeDelay, TimeUnit.MILLISECONDS);
+        }
+      }
+      startWaiting();
+      try {
+        primaryBody = request.open(primary::setRequest);
+      } catch (Exception ex) {
+        if (!switchToHedgeAfterFailure(ex)) {
+          finish(false);
+          throw ex;
+        }
+      } finally {
+        stopWaiting();
+      }
+    }
+
+    private void startWaiting() {
+      waitStart = System.nanoTime();
+    }
+
+    private void stopWaiting() {
+      fetchNanos += System.nanoTime() - waitStart;
+      waitStart = NOT_WAITING;
+    }
+
+    /**
+     * @return time the reader has waited for the body so far
+     */
+    private long getFetchMillis() {
+      long start = waitStart;
+      long nanos = fetchNanos;
+      if (start != NOT_WAITING) {
+        nanos += System.nanoTime() - start;
+      }
+      return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /** Called by the timer when the first request has not completed within the hedge delay */
+    private void sendHedge() {
+      synchronized (this) {
+        if (finished || hedgeFuture != null) {
+          return;
+        }
+        long remainingDelay = hedgeDelay - getFetchMillis();
+        if (remainingDelay > 0) {
+          // the reader has spent part of the delay parsing the body
+          hedgeTimerFuture =
+              hedgeTimer.schedule(this::sendHedge, remainingDelay, TimeUnit.MILLISECONDS);
+          return;
+        }
+        long bytes = Math.max(expectedSize, 0);
+        if (!hedgeExecutor.tryReserveMemory(bytes)) {
+          logger.debug("No memory left for a hedged request of {} bytes", bytes);
+          return;
+        }
+        if (!tryAcquireHedge()) {
+          hedgeExecutor.releaseMemory(bytes);
+          return;
+        }
+        logger.debug(
+            "Chunk download did not finish within {} ms, sending hedged request", hedgeDelay);
+        try {
+          reservedBytes = bytes;
+          hedgeFuture = hedgeExecutor.submit(() -> runHedge(bytes));
+        } catch (RuntimeException ex) {
+          logger.debug("Failed to send hedged request: {}", ex.getMessage());
+          reservedBytes = 0;
+          hedgeExecutor.releaseMemory(bytes);
+        }
+      }
+    }
+
+    /**
+     * @param limit memory reserved for the buffer, the hedge is aborted if the body is larger
+     */
+    private Void runHedge(long limit) {
+      if (!hedgeClaimed.compareAndSet(false, true)) {
+        // the first request has completed or failed before the hedge started
+        return null;
+      }
+      try {
+        HedgeBuffer buffer = new HedgeBuffer(expectedSize);
+        try (InputStream body = request.open(hedge::setRequest)) {
+          byte[] bytes = new byte[READ_BUFFER_SIZE];
+          int len;
+          while ((len = body.read(bytes)) != -1) {
+            if (buffer.size() + len > limit) {
+              hedge.abort();
+              throw new IOException(
+                  "The hedged chunk response exceeds the " + limit + " reserved bytes");
+            }
+            buffer.write(bytes, 0, len);
+          }
+        }
+        synchronized (this) {
+          if (!finished) {
+            // the reader switches to the buffer when the first request fails
+            hedgeBody = buffer;
+            primary.abort();
+          }
+        }
+      } catch (Throwable th) {
+        logger.debug("Hedged chunk request failed: {}", th.getMessage());
+      } finally {
+        hedgeDone.countDown();
+      }
+      return null;
+    }
+
+    /**
+     * @return true if the reader continues from the buffer of the hedged request
+     */
+    private boolean switchToHedgeAfterFailure(Exception cause) throws IOException {
+      if (hedgeClaimed.compareAndSet(false, true)) {
+        // no hedge is running, and none can start anymore
+        return false;
+      }
+      if (hedgeBody == null) {
+        logger.debug("Chunk request failed, waiting for the hedged request: {}", cause);
+        try {
+          hedgeDone.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+        if (hedgeBody == null) {
+          return false;
+        }
+      }
+      switchToHedge();
+      return true;
+    }
+
+    private void switchToHedge() throws IOException {
+      hedgeReader = hedgeBody.from(position);
+      primary.abort();
+      if (primaryBody != null) {
+        try {
+          primaryBody.close();
+        } catch (IOException ex) {
+          logger.debug("Failed to close the aborted chunk request: {}", ex.getMessage());
+        }
+        primaryBody = null;
+      }
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      int len;
+      while ((len = read(b, 0, 1)) == 0) {}
+      return len == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      startWaiting();
+      try {
+        return readBody(b, off, len);
+      } finally {
+        stopWaiting();
+      }
+    }
+
+    private int readBody(byte[] b, int off, int len) throws IOException {
+      if (closed) {
+        throw new IOException("Stream closed");
+      }
+      if (hedgeReader == null && hedgeBody != null) {
+        // the hedged request has completed first
+        switchToHedge();
+      }
+      if (hedgeReader != null) {
+        int count = hedgeReader.read(b, off, len);
+        if (count == -1) {
+          finish(true);
+        }
+        return count;
+      }
+      int count;
+      try {
+        count = primaryBody.read(b, off, len);
+      } catch (IOException ex) {
+        if (!switchToHedgeAfterFailure(ex)) {
+          throw ex;
+        }
+        return readBody(b, off, len);
+      }
+      if (count == -1) {
+        finish(true);
+      } else {
+        position += count;
+      }
+      return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+      if (hedgeReader != null) {
+        return hedgeReader.available();
+      }
+      return primaryBody != null ? primaryBody.available() : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      finish(false);
+      hedgeReader = null;
+      if (primaryBody != null) {
+        primaryBody.close();
+      }
+    }
+
+    /**
+     * Stop the hedged request unless it is being read, and release its buffer.
+     *
+     * @param completed true if the whole body has been read
+     */
+    private void finish(boolean completed) {
+      ScheduledFuture<?> timerFuture;
+      Future<?> future;
+      long bytes;
+      synchronized (this) {
+        if (finished) {
+          return;
+        }
+        finished = true;
+        timerFuture = hedgeTimerFuture;
+        future = hedgeFuture;
+        bytes = reservedBytes;
+        reservedBytes = 0;
+      }
+      if (timerFuture != null) {
+        timerFuture.cancel(false);
+      }
+      if (future != null) {
+        hedgeClaimed.set(true);
+        future.cancel(false);
+        hedge.abort();
+      }
+      if (completed) {
+        recordFetch(getFetchMillis(), expectedSize, hedgeReader != null);
+      }
+      hedgeBody = null;
+      if (bytes > 0) {
+        hedgeExecutor.releaseMemory(bytes);
+      }
+    }
+  }
+
+  /**
+   * @param expectedSize uncompressed size of the chunk in bytes
+   * @return time to wait before sending a hedged request, or -1 if not enough downloads have been
+   *     observed yet
+   */
+  synchronized long getHedgeDelayMillis(long expectedSize) {
+    fetches++;
+    if (sampleCount < MIN_SAMPLES) {
+      return -1;
+    }
+    double[] samples = Arrays.copyOf(recentMillisPerByte, sampleCount);
+    Arrays.sort(samples);
+    int index = Math.min(sampleCount - 1, (int) Math.ceil(percentile * sampleCount) - 1);
+    double millisPerByte = samples[Math.max(0, index)];
+    return Math.max(MIN_HEDGE_DELAY_MILLIS, (long) (millisPerByte * Math.max(expectedSize, 1)));
+  }
+
+  private synchronized boolean tryAcquireHedge() {
+    if (hedgedRequests >= BUDGET_BURST + (long) (budgetRatio * fetches)) {
+      logger.debug(
+          "Hedge budget exhausted, {} hedged requests for {} fetches", hedgedRequests, fetches);
+      return false;
+    }
+    hedgedRequests++;
+    return true;
+  }
+
+  private synchronized void recordFetch(long fetchMillis, long expectedSize, boolean hedgeWon) {
+    recentMillisPerByte[nextSample] = (double) fetchMillis / Math.max(expectedSize, 1);
+    nextSample = (nextSample + 1) % SAMPLE_WINDOW;
+    sampleCount = Math.min(sampleCount + 1, SAMPLE_WINDOW);
+    if (hedgeWon) {
+      hedgeWins++;
+    }
+  }
+
+  /**
+   * @return number of chunks fetched
+   */
+  synchronized long getFetches() {
+    return fetches;
+  }
+
+  /**
+   * @return number of hedged requests which have been sent
+   */
+  synchronized long getHedgedRequests() {
+    return hedgedRequests;
+  }
+
+  /**
+   * @return number of chunks for which the hedged request completed first
+   */
+  synchronized long getHedgeWins() {
+    return hedgeWins;
+  }
+}
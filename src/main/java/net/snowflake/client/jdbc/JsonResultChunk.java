@@ -5,11 +5,13 @@
 package net.snowflake.client.jdbc;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import java.lang.ref.SoftReference;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.LinkedList;
 import java.util.List;
 import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.client.log.SFLogger;
@@ -27,11 +29,72 @@ public class JsonResultChunk extends SnowflakeResultChunk {
 
   public JsonResultChunk(
       String url, int rowCount, int colCount, int uncompressedSize, SFBaseSession session) {
+    this(url, rowCount, colCount, uncompressedSize, session, null);
+  }
+
+  /**
+   * Creates a chunk which stores the cells of numeric, boolean and date columns as primitive values
+   * instead of text.
+   *
+   * @param columnMetadata metadata of the result columns, or null to store all cells as text
+   */
+  public JsonResultChunk(
+      String url,
+      int rowCount,
+      int colCount,
+      int uncompressedSize,
+      SFBaseSession session,
+      List<SnowflakeColumnMetadata> columnMetadata) {
     super(url, rowCount, colCount, uncompressedSize);
-    data = new BlockResultChunkDataV2(computeCharactersNeeded(), rowCount, colCount, session);
+    data =
+        new BlockResultChunkDataV2(
+            computeCharactersNeeded(),
+            rowCount,
+            colCount,
+            getColumnStorage(columnMetadata, colCount),
+            session);
     this.session = session;
   }
 
+  /** How the cells of a column are stored */
+  enum ColumnStorage {
+    // UTF-8 bytes of the value
+    TEXT,
+    // FIXED with scale 0 which fits into a long
+    LONG,
+    // BOOLEAN, stored as 1 or 0
+    BOOLEAN,
+    // DATE, stored as days since epoch
+    DATE
+  }
+
+  // decimal digits which always fit into a long
+  private static final int MAX_LONG_DIGITS = 18;
+
+  static ColumnStorage[] getColumnStorage(
+      List<SnowflakeColumnMetadata> columnMetadata, int colCount) {
+    if (columnMetadata == null || columnMetadata.size() != colCount) {
+      return null;
+    }
+    ColumnStorage[] storage = new ColumnStorage[colCount];
+    boolean anyTyped = false;
+    for (int i = 0; i < colCount; i++) {
+      SnowflakeColumnMetadata column = columnMetadata.get(i);
+      storage[i] = ColumnStorage.TEXT;
+      if (column.getBase() == SnowflakeType.FIXED
+          && column.getScale() == 0
+          && column.getPrecision() <= MAX_LONG_DIGITS) {
+        storage[i] = ColumnStorage.LONG;
+      } else if (column.getBase() == SnowflakeType.BOOLEAN) {
+        storage[i] = ColumnStorage.BOOLEAN;
+      } else if (column.getBase() == SnowflakeType.DATE) {
+        storage[i] = ColumnStorage.DATE;
+      }
+      anyTyped |= storage[i] != ColumnStorage.TEXT;
+    }
+    return anyTyped ? storage : null;
+  }
+
   public static Object extractCell(JsonNode resultData, int rowIdx, int colIdx) {
     JsonNode currentRow = resultData.get(rowIdx);
 
@@ -47,22 +110,53 @@ public class JsonResultChunk extends SnowflakeResultChunk {
     throw new RuntimeException("Unknow json type");
   }
 
-  public void tryReuse(ResultChunkDataCache cache) {
-    // Allocate chunk data, double necessary amount for later reuse
-    cache.reuseOrCreateResultData(data);
-  }
-
   /**
-   * Creates a String object for the given cell
+   * Creates a String object for the given cell. Cells stored as primitive values are returned as
+   * Long, booleans as "1" or "0".
    *
    * @param rowIdx zero based row
    * @param colIdx zero based column
-   * @return String
+   * @return String or Long
    */
   public final Object getCell(int rowIdx, int colIdx) {
     return data.get(colCount * rowIdx + colIdx);
   }
 
+  /**
+   * Opens a stream over the UTF-8 bytes of a cell in the blocks of the chunk, without copying them
+   * into a String. The stream must not be read after the chunk has been freed.
+   *
+   * @param rowIdx zero based row
+   * @param colIdx zero based column
+   * @return stream of the bytes of the cell, null if the cell is null. Must not be called for cells
+   *     stored as primitive values, see {@link #isTypedCell}
+   */
+  public final InputStream getCellStream(int rowIdx, int colIdx) {
+    return data.getStream(colCount * rowIdx + colIdx);
+  }
+
+  /**
+   * @param rowIdx zero based row
+   * @param colIdx zero based column
+   * @return true if the cell has been parsed into a primitive value, see {@link #getTypedCell}
+   */
+  public final boolean isTypedCell(int rowIdx, int colIdx) {
+    return data.isTyped(colCount * rowIdx + colIdx);
+  }
+
+  /**
+   * Returns the primitive value of a cell without creating any object. The value is the number the
+   * text of the cell represents: the number for FIXED, 1 or 0 for BOOLEAN and the days since epoch
+   * for DATE columns.
+   *
+   * @param rowIdx zero based row
+   * @param colIdx zero based column
+   * @return value of the cell, only valid if {@link #isTypedCell} is true
+   */
+  public final long getTypedCell(int rowIdx, int colIdx) {
+    return data.getTypedValue(colCount * rowIdx + colIdx);
+  }
+
   public final void addRow(Object[] row) throws SnowflakeSQLException {
     if (row.length != colCount) {
       throw new SnowflakeSQLLoggedException(
@@ -129,7 +223,8 @@ public class JsonResultChunk extends SnowflakeResultChunk {
   @Override
   public final void freeData() {
     if (data != null) {
-      data.freeData();
+      // the blocks may only be reused once the download thread has finished writing them
+      data.freeData(getDownloadState() == DownloadState.SUCCESS);
     }
   }
 
@@ -168,6 +263,17 @@ public class JsonResultChunk extends SnowflakeResultChunk {
     data.addBytes(src, offset, pos, length);
   }
 
+  /**
+   * Try to store the current value as a primitive value
+   *
+   * @param pos position of the value, already added with addByte(s)
+   * @param length length of the value in bytes
+   * @return true if the value has been stored and its bytes are not needed anymore
+   */
+  public boolean addTypedValue(int pos, int length) {
+    return data.addTypedValue(pos, length);
+  }
+
   /**
    * This class abstracts the storage of the strings in one chunk. To the user the class behaves
    * similar to an ArrayList.
@@ -184,9 +290,17 @@ public class JsonResultChunk extends SnowflakeResultChunk {
      * Access an element by an index
      *
      * @param index determines the element
-     * @return String containing the same data as the one passed to add()
+     * @return String containing the same data as the one passed to add(), or Long for typed values
+     */
+    Object get(int index);
+
+    /**
+     * Access the bytes of an element without copying them
+     *
+     * @param index determines the element
+     * @return stream of the bytes of the element, null if the element is null
      */
-    String get(int index);
+    InputStream getStream(int index);
 
     /**
      * Compute the necessary memory to store this chunk
@@ -195,8 +309,13 @@ public class JsonResultChunk extends SnowflakeResultChunk {
      */
     long computeNeededChunkMemory();
 
-    /** Let GC collect the memory */
-    void freeData();
+    /**
+     * Let GC collect the memory
+     *
+     * @param reusable true if nothing writes to the blocks anymore, so they can be handed back to
+     *     the slab pool
+     */
+    void freeData(boolean reusable);
 
     /**
      * add offset into offset buffer
@@ -257,25 +376,60 @@ public class JsonResultChunk extends SnowflakeResultChunk {
      */
     void addBytes(byte[] src, int src_offset, int pos, int length) throws SnowflakeSQLException;
 
+    /**
+     * store the value at nextIndex as a primitive if its column is typed
+     *
+     * @param pos position of the value in the byte array
+     * @param length length of the value
+     * @return true if the value has been stored
+     */
+    boolean addTypedValue(int pos, int length);
+
+    /**
+     * @param index determines the element
+     * @return true if the element is stored as a primitive
+     */
+    boolean isTyped(int index);
+
+    /**
+     * @param index determines the element
+     * @return primitive value of the element
+     */
+    long getTypedValue(int index);
+
     void reset();
   }
 
   /**
    * BlockResultChunkDataV2: This implementation copies the strings to byte arrays and stores the
-   * offsets and bitmaps. This design can save half of the memory usage compared to the original one
+   * offsets and bitmaps. This design can save half of the memory usage compared to the original
+   * one. The blocks are taken from and handed back to the {@link ResultChunkSlabPool}. A chunk is
+   * only accessed by one thread at a time, so the positions of the slabs can be used for bulk
+   * copies.
    */
   private static class BlockResultChunkDataV2 implements ResultChunkData {
-    BlockResultChunkDataV2(int totalLength, int rowCount, int colCount, SFBaseSession session) {
+    BlockResultChunkDataV2(
+        int totalLength,
+        int rowCount,
+        int colCount,
+        ColumnStorage[] columnStorage,
+        SFBaseSession session) {
       this.blockCount = getBlock(totalLength - 1) + 1;
       this.rowCount = rowCount;
       this.colCount = colCount;
       this.metaBlockCount = getMetaBlock(this.rowCount * this.colCount - 1) + 1;
+      this.columnStorage = columnStorage;
       this.session = session;
+      if (columnStorage != null) {
+        this.typedValues = new long[colCount][];
+        this.typedRows = new BitSet[colCount];
+      }
     }
 
     @Override
     public void reset() {
-      freeData();
+      // a download which has timed out may still be writing
+      freeData(false);
       this.lastLength = 0;
       this.nextIndex = 0;
     }
@@ -285,12 +439,12 @@ public class JsonResultChunk extends SnowflakeResultChunk {
       if (data.size() < blockCount || offsets.size() < metaBlockCount) {
         allocateArrays();
       }
-      offsets.get(getMetaBlock(nextIndex))[getMetaBlockIndex(nextIndex)] = offset;
+      offsets.get(getMetaBlock(nextIndex)).offsets.put(getMetaBlockIndex(nextIndex), offset);
     }
 
     @Override
     public void setIsNull() {
-      isNulls.get(getMetaBlock(nextIndex)).set(getMetaBlockIndex(nextIndex));
+      offsets.get(getMetaBlock(nextIndex)).isNulls.set(getMetaBlockIndex(nextIndex));
     }
 
     @Override
@@ -300,7 +454,7 @@ public class JsonResultChunk extends SnowflakeResultChunk {
 
     @Override
     public byte getByte(int offset) {
-      return data.get(getBlock(offset))[getBlockOffset(offset)];
+      return data.get(getBlock(offset)).get(getBlockOffset(offset));
     }
 
     @Override
@@ -308,7 +462,7 @@ public class JsonResultChunk extends SnowflakeResultChunk {
       if (data.size() < blockCount || offsets.size() < metaBlockCount) {
         allocateArrays();
       }
-      data.get(getBlock(pos))[getBlockOffset(pos)] = b;
+      data.get(getBlock(pos)).put(getBlockOffset(pos), b);
     }
 
     @Override
@@ -324,17 +478,15 @@ public class JsonResultChunk extends SnowflakeResultChunk {
       if (spaceLeftOnBlock(offset) < length) {
         while (copied < length) {
           final int copySize = Math.min(length - copied, spaceLeftOnBlock(offset + copied));
-          System.arraycopy(
-              src,
-              src_offset + copied,
-              data.get(getBlock(offset + copied)),
-              getBlockOffset(offset + copied),
-              copySize);
+          ByteBuffer block = data.get(getBlock(offset + copied));
+          ((Buffer) block).position(getBlockOffset(offset + copied));
+          block.put(src, src_offset + copied, copySize);
           copied += copySize;
         }
       } else {
-        System.arraycopy(
-            src, src_offset, data.get(getBlock(offset)), getBlockOffset(offset), length);
+        ByteBuffer block = data.get(getBlock(offset));
+        ((Buffer) block).position(getBlockOffset(offset));
+        block.put(src, src_offset, length);
       }
     }
 
@@ -343,6 +495,78 @@ public class JsonResultChunk extends SnowflakeResultChunk {
       nextIndex++;
     }
 
+    @Override
+    public boolean addTypedValue(int pos, int length) {
+      if (columnStorage == null) {
+        return false;
+      }
+      final int column = nextIndex % colCount;
+      final ColumnStorage storage = columnStorage[column];
+      long value;
+      if (storage == ColumnStorage.TEXT) {
+        return false;
+      } else if (storage == ColumnStorage.BOOLEAN) {
+        if (length != 1) {
+          return false;
+        }
+        byte b = getByte(pos);
+        if (b == '1') {
+          value = 1;
+        } else if (b == '0') {
+          value = 0;
+        } else {
+          return false;
+        }
+      } else {
+        // only accept the canonical form, so the text can be restored from the value
+        int i = 0;
+        boolean negative = length > 0 && getByte(pos) == '-';
+        if (negative) {
+          i++;
+        }
+        int digits = length - i;
+        if (digits < 1
+            || digits > MAX_LONG_DIGITS
+            || (digits > 1 || negative) && getByte(pos + i) == '0') {
+          return false;
+        }
+        value = 0;
+        for (; i < length; i++) {
+          int digit = getByte(pos + i) - '0';
+          if (digit < 0 || digit > 9) {
+            return false;
+          }
+          value = value * 10 + digit;
+        }
+        if (negative) {
+          value = -value;
+        }
+      }
+
+      final int row = nextIndex / colCount;
+      if (typedValues[column] == null) {
+        typedValues[column] = new long[rowCount];
+        typedRows[column] = new BitSet(rowCount);
+      }
+      typedValues[column][row] = value;
+      typedRows[column].set(row);
+      return true;
+    }
+
+    @Override
+    public boolean isTyped(int index) {
+      if (typedRows == null) {
+        return false;
+      }
+      BitSet rows = typedRows[index % colCount];
+      return rows != null && rows.get(index / colCount);
+    }
+
+    @Override
+    public long getTypedValue(int index) {
+      return typedValues[index % colCount][index / colCount];
+    }
+
     @Override
     public void add(String string) throws SnowflakeSQLException {
       throw new SnowflakeSQLLoggedException(
@@ -357,18 +581,27 @@ public class JsonResultChunk extends SnowflakeResultChunk {
         // last one
         return lastLength;
       } else {
-        int nextOffset = offsets.get(getMetaBlock(index + 1))[getMetaBlockIndex(index + 1)];
+        int nextOffset =
+            offsets.get(getMetaBlock(index + 1)).offsets.get(getMetaBlockIndex(index + 1));
         return nextOffset - offset;
       }
     }
 
     @Override
-    public String get(int index) {
-      final boolean isNull = isNulls.get(getMetaBlock(index)).get(getMetaBlockIndex(index));
+    public Object get(int index) {
+      if (isTyped(index)) {
+        long value = getTypedValue(index);
+        if (columnStorage[index % colCount] == ColumnStorage.BOOLEAN) {
+          return value != 0 ? "1" : "0";
+        }
+        return value;
+      }
+      final ResultChunkSlabPool.OffsetSlab offsetSlab = offsets.get(getMetaBlock(index));
+      final boolean isNull = offsetSlab.isNulls.get(getMetaBlockIndex(index));
       if (isNull) {
         return null;
       } else {
-        final int offset = offsets.get(getMetaBlock(index))[getMetaBlockIndex(index)];
+        final int offset = offsetSlab.offsets.get(getMetaBlockIndex(index));
         final int length = getLength(index, offset);
 
         // Create string from the char arrays
@@ -377,23 +610,92 @@ public class JsonResultChunk extends SnowflakeResultChunk {
           byte[] cell = new byte[length];
           while (copied < length) {
             final int copySize = Math.min(length - copied, spaceLeftOnBlock(offset + copied));
-            System.arraycopy(
-                data.get(getBlock(offset + copied)),
-                getBlockOffset(offset + copied),
-                cell,
-                copied,
-                copySize);
+            ByteBuffer block = data.get(getBlock(offset + copied));
+            ((Buffer) block).position(getBlockOffset(offset + copied));
+            block.get(cell, copied, copySize);
 
             copied += copySize;
           }
           return new String(cell, StandardCharsets.UTF_8);
         } else {
-          return new String(
-              data.get(getBlock(offset)), getBlockOffset(offset), length, StandardCharsets.UTF_8);
+          ByteBuffer block = data.get(getBlock(offset));
+          if (block.hasArray()) {
+            return new String(
+                block.array(),
+                block.arrayOffset() + getBlockOffset(offset),
+                length,
+                StandardCharsets.UTF_8);
+          }
+          byte[] cell = new byte[length];
+          ((Buffer) block).position(getBlockOffset(offset));
+          block.get(cell);
+          return new String(cell, StandardCharsets.UTF_8);
         }
       }
     }
 
+    @Override
+    public InputStream getStream(int index) {
+      final ResultChunkSlabPool.OffsetSlab offsetSlab = offsets.get(getMetaBlock(index));
+      if (offsetSlab.isNulls.get(getMetaBlockIndex(index))) {
+        return null;
+      }
+      final int offset = offsetSlab.offsets.get(getMetaBlockIndex(index));
+      return new CellInputStream(offset, offset + getLength(index, offset));
+    }
+
+    /** Reads the bytes of a cell from the blocks, a cell may span several blocks */
+    private class CellInputStream extends InputStream {
+      private int position;
+      private final int end;
+
+      CellInputStream(int position, int end) {
+        this.position = position;
+        this.end = end;
+      }
+
+      @Override
+      public int read() {
+        if (position >= end) {
+          return -1;
+        }
+        return getByte(position++) & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+          return 0;
+        }
+        if (position >= end) {
+          return -1;
+        }
+        int count = Math.min(Math.min(len, end - position), spaceLeftOnBlock(position));
+        ByteBuffer block = data.get(getBlock(position));
+        if (block.hasArray()) {
+          System.arraycopy(
+              block.array(), block.arrayOffset() + getBlockOffset(position), b, off, count);
+        } else {
+          ((Buffer) block).position(getBlockOffset(position));
+          block.get(b, off, count);
+        }
+        position += count;
+        return count;
+      }
+
+      @Override
+      public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, end - position));
+        position += (int) skipped;
+        return skipped;
+      }
+
+      @Override
+      public int available() {
+        return end - position;
+      }
+    }
+
     @Override
     public long computeNeededChunkMemory() {
       long dataRequirement = blockCount * blockLength * 1L;
@@ -401,15 +703,31 @@ public class JsonResultChunk extends SnowflakeResultChunk {
           metaBlockCount * metaBlockLength * 4L // offsets
               + metaBlockCount * metaBlockLength / 8L // isNulls
               + 1L; // lastLength
+      long typedRequirement = 0;
+      if (columnStorage != null) {
+        for (ColumnStorage storage : columnStorage) {
+          if (storage != ColumnStorage.TEXT) {
+            typedRequirement += rowCount * 8L + rowCount / 8L; // values and typedRows
+          }
+        }
+      }
 
-      return dataRequirement + metadataRequirement;
+      return dataRequirement + metadataRequirement + typedRequirement;
     }
 
     @Override
-    public void freeData() {
+    public void freeData(boolean reusable) {
+      if (reusable) {
+        ResultChunkSlabPool pool = ResultChunkSlabPool.getInstance();
+        data.forEach(pool::releaseDataSlab);
+        offsets.forEach(pool::releaseOffsetSlab);
+      }
       data.clear();
       offsets.clear();
-      isNulls.clear();
+      if (columnStorage != null) {
+        Arrays.fill(typedValues, null);
+        Arrays.fill(typedRows, null);
+      }
     }
 
     private static int getBlock(int offset) {
@@ -434,102 +752,35 @@ public class JsonResultChunk extends SnowflakeResultChunk {
 
     private void allocateArrays() {
       logger.debug("allocating {} B for ResultChunk", computeNeededChunkMemory());
+      ResultChunkSlabPool pool = ResultChunkSlabPool.getInstance();
       while (data.size() < blockCount) {
-        data.add(new byte[1 << blockLengthBits]);
+        data.add(pool.acquireDataSlab());
       }
       while (offsets.size() < metaBlockCount) {
-        offsets.add(new int[1 << metaBlockLengthBits]);
-        isNulls.add(new BitSet(1 << metaBlockLengthBits));
+        offsets.add(pool.acquireOffsetSlab());
       }
       logger.debug("allocated {} B for ResultChunk", computeNeededChunkMemory());
     }
 
     // blocks for storing the string data
     int blockCount;
-    private static final int blockLengthBits = 23;
+    private static final int blockLengthBits = ResultChunkSlabPool.DATA_SLAB_BITS;
     private static int blockLength = 1 << blockLengthBits;
-    private final ArrayList<byte[]> data = new ArrayList<>();
+    private final ArrayList<ByteBuffer> data = new ArrayList<>();
     SFBaseSession session;
 
     // blocks for storing offsets and lengths
     int metaBlockCount;
-    private static int metaBlockLengthBits = 15;
+    private static int metaBlockLengthBits = ResultChunkSlabPool.OFFSET_SLAB_BITS;
     private static int metaBlockLength = 1 << metaBlockLengthBits;
-    private final ArrayList<int[]> offsets = new ArrayList<>();
-    private final ArrayList<BitSet> isNulls = new ArrayList<>();
+    private final ArrayList<ResultChunkSlabPool.OffsetSlab> offsets = new ArrayList<>();
     private int lastLength;
     private int rowCount, colCount;
     private int nextIndex = 0;
-  }
-
-  /** Cache the data, offset and length blocks */
-  static class ResultChunkDataCache {
-    /**
-     * Add the data to the cache. CAUTION: The result chunk is not usable afterward
-     *
-     * @param chunk add this to the cache
-     */
-    void add(JsonResultChunk chunk) {
-      cache.add(new SoftReference<>(chunk.data));
-      chunk.data = null;
-    }
-
-    /**
-     * Creates a new ResultChunkData which reuses as much blocks as possible
-     *
-     * @param data fill this with reused blocks
-     */
-    void reuseOrCreateResultData(ResultChunkData data) {
-      List<SoftReference<ResultChunkData>> remove = new ArrayList<>();
-      try {
-        for (SoftReference<ResultChunkData> ref : cache) {
-          ResultChunkData dat = ref.get();
-          if (dat == null) {
-            remove.add(ref);
-            continue;
-          }
-          if (dat instanceof BlockResultChunkDataV2) {
-            BlockResultChunkDataV2 bTargetData = (BlockResultChunkDataV2) data;
-            BlockResultChunkDataV2 bCachedDat = (BlockResultChunkDataV2) dat;
-            if (bCachedDat.data.size() == 0 && bCachedDat.offsets.size() == 0) {
-              remove.add(ref);
-              continue;
-            }
-
-            while (bTargetData.data.size() < bTargetData.blockCount && bCachedDat.data.size() > 0) {
-              bTargetData.data.add(bCachedDat.data.remove(bCachedDat.data.size() - 1));
-            }
-            while (bTargetData.offsets.size() < bTargetData.metaBlockCount
-                && bCachedDat.offsets.size() > 0) {
-              bTargetData.offsets.add(bCachedDat.offsets.remove(bCachedDat.offsets.size() - 1));
-              BitSet isNulls = bCachedDat.isNulls.remove(bCachedDat.isNulls.size() - 1);
-              isNulls.clear(); // SNOW-80208 have to clear isNulls explicitly
-              bTargetData.isNulls.add(isNulls);
-            }
-            if (bTargetData.data.size() == bTargetData.blockCount
-                && bTargetData.offsets.size() == bTargetData.metaBlockCount) {
-              return;
-            }
-          } else {
-            remove.add(ref);
-          }
-        }
-      } finally {
-        cache.removeAll(remove);
-      }
-    }
-
-    /** Let GC collect all data hold by the cache */
-    void clear() {
-      for (SoftReference<ResultChunkData> ref : cache) {
-        ResultChunkData dat = ref.get();
-        if (dat != null) {
-          dat.freeData();
-        }
-      }
-      cache.clear();
-    }
 
-    List<SoftReference<ResultChunkData>> cache = new LinkedList<>();
+    // primitive values of the typed columns, null if all cells are stored as text
+    private final ColumnStorage[] columnStorage;
+    private long[][] typedValues;
+    private BitSet[] typedRows;
   }
 }
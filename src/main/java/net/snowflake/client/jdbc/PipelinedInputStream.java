@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * Stage of a result chunk download pipeline.
+ *
+ * <p>The source stream is read on a separate thread into a bounded queue of buffers, and this
+ * stream hands the buffers to the consumer. Chaining stages, e.g. network read, gzip inflate and
+ * parsing, lets every stage of a single chunk run on its own core. When the queue is full the stage
+ * waits for the consumer, so the memory of a stage is bounded by {@link #MAX_QUEUED_BUFFERS}
+ * buffers of {@link #BUFFER_SIZE} bytes.
+ *
+ * <p>The stages run on the bounded executor of the chunk downloader. A stage which cannot get a
+ * thread is not pipelined, its source is read by the consumer instead, see {@link
+ * #pipeline(InputStream, String, ExecutorService)}.
+ */
+class PipelinedInputStream extends InputStream {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(PipelinedInputStream.class);
+
+  static final int BUFFER_SIZE = 256 * 1024;
+
+  static final int MAX_QUEUED_BUFFERS = 4;
+
+  // marks the end of the source in the queue
+  private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+  private final String stageName;
+  private final InputStream source;
+  // set by whoever closes the source: the stage thread, or close() if the stage has not started
+  private final AtomicBoolean sourceOwned = new AtomicBoolean();
+  private final BlockingQueue<ByteBuffer> filledBuffers =
+      new ArrayBlockingQueue<>(MAX_QUEUED_BUFFERS);
+  private final BlockingQueue<ByteBuffer> freeBuffers =
+      new ArrayBlockingQueue<>(MAX_QUEUED_BUFFERS + 1);
+  private final Future<?> producer;
+
+  // error of the stage thread, reported to the consumer at the end of the queue
+  private volatile Throwable sourceError;
+
+  private ByteBuffer current;
+  private boolean endOfStream;
+  private boolean closed;
+
+  /**
+   * Start reading the source on a separate thread. The source is closed by that thread.
+   *
+   * @param source the stream to read ahead
+   * @param stageName name of the stage for logging
+   * @param stageExecutor runs the stage
+   * @throws RejectedExecutionException if the executor has no thread for the stage
+   */
+  PipelinedInputStream(InputStream source, String stageName, ExecutorService stageExecutor) {
+    this.stageName = stageName;
+    this.source = source;
+    this.producer = stageExecutor.submit(this::readSource);
+  }
+
+  /**
+   * Read the source ahead on a thread of the executor if one is available.
+   *
+   * <p>The executor must reject the stage rather than queue it: the consumer would otherwise wait
+   * for a stage which only runs after the consumer's own task has completed.
+   *
+   * @param source the stream to read ahead
+   * @param stageName name of the stage for logging
+   * @param stageExecutor runs the stage
+   * @return the pipelined stream, or the source if the executor rejected the stage
+   */
+  static InputStream pipeline(InputStream source, String stageName, ExecutorService stageExecutor) {
+    try {
+      return new PipelinedInputStream(source, stageName, stageExecutor);
+    } catch (RejectedExecutionException ex) {
+      logger.debug("No thread for pipeline stage {}, reading it inline", stageName);
+      return source;
+    }
+  }
+
+  private void readSource() {
+    if (!sourceOwned.compareAndSet(false, true)) {
+      return;
+    }
+    try (InputStream in = source) {
+      while (true) {
+        ByteBuffer buffer = freeBuffers.poll();
+        if (buffer == null) {
+          buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        ((Buffer) buffer).clear();
+        int len = 0;
+        while (buffer.hasRemaining()
+            && (len = in.read(buffer.array(), buffer.position(), buffer.remaining())) != -1) {
+          ((Buffer) buffer).position(buffer.position() + len);
+        }
+        ((Buffer) buffer).flip();
+        if (buffer.hasRemaining()) {
+          filledBuffers.put(buffer);
+        }
+        if (len == -1) {
+          break;
+        }
+      }
+    } catch (InterruptedException ex) {
+      // the consumer has closed the stream
+      logger.debug("Pipeline stage {} has been cancelled", stageName);
+      return;
+    } catch (Throwable th) {
+      logger.debug("Pipeline stage {} failed: {}", stageName, th.getMessage());
+      sourceError = th;
+    }
+    try {
+      filledBuffers.put(END_OF_STREAM);
+    } catch (InterruptedException ex) {
+      logger.debug("Pipeline stage {} has been cancelled", stageName);
+    }
+  }
+
+  /**
+   * @return true if there is data to read, false at the end of the source
+   */
+  private boolean nextBuffer() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (current != null && current.hasRemaining()) {
+      return true;
+    }
+    if (endOfStream) {
+      return false;
+    }
+    if (current != null) {
+      freeBuffers.offer(current);
+      current = null;
+    }
+    ByteBuffer buffer;
+    try {
+      buffer = filledBuffers.take();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for pipeline stage " + stageName);
+    }
+    if (buffer == END_OF_STREAM) {
+      endOfStream = true;
+      Throwable error = sourceError;
+      if (error != null) {
+        if (error instanceof IOException) {
+          throw new IOException(error.getMessage(), error);
+        }
+        throw new IOException("Pipeline stage " + stageName + " failed: " + error, error);
+      }
+      return false;
+    }
+    current = buffer;
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    return nextBuffer() ? current.get() & 0xFF : -1;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!nextBuffer()) {
+      return -1;
+    }
+    int count = Math.min(len, current.remaining());
+    current.get(b, off, count);
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return current != null ? current.remaining() : 0;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (!endOfStream) {
+      // stop the stage, it closes the source
+      producer.cancel(true);
+      filledBuffers.clear();
+      if (sourceOwned.compareAndSet(false, true)) {
+        try {
+          source.close();
+        } catch (IOException ex) {
+          logger.debug("Failed to close the source of pipeline stage {}", stageName);
+        }
+      }
+    }
+    current = null;
+    freeBuffers.clear();
+  }
+}
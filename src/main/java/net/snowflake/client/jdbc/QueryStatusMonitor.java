@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static net.snowflake.client.core.QueryStatus.NO_DATA;
+
+import com.google.api.client.util.Strings;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.snowflake.client.core.QueryStatus;
+import net.snowflake.client.core.SFBaseSession;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * Waits for the completion of asynchronous queries in the background.
+ *
+ * <p>The monitor tracks the pending queries of all sessions. Every tick, the queries which are due
+ * for a poll are polled by the worker threads, the oldest due first. Each poll is one status
+ * request for one query, the requests are not batched. Each query backs off as the asynchronous
+ * result sets have always done. The connection properties of a session limit the rate of its status
+ * requests:
+ *
+ * <ul>
+ *   <li>asyncQueryStatusPollsPerSecond: the poll interval of the queries stretches with their
+ *       number, so that the session sends about this many requests per second. The interval does
+ *       not stretch beyond the longest backoff of 5 seconds, so a session with many pending queries
+ *       may send more requests.
+ *   <li>asyncQueryStatusRequestsInFlight: the number of status requests of the session which may
+ *       run at the same time. Due queries beyond it are polled when a request returns.
+ * </ul>
+ *
+ * <p>The statuses are retrieved with {@link SFBaseSession#getQueryStatusV2}, which returns a new
+ * object for every request, so the errors of queries polled at the same time do not mix up. All
+ * waiters of a query share its polls, and a status retrieved by {@link
+ * SnowflakeResultSet#getStatus()} or {@link SnowflakeResultSet#getStatusV2()} is passed to the
+ * monitor, so the waiters are woken up without waiting for the next poll.
+ */
+final class QueryStatusMonitor {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(QueryStatusMonitor.class);
+
+  // multiples of the poll interval between two polls of a query, the last one repeats
+  private static final int[] RETRY_PATTERN = {1, 1, 2, 3, 4, 8, 10};
+
+  private static final long POLL_INTERVAL_MILLIS = 500;
+
+  private static final long TICK_MILLIS = 100;
+
+  // a query whose status is not returned after about 2 minutes is given up
+  private static final int NO_DATA_MAX_RETRIES = 30;
+
+  // the workers send the status requests of all sessions, idle workers are stopped
+  private static final int POLL_THREADS = 32;
+
+  private static final QueryStatusMonitor instance =
+      new QueryStatusMonitor(
+          Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("query-status-monitor-")),
+          createPollExecutor(),
+          POLL_INTERVAL_MILLIS,
+          TICK_MILLIS);
+
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService pollExecutor;
+  private final long pollIntervalMillis;
+  private final long maxPollIntervalMillis;
+  private final long tickMillis;
+
+  // pending queries by session, guarded by this
+  private final Map<SFBaseSession, SessionQueries> sessions = new IdentityHashMap<>();
+
+  // periodic tick, running while there are pending queries, guarded by this
+  private ScheduledFuture<?> ticker;
+
+  QueryStatusMonitor(
+      ScheduledExecutorService scheduler,
+      ExecutorService pollExecutor,
+      long pollIntervalMillis,
+      long tickMillis) {
+    this.scheduler = scheduler;
+    this.pollExecutor = pollExecutor;
+    this.pollIntervalMillis = pollIntervalMillis;
+    this.maxPollIntervalMillis = pollIntervalMillis * RETRY_PATTERN[RETRY_PATTERN.length - 1];
+    this.tickMillis = tickMillis;
+  }
+
+  static QueryStatusMonitor getInstance() {
+    return instance;
+  }
+
+  private static ExecutorService createPollExecutor() {
+    ThreadPoolExecutor pollExecutor =
+        new ThreadPoolExecutor(
+            POLL_THREADS,
+            POLL_THREADS,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            daemonThreadFactory("query-status-poll-"));
+    pollExecutor.allowCoreThreadTimeOut(true);
+    return pollExecutor;
+  }
+
+  private static ThreadFactory daemonThreadFactory(String namePrefix) {
+    return new ThreadFactory() {
+      private final AtomicInteger threadCount = new AtomicInteger(1);
+
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, namePrefix + threadCount.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+  }
+
+  private static long nowMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+  }
+
+  /** Pending queries of a session */
+  private static final class SessionQueries {
+    private final Map<String, PendingQuery> queries = new LinkedHashMap<>();
+
+    // status requests per second the poll intervals are stretched to
+    private final int pollsPerSecond;
+
+    // status requests which may run at the same time
+    private final int maxRequestsInFlight;
+
+    // status requests which have been started and have not returned
+    private int requestsInFlight;
+
+    SessionQueries(SFBaseSession session) {
+      this.pollsPerSecond = Math.max(1, session.getAsyncQueryStatusPollsPerSecond());
+      this.maxRequestsInFlight = Math.max(1, session.getAsyncQueryStatusRequestsInFlight());
+    }
+  }
+
+  /** A query which has not completed, and the futures of its waiters */
+  private static final class PendingQuery {
+    private final SFBaseSession session;
+    private final SessionQueries sessionQueries;
+    private final String queryID;
+    private final List<CompletableFuture<QueryStatus>> waiters = new ArrayList<>();
+    private long nextPollMillis;
+    private int retry;
+    private int noDataRetry;
+
+    // true while the status request of the query is running
+    private boolean polling;
+
+    PendingQuery(
+        SFBaseSession session, SessionQueries sessionQueries, String queryID, long nextPollMillis) {
+      this.session = session;
+      this.sessionQueries = sessionQueries;
+      this.queryID = queryID;
+      this.nextPollMillis = nextPollMillis;
+    }
+  }
+
+  /**
+   * Wait for the completion of a query in the background. Cancelling the future removes the waiter,
+   * and the polls of the query stop when it has no waiters left.
+   *
+   * @param session the session which runs the query
+   * @param queryID query ID
+   * @return future completed with SUCCESS when the query succeeds, or completed exceptionally with
+   *     a SQLException when the query fails or its status cannot be retrieved
+   */
+  CompletableFuture<QueryStatus> awaitCompletion(SFBaseSession session, String queryID) {
+    CompletableFuture<QueryStatus> waiter = new CompletableFuture<>();
+    PendingQuery query;
+    synchronized (this) {
+      SessionQueries sessionQueries = sessions.computeIfAbsent(session, SessionQueries::new);
+      query =
+          sessionQueries.queries.computeIfAbsent(
+              queryID, id -> new PendingQuery(session, sessionQueries, id, nowMillis()));
+      query.waiters.add(waiter);
+      if (ticker == null) {
+        try {
+          ticker =
+              scheduler.scheduleWithFixedDelay(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+          remove(query);
+          waiter.completeExceptionally(
+              new SQLException("Cannot monitor the status of query " + queryID, ex));
+          return waiter;
+        }
+      }
+    }
+    waiter.whenComplete(
+        (status, ex) -> {
+          if (waiter.isCancelled()) {
+            removeWaiter(query, waiter);
+          }
+        });
+    return waiter;
+  }
+
+  /**
+   * Pass a status retrieved outside the monitor. The waiters of the query are completed if the
+   * query has completed, otherwise its next poll is postponed.
+   *
+   * @param session the session which runs the query
+   * @param queryID query ID
+   * @param status the status of the query
+   */
+  void statusObserved(SFBaseSession session, String queryID, QueryStatusV2 status) {
+    PendingQuery query;
+    synchronized (this) {
+      query = getPendingQuery(session, queryID);
+      if (query == null) {
+        return;
+      }
+      if (status.isStillRunning()) {
+        query.nextPollMillis = Math.max(query.nextPollMillis, nowMillis() + pollIntervalMillis);
+        return;
+      }
+    }
+    complete(query, status.getStatus(), failureOf(status));
+  }
+
+  /**
+   * Pass a status retrieved outside the monitor by the deprecated {@link
+   * SFBaseSession#getQueryStatus}. The error of a failed query is held by the shared enum constant,
+   * which may have been overwritten by another query, so the query is polled at the next tick
+   * instead of failing its waiters with that error.
+   *
+   * @param session the session which runs the query
+   * @param queryID query ID
+   * @param status the status of the query
+   */
+  void statusObserved(SFBaseSession session, String queryID, QueryStatus status) {
+    PendingQuery query;
+    synchronized (this) {
+      query = getPendingQuery(session, queryID);
+      if (query == null) {
+        return;
+      }
+      if (status != QueryStatus.SUCCESS) {
+        query.nextPollMillis =
+            QueryStatus.isStillRunning(status)
+                ? Math.max(query.nextPollMillis, nowMillis() + pollIntervalMillis)
+                : nowMillis();
+        return;
+      }
+    }
+    complete(query, QueryStatus.SUCCESS, null);
+  }
+
+  /** Get a monitored query, called with the lock held */
+  private PendingQuery getPendingQuery(SFBaseSession session, String queryID) {
+    SessionQueries sessionQueries = sessions.get(session);
+    return sessionQueries == null ? null : sessionQueries.queries.get(queryID);
+  }
+
+  /** Start the polls of the queries which are due */
+  private void tick() {
+    long now = nowMillis();
+    List<PendingQuery> polls = new ArrayList<>();
+    synchronized (this) {
+      if (sessions.isEmpty()) {
+        ticker.cancel(false);
+        ticker = null;
+        return;
+      }
+      for (SessionQueries sessionQueries : sessions.values()) {
+        int freeRequests = sessionQueries.maxRequestsInFlight - sessionQueries.requestsInFlight;
+        if (freeRequests <= 0) {
+          continue;
+        }
+        List<PendingQuery> due = new ArrayList<>();
+        for (PendingQuery query : sessionQueries.queries.values()) {
+          if (!query.polling && query.nextPollMillis <= now) {
+            due.add(query);
+          }
+        }
+        if (due.size() > freeRequests) {
+          due.sort(Comparator.comparingLong(query -> query.nextPollMillis));
+          due = due.subList(0, freeRequests);
+        }
+        for (PendingQuery query : due) {
+          query.polling = true;
+          sessionQueries.requestsInFlight++;
+          polls.add(query);
+        }
+      }
+    }
+    for (PendingQuery query : polls) {
+      try {
+        pollExecutor.execute(() -> poll(query));
+      } catch (RejectedExecutionException ex) {
+        logger.debug("Failed to start the poll of query {}: {}", query.queryID, ex.getMessage());
+        // the query is polled again at the next tick
+        pollDone(query);
+      }
+    }
+  }
+
+  /** Poll the status of a query */
+  private void poll(PendingQuery query) {
+    try {
+      synchronized (this) {
+        if (query.waiters.isEmpty()) {
+          return;
+        }
+      }
+      QueryStatusV2 status;
+      try {
+        status = query.session.getQueryStatusV2(query.queryID);
+      } catch (SQLException | RuntimeException ex) {
+        logger.debug("Failed to get the status of query {}: {}", query.queryID, ex.getMessage());
+        complete(query, null, ex);
+        return;
+      }
+      if (!status.isStillRunning()) {
+        complete(query, status.getStatus(), failureOf(status));
+        return;
+      }
+      // if no data about the query is returned after about 2 minutes, give up
+      if (status.getStatus() == NO_DATA && ++query.noDataRetry >= NO_DATA_MAX_RETRIES) {
+        complete(
+            query,
+            status.getStatus(),
+            new SQLException(
+                "Cannot retrieve data on the status of this query. No information returned from server for queryID="
+                    + query.queryID
+                    + "."));
+        return;
+      }
+      synchronized (this) {
+        query.nextPollMillis =
+            nowMillis()
+                + getPollDelayMillis(
+                    pollIntervalMillis * RETRY_PATTERN[query.retry],
+                    query.sessionQueries.queries.size(),
+                    query.sessionQueries.pollsPerSecond,
+                    maxPollIntervalMillis);
+        if (query.retry < RETRY_PATTERN.length - 1) {
+          query.retry++;
+        }
+      }
+    } finally {
+      pollDone(query);
+    }
+  }
+
+  /** Release the status request of a query */
+  private synchronized void pollDone(PendingQuery query) {
+    SessionQueries sessionQueries = query.sessionQueries;
+    query.polling = false;
+    sessionQueries.requestsInFlight--;
+    if (sessionQueries.queries.isEmpty() && sessionQueries.requestsInFlight == 0) {
+      sessions.remove(query.session, sessionQueries);
+    }
+  }
+
+  /**
+   * Get the delay until the next poll of a query. The backoff of the query is stretched so that the
+   * pending queries of the session are polled at about the given rate, but not beyond the longest
+   * poll interval.
+   *
+   * @param backoffMillis the backoff of the query
+   * @param pendingQueries number of pending queries of the session
+   * @param pollsPerSecond status requests per second of the session
+   * @param maxPollIntervalMillis the longest poll interval
+   * @return the delay in milliseconds
+   */
+  static long getPollDelayMillis(
+      long backoffMillis, int pendingQueries, int pollsPerSecond, long maxPollIntervalMillis) {
+    long spreadMillis = pendingQueries * 1000L / pollsPerSecond;
+    return Math.max(backoffMillis, Math.min(spreadMillis, maxPollIntervalMillis));
+  }
+
+  /**
+   * @return the error of a query which is not running due to a failure (Aborted, failed with error,
+   *     etc), null if the query succeeded or is still running
+   */
+  private static SQLException failureOf(QueryStatusV2 status) {
+    if (status.isSuccess() || status.isStillRunning()) {
+      return null;
+    }
+    String errorMessage = status.getErrorMessage();
+    if (Strings.isNullOrEmpty(errorMessage)) {
+      errorMessage = "No error message available";
+    }
+    return new SQLException(
+        "Status of query associated with resultSet is "
+            + status.getDescription()
+            + ". "
+            + errorMessage
+            + " Results not generated.");
+  }
+
+  /** Remove a completed query and complete its waiters */
+  private void complete(PendingQuery query, QueryStatus status, Throwable error) {
+    List<CompletableFuture<QueryStatus>> waiters;
+    synchronized (this) {
+      remove(query);
+      waiters = new ArrayList<>(query.waiters);
+      query.waiters.clear();
+    }
+    for (CompletableFuture<QueryStatus> waiter : waiters) {
+      if (error != null) {
+        waiter.completeExceptionally(error);
+      } else {
+        waiter.complete(status);
+      }
+    }
+  }
+
+  private synchronized void removeWaiter(
+      PendingQuery query, CompletableFuture<QueryStatus> waiter) {
+    query.waiters.remove(waiter);
+    if (query.waiters.isEmpty()) {
+      remove(query);
+    }
+  }
+
+  /** Stop monitoring a query, called with the lock held */
+  private void remove(PendingQuery query) {
+    SessionQueries sessionQueries = sessions.get(query.session);
+    if (sessionQueries != null && sessionQueries.queries.get(query.queryID) == query) {
+      sessionQueries.queries.remove(query.queryID);
+      if (sessionQueries.queries.isEmpty() && sessionQueries.requestsInFlight == 0) {
+        sessions.remove(query.session);
+      }
+    }
+  }
+
+  /**
+   * @return number of queries which are monitored
+   */
+  synchronized int getPendingQueryCount() {
+    int count = 0;
+    for (SessionQueries sessionQueries : sessions.values()) {
+      count += sessionQueries.queries.size();
+    }
+    return count;
+  }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * JVM-wide budget for the memory used by downloaded result chunks.
+ *
+ * <p>Every {@link SnowflakeChunkDownloader} registers an account which is grouped by connection.
+ * While memory is contended, i.e. while at least one result set is blocked waiting for memory, a
+ * result set may only prefetch up to its fair share of the memory limit. The limit is split evenly
+ * between the connections which have open result sets, and the share of a connection is split
+ * evenly between its result sets. Without contention a result set may use the whole limit.
+ *
+ * <p>A result set which needs memory for the chunk the consumer is about to read blocks until
+ * enough memory has been released by other result sets instead of polling.
+ */
+public final class ResultChunkMemoryBudget {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(ResultChunkMemoryBudget.class);
+
+  private static final ResultChunkMemoryBudget INSTANCE = new ResultChunkMemoryBudget();
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // signalled whenever memory is released or an account goes away
+  private final Condition memoryReleased = lock.newCondition();
+
+  // number of open result sets per connection
+  private final Map<Object, Integer> resultSetsPerConnection = new IdentityHashMap<>();
+
+  // result sets which wait for memory without blocking, notified once when memory is released
+  private final Map<Account, Runnable> releaseListeners = new IdentityHashMap<>();
+
+  private long currentUsage;
+  private long peakUsage;
+  private int activeResultSets;
+  private int blockedResultSets;
+
+  private long grantedReservations;
+  private long deniedReservations;
+  private long blockedReservations;
+  private long totalBlockedMillis;
+
+  ResultChunkMemoryBudget() {}
+
+  /**
+   * @return the JVM-wide budget shared by all result sets
+   */
+  public static ResultChunkMemoryBudget getInstance() {
+    return INSTANCE;
+  }
+
+  /** Memory reserved by one result set */
+  static final class Account {
+    private final Object connectionKey;
+    private long usage;
+    private boolean registered = true;
+
+    private Account(Object connectionKey) {
+      this.connectionKey = connectionKey;
+    }
+
+    long getUsage() {
+      return usage;
+    }
+  }
+
+  /**
+   * Register a new result set.
+   *
+   * @param connectionKey identifies the connection of the result set, may be null if the result set
+   *     is not bound to a connection
+   * @return the account used for all reservations of the result set
+   */
+  Account register(Object connectionKey) {
+    lock.lock();
+    try {
+      Account account = new Account(connectionKey);
+      Object key = connectionKey != null ? connectionKey : account;
+      resultSetsPerConnection.merge(key, 1, Integer::sum);
+      activeResultSets++;
+      return account;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Unregister a result set. Memory which is still reserved by the account is released.
+   *
+   * @param account the account of the result set
+   */
+  void unregister(Account account) {
+    List<Runnable> listeners;
+    lock.lock();
+    try {
+      if (!account.registered) {
+        return;
+      }
+      account.registered = false;
+      currentUsage -= account.usage;
+      account.usage = 0;
+      Object key = account.connectionKey != null ? account.connectionKey : account;
+      resultSetsPerConnection.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+      activeResultSets--;
+      releaseListeners.remove(account);
+      memoryReleased.signalAll();
+      listeners = takeReleaseListeners();
+    } finally {
+      lock.unlock();
+    }
+    notifyReleaseListeners(listeners);
+  }
+
+  /**
+   * Try to reserve memory for a prefetched chunk without blocking. The reservation is denied if it
+   * would exceed the memory limit or if the result set already uses more than its fair share while
+   * other result sets are waiting for memory.
+   *
+   * @param account the account of the result set
+   * @param bytes memory to reserve
+   * @param memoryLimit the memory limit of the result set
+   * @return true if the memory has been reserved
+   */
+  boolean tryReserve(Account account, long bytes, long memoryLimit) {
+    lock.lock();
+    try {
+      if (canReserve(account, bytes, memoryLimit)) {
+        reserve(account, bytes);
+        return true;
+      }
+      deniedReservations++;
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Try to reserve memory for the chunk the consumer needs next without blocking. Like {@link
+   * #reserve(Account, long, long, long)} the fair share does not apply. If the memory is not
+   * available, the listener is run once, on the releasing thread, when memory is released next.
+   *
+   * @param account the account of the result set
+   * @param bytes memory to reserve
+   * @param memoryLimit the memory limit of the result set
+   * @param onRelease called when memory is released if the reservation is denied, must not block
+   * @return true if the memory has been reserved
+   */
+  boolean tryReserveOrNotify(Account account, long bytes, long memoryLimit, Runnable onRelease) {
+    lock.lock();
+    try {
+      if (currentUsage + bytes <= memoryLimit) {
+        releaseListeners.remove(account);
+        reserve(account, bytes);
+        return true;
+      }
+      deniedReservations++;
+      if (account.registered) {
+        releaseListeners.put(account, onRelease);
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Reserve memory for the chunk the consumer needs next, blocking until enough memory has been
+   * released or the timeout elapses.
+   *
+   * @param account the account of the result set
+   * @param bytes memory to reserve
+   * @param memoryLimit the memory limit of the result set
+   * @param timeoutMillis maximum time to wait
+   * @return true if the memory has been reserved
+   * @throws InterruptedException if the waiting thread has been interrupted
+   */
+  boolean reserve(Account account, long bytes, long memoryLimit, long timeoutMillis)
+      throws InterruptedException {
+    lock.lock();
+    try {
+      if (currentUsage + bytes <= memoryLimit) {
+        reserve(account, bytes);
+        return true;
+      }
+
+      blockedReservations++;
+      blockedResultSets++;
+      long startTime = System.currentTimeMillis();
+      long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      try {
+        while (currentUsage + bytes > memoryLimit) {
+          if (remainingNanos <= 0) {
+            logger.debug(
+                "Timed out waiting for {} bytes of result chunk memory, current usage: {},"
+                    + " limit: {}",
+                bytes,
+                currentUsage,
+                memoryLimit);
+            deniedReservations++;
+            return false;
+          }
+          remainingNanos = memoryReleased.awaitNanos(remainingNanos);
+        }
+        reserve(account, bytes);
+        return true;
+      } finally {
+        blockedResultSets--;
+        totalBlockedMillis += System.currentTimeMillis() - startTime;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Release memory reserved by a result set.
+   *
+   * @param account the account of the result set
+   * @param bytes memory to release
+   */
+  void release(Account account, long bytes) {
+    List<Runnable> listeners;
+    lock.lock();
+    try {
+      if (!account.registered) {
+        return;
+      }
+      long released = Math.min(bytes, account.usage);
+      account.usage -= released;
+      currentUsage -= released;
+      memoryReleased.signalAll();
+      listeners = takeReleaseListeners();
+    } finally {
+      lock.unlock();
+    }
+    notifyReleaseListeners(listeners);
+  }
+
+  /** Remove the release listeners, called with the lock held */
+  private List<Runnable> takeReleaseListeners() {
+    if (releaseListeners.isEmpty()) {
+      return null;
+    }
+    List<Runnable> listeners = new ArrayList<>(releaseListeners.values());
+    releaseListeners.clear();
+    return listeners;
+  }
+
+  /** Run the release listeners, called without the lock */
+  private static void notifyReleaseListeners(List<Runnable> listeners) {
+    if (listeners == null) {
+      return;
+    }
+    for (Runnable listener : listeners) {
+      try {
+        listener.run();
+      } catch (RuntimeException ex) {
+        logger.debug("Memory release listener failed: {}", ex.getMessage());
+      }
+    }
+  }
+
+  private boolean canReserve(Account account, long bytes, long memoryLimit) {
+    if (currentUsage + bytes > memoryLimit) {
+      return false;
+    }
+    // result sets waiting for memory, blocked or not, limit the others to their fair share
+    if ((blockedResultSets == 0 && releaseListeners.isEmpty()) || account.usage == 0) {
+      return true;
+    }
+    return account.usage + bytes <= getFairShare(account, memoryLimit);
+  }
+
+  private long getFairShare(Account account, long memoryLimit) {
+    int connections = Math.max(1, resultSetsPerConnection.size());
+    Object key = account.connectionKey != null ? account.connectionKey : account;
+    int resultSetsInConnection = Math.max(1, resultSetsPerConnection.getOrDefault(key, 1));
+    return memoryLimit / connections / resultSetsInConnection;
+  }
+
+  private void reserve(Account account, long bytes) {
+    account.usage += bytes;
+    currentUsage += bytes;
+    peakUsage = Math.max(peakUsage, currentUsage);
+    grantedReservations++;
+  }
+
+  /**
+   * @return memory currently reserved by all result sets in bytes
+   */
+  public long getCurrentUsage() {
+    lock.lock();
+    try {
+      return currentUsage;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return highest memory reserved at the same time in bytes
+   */
+  public long getPeakUsage() {
+    lock.lock();
+    try {
+      return peakUsage;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of result sets which have registered with the budget and not been closed
+   */
+  public int getActiveResultSets() {
+    lock.lock();
+    try {
+      return activeResultSets;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of connections with open result sets
+   */
+  public int getActiveConnections() {
+    lock.lock();
+    try {
+      return resultSetsPerConnection.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of result sets currently blocked waiting for memory
+   */
+  public int getBlockedResultSets() {
+    lock.lock();
+    try {
+      return blockedResultSets;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of reservations which have been granted
+   */
+  public long getGrantedReservations() {
+    lock.lock();
+    try {
+      return grantedReservations;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of reservations which have been denied or timed out
+   */
+  public long getDeniedReservations() {
+    lock.lock();
+    try {
+      return deniedReservations;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of reservations which had to wait for memory
+   */
+  public long getBlockedReservations() {
+    lock.lock();
+    try {
+      return blockedReservations;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return total time in millis result sets have been blocked waiting for memory
+   */
+  public long getTotalBlockedMillis() {
+    lock.lock();
+    try {
+      return totalBlockedMillis;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
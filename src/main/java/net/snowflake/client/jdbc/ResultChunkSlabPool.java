@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static net.snowflake.client.jdbc.SnowflakeUtil.systemGetProperty;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * JVM-wide pool of the blocks JSON result chunks store their data in.
+ *
+ * <p>A chunk takes its data slabs (8 MB of cell bytes) and offset slabs (offsets and null flags of
+ * 32768 cells) from the pool when it is downloaded and hands them back when it is freed, so the
+ * slabs are reused by the following chunks of all result sets instead of being left to the garbage
+ * collector. The size of the idle slabs is limited by the system property {@value #MAX_MB_PROPERTY}
+ * (in MB, default {@value #DEFAULT_MAX_MB}), further released slabs are dropped.
+ *
+ * <p>With the system property {@value #OFF_HEAP_PROPERTY} set to true the slabs are allocated as
+ * direct buffers outside of the Java heap, which keeps the large long-lived blocks out of the old
+ * generation. The direct memory is limited by -XX:MaxDirectMemorySize.
+ */
+public final class ResultChunkSlabPool {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(ResultChunkSlabPool.class);
+
+  public static final String MAX_MB_PROPERTY = "net.snowflake.jdbc.resultChunkSlabPoolMaxMB";
+
+  public static final String OFF_HEAP_PROPERTY = "net.snowflake.jdbc.resultChunkSlabPoolOffHeap";
+
+  static final int DEFAULT_MAX_MB = 64;
+
+  static final int DATA_SLAB_BITS = 23;
+
+  static final int DATA_SLAB_SIZE = 1 << DATA_SLAB_BITS;
+
+  static final int OFFSET_SLAB_BITS = 15;
+
+  static final int OFFSET_SLAB_ENTRIES = 1 << OFFSET_SLAB_BITS;
+
+  // offsets and null flags of one offset slab
+  static final long OFFSET_SLAB_BYTES = OFFSET_SLAB_ENTRIES * 4L + OFFSET_SLAB_ENTRIES / 8L;
+
+  private static ResultChunkSlabPool instance;
+
+  /** Offsets and null flags of a block of cells */
+  static final class OffsetSlab {
+    final IntBuffer offsets;
+    final BitSet isNulls = new BitSet(OFFSET_SLAB_ENTRIES);
+
+    private OffsetSlab(IntBuffer offsets) {
+      this.offsets = offsets;
+    }
+  }
+
+  private final long maxPooledBytes;
+  private final boolean offHeap;
+
+  private final ArrayDeque<ByteBuffer> dataSlabs = new ArrayDeque<>();
+  private final ArrayDeque<OffsetSlab> offsetSlabs = new ArrayDeque<>();
+  private long pooledBytes;
+
+  private long hits;
+  private long misses;
+  private long releases;
+  private long discards;
+
+  ResultChunkSlabPool(long maxPooledBytes, boolean offHeap) {
+    this.maxPooledBytes = maxPooledBytes;
+    this.offHeap = offHeap;
+  }
+
+  /**
+   * @return the pool shared by all result sets, configured from the system properties on first use
+   */
+  public static synchronized ResultChunkSlabPool getInstance() {
+    if (instance == null) {
+      long maxMB = DEFAULT_MAX_MB;
+      String maxMBValue = systemGetProperty(MAX_MB_PROPERTY);
+      if (maxMBValue != null) {
+        try {
+          maxMB = Long.parseLong(maxMBValue);
+        } catch (NumberFormatException ex) {
+          logger.info(
+              "Failed to parse the system parameter {} with value {}", MAX_MB_PROPERTY, maxMBValue);
+        }
+      }
+      boolean offHeap = Boolean.parseBoolean(systemGetProperty(OFF_HEAP_PROPERTY));
+      logger.debug("Result chunk slab pool keeps up to {} MB, off-heap: {}", maxMB, offHeap);
+      instance = new ResultChunkSlabPool(maxMB * 1024 * 1024, offHeap);
+    }
+    return instance;
+  }
+
+  /**
+   * @return a data slab of {@link #DATA_SLAB_SIZE} bytes, its content is undefined
+   */
+  ByteBuffer acquireDataSlab() {
+    synchronized (this) {
+      ByteBuffer slab = dataSlabs.pollLast();
+      if (slab != null) {
+        hits++;
+        pooledBytes -= DATA_SLAB_SIZE;
+        return slab;
+      }
+      misses++;
+    }
+    return offHeap
+        ? ByteBuffer.allocateDirect(DATA_SLAB_SIZE)
+        : ByteBuffer.wrap(new byte[DATA_SLAB_SIZE]);
+  }
+
+  /**
+   * @return an offset slab of {@link #OFFSET_SLAB_ENTRIES} entries without null flags
+   */
+  OffsetSlab acquireOffsetSlab() {
+    synchronized (this) {
+      OffsetSlab slab = offsetSlabs.pollLast();
+      if (slab != null) {
+        hits++;
+        pooledBytes -= OFFSET_SLAB_BYTES;
+        slab.isNulls.clear();
+        return slab;
+      }
+      misses++;
+    }
+    return new OffsetSlab(
+        offHeap
+            ? ByteBuffer.allocateDirect(OFFSET_SLAB_ENTRIES * 4).asIntBuffer()
+            : IntBuffer.wrap(new int[OFFSET_SLAB_ENTRIES]));
+  }
+
+  /**
+   * Hand a data slab back. The caller must not access the slab afterward.
+   *
+   * @param slab slab from {@link #acquireDataSlab()}
+   */
+  synchronized void releaseDataSlab(ByteBuffer slab) {
+    releases++;
+    if (pooledBytes + DATA_SLAB_SIZE > maxPooledBytes) {
+      discards++;
+      return;
+    }
+    pooledBytes += DATA_SLAB_SIZE;
+    dataSlabs.addLast(slab);
+  }
+
+  /**
+   * Hand an offset slab back. The caller must not access the slab afterward.
+   *
+   * @param slab slab from {@link #acquireOffsetSlab()}
+   */
+  synchronized void releaseOffsetSlab(OffsetSlab slab) {
+    releases++;
+    if (pooledBytes + OFFSET_SLAB_BYTES > maxPooledBytes) {
+      discards++;
+      return;
+    }
+    pooledBytes += OFFSET_SLAB_BYTES;
+    offsetSlabs.addLast(slab);
+  }
+
+  /** Drop all idle slabs */
+  public synchronized void clear() {
+    dataSlabs.clear();
+    offsetSlabs.clear();
+    pooledBytes = 0;
+  }
+
+  /**
+   * @return true if the slabs are allocated outside of the Java heap
+   */
+  public boolean isOffHeap() {
+    return offHeap;
+  }
+
+  /**
+   * @return maximum size of the idle slabs in bytes
+   */
+  public long getMaxPooledBytes() {
+    return maxPooledBytes;
+  }
+
+  /**
+   * @return size of the idle slabs in bytes
+   */
+  public synchronized long getPooledBytes() {
+    return pooledBytes;
+  }
+
+  /**
+   * @return number of slabs which have been taken from the pool
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * @return number of slabs which have been allocated because the pool was empty
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * @return number of slabs which have been handed back
+   */
+  public synchronized long getReleases() {
+    return releases;
+  }
+
+  /**
+   * @return number of handed back slabs which have been dropped because the pool was full
+   */
+  public synchronized long getDiscards() {
+    return discards;
+  }
+}
@@ -1,7 +1,13 @@
 package net.snowflake.client.jdbc;
 
+import static net.snowflake.client.core.Constants.MB;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.common.core.SqlState;
 
@@ -24,6 +30,14 @@ public class ResultJsonParserV2 {
   }
 
   private static final byte[] BNULL = {0x6e, 0x75, 0x6c, 0x6c};
+
+  static final int READ_BUFFER_SIZE = MB;
+
+  // read buffers of finished parsers, reused by the next chunks instead of allocating 1 MB each
+  private static final int MAX_POOLED_READ_BUFFERS = 8;
+  private static final BlockingQueue<byte[]> readBufferPool =
+      new ArrayBlockingQueue<>(MAX_POOLED_READ_BUFFERS);
+
   private State state = State.UNINITIALIZED;
   private int currentColumn;
   private int outputCurValuePosition;
@@ -56,6 +70,48 @@ public class ResultJsonParserV2 {
     outputDataLength = resultChunk.computeCharactersNeeded();
   }
 
+  /**
+   * Parse a whole chunk from the stream.
+   *
+   * <p>The data is read into a pooled buffer which is wrapped once. If a read ends inside an escape
+   * sequence, the few unparsed bytes are moved to the front of the buffer and the next read appends
+   * to them, so no memory is allocated per read.
+   *
+   * @param in the uncompressed chunk data
+   * @param resultChunk the chunk to fill
+   * @param session the session, may be null
+   * @throws IOException if reading the data fails
+   * @throws SnowflakeSQLException if the data cannot be parsed
+   */
+  public void parse(InputStream in, JsonResultChunk resultChunk, SFBaseSession session)
+      throws IOException, SnowflakeSQLException {
+    startParsing(resultChunk, session);
+    byte[] buf = readBufferPool.poll();
+    if (buf == null) {
+      buf = new byte[READ_BUFFER_SIZE];
+    }
+    try {
+      ByteBuffer bBuf = ByteBuffer.wrap(buf);
+      // number of unparsed bytes at the beginning of buf
+      int carryOver = 0;
+      int len;
+      while ((len = in.read(buf, carryOver, buf.length - carryOver)) != -1) {
+        ((Buffer) bBuf).limit(carryOver + len);
+        ((Buffer) bBuf).position(0);
+        continueParsingInternal(bBuf, false, session);
+        carryOver = bBuf.remaining();
+        if (carryOver > 0) {
+          System.arraycopy(buf, ((Buffer) bBuf).position(), buf, 0, carryOver);
+        }
+      }
+      ((Buffer) bBuf).limit(carryOver);
+      ((Buffer) bBuf).position(0);
+      endParsing(bBuf, session);
+    } finally {
+      readBufferPool.offer(buf);
+    }
+  }
+
   /**
    * Check if the chunk has been parsed correctly. After calling this it is safe to acquire the
    * output data
@@ -225,6 +281,9 @@ public class ResultJsonParserV2 {
                 if (length == 4 && isNull()) {
                   resultChunk.setIsNull();
                   outputPosition = outputCurValuePosition;
+                } else if (resultChunk.addTypedValue(outputCurValuePosition, length)) {
+                  // stored as primitive, the text is not needed
+                  outputPosition = outputCurValuePosition;
                 } else {
                   resultChunk.setLastLength(length);
                 }
@@ -240,9 +299,17 @@ public class ResultJsonParserV2 {
         case IN_STRING:
           switch (in.get()) {
             case 0x22: // '"'
-              resultChunk.setLastLength(outputPosition - outputCurValuePosition);
-              state = State.WAIT_FOR_NEXT;
-              break;
+              {
+                int length = outputPosition - outputCurValuePosition;
+                if (resultChunk.addTypedValue(outputCurValuePosition, length)) {
+                  // stored as primitive, the text is not needed
+                  outputPosition = outputCurValuePosition;
+                } else {
+                  resultChunk.setLastLength(length);
+                }
+                state = State.WAIT_FOR_NEXT;
+                break;
+              }
             case 0x5c: // '\\'
               state = State.ESCAPE;
               break;
@@ -314,7 +381,7 @@ public class ResultJsonParserV2 {
 
               // have to have at least 4+2+4=10 chars left to read
               // already saw "\\u", now missing "AAAA\\uAAAA"
-              if (in.remaining() >= 9 || (lastData && in.remaining() >= 3)) {
+              if (in.remaining() >= 10 || (lastData && in.remaining() >= 3)) {
                 if (!parseCodepoint(in)) {
                   throw new SnowflakeSQLLoggedException(
                       session,
@@ -324,7 +391,7 @@ public class ResultJsonParserV2 {
                 }
                 state = State.IN_STRING;
               } else {
-                // if the number of bytes left un-parsed in the buffer is less than 9 (unless it is
+                // if the number of bytes left un-parsed in the buffer is less than 10 (unless it is
                 // the last remaining data in the buffer),
                 // there is not enough bytes to parse the codepoint. Move the position back 1,
                 // so we can re-enter parsing at this position with the ESCAPE state.
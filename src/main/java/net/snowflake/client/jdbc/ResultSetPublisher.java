@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import net.snowflake.client.core.SFBaseResultSet;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * Publisher of the rows of a ResultSet, see {@link SnowflakeResultSet#publish(Executor)}.
+ *
+ * <p>The rows are emitted by a task on the executor, which runs while there is demand and the next
+ * row is ready. When the next row is in a chunk which is still being downloaded, the task returns
+ * and the completion of the download schedules it again, so no executor thread waits for the
+ * network. The demand bounds the chunk prefetch: chunks are only downloaded ahead as far as they
+ * hold rows which have been requested. Cancelling the subscription closes the ResultSet, which
+ * stops the downloads and releases the chunks.
+ */
+final class ResultSetPublisher implements SnowflakeFlow.Publisher<SnowflakeRow> {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(ResultSetPublisher.class);
+
+  private final ResultSet resultSet;
+  private final SFBaseResultSet sfResultSet;
+  private final Executor executor;
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  /**
+   * @param resultSet the ResultSet whose rows are published, closed when the subscription ends
+   * @param sfResultSet the core result set of the ResultSet, which tells when the rows are ready
+   * @param executor runs the emission of the rows
+   */
+  ResultSetPublisher(ResultSet resultSet, SFBaseResultSet sfResultSet, Executor executor) {
+    if (executor == null) {
+      throw new NullPointerException("executor");
+    }
+    this.resultSet = resultSet;
+    this.sfResultSet = sfResultSet;
+    this.executor = executor;
+  }
+
+  @Override
+  public void subscribe(SnowflakeFlow.Subscriber<? super SnowflakeRow> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber");
+    }
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(
+          new SnowflakeFlow.Subscription() {
+            @Override
+            public void request(long n) {}
+
+            @Override
+            public void cancel() {}
+          });
+      subscriber.onError(new IllegalStateException("The rows can only be published once"));
+      return;
+    }
+    RowSubscription subscription = new RowSubscription(subscriber);
+    sfResultSet.setChunkCompletionListener(subscription::schedule);
+    subscriber.onSubscribe(subscription);
+  }
+
+  private final class RowSubscription implements SnowflakeFlow.Subscription, Runnable {
+    private final SnowflakeFlow.Subscriber<? super SnowflakeRow> subscriber;
+
+    // rows requested which have not been emitted, Long.MAX_VALUE if unbounded
+    private final AtomicLong demand = new AtomicLong();
+
+    // number of times the emission has been scheduled and not handled yet
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile boolean cancelled;
+
+    // error of an invalid request, signaled by the emission task
+    private volatile Throwable requestError;
+
+    // the following fields are only used by the emission task
+    private boolean done;
+    private Map<String, Integer> columnIndexes;
+    private int columnCount;
+
+    RowSubscription(SnowflakeFlow.Subscriber<? super SnowflakeRow> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        requestError =
+            new IllegalArgumentException("The number of rows requested must be positive: " + n);
+        cancelled = true;
+      } else {
+        long current;
+        long next;
+        do {
+          current = demand.get();
+          if (current == Long.MAX_VALUE) {
+            return;
+          }
+          next = current + n;
+          if (next < 0) {
+            next = Long.MAX_VALUE;
+          }
+        } while (!demand.compareAndSet(current, next));
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      schedule();
+    }
+
+    /** Run the emission task unless it is already running, in which case it runs once more */
+    void schedule() {
+      if (pending.getAndIncrement() == 0) {
+        try {
+          executor.execute(this);
+        } catch (RuntimeException ex) {
+          logger.debug("Failed to schedule the emission of rows: {}", ex.getMessage());
+          pending.set(0);
+          if (!done) {
+            done = true;
+            release();
+            subscriber.onError(ex);
+          }
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+      do {
+        emit();
+        missed = pending.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void emit() {
+      if (done) {
+        return;
+      }
+      try {
+        if (columnIndexes == null && !cancelled) {
+          columnIndexes = SnowflakeRow.columnIndexes(resultSet.getMetaData());
+          columnCount = resultSet.getMetaData().getColumnCount();
+        }
+        long requested = demand.get();
+        if (requested != 0) {
+          sfResultSet.setPrefetchRowDemand(requested);
+        }
+        while (!cancelled) {
+          requested = demand.get();
+          if (requested == 0) {
+            return;
+          }
+          if (!sfResultSet.isNextRowReady()) {
+            // scheduled again when the download of the chunk completes
+            return;
+          }
+          if (!resultSet.next()) {
+            done = true;
+            release();
+            subscriber.onComplete();
+            return;
+          }
+          SnowflakeRow row = SnowflakeRow.read(resultSet, columnIndexes, columnCount);
+          if (requested != Long.MAX_VALUE && demand.decrementAndGet() == 0) {
+            // the prefetch follows the demand, which is renewed by the next request
+            sfResultSet.setPrefetchRowDemand(0);
+          }
+          subscriber.onNext(row);
+        }
+        done = true;
+        release();
+        Throwable error = requestError;
+        if (error != null) {
+          subscriber.onError(error);
+        }
+      } catch (Throwable th) {
+        done = true;
+        release();
+        subscriber.onError(th);
+      }
+    }
+
+    /** Close the ResultSet, which stops the downloads and releases the chunks */
+    private void release() {
+      sfResultSet.setChunkCompletionListener(null);
+      try {
+        resultSet.close();
+      } catch (SQLException ex) {
+        logger.debug("Failed to close the published ResultSet: {}", ex.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * Spliterator over the rows of a query result, see {@link SnowflakeResultSet#stream()}.
+ *
+ * <p>A stream which is not split reads the ResultSet itself, whose chunk downloader has already
+ * started to prefetch the chunks. The result is also described by one {@link
+ * SnowflakeResultSetSerializableV1} per result chunk, and the spliterator splits on the boundaries
+ * of these pieces. When the result is split, the chunk downloads of the ResultSet are stopped and
+ * each piece is read by its own sessionless ResultSet, which downloads the chunk with its own chunk
+ * downloader, so the pieces of a parallel stream are downloaded and decoded on the threads of the
+ * stream. A result without chunks to download is not split.
+ */
+final class ResultSetRowSpliterator implements Spliterator<SnowflakeRow> {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(ResultSetRowSpliterator.class);
+
+  /** Stops the chunk downloads of the ResultSet once its rows are read through the pieces */
+  interface ChunkDownloads {
+    void stop() throws SQLException;
+  }
+
+  private final Map<String, Integer> columnIndexes;
+  private final int columnCount;
+
+  // pieces of the result, this spliterator reads the pieces [nextPiece, endPiece)
+  private final List<SnowflakeResultSetSerializableV1> pieces;
+  private int nextPiece;
+  private final int endPiece;
+
+  // readers of all spliterators of the stream which have not been closed yet
+  private final Set<ResultSet> openReaders;
+
+  // the ResultSet itself, set until it is read or the result is split
+  private ResultSet owner;
+  private final ChunkDownloads ownerDownloads;
+
+  // reader of the current piece, or the ResultSet itself if the result is not split
+  private ResultSet reader;
+  private boolean readingOwner;
+
+  // number of rows left, unknown if the result is read from the ResultSet itself
+  private long remainingRows;
+
+  private ResultSetRowSpliterator(
+      Map<String, Integer> columnIndexes,
+      int columnCount,
+      List<SnowflakeResultSetSerializableV1> pieces,
+      int nextPiece,
+      int endPiece,
+      Set<ResultSet> openReaders,
+      ResultSet owner,
+      ChunkDownloads ownerDownloads,
+      long remainingRows) {
+    this.columnIndexes = columnIndexes;
+    this.columnCount = columnCount;
+    this.pieces = pieces;
+    this.nextPiece = nextPiece;
+    this.endPiece = endPiece;
+    this.openReaders = openReaders;
+    this.owner = owner;
+    this.ownerDownloads = ownerDownloads;
+    this.remainingRows = remainingRows;
+  }
+
+  /**
+   * Create the stream of the rows of a ResultSet.
+   *
+   * @param resultSet the ResultSet, positioned before the first row
+   * @param pieces one piece per result chunk, null if the result cannot be split
+   * @param chunkDownloads stops the chunk downloads of the ResultSet when the result is split
+   * @return sequential stream of the rows
+   */
+  static Stream<SnowflakeRow> stream(
+      ResultSet resultSet,
+      List<SnowflakeResultSetSerializableV1> pieces,
+      ChunkDownloads chunkDownloads)
+      throws SQLException {
+    ResultSetMetaData metaData = resultSet.getMetaData();
+    int columnCount = metaData.getColumnCount();
+    Map<String, Integer> columnIndexes = SnowflakeRow.columnIndexes(metaData);
+
+    Set<ResultSet> openReaders = ConcurrentHashMap.newKeySet();
+    ResultSetRowSpliterator spliterator;
+    if (pieces == null) {
+      spliterator =
+          new ResultSetRowSpliterator(
+              columnIndexes, columnCount, null, 0, 0, openReaders, resultSet, null, Long.MAX_VALUE);
+    } else {
+      long rowCount = 0;
+      for (SnowflakeResultSetSerializableV1 piece : pieces) {
+        rowCount += piece.getRowCount();
+      }
+      spliterator =
+          new ResultSetRowSpliterator(
+              columnIndexes,
+              columnCount,
+              pieces,
+              0,
+              pieces.size(),
+              openReaders,
+              resultSet,
+              chunkDownloads,
+              rowCount);
+    }
+    return StreamSupport.stream(spliterator, false)
+        .onClose(
+            () -> {
+              for (ResultSet openReader : openReaders) {
+                closeReader(openReader);
+              }
+              openReaders.clear();
+            });
+  }
+
+  private static void closeReader(ResultSet reader) {
+    try {
+      reader.close();
+    } catch (SQLException ex) {
+      logger.debug("Failed to close the reader of a result chunk: {}", ex.getMessage());
+    }
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super SnowflakeRow> action) {
+    try {
+      while (true) {
+        if (reader == null && owner != null) {
+          // not split, read the ResultSet itself and keep the prefetch of its chunk downloader
+          reader = owner;
+          readingOwner = true;
+          owner = null;
+          nextPiece = endPiece;
+        }
+        if (reader == null) {
+          if (nextPiece >= endPiece) {
+            return false;
+          }
+          reader = pieces.get(nextPiece++).createSessionlessResultSet();
+          openReaders.add(reader);
+        }
+        if (reader.next()) {
+          if (pieces != null) {
+            remainingRows--;
+          }
+          action.accept(SnowflakeRow.read(reader, columnIndexes, columnCount));
+          return true;
+        }
+        if (readingOwner) {
+          // the ResultSet itself is closed by its owner
+          remainingRows = 0;
+          return false;
+        }
+        openReaders.remove(reader);
+        closeReader(reader);
+        reader = null;
+      }
+    } catch (SQLException ex) {
+      throw new SnowflakeUncheckedSQLException(ex);
+    }
+  }
+
+  @Override
+  public Spliterator<SnowflakeRow> trySplit() {
+    // only the pieces which have not been opened are split off
+    int unopened = endPiece - nextPiece;
+    if (pieces == null || unopened < 2 || reader != null) {
+      return null;
+    }
+    if (owner != null) {
+      // the pieces are read by their own readers, drop the chunks the ResultSet has prefetched
+      try {
+        ownerDownloads.stop();
+      } catch (SQLException ex) {
+        throw new SnowflakeUncheckedSQLException(ex);
+      }
+      owner = null;
+    }
+    int splitEnd = nextPiece + unopened / 2;
+    long splitRows = 0;
+    for (int i = nextPiece; i < splitEnd; i++) {
+      try {
+        splitRows += pieces.get(i).getRowCount();
+      } catch (SQLException ex) {
+        throw new SnowflakeUncheckedSQLException(ex);
+      }
+    }
+    // the prefix is handed out to keep the encounter order
+    ResultSetRowSpliterator prefix =
+        new ResultSetRowSpliterator(
+            columnIndexes,
+            columnCount,
+            pieces,
+            nextPiece,
+            splitEnd,
+            openReaders,
+            null,
+            null,
+            splitRows);
+    nextPiece = splitEnd;
+    remainingRows -= splitRows;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return remainingRows;
+  }
+
+  @Override
+  public int characteristics() {
+    return pieces == null ? ORDERED | NONNULL : ORDERED | NONNULL | SIZED | SUBSIZED;
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.entity.DecompressingEntity;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Raw (still compressed) body of a result chunk which survives a dropped connection.
+ *
+ * <p>The stream counts the bytes handed out so far. If reading fails with an I/O error, it requests
+ * only the remaining bytes with an HTTP Range request and continues from there. The driver's gzip
+ * decoder reads from this stream, so it keeps its state and does not notice the resume. If the
+ * server does not answer with the expected partial content or the object has changed in the
+ * meantime, the original error is rethrown and the chunk is downloaded again from the start as
+ * before.
+ *
+ * <p>Range offsets count the bytes of the stored object. When the HTTP client has already decoded
+ * the Content-Encoding of the body, which it does unless gzip is disabled for the connection, the
+ * bytes read do not match these offsets and the body is not resumed, see {@link #open}.
+ */
+class ResumableChunkInputStream extends InputStream {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(ResumableChunkInputStream.class);
+
+  static final int MAX_RESUME_ATTEMPTS = 3;
+
+  /** Requests the chunk body starting at the given byte offset */
+  interface RangeFetcher {
+    HttpResponse fetch(long offset) throws Exception;
+  }
+
+  private final RangeFetcher rangeFetcher;
+  private final String scrubbedUrl;
+  private final String etag;
+  private InputStream current;
+  private HttpResponse currentResponse;
+  private long bytesRead;
+  private int resumeAttempts;
+
+  ResumableChunkInputStream(
+      HttpResponse response, InputStream content, RangeFetcher rangeFetcher, String scrubbedUrl) {
+    this.currentResponse = response;
+    this.current = content;
+    this.rangeFetcher = rangeFetcher;
+    this.scrubbedUrl = scrubbedUrl;
+    this.etag = getHeaderValue(response, "ETag");
+  }
+
+  /**
+   * Open the body of a chunk response.
+   *
+   * @param response response of the chunk request
+   * @param rangeFetcher requests the body from an offset when the download is resumed
+   * @param scrubbedUrl url of the chunk for logging
+   * @return a resumable stream, or the body itself if the HTTP client has decoded it
+   * @throws IOException if the body cannot be opened
+   */
+  static InputStream open(HttpResponse response, RangeFetcher rangeFetcher, String scrubbedUrl)
+      throws IOException {
+    HttpEntity entity = response.getEntity();
+    if (!isRawEntity(entity)) {
+      logger.debug("Chunk {} is decoded by the HTTP client and cannot be resumed", scrubbedUrl);
+      return entity.getContent();
+    }
+    return new ResumableChunkInputStream(response, entity.getContent(), rangeFetcher, scrubbedUrl);
+  }
+
+  /**
+   * @param entity body of a response
+   * @return true if the content of the entity is the body as sent by the server
+   */
+  private static boolean isRawEntity(HttpEntity entity) {
+    return !(entity instanceof DecompressingEntity);
+  }
+
+  long getBytesRead() {
+    return bytesRead;
+  }
+
+  int getResumeAttempts() {
+    return resumeAttempts;
+  }
+
+  @Override
+  public int read() throws IOException {
+    while (true) {
+      try {
+        int b = current.read();
+        if (b >= 0) {
+          bytesRead++;
+        }
+        return b;
+      } catch (IOException ex) {
+        resume(ex);
+      }
+    }
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    while (true) {
+      try {
+        int n = current.read(b, off, len);
+        if (n > 0) {
+          bytesRead += n;
+        }
+        return n;
+      } catch (IOException ex) {
+        resume(ex);
+      }
+    }
+  }
+
+  @Override
+  public int available() throws IOException {
+    return current.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (Thread.currentThread().isInterrupted() && currentResponse instanceof Closeable) {
+      // the download has been cancelled, drop the connection instead of draining the body
+      ((Closeable) currentResponse).close();
+    }
+    current.close();
+  }
+
+  /**
+   * Replace the broken body stream by the remaining bytes of the chunk.
+   *
+   * @param cause the error raised by the broken stream
+   * @throws IOException the original error if the download cannot be resumed
+   */
+  private void resume(IOException cause) throws IOException {
+    if (cause instanceof InterruptedIOException && Thread.currentThread().isInterrupted()
+        || resumeAttempts >= MAX_RESUME_ATTEMPTS) {
+      throw cause;
+    }
+    resumeAttempts++;
+    logger.debug(
+        "Reading chunk {} failed after {} bytes: {}. Resume attempt {}",
+        scrubbedUrl,
+        bytesRead,
+        cause.getLocalizedMessage(),
+        resumeAttempts);
+    closeQuietly();
+
+    HttpResponse response;
+    try {
+      response = rangeFetcher.fetch(bytesRead);
+    } catch (Exception ex) {
+      cause.addSuppressed(ex);
+      throw cause;
+    }
+
+    if (!isExpectedPartialContent(response)) {
+      logger.debug(
+          "Server did not return the remaining range of chunk {}, response: {}",
+          scrubbedUrl,
+          response);
+      if (response != null) {
+        EntityUtils.consumeQuietly(response.getEntity());
+      }
+      throw cause;
+    }
+    currentResponse = response;
+    current = response.getEntity().getContent();
+  }
+
+  private boolean isExpectedPartialContent(HttpResponse response) {
+    if (response == null
+        || response.getStatusLine().getStatusCode() != HttpStatus.SC_PARTIAL_CONTENT
+        || response.getEntity() == null
+        || !isRawEntity(response.getEntity())) {
+      return false;
+    }
+    String contentRange = getHeaderValue(response, "Content-Range");
+    if (contentRange == null || !contentRange.startsWith("bytes " + bytesRead + "-")) {
+      return false;
+    }
+    // the object must not have changed between the requests
+    String resumedEtag = getHeaderValue(response, "ETag");
+    return etag == null || etag.equals(resumedEtag);
+  }
+
+  private void closeQuietly() {
+    try {
+      current.close();
+    } catch (IOException ex) {
+      logger.debug("Failed to close broken chunk stream: {}", ex.getLocalizedMessage());
+    }
+    if (currentResponse != null) {
+      EntityUtils.consumeQuietly(currentResponse.getEntity());
+    }
+  }
+
+  private static String getHeaderValue(HttpResponse response, String name) {
+    Header header = response.getFirstHeader(name);
+    return header != null ? header.getValue() : null;
+  }
+}
@@ -6,7 +6,8 @@ package net.snowflake.client.jdbc;
 
 import static net.snowflake.client.core.QueryStatus.NO_DATA;
 
-import com.google.api.client.util.Strings;
+import java.io.InputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.ResultSet;
@@ -17,6 +18,11 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 import net.snowflake.client.core.QueryStatus;
 import net.snowflake.client.core.SFBaseResultSet;
 import net.snowflake.client.core.SFBaseSession;
@@ -35,7 +41,8 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
   private String queryID;
   private SFBaseSession session;
   private Statement extraStatement;
-  private QueryStatus lastQueriedStatus = NO_DATA;
+  private volatile QueryStatus lastQueriedStatus = NO_DATA;
+  private CompletableFuture<QueryStatus> completionFuture;
   private QueryStatusV2 lastQueriedStatusV2 = QueryStatusV2.empty();
 
   /**
@@ -109,6 +116,8 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
     // if query has completed successfully, cache its success status to avoid unnecessary future
     // server calls
     this.lastQueriedStatus = session.getQueryStatus(this.queryID);
+    // wakes up the waiters of the query without waiting for the next poll of the monitor
+    QueryStatusMonitor.getInstance().statusObserved(session, this.queryID, this.lastQueriedStatus);
     return this.lastQueriedStatus;
   }
 
@@ -131,12 +140,38 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
     this.lastQueriedStatusV2 = session.getQueryStatusV2(this.queryID);
     // if query has completed successfully, cache its metadata to avoid unnecessary future server
     // calls
+    QueryStatusMonitor.getInstance()
+        .statusObserved(session, this.queryID, this.lastQueriedStatusV2);
     return this.lastQueriedStatusV2;
   }
 
   /**
-   * helper function for next() and getMetaData(). Calls result_scan to get resultSet after
-   * asynchronous query call
+   * Get the future of the completion of the query, shared by the callers. A future which has failed
+   * is replaced by a new one, so the status is polled again as by the next call of getStatus().
+   *
+   * @return future completed with SUCCESS when the query succeeds
+   */
+  private synchronized CompletableFuture<QueryStatus> getCompletionFuture() {
+    if (completionFuture == null
+        || (completionFuture.isCompletedExceptionally() && !completionFuture.isCancelled())) {
+      if (this.lastQueriedStatus == QueryStatus.SUCCESS) {
+        completionFuture = CompletableFuture.completedFuture(QueryStatus.SUCCESS);
+      } else if (session == null) {
+        completionFuture = new CompletableFuture<>();
+        completionFuture.completeExceptionally(new SQLException("Session not set"));
+      } else if (this.queryID == null) {
+        completionFuture = new CompletableFuture<>();
+        completionFuture.completeExceptionally(new SQLException("QueryID unknown"));
+      } else {
+        completionFuture = QueryStatusMonitor.getInstance().awaitCompletion(session, this.queryID);
+      }
+    }
+    return completionFuture;
+  }
+
+  /**
+   * helper function for next() and getMetaData(). Waits for the query to complete and fetches its
+   * result after asynchronous query call
    *
    * @throws SQLException
    */
@@ -144,56 +179,61 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
     if (!resultSetForNextInitialized) {
       // If query has already succeeded, go straight to result scan to get results
       if (this.lastQueriedStatus != QueryStatus.SUCCESS) {
-        QueryStatus qs = this.getStatus();
-        int noDataRetry = 0;
-        final int noDataMaxRetries = 30;
-        final int[] retryPattern = {1, 1, 2, 3, 4, 8, 10};
-        final int maxIndex = retryPattern.length - 1;
-        int retry = 0;
-        while (qs != QueryStatus.SUCCESS) {
-          // if query is not running due to a failure (Aborted, failed with error, etc), generate
-          // exception
-          if (!QueryStatus.isStillRunning(qs) && qs.getValue() != QueryStatus.SUCCESS.getValue()) {
-            String errorMessage = qs.getErrorMessage();
-            if (Strings.isNullOrEmpty(errorMessage)) {
-              errorMessage = "No error message available";
-            }
-            throw new SQLException(
-                "Status of query associated with resultSet is "
-                    + qs.getDescription()
-                    + ". "
-                    + errorMessage
-                    + " Results not generated.");
-          }
-          // if no data about the query is returned after about 2 minutes, give up
-          if (qs == NO_DATA) {
-            noDataRetry++;
-            if (noDataRetry >= noDataMaxRetries) {
-              throw new SQLException(
-                  "Cannot retrieve data on the status of this query. No information returned from server for queryID={}.",
-                  this.queryID);
-            }
+        try {
+          this.lastQueriedStatus = getCompletionFuture().get();
+        } catch (ExecutionException ex) {
+          if (ex.getCause() instanceof SQLException) {
+            throw (SQLException) ex.getCause();
           }
-          try {
-            // Sleep for an amount before trying again. Exponential backoff up to 5 seconds
-            // implemented.
-            Thread.sleep(500 * retryPattern[retry]);
-          } catch (InterruptedException e) {
-            e.printStackTrace();
-          }
-          if (retry < maxIndex) {
-            retry++;
-          }
-          qs = this.getStatus();
+          throw new SnowflakeSQLException(
+              ex.getCause(), ErrorCode.INTERNAL_ERROR, ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new SnowflakeSQLLoggedException(
+              queryID, session, ErrorCode.INTERRUPTED.getMessageCode(), SqlState.QUERY_CANCELED);
+        } catch (CancellationException ex) {
+          throw new SnowflakeSQLException(ErrorCode.RESULTSET_ALREADY_CLOSED);
         }
       }
 
-      resultSetForNext =
-          extraStatement.executeQuery("select * from table(result_scan('" + this.queryID + "'))");
+      resultSetForNext = getResultOfCompletedQuery();
       resultSetForNextInitialized = true;
     }
   }
 
+  /**
+   * Fetch the result the server keeps for the completed query, or read it with result_scan if the
+   * statement cannot retrieve results by query ID
+   *
+   * @return the result of the query
+   * @throws SQLException if the result cannot be retrieved
+   */
+  private ResultSet getResultOfCompletedQuery() throws SQLException {
+    if (extraStatement.isWrapperFor(SnowflakeStatementV1.class)) {
+      SnowflakeStatementV1 statementV1 = extraStatement.unwrap(SnowflakeStatementV1.class);
+      SFBaseResultSet sfResultSet =
+          statementV1.sfBaseStatement == null
+              ? null
+              : statementV1.sfBaseStatement.getQueryResult(this.queryID);
+      if (sfResultSet != null) {
+        return statementV1.connection.getHandler().createResultSet(sfResultSet, extraStatement);
+      }
+    }
+    return extraStatement.executeQuery("select * from table(result_scan('" + this.queryID + "'))");
+  }
+
+  @Override
+  public CompletableFuture<ResultSet> getResultSetFuture() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    // completes on the status, the result is fetched by the first read in getRealResults()
+    return getCompletionFuture()
+        .thenApply(
+            status -> {
+              this.lastQueriedStatus = status;
+              return this;
+            });
+  }
+
   /**
    * Advance to next row
    *
@@ -213,6 +253,12 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
 
   public void close(boolean removeClosedResultSetFromStatement) throws SQLException {
     // no SQLException is raised.
+    synchronized (this) {
+      if (completionFuture != null) {
+        // stops the polls of the status if the query is still running
+        completionFuture.cancel(false);
+      }
+    }
     resultSetForNext.close();
     if (sfBaseResultSet != null) {
       sfBaseResultSet.close();
@@ -297,6 +343,12 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
     return resultSetForNext.unwrap(SnowflakeResultSetV1.class).getTimestamp(columnIndex, tz);
   }
 
+  @Override
+  protected <T> T getJavaTimeObject(int columnIndex, Class<T> type) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return resultSetForNext.unwrap(SnowflakeResultSetV1.class).getJavaTimeObject(columnIndex, type);
+  }
+
   public ResultSetMetaData getMetaData() throws SQLException {
     raiseSQLExceptionIfResultSetIsClosed();
     getRealResults();
@@ -329,6 +381,34 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
     return resultSetForNext.getBytes(columnIndex);
   }
 
+  @Override
+  public InputStream getBinaryStream(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return resultSetForNext.getBinaryStream(columnIndex);
+  }
+
+  @Override
+  public InputStream getAsciiStream(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return resultSetForNext.getAsciiStream(columnIndex);
+  }
+
+  /**
+   * @deprecated
+   */
+  @Deprecated
+  @Override
+  public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return resultSetForNext.getUnicodeStream(columnIndex);
+  }
+
+  @Override
+  public Reader getCharacterStream(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return resultSetForNext.getCharacterStream(columnIndex);
+  }
+
   public int getRow() throws SQLException {
     raiseSQLExceptionIfResultSetIsClosed();
 
@@ -402,4 +482,97 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
         .unwrap(SnowflakeResultSet.class)
         .getResultSetSerializables(maxSizeInBytes);
   }
+
+  @Override
+  public SnowflakeArrowBatches getArrowBatches() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).getArrowBatches();
+  }
+
+  @Override
+  public SnowflakeColumnAccessor getColumnAccessor(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).getColumnAccessor(columnIndex);
+  }
+
+  @Override
+  public long getUnscaledLong(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).getUnscaledLong(columnIndex);
+  }
+
+  @Override
+  public int getScale(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).getScale(columnIndex);
+  }
+
+  @Override
+  public int getBatchRowCount() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).getBatchRowCount();
+  }
+
+  @Override
+  public int getBatchRowIndex() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).getBatchRowIndex();
+  }
+
+  @Override
+  public int getLongs(int columnIndex, int fromRow, int rowCount, long[] values, long[] nulls)
+      throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext
+        .unwrap(SnowflakeResultSet.class)
+        .getLongs(columnIndex, fromRow, rowCount, values, nulls);
+  }
+
+  @Override
+  public int getInts(int columnIndex, int fromRow, int rowCount, int[] values, long[] nulls)
+      throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext
+        .unwrap(SnowflakeResultSet.class)
+        .getInts(columnIndex, fromRow, rowCount, values, nulls);
+  }
+
+  @Override
+  public int getDoubles(int columnIndex, int fromRow, int rowCount, double[] values, long[] nulls)
+      throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext
+        .unwrap(SnowflakeResultSet.class)
+        .getDoubles(columnIndex, fromRow, rowCount, values, nulls);
+  }
+
+  @Override
+  public int skipToEndOfBatch() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).skipToEndOfBatch();
+  }
+
+  @Override
+  public Stream<SnowflakeRow> stream() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).stream();
+  }
+
+  @Override
+  public SnowflakeFlow.Publisher<SnowflakeRow> publish(Executor executor) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).publish(executor);
+  }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.sql.SQLException;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+/**
+ * Iterator over the Arrow record batches of a result set, see {@link
+ * SnowflakeResultSet#getArrowBatches()}.
+ *
+ * <p>The batches are handed out without copying: every {@link VectorSchemaRoot} wraps the vectors
+ * the driver has decoded from the result chunk. The caller owns each returned batch and must close
+ * it to release its buffers, also after the result set itself has been closed. Batches which have
+ * not been returned yet are released by {@link #close()}.
+ *
+ * <p>The memory of a downloaded chunk stays reserved in the memory limit of the result set
+ * (CLIENT_MEMORY_LIMIT) until all batches of the chunk have been closed, so holding on to batches
+ * slows down the prefetch of the next chunks. Once the result set is closed, the batches still in
+ * use are not counted in the memory limit anymore, and the Arrow allocator of the result set is
+ * closed with the last of them.
+ *
+ * <p>The vectors use the Snowflake Arrow layout, e.g. scaled numbers are stored as unscaled
+ * integers and timestamps may be stored as structs. The field metadata carries the Snowflake type
+ * information (logicalType, scale, precision). When using the shaded driver jar, the Arrow classes
+ * are relocated, so the thin jar should be used to pass the batches to other Arrow libraries.
+ */
+public interface SnowflakeArrowBatches extends AutoCloseable {
+  /**
+   * @return true if there is another record batch, downloading the next chunk if necessary
+   * @throws SQLException if the next chunk cannot be downloaded
+   */
+  boolean hasNext() throws SQLException;
+
+  /**
+   * @return the next record batch, owned by the caller
+   * @throws SQLException if the next chunk cannot be downloaded
+   * @throws java.util.NoSuchElementException if there are no more batches
+   */
+  VectorSchemaRoot next() throws SQLException;
+
+  /** Release the batches which have not been returned yet */
+  @Override
+  void close() throws SQLException;
+}
@@ -32,6 +32,10 @@ import java.sql.SQLXML;
 import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
@@ -42,6 +46,7 @@ import java.util.TimeZone;
 import net.snowflake.client.core.ColumnTypeHelper;
 import net.snowflake.client.core.JsonSqlInput;
 import net.snowflake.client.core.ObjectMapperFactory;
+import net.snowflake.client.core.ResultUtil;
 import net.snowflake.client.core.SFBaseResultSet;
 import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.client.core.SFException;
@@ -1428,6 +1433,11 @@ public abstract class SnowflakeBaseResultSet implements ResultSet {
       return (T) getTimestamp(columnIndex);
     } else if (BigDecimal.class.isAssignableFrom(type)) {
       return (T) getBigDecimal(columnIndex);
+    } else if (LocalDateTime.class.isAssignableFrom(type)
+        || OffsetDateTime.class.isAssignableFrom(type)
+        || Instant.class.isAssignableFrom(type)
+        || LocalDate.class.isAssignableFrom(type)) {
+      return getJavaTimeObject(columnIndex, type);
     } else {
       logger.debug(
           "Unsupported type passed to getObject(int columnIndex,Class<T> type): " + type.getName());
@@ -1437,6 +1447,28 @@ public abstract class SnowflakeBaseResultSet implements ResultSet {
     }
   }
 
+  /**
+   * Get the value of a column as LocalDateTime, OffsetDateTime, Instant or LocalDate. This converts
+   * the value of getTimestamp or getDate like {@link SFBaseResultSet}, result sets which can
+   * convert the value directly override it.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @param type one of the java.time classes above
+   * @return the value, null if the value is SQL NULL
+   * @throws SQLException if the value cannot be converted
+   */
+  protected <T> T getJavaTimeObject(int columnIndex, Class<T> type) throws SQLException {
+    if (LocalDate.class.isAssignableFrom(type)) {
+      return type.cast(ResultUtil.toLocalDate(getDate(columnIndex)));
+    } else if (LocalDateTime.class.isAssignableFrom(type)) {
+      return type.cast(ResultUtil.toLocalDateTime(getTimestamp(columnIndex)));
+    } else if (OffsetDateTime.class.isAssignableFrom(type)) {
+      return type.cast(ResultUtil.toOffsetDateTime(getTimestamp(columnIndex)));
+    } else {
+      return type.cast(ResultUtil.toInstant(getTimestamp(columnIndex)));
+    }
+  }
+
   public <T> List<T> getList(int columnIndex, Class<T> type) throws SQLException {
     logger.trace("<T> List<T> getList(int columnIndex, Class<T> type)", false);
     if (!resultSetMetaData.isStructuredTypeColumn(columnIndex)) {
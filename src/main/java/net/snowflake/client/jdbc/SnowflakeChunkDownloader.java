@@ -9,28 +9,43 @@ import static net.snowflake.client.core.Constants.MB;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.MappingJsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.ByteArrayOutputStream;
+import com.google.common.base.Strings;
+import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.nio.ByteBuffer;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import net.snowflake.client.core.ChunkDownloadScheduler;
 import net.snowflake.client.core.ChunkDownloader;
+import net.snowflake.client.core.Constants;
 import net.snowflake.client.core.DownloaderMetrics;
 import net.snowflake.client.core.HttpClientSettingsKey;
 import net.snowflake.client.core.HttpUtil;
@@ -61,8 +76,14 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   private static final JsonFactory jsonFactory = new MappingJsonFactory();
 
   private static final SFLogger logger = SFLoggerFactory.getLogger(SnowflakeChunkDownloader.class);
-  private static final int STREAM_BUFFER_SIZE = MB;
   private static final long SHUTDOWN_TIME = 3;
+
+  // buffer size for writing spilled chunks to local files
+  private static final int SPILL_BUFFER_SIZE = 64 * 1024;
+
+  // name prefix and suffix of the spilled chunk files
+  private static final String SPILL_FILE_PREFIX = "snowflake-result-chunk-";
+  private static final String SPILL_FILE_SUFFIX = ".tmp";
   private final SnowflakeConnectString snowflakeConnectionString;
   private final OCSPMode ocspMode;
   private final HttpClientSettingsKey ocspModeAndProxyKey;
@@ -70,8 +91,6 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   // Session object, used solely for throwing exceptions. CAUTION: MAY BE NULL!
   private SFBaseSession session;
 
-  private JsonResultChunk.ResultChunkDataCache chunkDataCache =
-      new JsonResultChunk.ResultChunkDataCache();
   private List<SnowflakeResultChunk> chunks;
 
   // index of next chunk to be consumed (it may not be ready yet)
@@ -83,8 +102,65 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   // number of prefetch slots
   private final int prefetchSlots;
 
-  // thread pool
-  private final ThreadPoolExecutor executor;
+  // chunks from this index on are not prefetched, see setPrefetchRowDemand
+  private int prefetchLimit = Integer.MAX_VALUE;
+
+  // called whenever the download of a chunk completes or fails
+  private volatile Runnable chunkCompletionListener;
+
+  // sizes the prefetch window when adaptive prefetch is enabled, null otherwise
+  private final AdaptivePrefetchController prefetchController;
+
+  // the upper bound of the adaptive prefetch window is this multiple of prefetchSlots
+  private static final int ADAPTIVE_PREFETCH_MAX_SLOTS_MULTIPLIER = 4;
+
+  // time when the last chunk was handed over to the consumer
+  private long lastChunkReturnedTime = -1;
+
+  // whether the consumer had to wait for the last chunk it consumed
+  private boolean waitedForLastChunk = false;
+
+  // thread pool, null if the driver-wide scheduler is used
+  private final ExecutorService executor;
+
+  // queue in the driver-wide download scheduler, null if this downloader has its own thread pool
+  private final ChunkDownloadScheduler.Queue sharedQueue;
+
+  // threads of the pipelined decoding stages, created on first use
+  private ThreadPoolExecutor pipelineExecutor;
+
+  // hedges slow chunk downloads, null if hedging is disabled
+  private final HedgedChunkFetcher hedgedFetcher;
+
+  // return chunks in the order their downloads complete instead of the result order
+  private final boolean unorderedConsumption;
+
+  // write prefetched chunks which do not fit into the memory limit to local files
+  private final boolean spillEnabled;
+
+  // directory of the spilled chunk files, null for the default temporary directory
+  private final Path spillDirectory;
+
+  // chunks which have been submitted for spilling and have not been parsed yet
+  private final BitSet unrestoredSpills = new BitSet();
+
+  // number and size of the chunks which have been written to local files
+  private final AtomicLong spilledChunks = new AtomicLong(0);
+  private final AtomicLong spilledBytes = new AtomicLong(0);
+
+  // chunks which have been consumed, only used for unordered consumption
+  private final BitSet consumedChunks = new BitSet();
+
+  // index of the chunk returned by the last call of getNextChunkToConsume in unordered mode
+  private int lastReturnedChunk = -1;
+
+  // number of chunks returned so far in unordered mode
+  private int returnedChunks = 0;
+
+  // signalled whenever a chunk download succeeds or fails in unordered mode
+  private final ReentrantLock completionLock = new ReentrantLock();
+  private final Condition chunkCompleted = completionLock.newCondition();
+  private long completedDownloads = 0;
 
   // number of millis main thread waiting for chunks from downloader
   private long numberMillisWaitingForChunks = 0;
@@ -98,6 +174,9 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   // number of millis spent on parsing result chunks
   private final AtomicLong totalMillisParsingChunks = new AtomicLong(0);
 
+  // number of chunks being downloaded or restored right now
+  private final AtomicInteger activeFetches = new AtomicInteger(0);
+
   // The query result master key
   private final String qrmk;
 
@@ -112,8 +191,11 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   private final int maxHttpRetries;
   private long memoryLimit;
 
-  // the current memory usage across JVM
-  private static final AtomicLong currentMemoryUsage = new AtomicLong();
+  // the memory budget shared by all result sets in the JVM
+  private static final ResultChunkMemoryBudget memoryBudget = ResultChunkMemoryBudget.getInstance();
+
+  // the memory reserved by this downloader
+  private final ResultChunkMemoryBudget.Account memoryAccount;
 
   // used to track the downloading threads
   private Map<Integer, Future> downloaderFutures = new ConcurrentHashMap<>();
@@ -129,19 +211,16 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   private final int firstChunkRowCount;
 
   static long getCurrentMemoryUsage() {
-    synchronized (currentMemoryUsage) {
-      return currentMemoryUsage.longValue();
-    }
+    return memoryBudget.getCurrentUsage();
   }
 
-  // The parameters used to wait for available memory:
-  // starting waiting time will be BASE_WAITING_MS * WAITING_SECS_MULTIPLIER = 100 ms
+  // The parameters used to compute how long to wait for available memory. The downloader waits
+  // as long as the former backoff would have slept in total, starting with
+  // BASE_WAITING_MS * WAITING_SECS_MULTIPLIER = 100 ms for the first retry
   private long BASE_WAITING_MS = 50;
   private long WAITING_SECS_MULTIPLIER = 2;
-  // the maximum waiting time
+  // the maximum waiting time per retry
   private long MAX_WAITING_MS = 30 * 1000;
-  // the default jitter ratio 10%
-  private long WAITING_JITTER_RATIO = 10;
 
   private final ResultStreamProvider resultStreamProvider;
 
@@ -184,27 +263,57 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
    */
   private static ThreadPoolExecutor createChunkDownloaderExecutorService(
       final String threadNamePrefix, final int parallel) {
-    ThreadFactory threadFactory =
-        new ThreadFactory() {
-          private int threadCount = 1;
+    return (ThreadPoolExecutor)
+        Executors.newFixedThreadPool(parallel, createThreadFactory(threadNamePrefix));
+  }
+
+  /**
+   * Create a factory of daemon threads which log uncaught exceptions.
+   *
+   * @param threadNamePrefix name of threads
+   * @return new thread factory
+   */
+  private static ThreadFactory createThreadFactory(final String threadNamePrefix) {
+    return new ThreadFactory() {
+      private int threadCount = 1;
 
-          public Thread newThread(final Runnable r) {
-            final Thread thread = new Thread(r);
-            thread.setName(threadNamePrefix + threadCount++);
+      public Thread newThread(final Runnable r) {
+        final Thread thread = new Thread(r);
+        thread.setName(threadNamePrefix + threadCount++);
 
-            thread.setUncaughtExceptionHandler(
-                new Thread.UncaughtExceptionHandler() {
-                  public void uncaughtException(Thread t, Throwable e) {
-                    logger.error("Uncaught Exception in thread {}: {}", t, e);
-                  }
-                });
+        thread.setUncaughtExceptionHandler(
+            new Thread.UncaughtExceptionHandler() {
+              public void uncaughtException(Thread t, Throwable e) {
+                logger.error("Uncaught Exception in thread {}: {}", t, e);
+              }
+            });
 
-            thread.setDaemon(true);
+        thread.setDaemon(true);
 
-            return thread;
-          }
-        };
-    return (ThreadPoolExecutor) Executors.newFixedThreadPool(parallel, threadFactory);
+        return thread;
+      }
+    };
+  }
+
+  /**
+   * Create an executor which starts a new virtual thread for each task. Virtual threads are only
+   * available on Java 21+, and the driver is compiled for Java 8, so the factory method is looked
+   * up reflectively.
+   *
+   * <p>Downloads block on network I/O, and the consumer handshake on {@link SnowflakeResultChunk}
+   * uses a ReentrantLock and Condition rather than monitors, so a waiting virtual thread does not
+   * pin its carrier thread.
+   *
+   * @return the executor, or null if the runtime does not support virtual threads
+   */
+  static ExecutorService createVirtualThreadExecutorService() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      logger.debug("Virtual threads are not supported by this runtime: {}", ex.toString());
+      return null;
+    }
   }
 
   /**
@@ -246,6 +355,27 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         && session.getMemoryLimitForTesting() != SFBaseSession.MEMORY_LIMIT_UNSET) {
       this.memoryLimit = session.getMemoryLimitForTesting();
     }
+    if (this.session != null && this.session.isAdaptivePrefetchEnabled()) {
+      this.prefetchController =
+          new AdaptivePrefetchController(
+              prefetchSlots, 1, prefetchSlots * ADAPTIVE_PREFETCH_MAX_SLOTS_MULTIPLIER);
+    } else {
+      this.prefetchController = null;
+    }
+    this.hedgedFetcher =
+        (this.session != null && this.session.isChunkDownloadHedgingEnabled())
+            ? new HedgedChunkFetcher()
+            : null;
+    this.unorderedConsumption =
+        this.session != null && this.session.isUnorderedChunkConsumptionEnabled();
+    this.spillEnabled = this.session != null && this.session.isResultChunkSpillEnabled();
+    this.spillDirectory =
+        this.session != null && !Strings.isNullOrEmpty(this.session.getResultChunkSpillDirectory())
+            ? Paths.get(this.session.getResultChunkSpillDirectory())
+            : null;
+
+    boolean typedJsonColumns =
+        this.session != null && this.session.isTypedJsonResultColumnsEnabled();
 
     // create the chunks array
     this.chunks = new ArrayList<>(resultSetSerializable.getChunkFileCount());
@@ -259,6 +389,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
           "Incorrect chunk count: " + resultSetSerializable.getChunkFileCount());
     }
 
+    this.memoryAccount = memoryBudget.register(this.session);
+
     // initialize chunks with url and row count
     for (SnowflakeResultSetSerializableV1.ChunkFileMetadata chunkFileMetadata :
         resultSetSerializable.getChunkFileMetadatas()) {
@@ -283,7 +415,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
                   chunkFileMetadata.getRowCount(),
                   resultSetSerializable.getColumnCount(),
                   chunkFileMetadata.getUncompressedByteSize(),
-                  this.session);
+                  this.session,
+                  typedJsonColumns ? resultSetSerializable.getResultColumnMetadata() : null);
           break;
 
         default:
@@ -310,17 +443,36 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             resultSetSerializable.getChunkFileCount());
 
     logger.debug(
-        "#chunks: {} #threads: {} #slots: {} -> pool: {}",
+        "#chunks: {} #threads: {} #slots: {} -> pool: {}, adaptive prefetch: {}",
         resultSetSerializable.getChunkFileCount(),
         resultSetSerializable.getResultPrefetchThreads(),
         prefetchSlots,
-        effectiveThreads);
+        effectiveThreads,
+        prefetchController != null);
 
-    // create thread pool
-    executor = createChunkDownloaderExecutorService("result-chunk-downloader-", effectiveThreads);
+    if (this.session != null && this.session.isSharedChunkDownloadSchedulerEnabled()) {
+      // use the driver-wide worker threads
+      executor = null;
+      sharedQueue = ChunkDownloadScheduler.getInstance().register(queryId);
+    } else {
+      ExecutorService virtualThreadExecutor =
+          (this.session != null && this.session.isVirtualThreadsForChunkDownloadEnabled())
+              ? createVirtualThreadExecutorService()
+              : null;
+      if (virtualThreadExecutor != null) {
+        // one virtual thread per chunk, the concurrency is bounded by the prefetch slots
+        logger.debug("Downloading result chunks on virtual threads", false);
+        executor = virtualThreadExecutor;
+      } else {
+        // create thread pool
+        executor =
+            createChunkDownloaderExecutorService("result-chunk-downloader-", effectiveThreads);
+      }
+      sharedQueue = null;
+    }
 
     try {
-      startNextDownloaders();
+      startNextDownloaders(true);
     } catch (OutOfMemoryError outOfMemoryError) {
       logOutOfMemoryError();
       StringWriter errors = new StringWriter();
@@ -330,15 +482,150 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
     }
   }
 
-  /** Submit download chunk tasks to executor. Number depends on thread and memory limit */
-  private void startNextDownloaders() throws SnowflakeSQLException {
+  /**
+   * Get the number of chunks which may be downloaded ahead of the consumer. This is constant unless
+   * adaptive prefetch is enabled.
+   *
+   * @return number of prefetch slots
+   */
+  private int getPrefetchSlots() {
+    if (prefetchController == null) {
+      return prefetchSlots;
+    }
+    return prefetchController.nextPrefetchSlots(waitedForLastChunk, memoryLimit);
+  }
+
+  /**
+   * @return the maximum time to block waiting for memory for the next chunk to consume
+   */
+  private long getMaxMemoryWaitMillis() {
+    long totalWaitingTime = 0;
     long waitingTime = BASE_WAITING_MS;
-    long getPrefetchMemRetry = 0;
+    for (int retry = 0; retry <= prefetchMaxRetry; retry++) {
+      waitingTime = Math.min(waitingTime * WAITING_SECS_MULTIPLIER, MAX_WAITING_MS);
+      totalWaitingTime += waitingTime;
+    }
+    return totalWaitingTime;
+  }
+
+  /** What a download task does with its chunk */
+  private enum ChunkTask {
+    // download the chunk and parse it into memory
+    DOWNLOAD,
+    // download the chunk into a local file
+    SPILL,
+    // parse the chunk from its local file
+    RESTORE
+  }
+
+  /**
+   * Submit the download of a chunk to the thread pool of this downloader or to the driver-wide
+   * scheduler
+   *
+   * @param chunkIndex index of the chunk to download
+   * @return future of the download task
+   */
+  private Future<Void> submitDownload(int chunkIndex) {
+    return submitDownload(chunkIndex, ChunkTask.DOWNLOAD);
+  }
+
+  /**
+   * Submit a task for a chunk to the thread pool of this downloader or to the driver-wide scheduler
+   *
+   * @param chunkIndex index of the chunk
+   * @param task what to do with the chunk
+   * @return future of the task
+   */
+  private Future<Void> submitDownload(int chunkIndex, ChunkTask task) {
+    Callable<Void> downloadCallable =
+        getDownloadChunkCallable(
+            this,
+            chunks.get(chunkIndex),
+            qrmk,
+            chunkIndex,
+            chunkHeadersMap,
+            networkTimeoutInMilli,
+            authTimeout,
+            socketTimeout,
+            maxHttpRetries,
+            this.session,
+            chunks.size(),
+            queryId,
+            task);
+    if (sharedQueue != null) {
+      return sharedQueue.submit(chunkIndex, downloadCallable);
+    }
+    return executor.submit(downloadCallable);
+  }
+
+  /**
+   * @param chunkIndex index of the chunk
+   * @return runs the hedged requests of the chunk on the threads of this downloader and reserves
+   *     their buffers in the memory limit
+   */
+  private HedgedChunkFetcher.HedgeExecutor getHedgeExecutor(int chunkIndex) {
+    return new HedgedChunkFetcher.HedgeExecutor() {
+      @Override
+      public Future<?> submit(Callable<Void> hedge) {
+        if (sharedQueue != null) {
+          return sharedQueue.submit(chunkIndex, hedge);
+        }
+        return executor.submit(hedge);
+      }
+
+      @Override
+      public boolean tryReserveMemory(long bytes) {
+        return memoryBudget.tryReserve(memoryAccount, bytes, memoryLimit);
+      }
+
+      @Override
+      public void releaseMemory(long bytes) {
+        memoryBudget.release(memoryAccount, bytes);
+      }
+    };
+  }
+
+  /**
+   * Executor of the pipelined decoding stages of the chunk downloads. A download has at most two
+   * stages, so the pool is bounded by twice the number of prefetch threads. Stages are not queued,
+   * a stage which finds no free thread is rejected and read by the download thread itself.
+   *
+   * @return the executor of the pipeline stages
+   */
+  synchronized ExecutorService getPipelineExecutor() {
+    if (pipelineExecutor == null) {
+      pipelineExecutor =
+          new ThreadPoolExecutor(
+              0,
+              Math.max(1, prefetchSlots),
+              60L,
+              TimeUnit.SECONDS,
+              new SynchronousQueue<>(),
+              createThreadFactory("result-chunk-pipeline-"));
+      if (terminated.get()) {
+        pipelineExecutor.shutdown();
+      }
+    }
+    return pipelineExecutor;
+  }
+
+  /**
+   * Submit download chunk tasks to executor. Number depends on thread and memory limit
+   *
+   * @param mayWait true to wait for the memory of the chunk the consumer needs next, false to leave
+   *     that chunk unsubmitted and notify the chunk completion listener when memory is released
+   * @throws SnowflakeSQLException if waiting for memory is interrupted
+   */
+  private void startNextDownloaders(boolean mayWait) throws SnowflakeSQLException {
+    final int currentPrefetchSlots = getPrefetchSlots();
 
     // submit the chunks to be downloaded up to the prefetch slot capacity
     // and limited by memory
-    while (nextChunkToDownload - nextChunkToConsume < prefetchSlots
-        && nextChunkToDownload < chunks.size()) {
+    // the chunk to consume next is downloaded whatever the limit
+    final int downloadLimit =
+        Math.min(Math.max(prefetchLimit, nextChunkToConsume + 1), chunks.size());
+    while (nextChunkToDownload - nextChunkToConsume < currentPrefetchSlots
+        && nextChunkToDownload < downloadLimit) {
       // check if memory limit allows more prefetching
       final SnowflakeResultChunk nextChunk = chunks.get(nextChunkToDownload);
       final long neededChunkMemory = nextChunk.computeNeededChunkMemory();
@@ -354,68 +641,69 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         memoryLimit = neededChunkMemory;
       }
 
-      // try to reserve the needed memory
-      long curMem = currentMemoryUsage.addAndGet(neededChunkMemory);
-      // If there is not enough memory available for prefetch, cancel the memory allocation. It's
-      // cancelled when:
+      // try to reserve the needed memory. If there is not enough memory available for prefetch,
+      // cancel the prefetch without waiting when:
       // 1. We haven't consumed enough chunks to download next chunk (nextChunkToDownload >
       // nextChunkToConsume)
       // 2. There is not enough memory for prefetching to begin with (nextChunkToDownload=0 &&
       // nextChunkToConsume=0)
-      // In all other cases, don't cancel but wait until memory frees up.
-      if (curMem > memoryLimit
-          && (nextChunkToDownload - nextChunkToConsume > 0
-              || (nextChunkToDownload == 0 && nextChunkToConsume == 0))) {
-        // cancel the reserved memory and this downloader too
-        logger.debug(
-            "Not enough memory available for prefetch. Cancel reserved memory. MemoryLimit: {},"
-                + " curMem: {}, nextChunkToDownload: {}, nextChunkToConsume: {}, retry: {}",
-            memoryLimit,
-            curMem,
-            nextChunkToDownload,
-            nextChunkToConsume,
-            getPrefetchMemRetry);
-        currentMemoryUsage.addAndGet(-neededChunkMemory);
-        nextChunk.getLock().lock();
-        try {
-          nextChunk.setDownloadState(DownloadState.FAILURE);
-        } finally {
-          nextChunk.getLock().unlock();
+      // In all other cases the consumer needs this chunk next, so block until memory frees up.
+      final boolean reserved;
+      if (nextChunkToDownload - nextChunkToConsume > 0
+          || (nextChunkToDownload == 0 && nextChunkToConsume == 0)) {
+        reserved = memoryBudget.tryReserve(memoryAccount, neededChunkMemory, memoryLimit);
+        if (!reserved) {
+          logger.debug(
+              "Not enough memory available for prefetch. MemoryLimit: {}, curMem: {},"
+                  + " neededChunkMemory: {}, nextChunkToDownload: {}, nextChunkToConsume: {}",
+              memoryLimit,
+              memoryBudget.getCurrentUsage(),
+              neededChunkMemory,
+              nextChunkToDownload,
+              nextChunkToConsume);
         }
-        break;
-      }
-
-      // only allocate memory when the future usage is less than the limit
-      if (curMem <= memoryLimit) {
-        if (queryResultFormat == QueryResultFormat.JSON) {
-          ((JsonResultChunk) nextChunk).tryReuse(chunkDataCache);
+      } else if (!mayWait) {
+        // the caller must not block, the chunk is submitted once memory has been released
+        reserved =
+            memoryBudget.tryReserveOrNotify(
+                memoryAccount, neededChunkMemory, memoryLimit, this::notifyChunkCompletionListener);
+        if (!reserved) {
+          logger.debug(
+              "Not enough memory available for chunk#{}, curMem: {}, neededChunkMemory: {}",
+              nextChunkToDownload,
+              memoryBudget.getCurrentUsage(),
+              neededChunkMemory);
         }
-
+      } else {
         logger.debug(
-            "Thread {}: currentMemoryUsage in MB: {}, nextChunkToDownload: {}, "
-                + "nextChunkToConsume: {}, newReservedMemory in B: {} ",
+            "Thread {} waiting up to {} ms for {} MB of memory, nextChunkToDownload: {},"
+                + " nextChunkToConsume: {}",
             (ArgSupplier) () -> Thread.currentThread().getId(),
-            curMem / MB,
+            (ArgSupplier) this::getMaxMemoryWaitMillis,
+            neededChunkMemory / MB,
             nextChunkToDownload,
-            nextChunkToConsume,
-            neededChunkMemory);
+            nextChunkToConsume);
+        try {
+          reserved =
+              memoryBudget.reserve(
+                  memoryAccount, neededChunkMemory, memoryLimit, getMaxMemoryWaitMillis());
+        } catch (InterruptedException ie) {
+          throw new SnowflakeSQLException(
+              SqlState.INTERNAL_ERROR,
+              ErrorCode.INTERNAL_ERROR.getMessageCode(),
+              "Waiting SnowflakeChunkDownloader has been interrupted.");
+        }
+        if (!reserved) {
+          logger.debug(
+              "Timed out waiting for memory. Cancel prefetch attempt, curMem: {}, retry limit: {}",
+              memoryBudget.getCurrentUsage(),
+              prefetchMaxRetry);
+        }
+      }
 
-        logger.debug(
-            "Submit chunk #{} for downloading, url: {}",
-            this.nextChunkToDownload,
-            nextChunk.getScrubbedUrl());
-
-        // SNOW-615824 Imagine this scenario to understand the root cause of this issue:
-        // When consuming chunk N, we try to prefetch chunk N+1. The prefetching failed due to
-        // hitting memoryLimit. We will mark the chunk N+1 as FAILED.
-        // After we are done with chunk N, we try to consume chunk N+1.
-        // In getNextChunkToConsume, we first call startNextDownloaders then call waitForChunkReady.
-        // startNextDownloaders sees that the next chunk to download is N+1. With enough memory at
-        // this time, it will try to download the chunk. waitForChunkReady sees that chunk N+1 is
-        // marked as FAILED, it will also try to download the chunk because it thinks that no
-        // prefetching will download the chunk.
-        // Thus we will submit two download jobs, causing chunk N+1 appears to be lost.
-        // Therefore the fix is to only prefetch chunks that are marked as NOT_STARTED here.
+      if (!reserved && spillEnabled && nextChunkToDownload > nextChunkToConsume) {
+        // keep the download running, the chunk is written to a local file and parsed once it
+        // fits into the memory limit
         nextChunk.getLock().lock();
         try {
           if (nextChunk.getDownloadState() != DownloadState.NOT_STARTED) {
@@ -424,79 +712,69 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         } finally {
           nextChunk.getLock().unlock();
         }
-
-        Future downloaderFuture =
-            executor.submit(
-                getDownloadChunkCallable(
-                    this,
-                    nextChunk,
-                    qrmk,
-                    nextChunkToDownload,
-                    chunkHeadersMap,
-                    networkTimeoutInMilli,
-                    authTimeout,
-                    socketTimeout,
-                    maxHttpRetries,
-                    this.session,
-                    chunks.size(),
-                    queryId));
-        downloaderFutures.put(nextChunkToDownload, downloaderFuture);
-        // increment next chunk to download
+        logger.debug("Submit chunk #{} for spilling to a local file", nextChunkToDownload);
+        unrestoredSpills.set(nextChunkToDownload);
+        // no memory is reserved until the chunk is parsed
+        nextChunk.setReleased();
+        downloaderFutures.put(
+            nextChunkToDownload, submitDownload(nextChunkToDownload, ChunkTask.SPILL));
         nextChunkToDownload++;
-        // make sure reset waiting time
-        waitingTime = BASE_WAITING_MS;
-        // go to next chunk
         continue;
-      } else {
-        // cancel the reserved memory
-        logger.debug("Cancel the reserved memory.", false);
-        curMem = currentMemoryUsage.addAndGet(-neededChunkMemory);
-        if (getPrefetchMemRetry > prefetchMaxRetry) {
-          logger.debug(
-              "Retry limit for prefetch has been reached. Cancel reserved memory and prefetch"
-                  + " attempt.",
-              false);
+      }
+
+      if (!reserved) {
+        if (mayWait) {
           nextChunk.getLock().lock();
           try {
             nextChunk.setDownloadState(DownloadState.FAILURE);
+            // the consumer downloads the chunk without a memory reservation
+            nextChunk.setReleased();
           } finally {
             nextChunk.getLock().unlock();
           }
-          break;
         }
+        break;
       }
 
-      // waiting when nextChunkToDownload is equal to nextChunkToConsume but reach memory limit
+      logger.debug(
+          "Thread {}: currentMemoryUsage in MB: {}, nextChunkToDownload: {}, "
+              + "nextChunkToConsume: {}, newReservedMemory in B: {} ",
+          (ArgSupplier) () -> Thread.currentThread().getId(),
+          (ArgSupplier) () -> memoryBudget.getCurrentUsage() / MB,
+          nextChunkToDownload,
+          nextChunkToConsume,
+          neededChunkMemory);
+
+      logger.debug(
+          "Submit chunk #{} for downloading, url: {}",
+          this.nextChunkToDownload,
+          nextChunk.getScrubbedUrl());
+
+      // SNOW-615824 Imagine this scenario to understand the root cause of this issue:
+      // When consuming chunk N, we try to prefetch chunk N+1. The prefetching failed due to
+      // hitting memoryLimit. We will mark the chunk N+1 as FAILED.
+      // After we are done with chunk N, we try to consume chunk N+1.
+      // In getNextChunkToConsume, we first call startNextDownloaders then call waitForChunkReady.
+      // startNextDownloaders sees that the next chunk to download is N+1. With enough memory at
+      // this time, it will try to download the chunk. waitForChunkReady sees that chunk N+1 is
+      // marked as FAILED, it will also try to download the chunk because it thinks that no
+      // prefetching will download the chunk.
+      // Thus we will submit two download jobs, causing chunk N+1 appears to be lost.
+      // Therefore the fix is to only prefetch chunks that are marked as NOT_STARTED here.
+      nextChunk.getLock().lock();
       try {
-        waitingTime *= WAITING_SECS_MULTIPLIER;
-        waitingTime = waitingTime > MAX_WAITING_MS ? MAX_WAITING_MS : waitingTime;
-        long jitter = ThreadLocalRandom.current().nextLong(0, waitingTime / WAITING_JITTER_RATIO);
-        waitingTime += jitter;
-        getPrefetchMemRetry++;
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              "Thread {} waiting for {} s: currentMemoryUsage in MB: {}, neededChunkMemory in MB:"
-                  + " {}, nextChunkToDownload: {}, nextChunkToConsume: {}, retry: {}",
-              (ArgSupplier) () -> Thread.currentThread().getId(),
-              waitingTime / 1000.0,
-              curMem / MB,
-              neededChunkMemory / MB,
-              nextChunkToDownload,
-              nextChunkToConsume,
-              getPrefetchMemRetry);
+        if (nextChunk.getDownloadState() != DownloadState.NOT_STARTED) {
+          break;
         }
-        Thread.sleep(waitingTime);
-      } catch (InterruptedException ie) {
-        throw new SnowflakeSQLException(
-            SqlState.INTERNAL_ERROR,
-            ErrorCode.INTERNAL_ERROR.getMessageCode(),
-            "Waiting SnowflakeChunkDownloader has been interrupted.");
+      } finally {
+        nextChunk.getLock().unlock();
       }
-    }
 
-    // clear the cache, we can't download more at the moment
-    // so we won't need them in the near future
-    chunkDataCache.clear();
+      Future downloaderFuture = submitDownload(nextChunkToDownload);
+      downloaderFutures.put(nextChunkToDownload, downloaderFuture);
+      // increment next chunk to download
+      nextChunkToDownload++;
+    }
   }
 
   /**
@@ -512,7 +790,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             : chunks.get(chunkId).computeNeededChunkMemory();
     if (releaseSize > 0 && !chunks.get(chunkId).isReleased()) {
       // has to be before reusing the memory
-      long curMem = currentMemoryUsage.addAndGet(-releaseSize);
+      memoryBudget.release(memoryAccount, releaseSize);
+      long curMem = memoryBudget.getCurrentUsage();
       logger.debug(
           "Thread {} - currentMemoryUsage in MB: {}, released in MB: {}, "
               + "chunk: {}, optionalReleaseSize: {}, JVMFreeMem: {}",
@@ -532,7 +811,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
       return;
     }
 
-    // only release the chunks has been downloading or downloaded
+    // only release the chunks has been downloading or downloaded, the chunks which hold no
+    // reservation (e.g. spilled chunks which have not been parsed) are marked as released
     for (int i = 0; i < nextChunkToDownload; i++) {
       releaseCurrentMemoryUsage(i, Optional.empty());
     }
@@ -551,31 +831,13 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
    */
   public SnowflakeResultChunk getNextChunkToConsume()
       throws InterruptedException, SnowflakeSQLException {
+    if (unorderedConsumption) {
+      return getNextCompletedChunk();
+    }
+
     // free previous chunk data and submit a new chunk for downloading
     if (this.nextChunkToConsume > 0) {
-      int prevChunk = this.nextChunkToConsume - 1;
-
-      // free the chunk data for previous chunk
-      logger.debug("Free chunk data for chunk #{}", prevChunk);
-
-      long chunkMemUsage = chunks.get(prevChunk).computeNeededChunkMemory();
-
-      // reuse chunkcache if json result
-      if (this.queryResultFormat == QueryResultFormat.JSON) {
-        if (this.nextChunkToDownload < this.chunks.size()) {
-          // Reuse the set of object to avoid reallocation
-          // It is important to do this BEFORE starting the next download
-          chunkDataCache.add((JsonResultChunk) this.chunks.get(prevChunk));
-        } else {
-          // clear the cache if we don't need it anymore
-          chunkDataCache.clear();
-        }
-      }
-
-      // Free any memory the previous chunk might hang on
-      this.chunks.get(prevChunk).freeData();
-
-      releaseCurrentMemoryUsage(prevChunk, Optional.of(chunkMemUsage));
+      freeConsumedChunk(this.nextChunkToConsume - 1);
     }
 
     // if no more chunks, return null
@@ -585,73 +847,379 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
     }
 
     // prefetch next chunks
-    try {
-      startNextDownloaders();
-    } catch (OutOfMemoryError outOfMemoryError) {
-      logOutOfMemoryError();
-      StringWriter errors = new StringWriter();
-      outOfMemoryError.printStackTrace(new PrintWriter(errors));
-      throw new SnowflakeSQLLoggedException(
-          this.session, ErrorCode.INTERNAL_ERROR.getMessageCode(), SqlState.INTERNAL_ERROR, errors);
-    }
+    prefetchNextChunks(true);
 
     SnowflakeResultChunk currentChunk = this.chunks.get(nextChunkToConsume);
 
     if (currentChunk.getDownloadState() == DownloadState.SUCCESS) {
       logger.debug("Chunk #{} is ready to consume", nextChunkToConsume);
-      nextChunkToConsume++;
-      if (nextChunkToConsume == this.chunks.size()) {
-        // make sure to release the last chunk
-        releaseCurrentMemoryUsage(nextChunkToConsume - 1, Optional.empty());
-      }
-      return currentChunk;
+      waitedForLastChunk = false;
     } else {
       // the chunk we want to consume is not ready yet, wait for it
-      currentChunk.getLock().lock();
+      logger.debug("Chunk#{} is not ready to consume", nextChunkToConsume);
+      awaitChunkDownload(currentChunk, nextChunkToConsume);
+      logger.debug("Chunk#{} is ready to consume", nextChunkToConsume);
+      waitedForLastChunk = true;
+    }
+    nextChunkToConsume++;
+    if (nextChunkToConsume == this.chunks.size()) {
+      // make sure to release the last chunk
+      releaseCurrentMemoryUsage(nextChunkToConsume - 1, Optional.empty());
+    }
+    lastChunkReturnedTime = System.currentTimeMillis();
+    return currentChunk;
+  }
+
+  /**
+   * Unordered variant of {@link #getNextChunkToConsume()}: return any downloaded chunk which has
+   * not been consumed yet, so a slow chunk does not block the chunks downloaded after it. The
+   * prefetch window and the memory accounting are based on the oldest chunk not consumed yet.
+   *
+   * @return next SnowflakeResultChunk to be consumed
+   * @throws InterruptedException if downloading thread was interrupted
+   * @throws SnowflakeSQLException if downloader encountered an error
+   */
+  private SnowflakeResultChunk getNextCompletedChunk()
+      throws InterruptedException, SnowflakeSQLException {
+    if (lastReturnedChunk >= 0) {
+      freeConsumedChunk(lastReturnedChunk);
+      consumedChunks.set(lastReturnedChunk);
+      lastReturnedChunk = -1;
+      while (nextChunkToConsume < chunks.size() && consumedChunks.get(nextChunkToConsume)) {
+        nextChunkToConsume++;
+      }
+    }
+
+    if (returnedChunks >= chunks.size()) {
+      logger.debug("No more chunk", false);
+      return null;
+    }
+
+    prefetchNextChunks(true);
+
+    long startTime = System.currentTimeMillis();
+    waitedForLastChunk = false;
+    int chunkIndex = findCompletedChunk();
+    this.numberMillisWaitingForChunks += (System.currentTimeMillis() - startTime);
+    if (chunkIndex < 0) {
+      // nothing has completed, wait for the oldest chunk and retry it if necessary
+      chunkIndex = nextChunkToConsume;
+      waitedForLastChunk = true;
+    }
+    SnowflakeResultChunk currentChunk = chunks.get(chunkIndex);
+    if (currentChunk.getDownloadState() != DownloadState.SUCCESS) {
+      awaitChunkDownload(currentChunk, chunkIndex);
+    }
+    logger.debug("Chunk#{} is ready to consume", chunkIndex);
+
+    lastReturnedChunk = chunkIndex;
+    returnedChunks++;
+    if (returnedChunks == chunks.size()) {
+      // make sure to release the last chunk
+      releaseCurrentMemoryUsage(chunkIndex, Optional.empty());
+    }
+    lastChunkReturnedTime = System.currentTimeMillis();
+    return currentChunk;
+  }
+
+  /**
+   * Find a chunk in the prefetch window which has not been consumed and whose download has
+   * completed or failed, waiting for the next download to complete if there is none.
+   *
+   * @return index of the chunk, or -1 if no download is in flight or none completed in time
+   * @throws InterruptedException if the consumer thread was interrupted
+   */
+  private int findCompletedChunk() throws InterruptedException {
+    while (true) {
+      long completed = getCompletedDownloads();
+      boolean inFlight = false;
+      for (int i = nextChunkToConsume; i < nextChunkToDownload; i++) {
+        if (consumedChunks.get(i)) {
+          continue;
+        }
+        DownloadState state = chunks.get(i).getDownloadState();
+        if (state == DownloadState.SUCCESS || state == DownloadState.FAILURE) {
+          return i;
+        }
+        inFlight = true;
+      }
+      if (!inFlight) {
+        return -1;
+      }
+      waitedForLastChunk = true;
+      completionLock.lock();
       try {
-        logger.debug("Chunk#{} is not ready to consume", nextChunkToConsume);
-        logger.debug("Consumer get lock to check chunk state", false);
+        if (completedDownloads == completed
+            && !chunkCompleted.await(downloadedConditionTimeoutInSeconds, TimeUnit.SECONDS)) {
+          return -1;
+        }
+      } finally {
+        completionLock.unlock();
+      }
+    }
+  }
 
-        waitForChunkReady(currentChunk);
+  private long getCompletedDownloads() {
+    completionLock.lock();
+    try {
+      return completedDownloads;
+    } finally {
+      completionLock.unlock();
+    }
+  }
 
-        // downloader thread encountered an error
-        if (currentChunk.getDownloadState() == DownloadState.FAILURE) {
-          releaseAllChunkMemoryUsage();
-          logger.error("Downloader encountered error: {}", currentChunk.getDownloadError());
+  /**
+   * Wake up the consumer waiting for any chunk in unordered mode, and notify the chunk completion
+   * listener
+   */
+  private void signalChunkCompleted() {
+    notifyChunkCompletionListener();
+    if (!unorderedConsumption) {
+      return;
+    }
+    completionLock.lock();
+    try {
+      completedDownloads++;
+      chunkCompleted.signalAll();
+    } finally {
+      completionLock.unlock();
+    }
+  }
 
-          if (currentChunk
-              .getDownloadError()
-              .contains("java.lang.OutOfMemoryError: Java heap space")) {
-            logOutOfMemoryError();
-          }
+  /** Notify the chunk completion listener, which checks again whether the next chunk is ready */
+  private void notifyChunkCompletionListener() {
+    Runnable listener = chunkCompletionListener;
+    if (listener != null) {
+      try {
+        listener.run();
+      } catch (Throwable th) {
+        logger.debug("Chunk completion listener failed: {}", th.getMessage());
+      }
+    }
+  }
 
-          throw new SnowflakeSQLLoggedException(
-              this.session,
-              ErrorCode.INTERNAL_ERROR.getMessageCode(),
-              SqlState.INTERNAL_ERROR,
-              currentChunk.getDownloadError());
+  @Override
+  public void setPrefetchRowDemand(long rows) {
+    int limit = nextChunkToConsume;
+    long remaining = rows;
+    while (remaining > 0 && limit < chunks.size()) {
+      remaining -= chunks.get(limit).getRowCount();
+      limit++;
+    }
+    prefetchLimit = limit;
+  }
+
+  @Override
+  public boolean isNextChunkReady() throws SnowflakeSQLException {
+    if (unorderedConsumption || nextChunkToConsume >= chunks.size()) {
+      return true;
+    }
+    SnowflakeResultChunk nextChunk = chunks.get(nextChunkToConsume);
+    if (nextChunkToDownload == nextChunkToConsume) {
+      // the chunk has not been submitted for lack of memory, submit it once memory is available
+      // instead of downloading it in next()
+      nextChunk.getLock().lock();
+      try {
+        if (nextChunk.getDownloadState() == DownloadState.FAILURE) {
+          nextChunk.setDownloadState(DownloadState.NOT_STARTED);
         }
+      } finally {
+        nextChunk.getLock().unlock();
+      }
+    }
+    // never blocks, the listener is notified when the memory for the next chunk is released
+    prefetchNextChunks(false);
+    DownloadState state;
+    nextChunk.getLock().lock();
+    try {
+      state = nextChunk.getDownloadState();
+    } finally {
+      nextChunk.getLock().unlock();
+    }
+    return state != DownloadState.NOT_STARTED && state != DownloadState.IN_PROGRESS;
+  }
 
-        logger.debug("Chunk#{} is ready to consume", nextChunkToConsume);
+  @Override
+  public void setChunkCompletionListener(Runnable listener) {
+    this.chunkCompletionListener = listener;
+  }
 
-        nextChunkToConsume++;
+  @Override
+  public Runnable holdChunkMemory() {
+    int chunkIndex = unorderedConsumption ? lastReturnedChunk : nextChunkToConsume - 1;
+    if (chunks == null || chunkIndex < 0 || chunks.get(chunkIndex).isReleased()) {
+      return () -> {};
+    }
+    SnowflakeResultChunk chunk = chunks.get(chunkIndex);
+    long size = chunk.computeNeededChunkMemory();
+    // the memory is not released anymore when the chunk is freed
+    chunk.setReleased();
+    AtomicBoolean released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) {
+        logger.debug("Release {} bytes of chunk#{} held by the consumer", size, chunkIndex);
+        memoryBudget.release(memoryAccount, size);
+      }
+    };
+  }
 
-        // next chunk to consume is ready for consumption
-        return currentChunk;
+  /**
+   * Free the data and release the memory of a chunk which has been consumed
+   *
+   * @param chunkIndex index of the consumed chunk
+   */
+  private void freeConsumedChunk(int chunkIndex) {
+    // free the chunk data for previous chunk
+    logger.debug("Free chunk data for chunk #{}", chunkIndex);
+
+    long chunkMemUsage = chunks.get(chunkIndex).computeNeededChunkMemory();
+
+    if (prefetchController != null && lastChunkReturnedTime >= 0) {
+      prefetchController.recordChunkConsumed(
+          chunks.get(chunkIndex).getRowCount(), System.currentTimeMillis() - lastChunkReturnedTime);
+    }
+
+    // Free any memory the previous chunk might hang on. The blocks of a JSON chunk go back to the
+    // slab pool, it is important to do this BEFORE starting the next download
+    this.chunks.get(chunkIndex).freeData();
+
+    releaseCurrentMemoryUsage(chunkIndex, Optional.of(chunkMemUsage));
+  }
+
+  /**
+   * Parse the spilled chunks of the prefetch window from their local files, in result order and as
+   * far as the memory limit allows. They take precedence over the chunks which have not been
+   * downloaded yet.
+   */
+  private void restoreSpilledChunks() {
+    for (int i = unrestoredSpills.nextSetBit(nextChunkToConsume);
+        i >= 0 && i < nextChunkToDownload;
+        i = unrestoredSpills.nextSetBit(i + 1)) {
+      SnowflakeResultChunk chunk = chunks.get(i);
+      chunk.getLock().lock();
+      try {
+        // keep the result order, the chunk is still being spilled or has failed
+        if (chunk.getDownloadState() != DownloadState.SPILLED) {
+          break;
+        }
       } finally {
-        logger.debug("Consumer free lock", false);
-
-        boolean terminateDownloader = (currentChunk.getDownloadState() == DownloadState.FAILURE);
-        // release the unlock always
-        currentChunk.getLock().unlock();
-        if (nextChunkToConsume == this.chunks.size()) {
-          // make sure to release the last chunk
-          releaseCurrentMemoryUsage(nextChunkToConsume - 1, Optional.empty());
+        chunk.getLock().unlock();
+      }
+      if (!memoryBudget.tryReserve(memoryAccount, chunk.computeNeededChunkMemory(), memoryLimit)) {
+        break;
+      }
+      chunk.setReserved();
+      submitRestore(i);
+    }
+  }
+
+  /**
+   * Submit parsing a spilled chunk from its local file. The chunk must be marked as reserved if its
+   * memory has been reserved, otherwise its memory is never released.
+   *
+   * @param chunkIndex index of the spilled chunk
+   */
+  private void submitRestore(int chunkIndex) {
+    SnowflakeResultChunk chunk = chunks.get(chunkIndex);
+    logger.debug("Submit spilled chunk #{} for parsing", chunkIndex);
+    unrestoredSpills.clear(chunkIndex);
+    chunk.getLock().lock();
+    try {
+      chunk.setDownloadState(DownloadState.IN_PROGRESS);
+    } finally {
+      chunk.getLock().unlock();
+    }
+    downloaderFutures.put(chunkIndex, submitDownload(chunkIndex, ChunkTask.RESTORE));
+  }
+
+  /**
+   * Submit the next chunks for download, reporting an out of memory error as SQL exception
+   *
+   * @param mayWait true to wait for the memory of the chunk the consumer needs next
+   * @throws SnowflakeSQLException if the prefetch fails
+   */
+  private void prefetchNextChunks(boolean mayWait) throws SnowflakeSQLException {
+    if (sharedQueue != null) {
+      sharedQueue.setNextChunkToConsume(nextChunkToConsume);
+    }
+
+    try {
+      if (spillEnabled) {
+        restoreSpilledChunks();
+      }
+      startNextDownloaders(mayWait);
+    } catch (OutOfMemoryError outOfMemoryError) {
+      logOutOfMemoryError();
+      StringWriter errors = new StringWriter();
+      outOfMemoryError.printStackTrace(new PrintWriter(errors));
+      throw new SnowflakeSQLLoggedException(
+          this.session, ErrorCode.INTERNAL_ERROR.getMessageCode(), SqlState.INTERNAL_ERROR, errors);
+    }
+  }
+
+  /**
+   * Wait until a chunk has been downloaded, retrying failed downloads. The downloader is terminated
+   * if the chunk cannot be downloaded.
+   *
+   * @param currentChunk the chunk to wait for
+   * @param chunkIndex index of the chunk
+   * @throws InterruptedException if the consumer thread was interrupted
+   * @throws SnowflakeSQLException if the chunk cannot be downloaded
+   */
+  private void awaitChunkDownload(SnowflakeResultChunk currentChunk, int chunkIndex)
+      throws InterruptedException, SnowflakeSQLException {
+    currentChunk.getLock().lock();
+    try {
+      logger.debug("Consumer get lock to check chunk state", false);
+
+      waitForChunkReady(currentChunk, chunkIndex);
+
+      if (currentChunk.getDownloadState() == DownloadState.SPILLED) {
+        // the chunk is needed now, wait for memory and parse it from its local file
+        if (memoryBudget.reserve(
+            memoryAccount,
+            currentChunk.computeNeededChunkMemory(),
+            memoryLimit,
+            getMaxMemoryWaitMillis())) {
+          currentChunk.setReserved();
+        } else {
+          // the chunk holds no reservation, so it does not release the memory of other chunks
+          logger.debug(
+              "Timed out waiting for memory, parse spilled chunk#{} without a reservation,"
+                  + " curMem: {}",
+              chunkIndex,
+              memoryBudget.getCurrentUsage());
         }
-        if (terminateDownloader) {
-          logger.debug("Download result fail. Shut down the chunk downloader", false);
-          terminate();
+        submitRestore(chunkIndex);
+        waitForChunkReady(currentChunk, chunkIndex);
+      }
+
+      // downloader thread encountered an error
+      if (currentChunk.getDownloadState() == DownloadState.FAILURE) {
+        releaseAllChunkMemoryUsage();
+        logger.error("Downloader encountered error: {}", currentChunk.getDownloadError());
+
+        if (currentChunk
+            .getDownloadError()
+            .contains("java.lang.OutOfMemoryError: Java heap space")) {
+          logOutOfMemoryError();
         }
+
+        throw new SnowflakeSQLLoggedException(
+            this.session,
+            ErrorCode.INTERNAL_ERROR.getMessageCode(),
+            SqlState.INTERNAL_ERROR,
+            currentChunk.getDownloadError());
+      }
+    } finally {
+      logger.debug("Consumer free lock", false);
+
+      boolean terminateDownloader = (currentChunk.getDownloadState() == DownloadState.FAILURE);
+      // release the unlock always
+      currentChunk.getLock().unlock();
+      if (terminateDownloader) {
+        logger.debug("Download result fail. Shut down the chunk downloader", false);
+        terminate();
       }
     }
   }
@@ -662,21 +1230,24 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
    * already retried more than 10 times, then throw an exception.
    *
    * @param currentChunk
+   * @param chunkIndex index of the current chunk
    * @throws InterruptedException
    */
-  private void waitForChunkReady(SnowflakeResultChunk currentChunk) throws InterruptedException {
+  private void waitForChunkReady(SnowflakeResultChunk currentChunk, int chunkIndex)
+      throws InterruptedException {
     int retry = 0;
     long startTime = System.currentTimeMillis();
     while (true) {
       logger.debug(
           "Thread {} is waiting for chunk#{} to be ready, current chunk state is: {}, retry: {}",
           Thread.currentThread().getId(),
-          nextChunkToConsume,
+          chunkIndex,
           currentChunk.getDownloadState(),
           retry);
 
       if (currentChunk.getDownloadState() != DownloadState.FAILURE
-          && currentChunk.getDownloadState() != DownloadState.SUCCESS) {
+          && currentChunk.getDownloadState() != DownloadState.SUCCESS
+          && currentChunk.getDownloadState() != DownloadState.SPILLED) {
         // if the state is not failure, we should keep waiting; otherwise, we skip
         // waiting
         if (!currentChunk
@@ -687,7 +1258,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
               "Thread {} is timeout for waiting chunk#{} to be ready, current"
                   + " chunk state is: {}, retry: {}, scrubbedUrl: {}",
               Thread.currentThread().getId(),
-              nextChunkToConsume,
+              chunkIndex,
               currentChunk.getDownloadState(),
               retry,
               currentChunk.getScrubbedUrl());
@@ -696,13 +1267,14 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
           currentChunk.setDownloadError(
               String.format(
                   "Timeout waiting for the download of chunk#%d(Total chunks: %d) retry: %d scrubbedUrl: %s",
-                  nextChunkToConsume, this.chunks.size(), retry, currentChunk.getScrubbedUrl()));
+                  chunkIndex, this.chunks.size(), retry, currentChunk.getScrubbedUrl()));
           break;
         }
       }
 
       // retry if chunk is not successfully downloaded
-      if (currentChunk.getDownloadState() != DownloadState.SUCCESS) {
+      if (currentChunk.getDownloadState() != DownloadState.SUCCESS
+          && currentChunk.getDownloadState() != DownloadState.SPILLED) {
         retry++;
         // timeout or failed
         logger.debug(
@@ -710,56 +1282,46 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             currentChunk.getDownloadState(),
             Thread.currentThread().getId(),
             retry,
-            nextChunkToConsume);
-        Future downloaderFuture = downloaderFutures.get(nextChunkToConsume);
+            chunkIndex);
+        Future downloaderFuture = downloaderFutures.get(chunkIndex);
         if (downloaderFuture != null) {
           downloaderFuture.cancel(true);
         }
         HttpUtil.closeExpiredAndIdleConnections();
 
-        chunks.get(nextChunkToConsume).getLock().lock();
+        chunks.get(chunkIndex).getLock().lock();
         try {
-          chunks.get(nextChunkToConsume).setDownloadState(DownloadState.IN_PROGRESS);
-          chunks.get(nextChunkToConsume).reset();
+          chunks.get(chunkIndex).setDownloadState(DownloadState.IN_PROGRESS);
+          chunks.get(chunkIndex).reset();
         } finally {
-          chunks.get(nextChunkToConsume).getLock().unlock();
+          chunks.get(chunkIndex).getLock().unlock();
         }
 
         // random jitter before start next retry
         Thread.sleep(new Random().nextInt(MAX_RETRY_JITTER));
 
-        downloaderFuture =
-            executor.submit(
-                getDownloadChunkCallable(
-                    this,
-                    chunks.get(nextChunkToConsume),
-                    qrmk,
-                    nextChunkToConsume,
-                    chunkHeadersMap,
-                    networkTimeoutInMilli,
-                    authTimeout,
-                    socketTimeout,
-                    maxHttpRetries,
-                    session,
-                    chunks.size(),
-                    queryId));
-        downloaderFutures.put(nextChunkToConsume, downloaderFuture);
+        // a chunk which failed to spill is downloaded into memory
+        unrestoredSpills.clear(chunkIndex);
+        downloaderFuture = submitDownload(chunkIndex);
+        downloaderFutures.put(chunkIndex, downloaderFuture);
         // Only when prefetch fails due to internal memory limitation, nextChunkToDownload
-        // equals nextChunkToConsume. In that case we need to increment nextChunkToDownload
-        if (nextChunkToDownload == nextChunkToConsume) {
-          nextChunkToDownload = nextChunkToConsume + 1;
+        // equals the chunk to consume. In that case we need to increment nextChunkToDownload
+        if (nextChunkToDownload == chunkIndex) {
+          nextChunkToDownload = chunkIndex + 1;
         }
       }
 
       // exit if chunk has downloaded or we have hit max retry
       // maxHttpRetries = 0 will retry indefinitely
       if (currentChunk.getDownloadState() == DownloadState.SUCCESS
+          || currentChunk.getDownloadState() == DownloadState.SPILLED
           || (maxHttpRetries > 0 && retry >= maxHttpRetries)) {
         break;
       }
     }
-    if (currentChunk.getDownloadState() == DownloadState.SUCCESS) {
-      logger.debug("Ready to consume chunk#{}, succeed retry={}", nextChunkToConsume, retry);
+    if (currentChunk.getDownloadState() == DownloadState.SUCCESS
+        || currentChunk.getDownloadState() == DownloadState.SPILLED) {
+      logger.debug("Ready to consume chunk#{}, succeed retry={}", chunkIndex, retry);
     } else if (retry >= maxHttpRetries) {
       // stop retrying and report failure
       currentChunk.setDownloadState(DownloadState.FAILURE);
@@ -767,10 +1329,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
           String.format(
               "Max retry reached for the download of chunk#%d "
                   + "(Total chunks: %d) retry: %d, error: %s",
-              nextChunkToConsume,
-              this.chunks.size(),
-              retry,
-              chunks.get(nextChunkToConsume).getDownloadError()));
+              chunkIndex, this.chunks.size(), retry, chunks.get(chunkIndex).getDownloadError()));
     }
     this.numberMillisWaitingForChunks += (System.currentTimeMillis() - startTime);
   }
@@ -797,7 +1356,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         totalMillisDownloadingChunks.get(),
         totalMillisParsingChunks.get(),
         chunks.size(),
-        currentMemoryUsage,
+        memoryBudget.getCurrentUsage(),
         memoryLimit,
         nextChunkToDownload,
         nextChunkToConsume);
@@ -832,6 +1391,34 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
               && injectedDownloaderException instanceof InterruptedException) {
             throw (InterruptedException) SnowflakeChunkDownloader.injectedDownloaderException;
           }
+        } else if (sharedQueue != null) {
+          // cancel running downloaders and drop the pending ones, the worker threads are shared
+          downloaderFutures.forEach((k, v) -> v.cancel(true));
+          // the chunks are freed below, so wait for the downloads which are still writing to them
+          if (!sharedQueue.close(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
+            logger.debug("Chunk downloads did not terminate in the specified time.", false);
+          }
+        }
+        synchronized (this) {
+          if (pipelineExecutor != null) {
+            // the downloads have stopped, so stop the stages which are still reading ahead
+            pipelineExecutor.shutdownNow();
+          }
+        }
+        if (hedgedFetcher != null) {
+          logger.debug(
+              "Sent {} hedged requests for {} chunk downloads of query {}, {} completed first",
+              hedgedFetcher.getHedgedRequests(),
+              hedgedFetcher.getFetches(),
+              queryId,
+              hedgedFetcher.getHedgeWins());
+        }
+        if (spilledChunks.get() > 0) {
+          logger.debug(
+              "Spilled {} chunks ({} MB) of query {} to local files",
+              spilledChunks.get(),
+              spilledBytes.get() / MB,
+              queryId);
         }
 
         long totalUncompressedSize =
@@ -868,13 +1455,13 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         for (SnowflakeResultChunk chunk : chunks) {
           // explicitly free each chunk since Arrow chunk may hold direct memory
           chunk.freeData();
+          deleteSpillFile(chunk);
         }
         if (queryResultFormat == QueryResultFormat.ARROW) {
           SFArrowResultSet.closeRootAllocator(rootAllocator);
-        } else {
-          chunkDataCache.clear();
         }
         releaseAllChunkMemoryUsage();
+        memoryBudget.unregister(memoryAccount);
         chunks = null;
       }
     }
@@ -899,6 +1486,90 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
     this.totalMillisParsingChunks.addAndGet(parsingTime);
   }
 
+  /**
+   * Feed the download and parse time of a chunk and the number of parallel fetches to the adaptive
+   * prefetch controller
+   *
+   * @param resultChunk chunk which has been downloaded and parsed
+   */
+  private void recordChunkFetched(SnowflakeResultChunk resultChunk) {
+    if (prefetchController != null) {
+      prefetchController.recordChunkFetched(
+          resultChunk.getRowCount(),
+          resultChunk.getTotalTime(),
+          activeFetches.get(),
+          resultChunk.computeNeededChunkMemory());
+    }
+  }
+
+  /**
+   * @return memory currently reserved by this downloader
+   */
+  long getMemoryUsage() {
+    return memoryAccount.getUsage();
+  }
+
+  /**
+   * @return number of chunks which have been written to local files
+   */
+  long getSpilledChunkCount() {
+    return spilledChunks.get();
+  }
+
+  /**
+   * Delete the local file of a chunk if it has been spilled
+   *
+   * @param chunk the chunk
+   */
+  private static void deleteSpillFile(SnowflakeResultChunk chunk) {
+    chunk.getLock().lock();
+    try {
+      File spillFile = chunk.getSpillFile();
+      if (spillFile != null) {
+        chunk.setSpillFile(null);
+        if (!spillFile.delete()) {
+          logger.debug("Failed to delete spilled chunk file {}, deleting it on exit", spillFile);
+          spillFile.deleteOnExit();
+        }
+      }
+    } finally {
+      chunk.getLock().unlock();
+    }
+  }
+
+  /**
+   * Create the local file of a spilled chunk in the spill directory. The file is readable and
+   * writable by its owner only, it holds query results.
+   *
+   * @return the new empty file
+   * @throws IOException if the file cannot be created
+   */
+  private File createSpillFile() throws IOException {
+    FileAttribute<?>[] attributes =
+        Constants.getOS() == Constants.OS.WINDOWS
+            ? new FileAttribute<?>[0]
+            : new FileAttribute<?>[] {
+              PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))
+            };
+    Path spillFile =
+        spillDirectory != null
+            ? Files.createTempFile(spillDirectory, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX, attributes)
+            : Files.createTempFile(SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX, attributes);
+    return spillFile.toFile();
+  }
+
+  /**
+   * Open the local file of a spilled chunk. The file is read through a stream rather than mapped, a
+   * mapped file could not be deleted on Windows until the mapping is garbage collected.
+   *
+   * @param spillFile the local file
+   * @return stream of the chunk
+   * @throws IOException if the file cannot be opened
+   */
+  private static InputStream openSpillFile(File spillFile) throws IOException {
+    return new BufferedInputStream(Files.newInputStream(spillFile.toPath()), SPILL_BUFFER_SIZE);
+  }
+
   /**
    * Create a download callable that will be run in download thread
    *
@@ -911,6 +1582,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
    * @param networkTimeoutInMilli network timeout
    * @param totalChunks used to log the information of total chunks
    * @param queryId used to log the queryId to which the chunk belongs to
+   * @param task whether to download, spill or restore the chunk
    * @return A callable responsible for downloading chunk
    */
   private static Callable<Void> getDownloadChunkCallable(
@@ -925,7 +1597,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
       final int maxHttpRetries,
       final SFBaseSession session,
       final int totalChunks,
-      final String queryId) {
+      final String queryId,
+      final ChunkTask task) {
     ChunkDownloadContext downloadContext =
         new ChunkDownloadContext(
             downloader,
@@ -948,9 +1621,11 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
        * @throws SnowflakeSQLException
        */
       private void downloadAndParseChunk(InputStream inputStream) throws SnowflakeSQLException {
-        // remember the download time
-        resultChunk.setDownloadTime(System.currentTimeMillis() - startTime);
-        downloader.addDownloadTime(resultChunk.getDownloadTime());
+        // remember the download time, a spilled chunk has recorded it when it was spilled
+        if (task != ChunkTask.RESTORE) {
+          resultChunk.setDownloadTime(System.currentTimeMillis() - startTime);
+          downloader.addDownloadTime(resultChunk.getDownloadTime());
+        }
 
         startTime = System.currentTimeMillis();
 
@@ -997,6 +1672,46 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         downloader.addParsingTime(resultChunk.getParseTime());
       }
 
+      /**
+       * Write the input stream to a local file of the chunk
+       *
+       * @param inputStream
+       * @throws IOException if the chunk cannot be read or written
+       */
+      private void spillChunk(InputStream inputStream) throws IOException {
+        File spillFile = downloader.createSpillFile();
+        long size = 0;
+        try (InputStream in = inputStream;
+            OutputStream out = Files.newOutputStream(spillFile.toPath())) {
+          byte[] buffer = new byte[SPILL_BUFFER_SIZE];
+          int len;
+          while ((len = in.read(buffer)) != -1) {
+            out.write(buffer, 0, len);
+            size += len;
+          }
+        } catch (IOException | RuntimeException ex) {
+          if (!spillFile.delete()) {
+            logger.debug("Failed to delete spilled chunk file {}, deleting it on exit", spillFile);
+            spillFile.deleteOnExit();
+          }
+          throw ex;
+        }
+
+        resultChunk.setDownloadTime(System.currentTimeMillis() - startTime);
+        downloader.addDownloadTime(resultChunk.getDownloadTime());
+        resultChunk.getLock().lock();
+        try {
+          resultChunk.setSpillFile(spillFile);
+        } finally {
+          resultChunk.getLock().unlock();
+        }
+        if (downloader.terminated.get()) {
+          deleteSpillFile(resultChunk);
+        }
+        downloader.spilledChunks.incrementAndGet();
+        downloader.spilledBytes.addAndGet(size);
+      }
+
       private long startTime;
 
       public Void call() {
@@ -1014,6 +1729,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             Thread.currentThread().getId());
 
         startTime = System.currentTimeMillis();
+        downloader.activeFetches.incrementAndGet();
 
         // initialize the telemetry service for this downloader thread using the main telemetry
         // service
@@ -1025,13 +1741,49 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             throw SnowflakeChunkDownloader.injectedDownloaderException;
           }
 
-          InputStream is = downloader.getResultStreamProvider().getInputStream(downloadContext);
+          InputStream is;
+          if (task == ChunkTask.RESTORE) {
+            is = openSpillFile(resultChunk.getSpillFile());
+          } else {
+            is =
+                downloader.hedgedFetcher != null
+                    ? downloader.hedgedFetcher.fetch(
+                        requestListener ->
+                            downloader
+                                .getResultStreamProvider()
+                                .getInputStream(
+                                    downloadContext.withRequestListener(requestListener)),
+                        resultChunk.getUncompressedSize(),
+                        downloader.getHedgeExecutor(chunkIndex))
+                    : downloader.getResultStreamProvider().getInputStream(downloadContext);
+          }
+          if (task == ChunkTask.SPILL) {
+            logger.debug(
+                "Thread {} start spilling chunk#{}", Thread.currentThread().getId(), chunkIndex);
+            spillChunk(is);
+            logger.debug(
+                "Thread {} finish spilling chunk#{}", Thread.currentThread().getId(), chunkIndex);
+            downloader.downloaderFutures.remove(chunkIndex);
+            resultChunk.getLock().lock();
+            try {
+              resultChunk.setDownloadState(DownloadState.SPILLED);
+              resultChunk.getDownloadCondition().signal();
+            } finally {
+              resultChunk.getLock().unlock();
+            }
+            downloader.signalChunkCompleted();
+            return null;
+          }
           logger.debug(
               "Thread {} start downloading chunk#{}", Thread.currentThread().getId(), chunkIndex);
           downloadAndParseChunk(is);
+          if (task == ChunkTask.RESTORE) {
+            deleteSpillFile(resultChunk);
+          }
           logger.debug(
               "Thread {} finish downloading chunk#{}", Thread.currentThread().getId(), chunkIndex);
           downloader.downloaderFutures.remove(chunkIndex);
+          downloader.recordChunkFetched(resultChunk);
           if (chunkIndex % 5 == 0) {
             logger.info(
                 "Processed {} chunk#{} in {} ms ({} out of {}) for query {}. Download took {} ms, "
@@ -1079,12 +1831,19 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
 
             resultChunk.getLock().unlock();
           }
+          downloader.signalChunkCompleted();
         } catch (Throwable th) {
           resultChunk.getLock().lock();
           try {
             logger.debug("Get lock to set chunk download error", false);
             resultChunk.setDownloadState(DownloadState.FAILURE);
-            downloader.releaseCurrentMemoryUsage(chunkIndex, Optional.empty());
+            // the memory of a chunk is reserved when it is parsed, not when it is spilled
+            if (task != ChunkTask.SPILL) {
+              downloader.releaseCurrentMemoryUsage(chunkIndex, Optional.empty());
+            }
+            if (task == ChunkTask.RESTORE) {
+              deleteSpillFile(resultChunk);
+            }
             StringWriter errors = new StringWriter();
             th.printStackTrace(new PrintWriter(errors));
             resultChunk.setDownloadError(errors.toString());
@@ -1096,6 +1855,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             logger.debug("Failed to download chunk#{}, free lock", chunkIndex);
             resultChunk.getLock().unlock();
           }
+          downloader.signalChunkCompleted();
 
           logger.debug(
               "Thread {} Exception encountered ({}:{}) fetching chunk#{} from: {}, Error {}",
@@ -1105,6 +1865,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
               chunkIndex,
               resultChunk.getScrubbedUrl(),
               resultChunk.getDownloadError());
+        } finally {
+          downloader.activeFetches.decrementAndGet();
         }
 
         return null;
@@ -1123,51 +1885,15 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
          * The number of rows is known and the number of expected columns
          * is also known.
          */
-        ResultJsonParserV2 jp = new ResultJsonParserV2();
-        jp.startParsing((JsonResultChunk) resultChunk, session);
-
-        byte[] buf = new byte[STREAM_BUFFER_SIZE];
-
-        // To be used to copy the leftover buffer data in the case of buffer ending in escape state
-        // during parsing.
-        byte[] prevBuffer = null;
-        ByteBuffer bBuf = null;
-        int len;
         logger.debug(
             "Thread {} start to read inputstream for chunk#{}",
             Thread.currentThread().getId(),
             chunkIndex);
-        while ((len = jsonInputStream.read(buf)) != -1) {
-          if (prevBuffer != null) {
-            // if parsing stopped during an escape sequence in jp.continueParsing() and there is
-            // leftover data in the buffer,
-            // prepend the copied data to the next buffer read from the output stream.
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            os.write(prevBuffer);
-            os.write(buf);
-            buf = os.toByteArray();
-            len += prevBuffer.length;
-          }
-          bBuf = ByteBuffer.wrap(buf, 0, len);
-          jp.continueParsing(bBuf, session);
-          if (bBuf.remaining() > 0) {
-            // if there is any data left un-parsed, it will be prepended to the next buffer read.
-            prevBuffer = new byte[bBuf.remaining()];
-            bBuf.get(prevBuffer);
-          } else {
-            prevBuffer = null;
-          }
-        }
+        new ResultJsonParserV2().parse(jsonInputStream, (JsonResultChunk) resultChunk, session);
         logger.debug(
             "Thread {} finish reading inputstream for chunk#{}",
             Thread.currentThread().getId(),
             chunkIndex);
-        if (prevBuffer != null) {
-          bBuf = ByteBuffer.wrap(prevBuffer);
-        } else {
-          bBuf = ByteBuffer.wrap(new byte[0]);
-        }
-        jp.endParsing(bBuf, session);
       }
     };
   }
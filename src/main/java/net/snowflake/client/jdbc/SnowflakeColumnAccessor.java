@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+
+/**
+ * Reader of a single column of a ResultSet, obtained from {@link
+ * SnowflakeResultSet#getColumnAccessor(int)}.
+ *
+ * <p>The accessor reads the column at the current row of the ResultSet. It is bound to the type of
+ * the column once, so reading cells in a loop avoids the per-call type dispatch of the ResultSet
+ * getters. The values are the same as those of the getters of the ResultSet, but reading through an
+ * accessor does not update {@link java.sql.ResultSet#wasNull()}; use {@link #isNull()} instead.
+ */
+public interface SnowflakeColumnAccessor {
+  /**
+   * @return true if the value of the column in the current row is SQL NULL
+   * @throws SQLException if there is no current row
+   */
+  boolean isNull() throws SQLException;
+
+  /**
+   * @return the value as a boolean, false if the value is SQL NULL
+   * @throws SQLException if there is no current row or the value cannot be converted
+   */
+  boolean getBoolean() throws SQLException;
+
+  /**
+   * @return the value as an int, 0 if the value is SQL NULL
+   * @throws SQLException if there is no current row or the value cannot be converted
+   */
+  int getInt() throws SQLException;
+
+  /**
+   * @return the value as a long, 0 if the value is SQL NULL
+   * @throws SQLException if there is no current row or the value cannot be converted
+   */
+  long getLong() throws SQLException;
+
+  /**
+   * @return the value as a double, 0 if the value is SQL NULL
+   * @throws SQLException if there is no current row or the value cannot be converted
+   */
+  double getDouble() throws SQLException;
+
+  /**
+   * @return the value as a BigDecimal, null if the value is SQL NULL
+   * @throws SQLException if there is no current row or the value cannot be converted
+   */
+  BigDecimal getBigDecimal() throws SQLException;
+
+  /**
+   * @return the value as a String, null if the value is SQL NULL
+   * @throws SQLException if there is no current row or the value cannot be converted
+   */
+  String getString() throws SQLException;
+}
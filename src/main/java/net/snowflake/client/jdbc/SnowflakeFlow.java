@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+/**
+ * Interfaces of the publishers of the driver, see {@link SnowflakeResultSet#publish(
+ * java.util.concurrent.Executor)}.
+ *
+ * <p>The interfaces have the methods and the contract of those of {@code java.util.concurrent.Flow}
+ * and of Reactive Streams, which the driver cannot depend on as it runs on Java 8. A Flow or
+ * Reactive Streams subscriber is adapted by forwarding each method, e.g. {@code
+ * subscriber::onNext}.
+ */
+public final class SnowflakeFlow {
+  private SnowflakeFlow() {}
+
+  /**
+   * Producer of items received by a subscriber, see {@code java.util.concurrent.Flow.Publisher}.
+   *
+   * @param <T> type of the items
+   */
+  @FunctionalInterface
+  public interface Publisher<T> {
+    /**
+     * Add a subscriber. Its {@link Subscriber#onSubscribe(Subscription)} is called before any other
+     * method, and {@link Subscriber#onError(Throwable)} is called if the subscription fails.
+     *
+     * @param subscriber the subscriber
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+  }
+
+  /**
+   * Receiver of the items of a publisher, see {@code java.util.concurrent.Flow.Subscriber}. The
+   * methods of a subscription are called one at a time.
+   *
+   * @param <T> type of the items
+   */
+  public interface Subscriber<T> {
+    /**
+     * Called before any other method of the subscription. No items are received until they are
+     * requested with {@link Subscription#request(long)}.
+     *
+     * @param subscription the subscription
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Called with the next item, at most as many times as items have been requested.
+     *
+     * @param item the item
+     */
+    void onNext(T item);
+
+    /**
+     * Called when the subscription fails, no other method is called afterwards.
+     *
+     * @param throwable the error
+     */
+    void onError(Throwable throwable);
+
+    /** Called when all items have been received, no other method is called afterwards. */
+    void onComplete();
+  }
+
+  /** Link of a publisher and a subscriber, see {@code java.util.concurrent.Flow.Subscription}. */
+  public interface Subscription {
+    /**
+     * Add to the number of items the subscriber is ready to receive. The demand is unbounded once
+     * it reaches Long.MAX_VALUE. A number which is not positive fails the subscription.
+     *
+     * @param n number of items
+     */
+    void request(long n);
+
+    /** Stop the subscription, the subscriber may still receive items which are on their way. */
+    void cancel();
+  }
+}
@@ -4,6 +4,7 @@
 
 package net.snowflake.client.jdbc;
 
+import java.io.File;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import net.snowflake.client.util.SecretDetector;
@@ -22,11 +23,18 @@ public abstract class SnowflakeResultChunk {
     released = true;
   }
 
+  /** Mark the memory of the chunk as reserved again, e.g. when a spilled chunk is parsed */
+  void setReserved() {
+    released = false;
+  }
+
   public enum DownloadState {
     NOT_STARTED,
     IN_PROGRESS,
     SUCCESS,
-    FAILURE
+    FAILURE,
+    // the chunk has been written to a local file and has to be parsed before it is consumed
+    SPILLED
   }
 
   // url for result chunk
@@ -62,7 +70,12 @@ public abstract class SnowflakeResultChunk {
   // download error if any for the chunk
   private String downloadError;
 
-  private boolean released = false;
+  // true if the chunk holds no reservation in the memory limit, because its memory has been
+  // released or it has been downloaded without one, e.g. into a local file
+  private volatile boolean released = false;
+
+  // local file holding the downloaded chunk if it has been spilled
+  private File spillFile;
 
   /**
    * Compute the memory necessary to store the data of this chunk
@@ -145,6 +158,14 @@ public abstract class SnowflakeResultChunk {
     this.downloadState = downloadState;
   }
 
+  File getSpillFile() {
+    return spillFile;
+  }
+
+  void setSpillFile(File spillFile) {
+    this.spillFile = spillFile;
+  }
+
   long getTotalTime() {
     return downloadTime + parseTime;
   }
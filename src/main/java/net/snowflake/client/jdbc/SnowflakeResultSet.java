@@ -4,11 +4,19 @@
 
 package net.snowflake.client.jdbc;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 import net.snowflake.client.core.QueryStatus;
 
-/** This interface defines Snowflake specific APIs for ResultSet */
+/**
+ * This interface defines Snowflake specific APIs for ResultSet. The methods which other
+ * implementations may not support throw SQLFeatureNotSupportedException by default.
+ */
 public interface SnowflakeResultSet {
   /**
    * @return the Snowflake query ID of the query which generated this result set
@@ -49,6 +57,25 @@ public interface SnowflakeResultSet {
    */
   QueryStatusV2 getStatusV2() throws SQLException;
 
+  /**
+   * Get a future of this ResultSet which completes when the query has completed, for the
+   * asynchronous queries. The status of the query is polled by background threads shared by the
+   * driver, so no thread of the caller waits for the query. The future completes on the status of
+   * the query only: the result is fetched, and its first chunk downloaded, by the first call which
+   * reads the ResultSet, e.g. {@link ResultSet#next()}, on the thread of that call. Closing the
+   * ResultSet cancels the future.
+   *
+   * <p>The ResultSet of a synchronous query is returned as a completed future.
+   *
+   * @return future completed with this ResultSet when the query succeeds, or exceptionally with a
+   *     SQLException when the query fails or its status cannot be retrieved
+   * @throws SQLException if the ResultSet is closed
+   */
+  default CompletableFuture<ResultSet> getResultSetFuture() throws SQLException {
+    throw new SQLFeatureNotSupportedException(
+        "getResultSetFuture is not supported by this ResultSet");
+  }
+
   /**
    * Get a list of ResultSetSerializables for the ResultSet in order to parallel processing
    *
@@ -62,4 +89,191 @@ public interface SnowflakeResultSet {
    */
   List<SnowflakeResultSetSerializable> getResultSetSerializables(long maxSizeInBytes)
       throws SQLException;
+
+  /**
+   * Get the data of the ResultSet as Arrow record batches instead of rows. The vectors decoded from
+   * the result chunks are handed out without copying, see {@link SnowflakeArrowBatches} for the
+   * ownership rules. Only available for results in ARROW format, and only before any row has been
+   * read. The rows cannot be read with next() afterwards.
+   *
+   * @return iterator over the record batches of the ResultSet
+   * @throws SQLException if the result is not in ARROW format or rows have already been read
+   */
+  default SnowflakeArrowBatches getArrowBatches() throws SQLException {
+    throw new SQLFeatureNotSupportedException("getArrowBatches is not supported by this ResultSet");
+  }
+
+  /**
+   * Get an accessor which reads a column at the current row. The accessor is bound to the type of
+   * the column, which makes reading many rows cheaper than calling the getters of the ResultSet.
+   * Only available for results in ARROW format.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return accessor of the column
+   * @throws SQLException if the result is not in ARROW format or the column does not exist
+   */
+  default SnowflakeColumnAccessor getColumnAccessor(int columnIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException(
+        "getColumnAccessor is not supported by this ResultSet");
+  }
+
+  /**
+   * Get the unscaled value of a NUMBER column with a scale, the number is the unscaled value
+   * divided by ten to the power of {@link #getScale(int)}. For results in ARROW format this reads
+   * the value without creating a BigDecimal. The value is SQL NULL if {@link #wasNull()} returns
+   * true afterwards.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return the unscaled value, 0 if the value is SQL NULL
+   * @throws SQLException if the column is not a NUMBER column or the value does not fit in a long
+   */
+  default long getUnscaledLong(int columnIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException("getUnscaledLong is not supported by this ResultSet");
+  }
+
+  /**
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return scale of the values of {@link #getUnscaledLong(int)}
+   * @throws SQLException if the ResultSet is closed
+   */
+  default int getScale(int columnIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException("getScale is not supported by this ResultSet");
+  }
+
+  /**
+   * Get the number of rows of the batch the current row belongs to. A batch is a block of rows the
+   * driver holds in memory at once: a record batch for results in ARROW format, a result chunk for
+   * results in JSON format. Other result sets have batches of a single row. The columns of a batch
+   * can be copied into arrays with {@link #getLongs(int, int, int, long[], long[])}, {@link
+   * #getInts(int, int, int, int[], long[])} and {@link #getDoubles(int, int, int, double[],
+   * long[])}, and {@link #skipToEndOfBatch()} moves on to the last row of the batch.
+   *
+   * @return number of rows of the current batch, 0 if there is no current row
+   * @throws SQLException if the ResultSet is closed
+   */
+  default int getBatchRowCount() throws SQLException {
+    throw new SQLFeatureNotSupportedException(
+        "getBatchRowCount is not supported by this ResultSet");
+  }
+
+  /**
+   * @return 0-based index of the current row in its batch, see {@link #getBatchRowCount()}
+   * @throws SQLException if the ResultSet is closed or there is no current row
+   */
+  default int getBatchRowIndex() throws SQLException {
+    throw new SQLFeatureNotSupportedException(
+        "getBatchRowIndex is not supported by this ResultSet");
+  }
+
+  /**
+   * Copy the values of a column for a range of rows of the current batch, see {@link
+   * #getBatchRowCount()}. The cursor does not move. For results in ARROW format integers are copied
+   * straight from the buffers of the record batch. The values are the same as those of {@link
+   * java.sql.ResultSet#getLong(int)}. The elements of the null bitmap which cover the copied rows
+   * are overwritten.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @param fromRow 0-based index of the first row in the batch
+   * @param rowCount maximum number of rows to copy
+   * @param values receives the value of the i-th copied row at index i, 0 if the value is SQL NULL
+   * @param nulls null bitmap, receives whether the i-th copied row is SQL NULL in bit i % 64 of
+   *     element i / 64; may be null
+   * @return number of rows copied, rowCount or less if the batch ends before
+   * @throws SQLException if there is no current row, the range is invalid, the arrays are too small
+   *     or a value cannot be converted
+   */
+  default int getLongs(int columnIndex, int fromRow, int rowCount, long[] values, long[] nulls)
+      throws SQLException {
+    throw new SQLFeatureNotSupportedException("getLongs is not supported by this ResultSet");
+  }
+
+  /**
+   * Copy the values of a column for a range of rows of the current batch as int, see {@link
+   * #getLongs(int, int, int, long[], long[])}. The values are the same as those of {@link
+   * java.sql.ResultSet#getInt(int)}.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @param fromRow 0-based index of the first row in the batch
+   * @param rowCount maximum number of rows to copy
+   * @param values receives the value of the i-th copied row at index i, 0 if the value is SQL NULL
+   * @param nulls null bitmap, receives whether the i-th copied row is SQL NULL in bit i % 64 of
+   *     element i / 64; may be null
+   * @return number of rows copied, rowCount or less if the batch ends before
+   * @throws SQLException if there is no current row, the range is invalid, the arrays are too small
+   *     or a value cannot be converted
+   */
+  default int getInts(int columnIndex, int fromRow, int rowCount, int[] values, long[] nulls)
+      throws SQLException {
+    throw new SQLFeatureNotSupportedException("getInts is not supported by this ResultSet");
+  }
+
+  /**
+   * Copy the values of a column for a range of rows of the current batch as double, see {@link
+   * #getLongs(int, int, int, long[], long[])}. The values are the same as those of {@link
+   * java.sql.ResultSet#getDouble(int)}.
+   *
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @param fromRow 0-based index of the first row in the batch
+   * @param rowCount maximum number of rows to copy
+   * @param values receives the value of the i-th copied row at index i, 0 if the value is SQL NULL
+   * @param nulls null bitmap, receives whether the i-th copied row is SQL NULL in bit i % 64 of
+   *     element i / 64; may be null
+   * @return number of rows copied, rowCount or less if the batch ends before
+   * @throws SQLException if there is no current row, the range is invalid, the arrays are too small
+   *     or a value cannot be converted
+   */
+  default int getDoubles(int columnIndex, int fromRow, int rowCount, double[] values, long[] nulls)
+      throws SQLException {
+    throw new SQLFeatureNotSupportedException("getDoubles is not supported by this ResultSet");
+  }
+
+  /**
+   * Move the cursor to the last row of the current batch, so the following next() moves to the
+   * first row of the next batch. Does nothing if there is no current row.
+   *
+   * @return number of rows skipped
+   * @throws SQLException if the ResultSet is closed
+   */
+  default int skipToEndOfBatch() throws SQLException {
+    throw new SQLFeatureNotSupportedException(
+        "skipToEndOfBatch is not supported by this ResultSet");
+  }
+
+  /**
+   * Get the rows of the ResultSet as a Stream. The stream must be requested before any row has been
+   * read, and the rows cannot be read with next() afterwards.
+   *
+   * <p>A sequential stream reads this ResultSet, with the chunks its downloader has prefetched. The
+   * spliterator of the stream splits on the boundaries of the result chunks. Once it is split, the
+   * chunk downloads of this ResultSet are stopped and each chunk is read by its own reader as with
+   * {@link #getResultSetSerializables(long)}, so the chunks of a {@link Stream#parallel() parallel}
+   * stream are downloaded and decoded on the threads of the common ForkJoinPool. A result which has
+   * no chunks to download besides the first one is not split. Close the stream if it is not
+   * consumed to the end, to release the readers it has opened. Errors are thrown as {@link
+   * SnowflakeUncheckedSQLException} by the operations of the stream.
+   *
+   * @return sequential stream of the rows
+   * @throws SQLException if rows have already been read or the ResultSet is closed
+   */
+  default Stream<SnowflakeRow> stream() throws SQLException {
+    throw new SQLFeatureNotSupportedException("stream is not supported by this ResultSet");
+  }
+
+  /**
+   * Get a publisher of the rows after the current one, for a single subscriber.
+   *
+   * <p>The rows are emitted on the executor, as they are requested by the subscriber and become
+   * ready. No executor thread waits for the download of a chunk, so the rows of many queries can be
+   * published from a small thread pool. The requests of the subscriber bound the chunk prefetch,
+   * which only downloads ahead the chunks holding rows which have been requested, besides the next
+   * chunk. The ResultSet is closed when the subscription completes, fails or is cancelled, which
+   * releases the chunks in memory. The ResultSet must not be read otherwise while it is published.
+   *
+   * @param executor runs the emission of the rows
+   * @return publisher of the rows
+   * @throws SQLException if the ResultSet is closed
+   */
+  default SnowflakeFlow.Publisher<SnowflakeRow> publish(Executor executor) throws SQLException {
+    throw new SQLFeatureNotSupportedException("publish is not supported by this ResultSet");
+  }
 }
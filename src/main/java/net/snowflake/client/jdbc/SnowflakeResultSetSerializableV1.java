@@ -55,6 +55,7 @@ import net.snowflake.client.log.SFLogger;
 import net.snowflake.client.log.SFLoggerFactory;
 import net.snowflake.common.core.SFBinaryFormat;
 import net.snowflake.common.core.SnowflakeDateTimeFormat;
+import org.apache.arrow.compression.CommonsCompressionFactory;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.ipc.ArrowStreamReader;
@@ -1136,6 +1137,16 @@ public class SnowflakeResultSetSerializableV1
     // Setup proxy info if necessary
     this.httpClientKey = SnowflakeUtil.convertProxyPropertiesToHttpClientKey(ocspMode, info);
 
+    return createSessionlessResultSet();
+  }
+
+  /**
+   * Create a ResultSet for the data wrapped in this object, which downloads the chunks with the
+   * proxy settings of {@link #getHttpClientKey()}.
+   *
+   * @return a ResultSet which represents for the data wrapped in the object
+   */
+  ResultSet createSessionlessResultSet() throws SQLException {
     // Setup transient fields
     setupTransientFields();
 
@@ -1191,7 +1202,8 @@ public class SnowflakeResultSetSerializableV1
       RootAllocator localRootAllocator =
           (rootAllocator != null) ? rootAllocator : new RootAllocator(Long.MAX_VALUE);
       try (ByteArrayInputStream is = new ByteArrayInputStream(bytes);
-          ArrowStreamReader reader = new ArrowStreamReader(is, localRootAllocator)) {
+          ArrowStreamReader reader =
+              new ArrowStreamReader(is, localRootAllocator, CommonsCompressionFactory.INSTANCE)) {
         root = reader.getVectorSchemaRoot();
         while (reader.loadNextBatch()) {
           firstChunkRowCount += root.getRowCount();
@@ -4,10 +4,13 @@
 
 package net.snowflake.client.jdbc;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.Clob;
@@ -24,10 +27,17 @@ import java.sql.SQLXML;
 import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 import net.snowflake.client.core.ArrowSqlInput;
 import net.snowflake.client.core.JsonSqlInput;
 import net.snowflake.client.core.QueryStatus;
@@ -94,6 +104,12 @@ public class SnowflakeResultSetV1 extends SnowflakeBaseResultSet
         session, "This function is only supported for asynchronous queries.");
   }
 
+  @Override
+  public CompletableFuture<ResultSet> getResultSetFuture() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return CompletableFuture.completedFuture(this);
+  }
+
   /**
    * Constructor takes a result set serializable object to create a sessionless result set.
    *
@@ -260,6 +276,25 @@ public class SnowflakeResultSetV1 extends SnowflakeBaseResultSet
     }
   }
 
+  @Override
+  protected <T> T getJavaTimeObject(int columnIndex, Class<T> type) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      if (LocalDateTime.class.isAssignableFrom(type)) {
+        return type.cast(sfBaseResultSet.getLocalDateTime(columnIndex));
+      } else if (OffsetDateTime.class.isAssignableFrom(type)) {
+        return type.cast(sfBaseResultSet.getOffsetDateTime(columnIndex));
+      } else if (Instant.class.isAssignableFrom(type)) {
+        return type.cast(sfBaseResultSet.getInstant(columnIndex));
+      } else {
+        return type.cast(sfBaseResultSet.getLocalDate(columnIndex));
+      }
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
   public ResultSetMetaData getMetaData() throws SQLException {
     raiseSQLExceptionIfResultSetIsClosed();
 
@@ -326,6 +361,58 @@ public class SnowflakeResultSetV1 extends SnowflakeBaseResultSet
     }
   }
 
+  /**
+   * The stream reads the value from the buffers of the result set where it can, so it is only valid
+   * until the cursor moves.
+   */
+  @Override
+  public InputStream getBinaryStream(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.getBinaryStream(columnIndex);
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
+  /**
+   * Characters which are not ASCII are returned as '?'. The stream is only valid until the cursor
+   * moves, see {@link #getBinaryStream(int)}.
+   */
+  @Override
+  public InputStream getAsciiStream(int columnIndex) throws SQLException {
+    InputStream utf8Stream = getUtf8Stream(columnIndex);
+    return utf8Stream == null ? null : new Utf8ToAsciiInputStream(utf8Stream);
+  }
+
+  /**
+   * @deprecated
+   */
+  @Deprecated
+  @Override
+  public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+    String str = getString(columnIndex);
+    return str == null ? null : new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_16BE));
+  }
+
+  /** The reader is only valid until the cursor moves, see {@link #getBinaryStream(int)}. */
+  @Override
+  public Reader getCharacterStream(int columnIndex) throws SQLException {
+    InputStream utf8Stream = getUtf8Stream(columnIndex);
+    return utf8Stream == null ? null : new InputStreamReader(utf8Stream, StandardCharsets.UTF_8);
+  }
+
+  private InputStream getUtf8Stream(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.getUtf8Stream(columnIndex);
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
   public int getRow() throws SQLException {
     raiseSQLExceptionIfResultSetIsClosed();
 
@@ -397,6 +484,118 @@ public class SnowflakeResultSetV1 extends SnowflakeBaseResultSet
     return sfBaseResultSet.getResultSetSerializables(maxSizeInBytes);
   }
 
+  @Override
+  public SnowflakeArrowBatches getArrowBatches() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return sfBaseResultSet.getArrowBatches();
+  }
+
+  @Override
+  public SnowflakeColumnAccessor getColumnAccessor(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return sfBaseResultSet.getColumnAccessor(columnIndex);
+  }
+
+  @Override
+  public long getUnscaledLong(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.getUnscaledLong(columnIndex);
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
+  @Override
+  public int getScale(int columnIndex) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return sfBaseResultSet.getScale(columnIndex);
+  }
+
+  @Override
+  public int getBatchRowCount() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return sfBaseResultSet.getBatchRowCount();
+  }
+
+  @Override
+  public int getBatchRowIndex() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.getBatchRowIndex();
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
+  @Override
+  public int getLongs(int columnIndex, int fromRow, int rowCount, long[] values, long[] nulls)
+      throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.getLongs(columnIndex, fromRow, rowCount, values, nulls);
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
+  @Override
+  public int getInts(int columnIndex, int fromRow, int rowCount, int[] values, long[] nulls)
+      throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.getInts(columnIndex, fromRow, rowCount, values, nulls);
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
+  @Override
+  public int getDoubles(int columnIndex, int fromRow, int rowCount, double[] values, long[] nulls)
+      throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.getDoubles(columnIndex, fromRow, rowCount, values, nulls);
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
+  @Override
+  public int skipToEndOfBatch() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return sfBaseResultSet.skipToEndOfBatch();
+  }
+
+  @Override
+  public Stream<SnowflakeRow> stream() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    if (sfBaseResultSet.getRow() != 0) {
+      throw new SnowflakeSQLException(
+          ErrorCode.INTERNAL_ERROR, "Rows cannot be streamed after rows have been read");
+    }
+    List<SnowflakeResultSetSerializable> chunks = sfBaseResultSet.getChunkSerializables();
+    List<SnowflakeResultSetSerializableV1> pieces = null;
+    if (chunks != null) {
+      pieces = new ArrayList<>(chunks.size());
+      for (SnowflakeResultSetSerializable chunk : chunks) {
+        pieces.add((SnowflakeResultSetSerializableV1) chunk);
+      }
+    }
+    return ResultSetRowSpliterator.stream(this, pieces, sfBaseResultSet::stopChunkDownloads);
+  }
+
+  @Override
+  public SnowflakeFlow.Publisher<SnowflakeRow> publish(Executor executor) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return new ResultSetPublisher(this, sfBaseResultSet, executor);
+  }
+
   /** Empty result set */
   static class EmptyResultSet implements ResultSet {
     private boolean isClosed;
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A row of a query result, as returned by {@link SnowflakeResultSet#stream()} and {@link
+ * SnowflakeResultSet#publish(java.util.concurrent.Executor)}.
+ *
+ * <p>The values are those of {@link java.sql.ResultSet#getObject(int)} and are decoded when the row
+ * is read, so a row stays valid after the stream has moved on and can be handed to other threads.
+ */
+public final class SnowflakeRow {
+  // 1-based column index by column label, shared by all rows of a stream
+  private final Map<String, Integer> columnIndexes;
+  private final Object[] values;
+
+  SnowflakeRow(Map<String, Integer> columnIndexes, Object[] values) {
+    this.columnIndexes = columnIndexes;
+    this.values = values;
+  }
+
+  /**
+   * @param metaData metadata of the result
+   * @return 1-based column index by column label, the first column of a label wins
+   */
+  static Map<String, Integer> columnIndexes(ResultSetMetaData metaData) throws SQLException {
+    Map<String, Integer> columnIndexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+      columnIndexes.putIfAbsent(metaData.getColumnLabel(i), i);
+    }
+    return columnIndexes;
+  }
+
+  /**
+   * Read the current row of a ResultSet.
+   *
+   * @param resultSet the ResultSet, positioned on a row
+   * @param columnIndexes column indexes of the result, see {@link
+   *     #columnIndexes(ResultSetMetaData)}
+   * @param columnCount number of columns of the result
+   * @return the row
+   */
+  static SnowflakeRow read(ResultSet resultSet, Map<String, Integer> columnIndexes, int columnCount)
+      throws SQLException {
+    Object[] values = new Object[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      values[i] = resultSet.getObject(i + 1);
+    }
+    return new SnowflakeRow(columnIndexes, values);
+  }
+
+  /**
+   * @return number of columns of the row
+   */
+  public int getColumnCount() {
+    return values.length;
+  }
+
+  /**
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return the value of the column, null if the value is SQL NULL
+   * @throws IndexOutOfBoundsException if the column does not exist
+   */
+  public Object getObject(int columnIndex) {
+    if (columnIndex < 1 || columnIndex > values.length) {
+      throw new IndexOutOfBoundsException(
+          "Column index " + columnIndex + " is out of range 1-" + values.length);
+    }
+    return values[columnIndex - 1];
+  }
+
+  /**
+   * @param columnLabel label of the column, compared without regard to case
+   * @return the value of the column, null if the value is SQL NULL
+   * @throws IllegalArgumentException if there is no column of the label
+   */
+  public Object getObject(String columnLabel) {
+    Integer columnIndex = columnIndexes.get(columnLabel);
+    if (columnIndex == null) {
+      throw new IllegalArgumentException("Column not found: " + columnLabel);
+    }
+    return values[columnIndex - 1];
+  }
+
+  /**
+   * @param columnIndex the first column is 1, the second is 2, ...
+   * @return true if the value of the column is SQL NULL
+   * @throws IndexOutOfBoundsException if the column does not exist
+   */
+  public boolean isNull(int columnIndex) {
+    return getObject(columnIndex) == null;
+  }
+
+  /**
+   * @return a copy of the values of the row, the value of the first column at index 0
+   */
+  public Object[] toArray() {
+    return values.clone();
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(values);
+  }
+}
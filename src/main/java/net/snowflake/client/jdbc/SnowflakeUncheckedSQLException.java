@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Unchecked wrapper of a SQLException, thrown by the APIs which cannot declare checked exceptions,
+ * e.g. the operations of the stream of {@link SnowflakeResultSet#stream()}.
+ */
+public class SnowflakeUncheckedSQLException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  public SnowflakeUncheckedSQLException(SQLException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  @Override
+  public synchronized SQLException getCause() {
+    return (SQLException) super.getCause();
+  }
+}
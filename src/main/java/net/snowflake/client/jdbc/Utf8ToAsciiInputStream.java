@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Turns a stream of UTF-8 encoded text into ASCII without decoding it into characters. ASCII bytes
+ * are passed through, every other character becomes a '?'.
+ */
+final class Utf8ToAsciiInputStream extends InputStream {
+  private final InputStream source;
+
+  Utf8ToAsciiInputStream(InputStream source) {
+    this.source = source;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b;
+    do {
+      b = source.read();
+      // skip the continuation bytes of a character
+    } while (b >= 0x80 && b < 0xC0);
+    return b >= 0xC0 ? '?' : b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    int count;
+    do {
+      int n = source.read(b, off, len);
+      if (n == -1) {
+        return -1;
+      }
+      count = 0;
+      for (int i = off; i < off + n; i++) {
+        int c = b[i] & 0xFF;
+        if (c < 0x80) {
+          b[off + count++] = (byte) c;
+        } else if (c >= 0xC0) {
+          b[off + count++] = '?';
+        }
+      }
+      // a read of only continuation bytes yields nothing, read on
+    } while (count == 0);
+    return count;
+  }
+
+  @Override
+  public void close() throws IOException {
+    source.close();
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+import net.snowflake.client.jdbc.ErrorCode;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Test;
+
+public class ArrowColumnAccessorTest extends BaseArrowResultSetTest {
+  private static final Schema INTEGERS =
+      schema(
+          field("tiny", MinorType.TINYINT, "FIXED", 0),
+          field("small", MinorType.SMALLINT, "FIXED", 0),
+          field("int", MinorType.INT, "FIXED", 0),
+          field("big", MinorType.BIGINT, "FIXED", 0));
+
+  @Test
+  public void testFixedAccessorReadsEachIntegerWidth() throws Throwable {
+    // two record batches, so the accessors bind to new buffers on the way
+    SFArrowResultSet resultSet =
+        createResultSet(
+            INTEGERS,
+            batch(
+                column((byte) -1, null, Byte.MAX_VALUE),
+                column((short) -300, (short) 2, null),
+                column(null, 70000, Integer.MIN_VALUE),
+                column(5000000000L, null, -7L)),
+            batch(column((byte) 4), column((short) 5), column(6), column((Object) null)));
+    ArrowColumnAccessor[] accessors = new ArrowColumnAccessor[4];
+    for (int i = 0; i < accessors.length; i++) {
+      accessors[i] = ArrowColumnAccessor.create(resultSet, i, Types.BIGINT);
+      assertThat(accessors[i], instanceOf(ArrowColumnAccessor.FixedAccessor.class));
+    }
+    Long[][] expected = {
+      {-1L, -300L, null, 5000000000L},
+      {null, 2L, 70000L, null},
+      {127L, null, (long) Integer.MIN_VALUE, -7L},
+      {4L, 5L, 6L, null}
+    };
+    for (Long[] row : expected) {
+      assertTrue(resultSet.next());
+      for (int i = 0; i < accessors.length; i++) {
+        Long value = row[i];
+        ArrowColumnAccessor accessor = accessors[i];
+        assertEquals(value == null, accessor.isNull());
+        assertEquals(value == null ? 0 : value, accessor.getLong());
+        assertEquals(value == null ? 0 : value, accessor.getDouble(), 0);
+        assertThat(accessor.getString(), is(value == null ? null : value.toString()));
+        assertThat(accessor.getBigDecimal(), is(value == null ? null : BigDecimal.valueOf(value)));
+        // the accessor reads the same values as the getters of the result set
+        assertEquals(resultSet.getLong(i + 1), accessor.getLong());
+        assertEquals(resultSet.getString(i + 1), accessor.getString());
+      }
+    }
+    assertFalse(resultSet.next());
+    resultSet.close();
+  }
+
+  @Test
+  public void testIntOutOfRangeIsReportedByTheConverter() throws Throwable {
+    SFArrowResultSet resultSet =
+        createResultSet(INTEGERS, batch(column(1), column(2), column(3), column(5000000000L)));
+    ArrowColumnAccessor accessor = ArrowColumnAccessor.create(resultSet, 3, Types.BIGINT);
+    assertTrue(resultSet.next());
+    try {
+      accessor.getInt();
+      fail("5000000000 does not fit into an int");
+    } catch (SQLException ex) {
+      assertEquals(ErrorCode.INVALID_VALUE_CONVERT.getMessageCode().intValue(), ex.getErrorCode());
+    }
+    assertEquals(3, ArrowColumnAccessor.create(resultSet, 2, Types.BIGINT).getInt());
+    resultSet.close();
+  }
+
+  @Test
+  public void testScaledNumbersAreReadThroughTheConverter() throws Throwable {
+    SFArrowResultSet resultSet =
+        createResultSet(
+            schema(field("scaled", MinorType.BIGINT, "FIXED", 2)), batch(column(12345L, null)));
+    ArrowColumnAccessor accessor = ArrowColumnAccessor.create(resultSet, 0, Types.DECIMAL);
+    assertTrue(resultSet.next());
+    assertThat(accessor.getBigDecimal(), is(new BigDecimal("123.45")));
+    assertThat(accessor.getString(), is("123.45"));
+    assertEquals(123.45, accessor.getDouble(), 0);
+    assertFalse(accessor.isNull());
+    assertTrue(resultSet.next());
+    assertTrue(accessor.isNull());
+    assertThat(accessor.getBigDecimal(), is(nullValue()));
+    resultSet.close();
+  }
+
+  @Test
+  public void testRealTextAndBooleanAccessors() throws Throwable {
+    SFArrowResultSet resultSet =
+        createResultSet(
+            schema(
+                field("real", MinorType.FLOAT8, "REAL", 0),
+                field("text", MinorType.VARCHAR, "TEXT", 0),
+                field("bool", MinorType.BIT, "BOOLEAN", 0)),
+            batch(column(1.5, null), column("zürich", null), column(true, null)),
+            batch(column(-2.25), column(""), column(false)));
+    ArrowColumnAccessor real = ArrowColumnAccessor.create(resultSet, 0, Types.DOUBLE);
+    ArrowColumnAccessor text = ArrowColumnAccessor.create(resultSet, 1, Types.VARCHAR);
+    ArrowColumnAccessor bool = ArrowColumnAccessor.create(resultSet, 2, Types.BOOLEAN);
+    assertThat(real, instanceOf(ArrowColumnAccessor.RealAccessor.class));
+    assertThat(text, instanceOf(ArrowColumnAccessor.TextAccessor.class));
+    assertThat(bool, instanceOf(ArrowColumnAccessor.BooleanAccessor.class));
+
+    assertTrue(resultSet.next());
+    assertEquals(1.5, real.getDouble(), 0);
+    assertThat(text.getString(), is("zürich"));
+    assertTrue(bool.getBoolean());
+    assertFalse(real.isNull() || text.isNull() || bool.isNull());
+
+    assertTrue(resultSet.next());
+    assertTrue(real.isNull() && text.isNull() && bool.isNull());
+    assertEquals(0, real.getDouble(), 0);
+    assertThat(text.getString(), is(nullValue()));
+    assertFalse(bool.getBoolean());
+
+    assertTrue(resultSet.next());
+    assertEquals(-2.25, real.getDouble(), 0);
+    assertThat(text.getString(), is(""));
+    assertFalse(bool.getBoolean());
+    assertFalse(bool.isNull());
+    resultSet.close();
+  }
+
+  @Test
+  public void testNoCurrentRow() throws Throwable {
+    SFArrowResultSet resultSet =
+        createResultSet(INTEGERS, batch(column(1), column(2), column(3), column(4L)));
+    ArrowColumnAccessor accessor = ArrowColumnAccessor.create(resultSet, 0, Types.BIGINT);
+    try {
+      accessor.getLong();
+      fail("There is no current row before next()");
+    } catch (SQLException ex) {
+      assertEquals(ErrorCode.ROW_DOES_NOT_EXIST.getMessageCode().intValue(), ex.getErrorCode());
+    }
+    resultSet.close();
+  }
+}
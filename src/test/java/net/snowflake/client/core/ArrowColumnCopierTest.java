@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import net.snowflake.client.jdbc.ErrorCode;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Test;
+
+public class ArrowColumnCopierTest extends BaseArrowResultSetTest {
+  // more rows than one element of the null bitmap covers
+  private static final int ROW_COUNT = 70;
+
+  private static final Schema COLUMNS =
+      schema(
+          field("tiny", MinorType.TINYINT, "FIXED", 0),
+          field("small", MinorType.SMALLINT, "FIXED", 0),
+          field("int", MinorType.INT, "FIXED", 0),
+          field("big", MinorType.BIGINT, "FIXED", 0),
+          field("scaled", MinorType.BIGINT, "FIXED", 2),
+          field("real", MinorType.FLOAT8, "REAL", 0));
+
+  /** every third row is SQL NULL */
+  private static boolean isNull(int row) {
+    return row % 3 == 1;
+  }
+
+  private static long valueOf(int row) {
+    return (row % 2 == 0 ? -1 : 1) * row;
+  }
+
+  private SFArrowResultSet createResultSet(boolean sorted) throws Throwable {
+    Object[][] batch = new Object[COLUMNS.getFields().size()][ROW_COUNT];
+    for (int row = 0; row < ROW_COUNT; row++) {
+      if (isNull(row)) {
+        continue;
+      }
+      long value = valueOf(row);
+      batch[0][row] = (byte) value;
+      batch[1][row] = (short) (value * 100);
+      batch[2][row] = (int) (value * 100000);
+      batch[3][row] = value * 10000000000L;
+      batch[4][row] = value * 150;
+      batch[5][row] = value / 4.0;
+    }
+    SFArrowResultSet resultSet = createResultSet(newSerializable(COLUMNS, batch), sorted);
+    assertTrue(resultSet.next());
+    return resultSet;
+  }
+
+  private static long[] expectedNulls(int fromRow, int count) {
+    long[] nulls = new long[(count + 63) / 64];
+    for (int i = 0; i < count; i++) {
+      if (isNull(fromRow + i)) {
+        nulls[i / 64] |= 1L << i;
+      }
+    }
+    return nulls;
+  }
+
+  @Test
+  public void testCopyIntegersOfEachWidth() throws Throwable {
+    SFArrowResultSet resultSet = createResultSet(false);
+    long[] multipliers = {1, 100, 100000, 10000000000L};
+    for (int column = 0; column < multipliers.length; column++) {
+      long[] values = new long[ROW_COUNT];
+      // the elements of the null bitmap which cover the copied rows are overwritten
+      long[] nulls = {-1L, -1L};
+      assertEquals(ROW_COUNT, resultSet.getLongs(column + 1, 0, ROW_COUNT, values, nulls));
+      assertArrayEquals(expectedNulls(0, ROW_COUNT), nulls);
+      int[] ints = new int[ROW_COUNT];
+      if (column < 3) {
+        assertEquals(ROW_COUNT, resultSet.getInts(column + 1, 0, ROW_COUNT, ints, null));
+      }
+      double[] doubles = new double[ROW_COUNT];
+      assertEquals(ROW_COUNT, resultSet.getDoubles(column + 1, 0, ROW_COUNT, doubles, null));
+      for (int row = 0; row < ROW_COUNT; row++) {
+        long expected = isNull(row) ? 0 : valueOf(row) * multipliers[column];
+        assertEquals(expected, values[row]);
+        assertEquals(expected, doubles[row], 0);
+        if (column < 3) {
+          assertEquals(expected, ints[row]);
+        }
+      }
+    }
+    resultSet.close();
+  }
+
+  @Test
+  public void testCopyRangeToTheEndOfTheBatch() throws Throwable {
+    SFArrowResultSet resultSet = createResultSet(false);
+    int fromRow = 5;
+    long[] values = new long[100];
+    long[] nulls = new long[2];
+    // the copy stops at the end of the batch
+    assertEquals(ROW_COUNT - fromRow, resultSet.getLongs(2, fromRow, 100, values, nulls));
+    assertArrayEquals(expectedNulls(fromRow, ROW_COUNT - fromRow), nulls);
+    for (int i = 0; i < ROW_COUNT - fromRow; i++) {
+      assertEquals(isNull(fromRow + i) ? 0 : valueOf(fromRow + i) * 100, values[i]);
+    }
+    // the cursor has not moved
+    assertEquals(0, resultSet.getBatchRowIndex());
+    resultSet.close();
+  }
+
+  @Test
+  public void testIntOutOfRangeIsReportedByTheConverter() throws Throwable {
+    SFArrowResultSet resultSet = createResultSet(false);
+    try {
+      resultSet.getInts(4, 0, ROW_COUNT, new int[ROW_COUNT], null);
+      fail("The BIGINT values do not fit into an int");
+    } catch (SFException ex) {
+      assertEquals(ErrorCode.INVALID_VALUE_CONVERT.getMessageCode().intValue(), ex.getVendorCode());
+    }
+    resultSet.close();
+  }
+
+  @Test
+  public void testCopyScaledNumbersAndReals() throws Throwable {
+    SFArrowResultSet resultSet = createResultSet(false);
+    double[] scaled = new double[ROW_COUNT];
+    double[] reals = new double[ROW_COUNT];
+    long[] scaledNulls = new long[2];
+    long[] realNulls = new long[2];
+    resultSet.getDoubles(5, 0, ROW_COUNT, scaled, scaledNulls);
+    resultSet.getDoubles(6, 0, ROW_COUNT, reals, realNulls);
+    assertArrayEquals(expectedNulls(0, ROW_COUNT), scaledNulls);
+    assertArrayEquals(expectedNulls(0, ROW_COUNT), realNulls);
+    for (int row = 0; row < ROW_COUNT; row++) {
+      assertEquals(isNull(row) ? 0 : valueOf(row) * 1.5, scaled[row], 1e-9);
+      assertEquals(isNull(row) ? 0 : valueOf(row) / 4.0, reals[row], 0);
+    }
+    resultSet.close();
+  }
+
+  @Test
+  public void testSortedRowsAreCopiedInResultOrder() throws Throwable {
+    SFArrowResultSet resultSet = createResultSet(true);
+    for (int column = 1; column <= COLUMNS.getFields().size(); column++) {
+      int rowCount = resultSet.getBatchRowCount();
+      double[] doubles = new double[rowCount];
+      long[] nulls = new long[2];
+      resultSet.getDoubles(column, 0, rowCount, doubles, nulls);
+      // the rows of a sorted record batch are copied in the order the getters read them
+      SFArrowResultSet reader = createResultSet(true);
+      for (int row = 0; row < rowCount; row++) {
+        if (row > 0) {
+          assertTrue(reader.next());
+        }
+        assertEquals(reader.getDouble(column), doubles[row], 0);
+        assertEquals(reader.wasNull(), (nulls[row / 64] & (1L << row)) != 0);
+      }
+      reader.close();
+    }
+    resultSet.close();
+  }
+}
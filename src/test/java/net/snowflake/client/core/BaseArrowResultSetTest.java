@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import net.snowflake.client.jdbc.SnowflakeResultSetSerializableV1;
+import net.snowflake.client.jdbc.telemetry.NoOpTelemetryClient;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+
+/** Builds Arrow result sets from record batches written in memory */
+abstract class BaseArrowResultSetTest {
+  /** allocator of the written record batches */
+  final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+
+  @After
+  public void closeAllocator() {
+    allocator.close();
+  }
+
+  /**
+   * @param name column name
+   * @param type Arrow type of the column
+   * @param logicalType Snowflake type of the column
+   * @param scale scale of a NUMBER column
+   * @return nullable field of the column
+   */
+  static Field field(String name, Types.MinorType type, String logicalType, int scale) {
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", logicalType);
+    customFieldMeta.put("precision", "38");
+    customFieldMeta.put("scale", Integer.toString(scale));
+    return new Field(name, new FieldType(true, type.getType(), null, customFieldMeta), null);
+  }
+
+  static Schema schema(Field... fields) {
+    return new Schema(Arrays.asList(fields));
+  }
+
+  /**
+   * Write record batches as Arrow stream
+   *
+   * @param schema schema of the batches
+   * @param batches values of each record batch, one array per column, null for SQL NULL
+   * @return the Arrow stream
+   */
+  byte[] writeArrowStream(Schema schema, Object[][]... batches) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+        ArrowStreamWriter writer =
+            new ArrowStreamWriter(root, new DictionaryProvider.MapDictionaryProvider(), out)) {
+      writer.start();
+      for (Object[][] batch : batches) {
+        root.allocateNew();
+        for (int column = 0; column < batch.length; column++) {
+          FieldVector vector = root.getVector(column);
+          for (int row = 0; row < batch[column].length; row++) {
+            setValue(vector, row, batch[column][row]);
+          }
+          vector.setValueCount(batch[column].length);
+        }
+        root.setRowCount(batch[0].length);
+        writer.writeBatch();
+      }
+      writer.end();
+    }
+    return out.toByteArray();
+  }
+
+  private static void setValue(FieldVector vector, int row, Object value) {
+    if (value == null) {
+      vector.setNull(row);
+    } else if (vector instanceof TinyIntVector) {
+      ((TinyIntVector) vector).setSafe(row, ((Number) value).byteValue());
+    } else if (vector instanceof SmallIntVector) {
+      ((SmallIntVector) vector).setSafe(row, ((Number) value).shortValue());
+    } else if (vector instanceof IntVector) {
+      ((IntVector) vector).setSafe(row, ((Number) value).intValue());
+    } else if (vector instanceof BigIntVector) {
+      ((BigIntVector) vector).setSafe(row, ((Number) value).longValue());
+    } else if (vector instanceof Float8Vector) {
+      ((Float8Vector) vector).setSafe(row, ((Number) value).doubleValue());
+    } else if (vector instanceof BitVector) {
+      ((BitVector) vector).setSafe(row, (Boolean) value ? 1 : 0);
+    } else if (vector instanceof VarCharVector) {
+      ((VarCharVector) vector).setSafe(row, ((String) value).getBytes(StandardCharsets.UTF_8));
+    } else {
+      throw new IllegalArgumentException("Unsupported vector " + vector.getMinorType());
+    }
+  }
+
+  /**
+   * Create a result set whose first chunk holds the record batches
+   *
+   * @param schema schema of the batches
+   * @param batches values of each record batch, one array per column, null for SQL NULL
+   * @return result set before the first row
+   */
+  SFArrowResultSet createResultSet(Schema schema, Object[][]... batches) throws Throwable {
+    return createResultSet(newSerializable(schema, batches), false);
+  }
+
+  SFArrowResultSet createResultSet(SnowflakeResultSetSerializableV1 serializable, boolean sorted)
+      throws Throwable {
+    return new SFArrowResultSet(serializable, new NoOpTelemetryClient(), sorted);
+  }
+
+  /**
+   * @param schema schema of the batches
+   * @param batches values of each record batch of the first chunk
+   * @return result without chunks to download
+   */
+  SnowflakeResultSetSerializableV1 newSerializable(Schema schema, Object[][]... batches)
+      throws IOException {
+    byte[] firstChunk = writeArrowStream(schema, batches);
+    SnowflakeResultSetSerializableV1 serializable = new SnowflakeResultSetSerializableV1();
+    serializable.setRootAllocator(new RootAllocator(Long.MAX_VALUE));
+    serializable.setFirstChunkStringData(Base64.getEncoder().encodeToString(firstChunk));
+    serializable.setFirstChunkByteData(firstChunk);
+    serializable.setChunkFileCount(0);
+    return serializable;
+  }
+
+  /**
+   * @param values values of a column, null for SQL NULL
+   * @return the values of a column
+   */
+  static Object[] column(Object... values) {
+    return values;
+  }
+
+  /**
+   * @param columns values of each column
+   * @return the values of a record batch
+   */
+  static Object[][] batch(Object[]... columns) {
+    return columns;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class ChunkDownloadSchedulerTest {
+
+  /** Occupy the single worker thread until the returned latch is counted down */
+  private static CountDownLatch blockWorker(ChunkDownloadScheduler.Queue queue)
+      throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    queue.submit(
+        0,
+        () -> {
+          started.countDown();
+          release.await();
+          return null;
+        });
+    assertTrue(started.await(1, TimeUnit.MINUTES));
+    return release;
+  }
+
+  @Test
+  public void testServesQueuesRoundRobinAndUrgentChunksFirst() throws Exception {
+    ChunkDownloadScheduler scheduler = new ChunkDownloadScheduler(1);
+    ChunkDownloadScheduler.Queue first = scheduler.register("first");
+    ChunkDownloadScheduler.Queue second = scheduler.register("second");
+    List<String> order = new CopyOnWriteArrayList<>();
+
+    CountDownLatch release = blockWorker(first);
+    Future<Void> last = null;
+    for (int chunk : new int[] {3, 1, 2}) {
+      last = first.submit(chunk, () -> record(order, "first-" + chunk));
+    }
+    for (int chunk : new int[] {6, 5}) {
+      last = second.submit(chunk, () -> record(order, "second-" + chunk));
+    }
+    // the consumer of the second result set is blocked on chunk 5
+    second.setNextChunkToConsume(5);
+    assertEquals(5, scheduler.getQueuedTasks());
+    assertEquals(3, first.getQueueDepth());
+
+    release.countDown();
+    last.get(1, TimeUnit.MINUTES);
+    while (order.size() < 5) {
+      Thread.sleep(10);
+    }
+    assertEquals("[second-5, first-1, second-6, first-2, first-3]", order.toString());
+    assertEquals(0, scheduler.getQueuedTasks());
+  }
+
+  @Test
+  public void testCloseCancelsPendingTasks() throws Exception {
+    ChunkDownloadScheduler scheduler = new ChunkDownloadScheduler(1);
+    ChunkDownloadScheduler.Queue queue = scheduler.register("query");
+    assertEquals(1, scheduler.getRegisteredQueues());
+
+    CountDownLatch release = blockWorker(queue);
+    Future<Void> pending = queue.submit(1, () -> null);
+    // the running download is not finished yet
+    assertFalse(queue.close(10, TimeUnit.MILLISECONDS));
+
+    assertTrue(pending.isCancelled());
+    assertEquals(0, scheduler.getQueuedTasks());
+    assertEquals(0, scheduler.getRegisteredQueues());
+    assertTrue(queue.submit(2, () -> null).isCancelled());
+    release.countDown();
+    assertTrue(queue.close(1, TimeUnit.MINUTES));
+  }
+
+  @Test
+  public void testCloseWaitsForRunningTasks() throws Exception {
+    ChunkDownloadScheduler scheduler = new ChunkDownloadScheduler(2);
+    ChunkDownloadScheduler.Queue queue = scheduler.register("query");
+    ChunkDownloadScheduler.Queue other = scheduler.register("other");
+    CountDownLatch releaseOther = blockWorker(other);
+    CountDownLatch started = new CountDownLatch(1);
+    AtomicBoolean finished = new AtomicBoolean();
+    queue.submit(
+        0,
+        () -> {
+          started.countDown();
+          Thread.sleep(200);
+          finished.set(true);
+          return null;
+        });
+    assertTrue(started.await(1, TimeUnit.MINUTES));
+
+    // the running task of the other queue is not waited for
+    assertTrue(queue.close(1, TimeUnit.MINUTES));
+    assertTrue(finished.get());
+    releaseOther.countDown();
+  }
+
+  private static Void record(List<String> order, String name) {
+    order.add(name);
+    return null;
+  }
+}
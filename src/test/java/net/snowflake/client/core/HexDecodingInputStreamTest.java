@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import net.snowflake.common.core.SFBinary;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class HexDecodingInputStreamTest {
+
+  private static InputStream decode(String hex) {
+    return new HexDecodingInputStream(
+        new ByteArrayInputStream(hex.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  @Test
+  public void testDecodeMatchesSFBinary() throws IOException {
+    byte[] bytes = new byte[20000];
+    new Random().nextBytes(bytes);
+    String hex = new SFBinary(bytes).toHex();
+    assertArrayEquals(bytes, IOUtils.toByteArray(decode(hex)));
+    assertArrayEquals(SFBinary.fromHex("0aFF").getBytes(), IOUtils.toByteArray(decode("0aFF")));
+
+    InputStream stream = decode("00ff");
+    assertEquals(0, stream.read());
+    assertEquals(255, stream.read());
+    assertEquals(-1, stream.read());
+  }
+
+  @Test
+  public void testInvalidHex() {
+    for (String hex : new String[] {"abc", "zz"}) {
+      try {
+        IOUtils.toByteArray(decode(hex));
+        fail("Invalid hex must not be decoded: " + hex);
+      } catch (IOException ex) {
+        // expected
+      }
+    }
+  }
+}
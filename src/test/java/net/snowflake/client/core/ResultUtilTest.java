@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import net.snowflake.client.jdbc.SnowflakeTimestampWithTimezone;
+import org.junit.Test;
+
+public class ResultUtilTest {
+  @Test
+  public void testTimestampWithTimezoneKeepsItsOffset() {
+    TimeZone kolkata = TimeZone.getTimeZone("Asia/Kolkata");
+    Timestamp utc =
+        Timestamp.from(OffsetDateTime.parse("2024-03-01T12:00:00.123456789Z").toInstant());
+    Timestamp ts = new SnowflakeTimestampWithTimezone(utc, kolkata);
+
+    OffsetDateTime expected = OffsetDateTime.parse("2024-03-01T17:30:00.123456789+05:30");
+    assertThat(ResultUtil.toOffsetDateTime(ts), is(expected));
+    assertThat(ResultUtil.toLocalDateTime(ts), is(expected.toLocalDateTime()));
+    assertThat(ResultUtil.toInstant(ts), is(expected.toInstant()));
+  }
+
+  @Test
+  public void testTimestampInDefaultTimeZone() {
+    LocalDateTime wallClock = LocalDateTime.of(2016, 4, 20, 8, 15, 30, 500);
+    Timestamp ts = Timestamp.valueOf(wallClock);
+
+    OffsetDateTime expected = wallClock.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    assertThat(ResultUtil.toLocalDateTime(ts), is(wallClock));
+    assertThat(ResultUtil.toOffsetDateTime(ts), is(expected));
+    assertThat(ResultUtil.toInstant(ts), is(ts.toInstant()));
+  }
+
+  @Test
+  public void testOldTimestampsUseTheProlepticGregorianCalendar() {
+    // the fields of the timestamps hold the proleptic Gregorian wall clock, see adjustTimestamp
+    LocalDateTime wallClock = LocalDateTime.of(1000, 6, 1, 10, 0, 0, 250000000);
+    Timestamp ts = Timestamp.valueOf(wallClock);
+
+    OffsetDateTime expected = wallClock.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    assertThat(ResultUtil.toLocalDateTime(ts), is(wallClock));
+    assertThat(ResultUtil.toOffsetDateTime(ts), is(expected));
+    assertThat(ResultUtil.toInstant(ts), is(expected.toInstant()));
+    // the millis of the timestamp are in the hybrid Julian calendar
+    assertThat(ResultUtil.toInstant(ts), is(not(ts.toInstant())));
+
+    Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+    cal.clear();
+    cal.set(1000, Calendar.JUNE, 1, 10, 0, 0);
+    Timestamp utc = new Timestamp(cal.getTimeInMillis());
+    utc.setNanos(250000000);
+    Timestamp withTimezone = new SnowflakeTimestampWithTimezone(utc, TimeZone.getTimeZone("UTC"));
+    assertThat(ResultUtil.toLocalDateTime(withTimezone), is(wallClock));
+    assertThat(ResultUtil.toOffsetDateTime(withTimezone), is(wallClock.atOffset(ZoneOffset.UTC)));
+  }
+
+  @Test
+  public void testDates() {
+    assertThat(ResultUtil.toLocalDate(Date.valueOf("1500-01-01")), is(LocalDate.of(1500, 1, 1)));
+    assertThat(ResultUtil.toLocalDate(null), is(nullValue()));
+    assertThat(ResultUtil.toLocalDateTime(null), is(nullValue()));
+    assertThat(ResultUtil.toOffsetDateTime(null), is(nullValue()));
+    assertThat(ResultUtil.toInstant(null), is(nullValue()));
+  }
+}
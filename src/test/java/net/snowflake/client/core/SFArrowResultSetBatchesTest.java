@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.snowflake.client.jdbc.ArrowResultChunk;
+import net.snowflake.client.jdbc.SnowflakeArrowBatches;
+import net.snowflake.client.jdbc.SnowflakeResultChunk;
+import net.snowflake.client.jdbc.SnowflakeResultSetSerializableV1;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Test;
+
+public class SFArrowResultSetBatchesTest extends BaseArrowResultSetTest {
+  private static final Schema SCHEMA = schema(field("c1", MinorType.BIGINT, "FIXED", 0));
+
+  /** Hands out chunks read from Arrow streams, and counts the releases of their memory */
+  private static class InMemoryChunkDownloader implements ChunkDownloader {
+    private final RootAllocator rootAllocator = new RootAllocator(Long.MAX_VALUE);
+    private final List<byte[]> chunks;
+    private final AtomicInteger heldChunks = new AtomicInteger();
+    private int nextChunk;
+
+    InMemoryChunkDownloader(List<byte[]> chunks) {
+      this.chunks = chunks;
+    }
+
+    @Override
+    public SnowflakeResultChunk getNextChunkToConsume() {
+      if (nextChunk >= chunks.size()) {
+        return null;
+      }
+      ArrowResultChunk chunk = new ArrowResultChunk("", 0, 0, 0, rootAllocator, null);
+      try {
+        chunk.readArrowStream(new ByteArrayInputStream(chunks.get(nextChunk++)));
+      } catch (IOException ex) {
+        throw new IllegalStateException(ex);
+      }
+      return chunk;
+    }
+
+    @Override
+    public Runnable holdChunkMemory() {
+      heldChunks.incrementAndGet();
+      return heldChunks::decrementAndGet;
+    }
+
+    @Override
+    public DownloaderMetrics terminate() {
+      return null;
+    }
+  }
+
+  private static List<Long> valuesOf(VectorSchemaRoot batch) {
+    BigIntVector vector = (BigIntVector) batch.getVector(0);
+    List<Long> values = new ArrayList<>();
+    for (int i = 0; i < batch.getRowCount(); i++) {
+      values.add(vector.getObject(i));
+    }
+    return values;
+  }
+
+  @Test
+  public void testBatchesOfAllChunksAreHandedOutInOrder() throws Throwable {
+    SnowflakeResultSetSerializableV1 serializable =
+        newSerializable(SCHEMA, batch(column(1L, 2L, 3L)), batch(column(4L, null)));
+    InMemoryChunkDownloader downloader = new InMemoryChunkDownloader(new ArrayList<>());
+    downloader.chunks.add(writeArrowStream(SCHEMA, batch(column(5L)), batch(column(6L, 7L))));
+    serializable.setChunkDownloader(downloader);
+    serializable.setChunkFileCount(1);
+    SFArrowResultSet resultSet = createResultSet(serializable, false);
+
+    List<String> batches = new ArrayList<>();
+    List<VectorSchemaRoot> downloadedBatches = new ArrayList<>();
+    try (SnowflakeArrowBatches arrowBatches = resultSet.getArrowBatches()) {
+      while (arrowBatches.hasNext()) {
+        VectorSchemaRoot batch = arrowBatches.next();
+        batches.add(valuesOf(batch).toString());
+        if (batches.size() <= 2) {
+          batch.close();
+        } else {
+          downloadedBatches.add(batch);
+        }
+      }
+      try {
+        arrowBatches.next();
+        fail("There are no more batches");
+      } catch (NoSuchElementException ex) {
+        // expected
+      }
+    }
+    assertEquals("[[1, 2, 3], [4, null], [5], [6, 7]]", batches.toString());
+
+    // the memory of the downloaded chunk is held until all its batches have been closed
+    assertEquals(1, downloader.heldChunks.get());
+    downloadedBatches.get(0).close();
+    assertEquals(1, downloader.heldChunks.get());
+    downloadedBatches.get(1).close();
+    assertEquals(0, downloader.heldChunks.get());
+    resultSet.close();
+  }
+
+  @Test
+  public void testBatchesNotTakenAreReleasedByClose() throws Throwable {
+    SnowflakeResultSetSerializableV1 serializable =
+        newSerializable(SCHEMA, batch(column(1L)), batch(column(2L)), batch(column(3L)));
+    RootAllocator rootAllocator = serializable.getRootAllocator();
+    SFArrowResultSet resultSet = createResultSet(serializable, false);
+    SnowflakeArrowBatches arrowBatches = resultSet.getArrowBatches();
+    assertTrue(arrowBatches.hasNext());
+    VectorSchemaRoot first = arrowBatches.next();
+    arrowBatches.close();
+    assertFalse(arrowBatches.hasNext());
+    assertTrue(rootAllocator.getAllocatedMemory() > 0);
+    first.close();
+    assertEquals(0, rootAllocator.getAllocatedMemory());
+    resultSet.close();
+  }
+
+  @Test
+  public void testBatchesAreRequestedBeforeReadingRows() throws Throwable {
+    SFArrowResultSet resultSet = createResultSet(SCHEMA, batch(column(1L, 2L)));
+    assertTrue(resultSet.next());
+    try {
+      resultSet.getArrowBatches();
+      fail("Rows have been read already");
+    } catch (SQLException ex) {
+      // expected
+    }
+    resultSet.close();
+  }
+}
@@ -5,9 +5,11 @@ package net.snowflake.client.core;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -19,6 +21,7 @@ import java.sql.ResultSet;
 import java.sql.Statement;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
@@ -32,6 +35,8 @@ import net.snowflake.client.category.TestCategoryArrow;
 import net.snowflake.client.jdbc.ArrowResultChunk;
 import net.snowflake.client.jdbc.BaseJDBCWithSharedConnectionIT;
 import net.snowflake.client.jdbc.ErrorCode;
+import net.snowflake.client.jdbc.SnowflakeArrowBatches;
+import net.snowflake.client.jdbc.SnowflakeColumnAccessor;
 import net.snowflake.client.jdbc.SnowflakeResultChunk;
 import net.snowflake.client.jdbc.SnowflakeResultSet;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializable;
@@ -62,6 +67,7 @@ import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.arrow.vector.util.Text;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Rule;
 import org.junit.Test;
@@ -263,6 +269,357 @@ public class SFArrowResultSetIT extends BaseJDBCWithSharedConnectionIT {
     assertThat(index, is(5500));
   }
 
+  /** Testing that the first response and the offline chunks are handed out as record batches */
+  @Test
+  @ConditionalIgnoreRule.ConditionalIgnore(condition = SkipOnThinJar.class)
+  public void testArrowBatches() throws Throwable {
+    final int chunkCount = 3;
+    List<Field> fieldList = new ArrayList<>();
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "FIXED");
+    customFieldMeta.put("scale", "0");
+    FieldType type = new FieldType(false, Types.MinorType.INT.getType(), null, customFieldMeta);
+    fieldList.add(new Field("col_0", type, null));
+    Schema schema = new Schema(fieldList);
+
+    File arrowFile = createArrowFile("testArrowBatches_0", schema, generateData(schema, 25), 10);
+    int dataSize = (int) arrowFile.length();
+    byte[] dataBytes = new byte[dataSize];
+    try (InputStream is = new FileInputStream(arrowFile)) {
+      is.read(dataBytes, 0, dataSize);
+    }
+
+    SnowflakeResultSetSerializableV1 resultSetSerializable = new SnowflakeResultSetSerializableV1();
+    resultSetSerializable.setFirstChunkStringData(Base64.getEncoder().encodeToString(dataBytes));
+    resultSetSerializable.setFirstChunkByteData(dataBytes);
+    resultSetSerializable.setChunkFileCount(chunkCount);
+    resultSetSerializable.setRootAllocator(new RootAllocator(Long.MAX_VALUE));
+    List<File> fileLists = new ArrayList<>();
+    for (int i = 0; i < chunkCount; i++) {
+      fileLists.add(
+          createArrowFile("testArrowBatches_" + (i + 1), schema, generateData(schema, 25), 10));
+    }
+    resultSetSerializable.setChunkDownloader(new MockChunkDownloader(fileLists));
+
+    SFArrowResultSet resultSet =
+        new SFArrowResultSet(resultSetSerializable, new NoOpTelemetryClient(), false);
+
+    int batchCount = 0;
+    int rowCount = 0;
+    try (SnowflakeArrowBatches batches = resultSet.getArrowBatches()) {
+      while (batches.hasNext()) {
+        try (VectorSchemaRoot batch = batches.next()) {
+          assertThat(batch.getSchema().getFields().size(), is(1));
+          IntVector vector = (IntVector) batch.getVector(0);
+          // the first row of every written record batch is null
+          assertThat(vector.isNull(0), is(true));
+          for (int i = 1; i < batch.getRowCount(); i++) {
+            assertThat(vector.get(i), is(0));
+          }
+          rowCount += batch.getRowCount();
+          batchCount++;
+        }
+      }
+    }
+    // every chunk of 25 rows is split into record batches of 10 rows
+    assertThat(batchCount, is(12));
+    assertThat(rowCount, is(100));
+
+    try {
+      resultSet.next();
+      fail("Rows must not be readable after requesting record batches");
+    } catch (SnowflakeSQLException ex) {
+      assertThat(ex.getErrorCode(), is(ErrorCode.INTERNAL_ERROR.getMessageCode()));
+    }
+    resultSet.close();
+  }
+
+  @Test
+  public void testColumnAccessors() throws Throwable {
+    List<Field> fieldList = new ArrayList<>();
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "FIXED");
+    customFieldMeta.put("scale", "0");
+    fieldList.add(
+        new Field(
+            "col_0",
+            new FieldType(false, Types.MinorType.SMALLINT.getType(), null, customFieldMeta),
+            null));
+    fieldList.add(
+        new Field(
+            "col_1",
+            new FieldType(false, Types.MinorType.BIGINT.getType(), null, customFieldMeta),
+            null));
+    customFieldMeta.put("logicalType", "REAL");
+    fieldList.add(
+        new Field(
+            "col_2",
+            new FieldType(false, Types.MinorType.FLOAT8.getType(), null, customFieldMeta),
+            null));
+    customFieldMeta.put("logicalType", "TEXT");
+    fieldList.add(
+        new Field(
+            "col_3",
+            new FieldType(false, Types.MinorType.VARCHAR.getType(), null, customFieldMeta),
+            null));
+    customFieldMeta.put("logicalType", "BOOLEAN");
+    fieldList.add(
+        new Field(
+            "col_4",
+            new FieldType(false, Types.MinorType.BIT.getType(), null, customFieldMeta),
+            null));
+    Schema schema = new Schema(fieldList);
+
+    File arrowFile = createArrowFile("testColumnAccessors_0", schema, generateData(schema, 25), 10);
+    int dataSize = (int) arrowFile.length();
+    byte[] dataBytes = new byte[dataSize];
+    try (InputStream is = new FileInputStream(arrowFile)) {
+      is.read(dataBytes, 0, dataSize);
+    }
+
+    SnowflakeResultSetSerializableV1 resultSetSerializable = new SnowflakeResultSetSerializableV1();
+    resultSetSerializable.setFirstChunkStringData(Base64.getEncoder().encodeToString(dataBytes));
+    resultSetSerializable.setFirstChunkByteData(dataBytes);
+    resultSetSerializable.setChunkFileCount(1);
+    resultSetSerializable.setRootAllocator(new RootAllocator(Long.MAX_VALUE));
+    List<File> fileLists = new ArrayList<>();
+    fileLists.add(createArrowFile("testColumnAccessors_1", schema, generateData(schema, 25), 10));
+    resultSetSerializable.setChunkDownloader(new MockChunkDownloader(fileLists));
+
+    SFArrowResultSet resultSet =
+        new SFArrowResultSet(resultSetSerializable, new NoOpTelemetryClient(), false);
+    resultSet.resultSetMetaData =
+        new SFResultSetMetaData(
+            5,
+            Arrays.asList("col_0", "col_1", "col_2", "col_3", "col_4"),
+            Arrays.asList("NUMBER", "NUMBER", "DOUBLE", "VARCHAR", "BOOLEAN"),
+            Arrays.asList(
+                java.sql.Types.BIGINT,
+                java.sql.Types.BIGINT,
+                java.sql.Types.DOUBLE,
+                java.sql.Types.VARCHAR,
+                java.sql.Types.BOOLEAN),
+            null);
+
+    SnowflakeColumnAccessor smallIntColumn = resultSet.getColumnAccessor(1);
+    SnowflakeColumnAccessor bigIntColumn = resultSet.getColumnAccessor(2);
+    SnowflakeColumnAccessor realColumn = resultSet.getColumnAccessor(3);
+    SnowflakeColumnAccessor textColumn = resultSet.getColumnAccessor(4);
+    SnowflakeColumnAccessor booleanColumn = resultSet.getColumnAccessor(5);
+    try {
+      smallIntColumn.getInt();
+      fail("Accessors must not read before the first row");
+    } catch (SnowflakeSQLException ex) {
+      assertThat(ex.getErrorCode(), is(ErrorCode.ROW_DOES_NOT_EXIST.getMessageCode()));
+    }
+
+    int rowCount = 0;
+    while (resultSet.next()) {
+      assertThat(smallIntColumn.getInt(), is(resultSet.getInt(1)));
+      assertThat(smallIntColumn.isNull(), is(resultSet.wasNull()));
+      assertThat(smallIntColumn.getBigDecimal(), is(resultSet.getBigDecimal(1)));
+      assertThat(smallIntColumn.getString(), is(resultSet.getString(1)));
+      assertThat(bigIntColumn.getLong(), is(resultSet.getLong(2)));
+      assertThat(bigIntColumn.getDouble(), is(resultSet.getDouble(2)));
+      try {
+        bigIntColumn.getInt();
+        fail("Values out of the int range must not be read as int");
+      } catch (SnowflakeSQLException ex) {
+        assertThat(ex.getErrorCode(), is(ErrorCode.INVALID_VALUE_CONVERT.getMessageCode()));
+      }
+      assertThat(realColumn.getDouble(), is(resultSet.getDouble(3)));
+      assertThat(realColumn.isNull(), is(resultSet.wasNull()));
+      assertThat(textColumn.getString(), is(resultSet.getString(4)));
+      assertThat(textColumn.isNull(), is(resultSet.wasNull()));
+      assertThat(booleanColumn.getBoolean(), is(resultSet.getBoolean(5)));
+      assertThat(booleanColumn.isNull(), is(resultSet.wasNull()));
+      rowCount++;
+    }
+    assertThat(rowCount, is(50));
+
+    try {
+      textColumn.getString();
+      fail("Accessors must not read after the last row");
+    } catch (SnowflakeSQLException ex) {
+      assertThat(ex.getErrorCode(), is(ErrorCode.ROW_DOES_NOT_EXIST.getMessageCode()));
+    }
+    resultSet.close();
+  }
+
+  @Test
+  public void testBatchColumnCopies() throws Throwable {
+    List<Field> fieldList = new ArrayList<>();
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "FIXED");
+    customFieldMeta.put("scale", "0");
+    fieldList.add(
+        new Field(
+            "col_0",
+            new FieldType(true, Types.MinorType.SMALLINT.getType(), null, customFieldMeta),
+            null));
+    fieldList.add(
+        new Field(
+            "col_1",
+            new FieldType(true, Types.MinorType.BIGINT.getType(), null, customFieldMeta),
+            null));
+    customFieldMeta.put("logicalType", "REAL");
+    fieldList.add(
+        new Field(
+            "col_2",
+            new FieldType(true, Types.MinorType.FLOAT8.getType(), null, customFieldMeta),
+            null));
+    Schema schema = new Schema(fieldList);
+
+    File arrowFile =
+        createArrowFile("testBatchColumnCopies_0", schema, generateData(schema, 25), 10);
+    int dataSize = (int) arrowFile.length();
+    byte[] dataBytes = new byte[dataSize];
+    try (InputStream is = new FileInputStream(arrowFile)) {
+      is.read(dataBytes, 0, dataSize);
+    }
+
+    SnowflakeResultSetSerializableV1 resultSetSerializable = new SnowflakeResultSetSerializableV1();
+    resultSetSerializable.setFirstChunkStringData(Base64.getEncoder().encodeToString(dataBytes));
+    resultSetSerializable.setFirstChunkByteData(dataBytes);
+    resultSetSerializable.setChunkFileCount(1);
+    resultSetSerializable.setRootAllocator(new RootAllocator(Long.MAX_VALUE));
+    List<File> fileLists = new ArrayList<>();
+    fileLists.add(createArrowFile("testBatchColumnCopies_1", schema, generateData(schema, 25), 10));
+    resultSetSerializable.setChunkDownloader(new MockChunkDownloader(fileLists));
+
+    SFArrowResultSet resultSet =
+        new SFArrowResultSet(resultSetSerializable, new NoOpTelemetryClient(), false);
+    resultSet.resultSetMetaData =
+        new SFResultSetMetaData(
+            3,
+            Arrays.asList("col_0", "col_1", "col_2"),
+            Arrays.asList("NUMBER", "NUMBER", "DOUBLE"),
+            Arrays.asList(java.sql.Types.BIGINT, java.sql.Types.BIGINT, java.sql.Types.DOUBLE),
+            null);
+
+    assertThat(resultSet.getBatchRowCount(), is(0));
+    int[] ints = new int[10];
+    long[] longs = new long[10];
+    double[] doubles = new double[10];
+    long[] intNulls = new long[1];
+    long[] longNulls = new long[1];
+    long[] doubleNulls = new long[1];
+    int batchCount = 0;
+    while (resultSet.next()) {
+      int batchRow = resultSet.getBatchRowIndex();
+      if (batchRow == 0) {
+        batchCount++;
+        int batchRowCount = resultSet.getBatchRowCount();
+        try {
+          resultSet.getInts(2, 0, 10, ints, null);
+          fail("Values out of the int range must not be copied as int");
+        } catch (SFException ex) {
+          assertThat(ex.getVendorCode(), is(ErrorCode.INVALID_VALUE_CONVERT.getMessageCode()));
+        }
+        // ranges are cut at the end of the batch
+        assertThat(resultSet.getLongs(2, batchRowCount - 1, 10, longs, null), is(1));
+
+        assertThat(resultSet.getInts(1, 0, 10, ints, intNulls), is(batchRowCount));
+        assertThat(resultSet.getLongs(2, 0, 10, longs, longNulls), is(batchRowCount));
+        assertThat(resultSet.getDoubles(3, 0, 10, doubles, doubleNulls), is(batchRowCount));
+        assertThat(intNulls[0] & 1, is(1L));
+        if (batchCount % 2 == 0) {
+          int row = resultSet.getRow();
+          assertThat(resultSet.skipToEndOfBatch(), is(batchRowCount - 1));
+          assertThat(resultSet.getRow(), is(row + batchRowCount - 1));
+          assertThat(resultSet.getBatchRowIndex(), is(batchRowCount - 1));
+          batchRow = batchRowCount - 1;
+        }
+      }
+      boolean isNull = (intNulls[0] >>> batchRow & 1) != 0;
+      assertThat(ints[batchRow], is(resultSet.getInt(1)));
+      assertThat(isNull, is(resultSet.wasNull()));
+      isNull = (longNulls[0] >>> batchRow & 1) != 0;
+      assertThat(longs[batchRow], is(resultSet.getLong(2)));
+      assertThat(isNull, is(resultSet.wasNull()));
+      isNull = (doubleNulls[0] >>> batchRow & 1) != 0;
+      assertThat(doubles[batchRow], is(resultSet.getDouble(3)));
+      assertThat(isNull, is(resultSet.wasNull()));
+    }
+    assertThat(batchCount, is(6));
+    assertThat(resultSet.getRow(), is(50));
+    resultSet.close();
+  }
+
+  @Test
+  public void testValueStreams() throws Throwable {
+    List<Field> fieldList = new ArrayList<>();
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "TEXT");
+    fieldList.add(
+        new Field(
+            "col_0",
+            new FieldType(false, Types.MinorType.VARCHAR.getType(), null, customFieldMeta),
+            null));
+    customFieldMeta.put("logicalType", "BINARY");
+    fieldList.add(
+        new Field(
+            "col_1",
+            new FieldType(false, Types.MinorType.VARBINARY.getType(), null, customFieldMeta),
+            null));
+    Schema schema = new Schema(fieldList);
+
+    File arrowFile = createArrowFile("testValueStreams_0", schema, generateData(schema, 25), 10);
+    int dataSize = (int) arrowFile.length();
+    byte[] dataBytes = new byte[dataSize];
+    try (InputStream is = new FileInputStream(arrowFile)) {
+      is.read(dataBytes, 0, dataSize);
+    }
+
+    SnowflakeResultSetSerializableV1 resultSetSerializable = new SnowflakeResultSetSerializableV1();
+    resultSetSerializable.setFirstChunkStringData(Base64.getEncoder().encodeToString(dataBytes));
+    resultSetSerializable.setFirstChunkByteData(dataBytes);
+    resultSetSerializable.setChunkFileCount(1);
+    resultSetSerializable.setRootAllocator(new RootAllocator(Long.MAX_VALUE));
+    List<File> fileLists = new ArrayList<>();
+    fileLists.add(createArrowFile("testValueStreams_1", schema, generateData(schema, 25), 10));
+    resultSetSerializable.setChunkDownloader(new MockChunkDownloader(fileLists));
+
+    SFArrowResultSet resultSet =
+        new SFArrowResultSet(resultSetSerializable, new NoOpTelemetryClient(), false);
+    resultSet.resultSetMetaData =
+        new SFResultSetMetaData(
+            2,
+            Arrays.asList("col_0", "col_1"),
+            Arrays.asList("VARCHAR", "BINARY"),
+            Arrays.asList(java.sql.Types.VARCHAR, java.sql.Types.BINARY),
+            null);
+
+    int rowCount = 0;
+    InputStream previousStream = null;
+    while (resultSet.next()) {
+      if (previousStream != null) {
+        try {
+          previousStream.read();
+          fail("Streams must not be read after the cursor has moved");
+        } catch (IOException ex) {
+          // expected
+        }
+      }
+      InputStream utf8Stream = resultSet.getUtf8Stream(1);
+      if (utf8Stream == null) {
+        // the first value of each record batch is null
+        assertThat(resultSet.wasNull(), is(true));
+        assertThat(resultSet.getBinaryStream(1), is(nullValue()));
+        assertThat(resultSet.getBinaryStream(2), is(nullValue()));
+      } else {
+        byte[] utf8Bytes = IOUtils.toByteArray(utf8Stream);
+        assertThat(new String(utf8Bytes, StandardCharsets.UTF_8), is(resultSet.getString(1)));
+        assertThat(IOUtils.toByteArray(resultSet.getBinaryStream(1)), is(resultSet.getBytes(1)));
+        previousStream = resultSet.getBinaryStream(2);
+        assertThat(IOUtils.toByteArray(previousStream), is(resultSet.getBytes(2)));
+      }
+      rowCount++;
+    }
+    assertThat(rowCount, is(50));
+    resultSet.close();
+  }
+
   /** Class to mock chunk downloader. It is just reading data from tmp directory one by one */
   private class MockChunkDownloader implements ChunkDownloader {
     private List<File> resultFileNames;
@@ -4,6 +4,7 @@
 package net.snowflake.client.core.arrow;
 
 import java.nio.ByteOrder;
+import java.time.ZoneId;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.SFSession;
@@ -91,6 +92,16 @@ public class BaseConverterTest implements DataConversionContext {
     return TimeZone.getDefault();
   }
 
+  @Override
+  public ZoneId getDefaultZoneId() {
+    return ZoneId.systemDefault();
+  }
+
+  @Override
+  public ZoneId getSessionZoneId() {
+    return getTimeZone().toZoneId();
+  }
+
   @Override
   public boolean getHonorClientTZForTimestampNTZ() {
     return honorClientTZForTimestampNTZ;
@@ -270,4 +270,38 @@ public class BigIntToFixedConverterTest extends BaseConverterTest {
 
     vector.close();
   }
+
+  @Test
+  public void testUnscaledLongAndDoubleWithScale() throws SFException {
+    final int rowCount = 1000;
+    final int scale = 12;
+    long[] expectedValues = new long[rowCount];
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "FIXED");
+    customFieldMeta.put("precision", "38");
+    customFieldMeta.put("scale", Integer.toString(scale));
+
+    FieldType fieldType =
+        new FieldType(true, Types.MinorType.BIGINT.getType(), null, customFieldMeta);
+
+    BigIntVector vector = new BigIntVector("col_one", fieldType, allocator);
+    for (int i = 0; i < rowCount; i++) {
+      // alternate between values which are exact doubles and values which are not
+      expectedValues[i] = i % 2 == 0 ? random.nextLong() : random.nextLong() >> 11;
+      vector.setSafe(i, expectedValues[i]);
+    }
+    vector.setNull(rowCount);
+
+    ArrowVectorConverter converter = new BigIntToScaledFixedConverter(vector, 0, this, scale);
+
+    for (int i = 0; i < rowCount; i++) {
+      assertThat(converter.toUnscaledLong(i), is(expectedValues[i]));
+      assertThat(
+          converter.toDouble(i), is(BigDecimal.valueOf(expectedValues[i], scale).doubleValue()));
+    }
+    assertThat(converter.toUnscaledLong(rowCount), is(0L));
+    assertThat(converter.toDouble(rowCount), is(0.0));
+
+    vector.clear();
+  }
 }
@@ -14,6 +14,11 @@ import static org.junit.Assert.assertTrue;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -165,4 +170,38 @@ public class BigIntToTimestampLTZConverterTest extends BaseConverterTest {
     }
     vector.clear();
   }
+
+  @Test
+  public void testJavaTimeValues() throws SFException {
+    // the first value is before the Gregorian calendar reform, java.time needs no adjustment
+    long[] testEpochSeconds = {
+      LocalDateTime.of(1500, 1, 1, 12, 30).toEpochSecond(ZoneOffset.UTC), 1546391837, -12346
+    };
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "TIMESTAMP");
+    FieldType fieldType =
+        new FieldType(true, Types.MinorType.BIGINT.getType(), null, customFieldMeta);
+    BigIntVector vector = new BigIntVector("timestamp", fieldType, allocator);
+    for (int i = 0; i < testEpochSeconds.length; i++) {
+      vector.setSafe(i, testEpochSeconds[i] * 1000 + 123);
+    }
+    vector.setNull(testEpochSeconds.length);
+
+    this.setScale(3);
+    ArrowVectorConverter converter = new BigIntToTimestampLTZConverter(vector, 0, this);
+    for (int i = 0; i < testEpochSeconds.length; i++) {
+      Instant expected = Instant.ofEpochSecond(testEpochSeconds[i], 123000000);
+      ZonedDateTime expectedInZone = expected.atZone(ZoneId.systemDefault());
+      assertThat(converter.toInstant(i), is(expected));
+      assertThat(converter.toLocalDateTime(i), is(expectedInZone.toLocalDateTime()));
+      assertThat(converter.toOffsetDateTime(i), is(expectedInZone.toOffsetDateTime()));
+      assertThat(converter.toLocalDate(i), is(expectedInZone.toLocalDate()));
+    }
+    int nullIndex = testEpochSeconds.length;
+    assertThat(converter.toInstant(nullIndex), is(nullValue()));
+    assertThat(converter.toLocalDateTime(nullIndex), is(nullValue()));
+    assertThat(converter.toOffsetDateTime(nullIndex), is(nullValue()));
+    assertThat(converter.toLocalDate(nullIndex), is(nullValue()));
+    vector.clear();
+  }
 }
@@ -14,6 +14,9 @@ import static org.junit.Assert.assertTrue;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -202,4 +205,42 @@ public class BigIntToTimestampNTZConverterTest extends BaseConverterTest {
       throws SFException {
     return converter.toTimestamp(j, zone);
   }
+
+  @Test
+  public void testJavaTimeValues() throws SFException {
+    // the first value is before the Gregorian calendar reform, java.time needs no adjustment
+    LocalDateTime[] testValues = {
+      LocalDateTime.of(1500, 1, 1, 12, 30, 0, 123456000),
+      LocalDateTime.of(2019, 1, 2, 1, 17, 17, 0),
+      LocalDateTime.of(1969, 12, 31, 20, 34, 14, 999999000)
+    };
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "TIMESTAMP");
+    FieldType fieldType =
+        new FieldType(true, Types.MinorType.BIGINT.getType(), null, customFieldMeta);
+    BigIntVector vector = new BigIntVector("timestamp", fieldType, allocator);
+    for (int i = 0; i < testValues.length; i++) {
+      vector.setSafe(
+          i,
+          testValues[i].toEpochSecond(ZoneOffset.UTC) * 1000000 + testValues[i].getNano() / 1000);
+    }
+    vector.setNull(testValues.length);
+
+    this.setScale(6);
+    for (boolean honorClientTZ : new boolean[] {false, true}) {
+      this.setHonorClientTZForTimestampNTZ(honorClientTZ);
+      ArrowVectorConverter converter = new BigIntToTimestampNTZConverter(vector, 0, this);
+      ZoneId zone = honorClientTZ ? ZoneId.systemDefault() : ZoneOffset.UTC;
+      for (int i = 0; i < testValues.length; i++) {
+        assertThat(converter.toLocalDateTime(i), is(testValues[i]));
+        assertThat(converter.toLocalDate(i), is(testValues[i].toLocalDate()));
+        assertThat(converter.toInstant(i), is(testValues[i].atZone(zone).toInstant()));
+        assertThat(
+            converter.toOffsetDateTime(i), is(testValues[i].atZone(zone).toOffsetDateTime()));
+      }
+      assertThat(converter.toLocalDateTime(testValues.length), is(nullValue()));
+      assertThat(converter.toInstant(testValues.length), is(nullValue()));
+    }
+    vector.clear();
+  }
 }
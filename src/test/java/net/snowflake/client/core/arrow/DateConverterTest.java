@@ -7,6 +7,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -16,6 +19,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.TimeZone;
 import net.snowflake.client.TestUtil;
+import net.snowflake.client.core.ResultUtil;
 import net.snowflake.client.core.SFException;
 import net.snowflake.client.core.json.DateTimeConverter;
 import org.apache.arrow.memory.BufferAllocator;
@@ -236,4 +240,38 @@ public class DateConverterTest extends BaseConverterTest {
 
     vector.clear();
   }
+
+  @Test
+  public void testJavaTimeDates() throws SFException {
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "DATE");
+    FieldType fieldType =
+        new FieldType(true, Types.MinorType.DATEDAY.getType(), null, customFieldMeta);
+
+    DateDayVector vector = new DateDayVector("date", fieldType, allocator);
+    for (int i = 0; i < testDates.length; i++) {
+      vector.setSafe(i, testDates[i]);
+    }
+    vector.setNull(testDates.length);
+
+    ArrowVectorConverter converter = new DateConverter(vector, 0, this, false);
+    for (int i = 0; i < testDates.length; i++) {
+      LocalDate expected = LocalDate.parse(expectedDates[i]);
+      assertThat(converter.toLocalDate(i), is(expected));
+      assertThat(converter.toLocalDateTime(i), is(expected.atStartOfDay()));
+      // the start of the day in the default time zone like the Timestamp of the JSON result sets,
+      // old dates in the proleptic Gregorian calendar
+      OffsetDateTime startOfDay = expected.atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+      assertThat(converter.toOffsetDateTime(i), is(startOfDay));
+      assertThat(converter.toInstant(i), is(startOfDay.toInstant()));
+      assertThat(
+          converter.toInstant(i),
+          is(ResultUtil.toInstant(converter.toTimestamp(i, TimeZone.getDefault()))));
+    }
+    assertThat(converter.toLocalDate(testDates.length), is(nullValue()));
+    assertThat(converter.toLocalDateTime(testDates.length), is(nullValue()));
+    assertThat(converter.toOffsetDateTime(testDates.length), is(nullValue()));
+    assertThat(converter.toInstant(testDates.length), is(nullValue()));
+    vector.clear();
+  }
 }
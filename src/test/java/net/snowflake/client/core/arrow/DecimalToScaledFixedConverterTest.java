@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core.arrow;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import net.snowflake.client.TestUtil;
+import net.snowflake.client.core.SFException;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.junit.Test;
+
+public class DecimalToScaledFixedConverterTest extends BaseConverterTest {
+  /** allocator for arrow */
+  private BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+
+  @Test
+  public void testUnscaledLongAndDouble() throws SFException {
+    BigDecimal[] testValues = {
+      new BigDecimal("0.000000000"),
+      new BigDecimal("-1.500000000"),
+      new BigDecimal("123456789.123456789"),
+      new BigDecimal("-9223372036.854775808"),
+      new BigDecimal("9223372036.854775807")
+    };
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "FIXED");
+    customFieldMeta.put("precision", "38");
+    customFieldMeta.put("scale", "9");
+    FieldType fieldType = new FieldType(true, new ArrowType.Decimal(38, 9), null, customFieldMeta);
+
+    DecimalVector vector = new DecimalVector("col_one", fieldType, allocator);
+    for (int i = 0; i < testValues.length; i++) {
+      vector.setSafe(i, testValues[i]);
+    }
+    vector.setNull(testValues.length);
+    // does not fit in a long
+    vector.setSafe(testValues.length + 1, new BigDecimal("9223372036.854775808"));
+
+    ArrowVectorConverter converter = new DecimalToScaledFixedConverter(vector, 0, this);
+    for (int i = 0; i < testValues.length; i++) {
+      assertThat(converter.toUnscaledLong(i), is(testValues[i].unscaledValue().longValue()));
+      assertThat(converter.toDouble(i), is(testValues[i].doubleValue()));
+    }
+    assertThat(converter.toUnscaledLong(testValues.length), is(0L));
+
+    int overflowIndex = testValues.length + 1;
+    assertThat(converter.toDouble(overflowIndex), is(9223372036.854775808));
+    TestUtil.assertSFException(
+        invalidConversionErrorCode, () -> converter.toUnscaledLong(overflowIndex));
+
+    vector.clear();
+  }
+}
@@ -13,11 +13,18 @@ import static org.junit.Assert.assertTrue;
 
 import java.nio.ByteBuffer;
 import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.TimeZone;
 import net.snowflake.client.TestUtil;
 import net.snowflake.client.core.ResultUtil;
 import net.snowflake.client.core.SFException;
@@ -124,4 +131,34 @@ public class IntToTimeConverterTest extends BaseConverterTest {
     }
     vector.clear();
   }
+
+  @Test
+  public void testJavaTimeTimes() throws SFException {
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "TIME");
+    FieldType fieldType = new FieldType(true, Types.MinorType.INT.getType(), null, customFieldMeta);
+
+    IntVector vector = new IntVector("time", fieldType, allocator);
+    vector.setSafe(0, 12345678);
+    vector.setNull(1);
+
+    // TIME values are converted from their Timestamp like the JSON result sets do
+    ArrowVectorConverter converter = new IntToTimeConverter(vector, 0, this);
+    Timestamp ts = converter.toTimestamp(0, TimeZone.getDefault());
+    assertThat(converter.toInstant(0), is(Instant.ofEpochMilli(12345678)));
+    assertThat(converter.toLocalDateTime(0), is(ts.toLocalDateTime()));
+    assertThat(
+        converter.toOffsetDateTime(0),
+        is(OffsetDateTime.ofInstant(ts.toInstant(), ZoneId.systemDefault())));
+    assertThat(converter.toInstant(1), is(nullValue()));
+    assertThat(converter.toLocalDateTime(1), is(nullValue()));
+    TestUtil.assertSFException(invalidConversionErrorCode, () -> converter.toLocalDate(0));
+
+    // in the session time zone the wall clock of the time is kept in UTC
+    converter.setUseSessionTimezone(true);
+    LocalDateTime wallClock = LocalDateTime.of(1970, 1, 1, 3, 25, 45, 678000000);
+    assertThat(converter.toLocalDateTime(0), is(wallClock));
+    assertThat(converter.toOffsetDateTime(0), is(wallClock.atOffset(ZoneOffset.UTC)));
+    vector.clear();
+  }
 }
@@ -13,6 +13,11 @@ import static org.junit.Assert.assertTrue;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -220,4 +225,65 @@ public class ThreeFieldStructToTimestampTZConverterTest extends BaseConverterTes
     }
     structVector.clear();
   }
+
+  @Test
+  public void testJavaTimeValues() throws SFException {
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "TIMESTAMP");
+    FieldType epochType =
+        new FieldType(true, Types.MinorType.BIGINT.getType(), null, customFieldMeta);
+    FieldType intType = new FieldType(true, Types.MinorType.INT.getType(), null, customFieldMeta);
+
+    StructVector structVector = StructVector.empty("testVector", allocator);
+    List<Field> fieldList = new LinkedList<Field>();
+    fieldList.add(
+        new Field(ThreeFieldStructToTimestampTZConverter.FIELD_NAME_EPOCH, epochType, null));
+    fieldList.add(
+        new Field(ThreeFieldStructToTimestampTZConverter.FIELD_NAME_FRACTION, intType, null));
+    fieldList.add(
+        new Field(
+            ThreeFieldStructToTimestampTZConverter.FIELD_NAME_TIME_ZONE_INDEX, intType, null));
+    structVector.initializeChildrenFromFields(fieldList);
+    BigIntVector seconds =
+        structVector.getChild(
+            ThreeFieldStructToTimestampTZConverter.FIELD_NAME_EPOCH, BigIntVector.class);
+    IntVector nanos =
+        structVector.getChild(
+            ThreeFieldStructToTimestampTZConverter.FIELD_NAME_FRACTION, IntVector.class);
+    IntVector timeZoneIdx =
+        structVector.getChild(
+            ThreeFieldStructToTimestampTZConverter.FIELD_NAME_TIME_ZONE_INDEX, IntVector.class);
+
+    // 2019-01-02 01:17:17.123456789 UTC in -08:00, 1500-01-01 00:00:00 UTC in +05:30
+    seconds.setSafe(0, 1546391837);
+    nanos.setSafe(0, 123456789);
+    timeZoneIdx.setSafe(0, 960);
+    seconds.setSafe(1, LocalDateTime.of(1500, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC));
+    nanos.setSafe(1, 0);
+    timeZoneIdx.setSafe(1, 1770);
+    seconds.setNull(2);
+    nanos.setNull(2);
+    timeZoneIdx.setNull(2);
+
+    ArrowVectorConverter converter =
+        new ThreeFieldStructToTimestampTZConverter(structVector, 0, this);
+    this.setScale(9);
+
+    assertThat(
+        converter.toOffsetDateTime(0),
+        is(OffsetDateTime.of(2019, 1, 1, 17, 17, 17, 123456789, ZoneOffset.ofHours(-8))));
+    assertThat(converter.toInstant(0), is(Instant.ofEpochSecond(1546391837, 123456789)));
+    assertThat(
+        converter.toLocalDateTime(0), is(LocalDateTime.of(2019, 1, 1, 17, 17, 17, 123456789)));
+    assertThat(converter.toLocalDate(0), is(LocalDate.of(2019, 1, 1)));
+
+    assertThat(
+        converter.toOffsetDateTime(1),
+        is(OffsetDateTime.of(1500, 1, 1, 5, 30, 0, 0, ZoneOffset.ofHoursMinutes(5, 30))));
+    assertThat(converter.toLocalDate(1), is(LocalDate.of(1500, 1, 1)));
+
+    assertThat(converter.toOffsetDateTime(2), is(nullValue()));
+    assertThat(converter.toInstant(2), is(nullValue()));
+    structVector.clear();
+  }
 }
@@ -7,6 +7,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.nio.charset.StandardCharsets;
@@ -133,4 +134,72 @@ public class VarCharConverterTest extends BaseConverterTest {
 
     vector.close();
   }
+
+  @Test
+  public void testStringCache() throws SFException {
+    String[] distinctValues = {
+      "ACTIVE", "", "Zürich", "日本", RandomStringUtils.randomAlphanumeric(100)
+    };
+    final int rowCount = 1000;
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "TEXT");
+    FieldType fieldType =
+        new FieldType(true, Types.MinorType.VARCHAR.getType(), null, customFieldMeta);
+
+    VarCharVector vector = new VarCharVector("col_one", fieldType, allocator);
+    for (int i = 0; i < rowCount; i++) {
+      vector.setSafe(i, distinctValues[i % distinctValues.length].getBytes(StandardCharsets.UTF_8));
+    }
+    vector.setNull(rowCount);
+
+    getSession().setEnableArrowStringCache(true);
+    try {
+      VarCharConverter converter = new VarCharConverter(vector, 0, this);
+      assertTrue(converter.isStringCacheEnabled());
+      String[] firstStrings = new String[distinctValues.length];
+      for (int i = 0; i < rowCount; i++) {
+        String expected = distinctValues[i % distinctValues.length];
+        String stringVal = converter.toString(i);
+        assertThat(stringVal, is(expected));
+        if (i < distinctValues.length) {
+          firstStrings[i] = stringVal;
+        } else if (expected.length() <= VarCharConverter.MAX_CACHED_STRING_BYTES) {
+          // a repeated value is decoded once
+          assertSame(firstStrings[i % distinctValues.length], stringVal);
+        }
+        assertSame(stringVal, converter.toObject(i));
+      }
+      assertThat(converter.toString(rowCount), is(nullValue()));
+      assertTrue(converter.isStringCacheEnabled());
+    } finally {
+      getSession().setEnableArrowStringCache(false);
+    }
+    vector.clear();
+  }
+
+  @Test
+  public void testStringCacheIsDroppedForDistinctValues() throws SFException {
+    final int rowCount = VarCharConverter.STRING_CACHE_PROBE_LOOKUPS * 2;
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "TEXT");
+    FieldType fieldType =
+        new FieldType(true, Types.MinorType.VARCHAR.getType(), null, customFieldMeta);
+
+    VarCharVector vector = new VarCharVector("col_one", fieldType, allocator);
+    for (int i = 0; i < rowCount; i++) {
+      vector.setSafe(i, ("value" + i).getBytes(StandardCharsets.UTF_8));
+    }
+
+    getSession().setEnableArrowStringCache(true);
+    try {
+      VarCharConverter converter = new VarCharConverter(vector, 0, this);
+      for (int i = 0; i < rowCount; i++) {
+        assertThat(converter.toString(i), is("value" + i));
+      }
+      assertFalse(converter.isStringCacheEnabled());
+    } finally {
+      getSession().setEnableArrowStringCache(false);
+    }
+    vector.clear();
+  }
 }
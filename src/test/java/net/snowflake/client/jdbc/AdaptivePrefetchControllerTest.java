@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AdaptivePrefetchControllerTest {
+  private static final long NO_MEMORY_LIMIT = Long.MAX_VALUE;
+
+  @Test
+  public void testKeepsInitialWindowWithoutSamples() {
+    AdaptivePrefetchController controller = new AdaptivePrefetchController(8, 1, 32);
+    assertEquals(8, controller.nextPrefetchSlots(false, NO_MEMORY_LIMIT));
+    assertEquals(8, controller.nextPrefetchSlots(true, NO_MEMORY_LIMIT));
+  }
+
+  @Test
+  public void testGrowsForFastConsumer() {
+    AdaptivePrefetchController controller = new AdaptivePrefetchController(2, 1, 32);
+    // a chunk of 1000 rows takes 1000 ms to fetch but only 100 ms to consume
+    controller.recordChunkFetched(1000, 1000, 1, 1024);
+    controller.recordChunkConsumed(1000, 100);
+    assertEquals(11, controller.nextPrefetchSlots(false, NO_MEMORY_LIMIT));
+  }
+
+  @Test
+  public void testFetchTimeIsSharedByParallelDownloads() {
+    AdaptivePrefetchController controller = new AdaptivePrefetchController(2, 1, 32);
+    // four downloads of 1000 ms each run in parallel, so a chunk is done every 250 ms
+    controller.recordChunkFetched(1000, 1000, 4, 1024);
+    controller.recordChunkConsumed(1000, 100);
+    assertEquals(4, controller.nextPrefetchSlots(false, NO_MEMORY_LIMIT));
+  }
+
+  @Test
+  public void testShrinksGraduallyForSlowConsumer() {
+    AdaptivePrefetchController controller = new AdaptivePrefetchController(8, 1, 32);
+    // a chunk of 1000 rows takes 100 ms to fetch but 1000 ms to consume
+    controller.recordChunkFetched(1000, 100, 1, 1024);
+    controller.recordChunkConsumed(1000, 1000);
+    assertEquals(7, controller.nextPrefetchSlots(false, NO_MEMORY_LIMIT));
+    assertEquals(6, controller.nextPrefetchSlots(false, NO_MEMORY_LIMIT));
+    for (int i = 0; i < 10; i++) {
+      controller.nextPrefetchSlots(false, NO_MEMORY_LIMIT);
+    }
+    assertEquals(2, controller.getCurrentSlots());
+  }
+
+  @Test
+  public void testNeverShrinksWhenConsumerWaited() {
+    AdaptivePrefetchController controller = new AdaptivePrefetchController(4, 1, 32);
+    controller.recordChunkFetched(1000, 100, 1, 1024);
+    controller.recordChunkConsumed(1000, 1000);
+    assertEquals(5, controller.nextPrefetchSlots(true, NO_MEMORY_LIMIT));
+  }
+
+  @Test
+  public void testWindowIsBoundedByMemoryLimit() {
+    AdaptivePrefetchController controller = new AdaptivePrefetchController(2, 1, 32);
+    controller.recordChunkFetched(1000, 10000, 1, 100);
+    controller.recordChunkConsumed(1000, 1);
+    assertEquals(5, controller.nextPrefetchSlots(false, 500));
+    assertEquals(32, controller.nextPrefetchSlots(false, NO_MEMORY_LIMIT));
+    assertTrue(controller.nextPrefetchSlots(true, 50) >= 1);
+  }
+}
@@ -6,6 +6,26 @@ package net.snowflake.client.jdbc;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AbstractCompressionCodec;
+import org.apache.arrow.vector.compression.CompressionCodec;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
 import org.junit.Test;
 
 public class ArrowResultChunkTest {
@@ -17,4 +37,105 @@ public class ArrowResultChunkTest {
     assertThat(iterator.isAfterLast(), is(true));
     assertThat(iterator.isLast(), is(false));
   }
+
+  @Test
+  public void testReadLz4CompressedArrowStream() throws Exception {
+    int rowCount = 10000;
+    try (RootAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      IntVector ints = new IntVector("C1", allocator);
+      VarCharVector strings = new VarCharVector("C2", allocator);
+      try (VectorSchemaRoot root = new VectorSchemaRoot(Arrays.asList(ints, strings))) {
+        ints.allocateNew(rowCount);
+        strings.allocateNew(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+          ints.set(i, i % 100);
+          if (i % 7 == 0) {
+            strings.setNull(i);
+          } else {
+            strings.setSafe(i, ("value" + i % 10).getBytes(StandardCharsets.UTF_8));
+          }
+        }
+        root.setRowCount(rowCount);
+        try (ArrowStreamWriter writer =
+            new ArrowStreamWriter(
+                root,
+                null,
+                Channels.newChannel(out),
+                IpcOption.DEFAULT,
+                new Lz4FrameCompressionFactory(),
+                CompressionUtil.CodecType.LZ4_FRAME)) {
+          writer.start();
+          writer.writeBatch();
+          writer.end();
+        }
+      }
+
+      ArrowResultChunk chunk = new ArrowResultChunk("", rowCount, 2, out.size(), allocator, null);
+      chunk.readArrowStream(new ByteArrayInputStream(out.toByteArray()));
+      AtomicInteger released = new AtomicInteger();
+      List<VectorSchemaRoot> batches = chunk.takeRecordBatches(released::incrementAndGet);
+      assertThat(batches.size(), is(1));
+      try (VectorSchemaRoot batch = batches.get(0)) {
+        assertThat(released.get(), is(0));
+        IntVector readInts = (IntVector) batch.getVector(0);
+        VarCharVector readStrings = (VarCharVector) batch.getVector(1);
+        assertThat(batch.getRowCount(), is(rowCount));
+        for (int i = 0; i < rowCount; i++) {
+          assertThat(readInts.get(i), is(i % 100));
+          if (i % 7 == 0) {
+            assertThat(readStrings.isNull(i), is(true));
+          } else {
+            assertThat(
+                new String(readStrings.get(i), StandardCharsets.UTF_8), is("value" + i % 10));
+          }
+        }
+      }
+      // the memory of the chunk is released with its last batch, once
+      batches.get(0).close();
+      assertThat(released.get(), is(1));
+    }
+  }
+
+  /** Compresses buffers like an LZ4_FRAME writer of the server */
+  private static class Lz4FrameCompressionFactory implements CompressionCodec.Factory {
+    @Override
+    public CompressionCodec createCodec(CompressionUtil.CodecType codecType) {
+      return new AbstractCompressionCodec() {
+        @Override
+        protected ArrowBuf doCompress(BufferAllocator allocator, ArrowBuf uncompressedBuffer) {
+          byte[] uncompressed = new byte[(int) uncompressedBuffer.writerIndex()];
+          uncompressedBuffer.getBytes(0, uncompressed);
+          ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+          try (FramedLZ4CompressorOutputStream lz4 =
+              new FramedLZ4CompressorOutputStream(compressed)) {
+            lz4.write(uncompressed);
+          } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+          }
+          byte[] bytes = compressed.toByteArray();
+          ArrowBuf compressedBuffer =
+              allocator.buffer(CompressionUtil.SIZE_OF_UNCOMPRESSED_LENGTH + bytes.length);
+          compressedBuffer.setBytes(CompressionUtil.SIZE_OF_UNCOMPRESSED_LENGTH, bytes);
+          compressedBuffer.writerIndex(CompressionUtil.SIZE_OF_UNCOMPRESSED_LENGTH + bytes.length);
+          return compressedBuffer;
+        }
+
+        @Override
+        protected ArrowBuf doDecompress(BufferAllocator allocator, ArrowBuf compressedBuffer) {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompressionUtil.CodecType getCodecType() {
+          return CompressionUtil.CodecType.LZ4_FRAME;
+        }
+      };
+    }
+
+    @Override
+    public CompressionCodec createCodec(CompressionUtil.CodecType codecType, int compressionLevel) {
+      return createCodec(codecType);
+    }
+  }
 }
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.junit.After;
+import org.junit.Test;
+
+public class HedgedChunkFetcherTest {
+  private static final long CHUNK_SIZE = 1000;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  // memory reserved for the buffers of the hedged requests
+  private final AtomicLong reservedMemory = new AtomicLong();
+
+  private final HedgedChunkFetcher.HedgeExecutor hedgeExecutor =
+      new HedgedChunkFetcher.HedgeExecutor() {
+        @Override
+        public Future<?> submit(Callable<Void> hedge) {
+          return executor.submit(hedge);
+        }
+
+        @Override
+        public boolean tryReserveMemory(long bytes) {
+          reservedMemory.addAndGet(bytes);
+          return true;
+        }
+
+        @Override
+        public void releaseMemory(long bytes) {
+          reservedMemory.addAndGet(-bytes);
+        }
+      };
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static InputStream body(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(InputStream is) throws IOException {
+    try (InputStream in = is) {
+      return IOUtils.toString(in, StandardCharsets.UTF_8);
+    }
+  }
+
+  /** Read the body one byte at a time, as if parsing each byte took the given time */
+  private static String readSlowly(InputStream is, long parseMillis) throws Exception {
+    StringBuilder text = new StringBuilder();
+    try (InputStream in = is) {
+      int b;
+      while ((b = in.read()) != -1) {
+        text.append((char) b);
+        Thread.sleep(parseMillis);
+      }
+    }
+    return text.toString();
+  }
+
+  /** Send an HTTP request through the listener, the returned latch is released by its abort */
+  private static CountDownLatch abortable(Consumer<HttpRequestBase> requestListener) {
+    CountDownLatch aborted = new CountDownLatch(1);
+    requestListener.accept(
+        new HttpGet("https://localhost/chunk") {
+          @Override
+          public void abort() {
+            super.abort();
+            aborted.countDown();
+          }
+        });
+    return aborted;
+  }
+
+  /** Observe enough fast downloads to enable hedging */
+  private void warmUp(HedgedChunkFetcher fetcher) throws Exception {
+    for (int i = 0; i < HedgedChunkFetcher.MIN_SAMPLES; i++) {
+      assertEquals(
+          "fast", read(fetcher.fetch(listener -> body("fast"), CHUNK_SIZE, hedgeExecutor)));
+    }
+  }
+
+  @Test
+  public void testNoHedgeBeforeEnoughSamples() throws Exception {
+    HedgedChunkFetcher fetcher = new HedgedChunkFetcher();
+    assertEquals(-1, fetcher.getHedgeDelayMillis(CHUNK_SIZE));
+    warmUp(fetcher);
+    assertTrue(fetcher.getHedgeDelayMillis(CHUNK_SIZE) >= 0);
+    assertEquals(0, fetcher.getHedgedRequests());
+  }
+
+  @Test
+  public void testHedgedRequestWinsForStraggler() throws Exception {
+    HedgedChunkFetcher fetcher = new HedgedChunkFetcher();
+    warmUp(fetcher);
+
+    CountDownLatch stragglerAborted = new CountDownLatch(1);
+    AtomicInteger requests = new AtomicInteger();
+    InputStream result =
+        fetcher.fetch(
+            listener -> {
+              if (requests.incrementAndGet() == 1) {
+                // the first request hangs until it is aborted
+                CountDownLatch aborted = abortable(listener);
+                aborted.await(1, TimeUnit.MINUTES);
+                stragglerAborted.countDown();
+                throw new IOException("Request aborted");
+              }
+              return body("hedge");
+            },
+            CHUNK_SIZE,
+            hedgeExecutor);
+
+    assertEquals("hedge", read(result));
+    assertEquals(2, requests.get());
+    assertEquals(1, fetcher.getHedgedRequests());
+    assertEquals(1, fetcher.getHedgeWins());
+    assertTrue(stragglerAborted.await(1, TimeUnit.MINUTES));
+    assertEquals(0, reservedMemory.get());
+  }
+
+  @Test
+  public void testReadingContinuesFromHedgeAtCurrentOffset() throws Exception {
+    HedgedChunkFetcher fetcher = new HedgedChunkFetcher();
+    warmUp(fetcher);
+
+    AtomicInteger requests = new AtomicInteger();
+    InputStream result =
+        fetcher.fetch(
+            listener -> {
+              if (requests.incrementAndGet() == 1) {
+                CountDownLatch aborted = abortable(listener);
+                // the first bytes arrive, then the response stalls until it is aborted
+                return new InputStream() {
+                  private int position;
+
+                  @Override
+                  public int read() throws IOException {
+                    if (position < 3) {
+                      return "chunk body".charAt(position++);
+                    }
+                    try {
+                      aborted.await(1, TimeUnit.MINUTES);
+                    } catch (InterruptedException ex) {
+                      throw new IOException(ex);
+                    }
+                    throw new IOException("Connection aborted");
+                  }
+
+                  @Override
+                  public int read(byte[] b, int off, int len) throws IOException {
+                    b[off] = (byte) read();
+                    return 1;
+                  }
+                };
+              }
+              return body("chunk body");
+            },
+            CHUNK_SIZE,
+            hedgeExecutor);
+
+    assertEquals("chunk body", read(result));
+    assertEquals(1, fetcher.getHedgeWins());
+  }
+
+  @Test
+  public void testHedgeBudgetLimitsDuplicateRequests() throws Exception {
+    HedgedChunkFetcher fetcher = new HedgedChunkFetcher(HedgedChunkFetcher.DEFAULT_PERCENTILE, 0);
+    warmUp(fetcher);
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(
+          "slow",
+          read(
+              fetcher.fetch(
+                  listener -> {
+                    Thread.sleep(200);
+                    return body("slow");
+                  },
+                  CHUNK_SIZE,
+                  hedgeExecutor)));
+    }
+    // only the burst allowance is available with a zero budget ratio
+    assertEquals(1, fetcher.getHedgedRequests());
+    assertEquals(0, reservedMemory.get());
+  }
+
+  @Test
+  public void testNoHedgeWithoutMemory() throws Exception {
+    HedgedChunkFetcher fetcher = new HedgedChunkFetcher();
+    warmUp(fetcher);
+    HedgedChunkFetcher.HedgeExecutor noMemory =
+        new HedgedChunkFetcher.HedgeExecutor() {
+          @Override
+          public Future<?> submit(Callable<Void> hedge) {
+            throw new AssertionError("No hedged request may be sent");
+          }
+
+          @Override
+          public boolean tryReserveMemory(long bytes) {
+            return false;
+          }
+
+          @Override
+          public void releaseMemory(long bytes) {}
+        };
+    assertEquals(
+        "slow",
+        read(
+            fetcher.fetch(
+                listener -> {
+                  Thread.sleep(200);
+                  return body("slow");
+                },
+                CHUNK_SIZE,
+                noMemory)));
+    assertEquals(0, fetcher.getHedgedRequests());
+  }
+
+  @Test
+  public void testParseTimeIsNotDownloadTime() throws Exception {
+    HedgedChunkFetcher fetcher = new HedgedChunkFetcher();
+    for (int i = 0; i < HedgedChunkFetcher.MIN_SAMPLES; i++) {
+      assertEquals(
+          "body",
+          readSlowly(fetcher.fetch(listener -> body("body"), CHUNK_SIZE, hedgeExecutor), 20));
+    }
+    // the bodies arrived at once, only the parsing was slow
+    assertTrue(fetcher.getHedgeDelayMillis(CHUNK_SIZE) < 80);
+
+    AtomicInteger requests = new AtomicInteger();
+    InputStream result =
+        fetcher.fetch(
+            listener -> {
+              requests.incrementAndGet();
+              return body("slow parse");
+            },
+            CHUNK_SIZE,
+            hedgeExecutor);
+    assertEquals("slow parse", readSlowly(result, 20));
+    assertEquals(1, requests.get());
+    assertEquals(0, fetcher.getHedgedRequests());
+  }
+
+  @Test
+  public void testHedgeIsAbortedAtItsReservation() throws Exception {
+    HedgedChunkFetcher fetcher = new HedgedChunkFetcher();
+    warmUp(fetcher);
+
+    AtomicReference<CountDownLatch> hedgeAborted = new AtomicReference<>();
+    CountDownLatch hedgeClosed = new CountDownLatch(1);
+    AtomicInteger requests = new AtomicInteger();
+    InputStream result =
+        fetcher.fetch(
+            listener -> {
+              if (requests.incrementAndGet() == 1) {
+                // the first request completes once the hedge has given up
+                hedgeClosed.await(1, TimeUnit.MINUTES);
+                return body("slow");
+              }
+              hedgeAborted.set(abortable(listener));
+              // the response is larger than the memory reserved for it
+              return new InputStream() {
+                @Override
+                public int read() {
+                  return 'x';
+                }
+
+                @Override
+                public void close() {
+                  hedgeClosed.countDown();
+                }
+              };
+            },
+            CHUNK_SIZE,
+            hedgeExecutor);
+
+    assertEquals("slow", read(result));
+    assertEquals(2, requests.get());
+    assertEquals(1, fetcher.getHedgedRequests());
+    assertEquals(0, fetcher.getHedgeWins());
+    assertEquals(0, hedgeAborted.get().getCount());
+    assertEquals(0, reservedMemory.get());
+  }
+
+  @Test
+  public void testFailureIsRethrownWhenNoRequestSucceeds() throws Exception {
+    HedgedChunkFetcher fetcher = new HedgedChunkFetcher();
+    try {
+      fetcher.fetch(
+          listener -> {
+            throw new IOException("connection reset");
+          },
+          CHUNK_SIZE,
+          hedgeExecutor);
+      fail("Expected the request error");
+    } catch (IOException ex) {
+      assertEquals("connection reset", ex.getMessage());
+    }
+  }
+}
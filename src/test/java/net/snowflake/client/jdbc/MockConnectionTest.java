@@ -3,6 +3,8 @@ package net.snowflake.client.jdbc;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -21,6 +23,7 @@ import java.sql.SQLNonTransientConnectionException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -397,6 +400,46 @@ public class MockConnectionTest extends BaseJDBCTest {
     mockConnection.close();
   }
 
+  /** Tests that the result of a completed async query is fetched by its query ID */
+  @Test
+  public void testAsyncResultIsFetchedByQueryId() throws SQLException {
+    List<DataType> dataTypes = Arrays.asList(DataType.INT, DataType.STRING);
+    List<List<Object>> rowsToTest = Arrays.asList(Arrays.asList(1, "one"), Arrays.asList(2, null));
+    JsonNode responseWithRows = createDummyResponseWithRows(rowsToTest, dataTypes);
+
+    MockSnowflakeConnectionImpl mockImpl = new MockSnowflakeConnectionImpl(responseWithRows);
+    Connection mockConnection = initMockConnection(mockImpl);
+    String queryID = "01b2c3d4-0000-0000-0000-000000000001";
+    SFSession session = mock(SFSession.class);
+    when(session.getQueryStatusV2(queryID))
+        .thenReturn(
+            new QueryStatusV2(
+                0,
+                0,
+                "",
+                queryID,
+                QueryStatus.SUCCESS.getDescription(),
+                0,
+                "",
+                0,
+                "",
+                0,
+                "",
+                0,
+                "",
+                ""));
+    Statement statement = mockConnection.createStatement();
+    SFAsyncResultSet asyncResultSet = new SFAsyncResultSet(queryID, statement);
+    asyncResultSet.setSession(session);
+    asyncResultSet.setStatement(statement);
+
+    compareResultSets(asyncResultSet, rowsToTest, dataTypes);
+    // no result_scan query has been run
+    assertEquals(Collections.singletonList(queryID), mockImpl.fetchedQueryIds);
+
+    mockConnection.close();
+  }
+
   /** Tests the MockFileTransferInterface with PUT/GET on random byte arrays. */
   @Test
   public void testMockTransferAgent() throws SQLException, IOException {
@@ -553,10 +596,13 @@ public class MockConnectionTest extends BaseJDBCTest {
   private static class MockedSFBaseStatement extends SFBaseStatement {
     JsonNode mockedResponse;
     MockSnowflakeSFSession sfSession;
+    List<String> fetchedQueryIds;
 
-    MockedSFBaseStatement(JsonNode mockedResponse, MockSnowflakeSFSession session) {
+    MockedSFBaseStatement(
+        JsonNode mockedResponse, MockSnowflakeSFSession session, List<String> fetchedQueryIds) {
       this.mockedResponse = mockedResponse;
       this.sfSession = session;
+      this.fetchedQueryIds = fetchedQueryIds;
     }
 
     @Override
@@ -627,6 +673,12 @@ public class MockConnectionTest extends BaseJDBCTest {
     public String[] getChildQueryIds(String queryID) throws SQLException {
       throw new SQLFeatureNotSupportedException("MockedSFBaseStatement.getChildQueryIds");
     }
+
+    @Override
+    public SFBaseResultSet getQueryResult(String queryID) throws SQLException {
+      fetchedQueryIds.add(queryID);
+      return new MockJsonResultSet(mockedResponse, sfSession);
+    }
   }
 
   private static class MockJsonResultSet extends SFJsonResultSet {
@@ -846,6 +898,8 @@ public class MockConnectionTest extends BaseJDBCTest {
     MockSnowflakeSFSession session;
     // Map to store the bytes that are "uploaded"
     private Map<String, byte[]> fileMap = new HashMap<>();
+    // query IDs whose results have been fetched by the statements
+    final List<String> fetchedQueryIds = new ArrayList<>();
 
     public MockSnowflakeConnectionImpl() {
       this.session = new MockSnowflakeSFSession(this);
@@ -871,7 +925,7 @@ public class MockConnectionTest extends BaseJDBCTest {
 
     @Override
     public SFBaseStatement getSFStatement() {
-      return new MockedSFBaseStatement(jsonResponse, session);
+      return new MockedSFBaseStatement(jsonResponse, session, fetchedQueryIds);
     }
 
     @Override
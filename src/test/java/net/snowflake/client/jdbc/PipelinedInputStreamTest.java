@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Test;
+
+public class PipelinedInputStreamTest {
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testChainedStagesPreserveContent() throws Exception {
+    byte[] data =
+        new byte
+            [3 * PipelinedInputStream.BUFFER_SIZE * PipelinedInputStream.MAX_QUEUED_BUFFERS + 17];
+    Random random = new Random(7);
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 64 < 48 ? 'a' + i % 5 : random.nextInt());
+    }
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(data);
+    }
+
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    try (InputStream in =
+        new PipelinedInputStream(
+            new GZIPInputStream(
+                new PipelinedInputStream(
+                    new ByteArrayInputStream(compressed.toByteArray()), "read", executor)),
+            "inflate",
+            executor)) {
+      byte[] buffer = new byte[1];
+      int len;
+      while ((len = in.read(buffer)) != -1) {
+        result.write(buffer, 0, len);
+        // vary the read size to cross buffer boundaries at different offsets
+        buffer = new byte[1 + random.nextInt(100000)];
+      }
+      assertEquals(-1, in.read());
+    }
+    assertArrayEquals(data, result.toByteArray());
+  }
+
+  @Test
+  public void testSourceErrorIsReported() throws Exception {
+    InputStream failingSource =
+        new InputStream() {
+          private int count;
+
+          @Override
+          public int read() throws IOException {
+            if (count++ >= 1000) {
+              throw new IOException("connection reset");
+            }
+            return 'x';
+          }
+        };
+    try (InputStream in = new PipelinedInputStream(failingSource, "read", executor)) {
+      byte[] buffer = new byte[4096];
+      while (in.read(buffer) != -1) {}
+      fail("the error of the source has not been reported");
+    } catch (IOException ex) {
+      assertEquals("connection reset", ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testCloseStopsStage() throws Exception {
+    CountDownLatch sourceClosed = new CountDownLatch(1);
+    InputStream endlessSource =
+        new InputStream() {
+          @Override
+          public int read() {
+            return 'x';
+          }
+
+          @Override
+          public void close() {
+            sourceClosed.countDown();
+          }
+        };
+    InputStream in = new PipelinedInputStream(endlessSource, "read", executor);
+    assertEquals('x', in.read());
+    in.close();
+    assertTrue(sourceClosed.await(1, TimeUnit.MINUTES));
+  }
+
+  @Test
+  public void testSourceIsReadInlineWithoutFreeThread() throws Exception {
+    ThreadPoolExecutor singleThread =
+        new ThreadPoolExecutor(0, 1, 1, TimeUnit.MINUTES, new SynchronousQueue<>());
+    try {
+      CountDownLatch released = new CountDownLatch(1);
+      InputStream blockingSource =
+          new InputStream() {
+            @Override
+            public int read() throws IOException {
+              try {
+                released.await(1, TimeUnit.MINUTES);
+              } catch (InterruptedException ex) {
+                throw new IOException(ex);
+              }
+              return -1;
+            }
+          };
+      InputStream first = PipelinedInputStream.pipeline(blockingSource, "first", singleThread);
+      InputStream source = new ByteArrayInputStream(new byte[] {3});
+      // the only thread is taken by the first stage
+      InputStream second = PipelinedInputStream.pipeline(source, "second", singleThread);
+      assertTrue(first instanceof PipelinedInputStream);
+      assertSame(source, second);
+      assertEquals(3, second.read());
+      released.countDown();
+      assertEquals(-1, first.read());
+      first.close();
+    } finally {
+      singleThread.shutdownNow();
+    }
+  }
+}
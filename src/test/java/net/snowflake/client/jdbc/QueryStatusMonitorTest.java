@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.snowflake.client.core.QueryStatus;
+import net.snowflake.client.core.SFBaseSession;
+import org.junit.After;
+import org.junit.Test;
+
+public class QueryStatusMonitorTest {
+  private static final String QUERY_ID = "01b2c3d4-0000-0000-0000-000000000001";
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private final ExecutorService pollExecutor = Executors.newFixedThreadPool(4);
+  private final QueryStatusMonitor monitor = newMonitor(1);
+
+  private QueryStatusMonitor newMonitor(long pollIntervalMillis) {
+    return new QueryStatusMonitor(scheduler, pollExecutor, pollIntervalMillis, 1);
+  }
+
+  private static SFBaseSession mockSession(int requestsInFlight) {
+    SFBaseSession session = mock(SFBaseSession.class);
+    when(session.getAsyncQueryStatusPollsPerSecond()).thenReturn(1000);
+    when(session.getAsyncQueryStatusRequestsInFlight()).thenReturn(requestsInFlight);
+    return session;
+  }
+
+  private static QueryStatusV2 status(QueryStatus status) {
+    return status(status, "");
+  }
+
+  private static QueryStatusV2 status(QueryStatus status, String errorMessage) {
+    return new QueryStatusV2(
+        0, 0, errorMessage, QUERY_ID, status.getDescription(), 0, "", 0, "", 0, "", 0, "", "");
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+    pollExecutor.shutdownNow();
+  }
+
+  @Test
+  public void testCompletesWhenQuerySucceeds() throws Exception {
+    SFBaseSession session = mockSession(5);
+    when(session.getQueryStatusV2(QUERY_ID))
+        .thenReturn(
+            status(QueryStatus.QUEUED), status(QueryStatus.RUNNING), status(QueryStatus.SUCCESS));
+    CompletableFuture<QueryStatus> future = monitor.awaitCompletion(session, QUERY_ID);
+    assertThat(future.get(1, TimeUnit.MINUTES), is(QueryStatus.SUCCESS));
+    verify(session, times(3)).getQueryStatusV2(QUERY_ID);
+  }
+
+  @Test
+  public void testFailedQueryCompletesExceptionally() throws Exception {
+    SFBaseSession session = mockSession(5);
+    when(session.getQueryStatusV2(QUERY_ID)).thenReturn(status(QueryStatus.ABORTED));
+    try {
+      monitor.awaitCompletion(session, QUERY_ID).get(1, TimeUnit.MINUTES);
+      fail("A failed query must complete the future exceptionally");
+    } catch (ExecutionException ex) {
+      assertThat(ex.getCause(), instanceOf(SQLException.class));
+      assertThat(
+          ex.getCause().getMessage(),
+          containsString("Status of query associated with resultSet is ABORTED"));
+    }
+  }
+
+  @Test
+  public void testQueryWithoutStatusIsGivenUp() throws Exception {
+    SFBaseSession session = mockSession(5);
+    when(session.getQueryStatusV2(QUERY_ID)).thenReturn(status(QueryStatus.NO_DATA));
+    try {
+      monitor.awaitCompletion(session, QUERY_ID).get(1, TimeUnit.MINUTES);
+      fail("A query without status must complete the future exceptionally");
+    } catch (ExecutionException ex) {
+      assertThat(ex.getCause().getMessage(), containsString("queryID=" + QUERY_ID));
+    }
+    verify(session, times(30)).getQueryStatusV2(QUERY_ID);
+  }
+
+  @Test
+  public void testStatusErrorCompletesExceptionally() throws Exception {
+    SFBaseSession session = mockSession(5);
+    SQLException error = new SQLException("no response");
+    when(session.getQueryStatusV2(QUERY_ID)).thenThrow(error);
+    try {
+      monitor.awaitCompletion(session, QUERY_ID).get(1, TimeUnit.MINUTES);
+      fail("The error of the status request must complete the future exceptionally");
+    } catch (ExecutionException ex) {
+      assertThat(ex.getCause(), is(error));
+    }
+  }
+
+  @Test
+  public void testCancelStopsPolls() throws Exception {
+    SFBaseSession session = mockSession(5);
+    when(session.getQueryStatusV2(QUERY_ID)).thenReturn(status(QueryStatus.RUNNING));
+    QueryStatusMonitor slowMonitor = newMonitor(60_000);
+    CompletableFuture<QueryStatus> future = slowMonitor.awaitCompletion(session, QUERY_ID);
+    verify(session, timeout(60_000)).getQueryStatusV2(QUERY_ID);
+    future.cancel(false);
+    assertThat(slowMonitor.getPendingQueryCount(), is(0));
+  }
+
+  @Test
+  public void testWaitersShareThePolls() throws Exception {
+    SFBaseSession session = mockSession(5);
+    when(session.getQueryStatusV2(QUERY_ID))
+        .thenReturn(status(QueryStatus.RUNNING), status(QueryStatus.SUCCESS));
+    CompletableFuture<QueryStatus> first = monitor.awaitCompletion(session, QUERY_ID);
+    CompletableFuture<QueryStatus> second = monitor.awaitCompletion(session, QUERY_ID);
+    assertThat(first.get(1, TimeUnit.MINUTES), is(QueryStatus.SUCCESS));
+    assertThat(second.get(1, TimeUnit.MINUTES), is(QueryStatus.SUCCESS));
+    verify(session, times(2)).getQueryStatusV2(QUERY_ID);
+  }
+
+  @Test
+  public void testSessionRequestsInFlightAreBounded() throws Exception {
+    SFBaseSession session = mockSession(3);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    when(session.getQueryStatusV2(anyString()))
+        .thenAnswer(
+            invocation -> {
+              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              Thread.sleep(20);
+              inFlight.decrementAndGet();
+              return status(QueryStatus.SUCCESS);
+            });
+    List<CompletableFuture<QueryStatus>> futures = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      futures.add(monitor.awaitCompletion(session, QUERY_ID + i));
+    }
+    for (CompletableFuture<QueryStatus> future : futures) {
+      assertThat(future.get(1, TimeUnit.MINUTES), is(QueryStatus.SUCCESS));
+    }
+    verify(session, times(10)).getQueryStatusV2(anyString());
+    assertThat(maxInFlight.get(), is(lessThanOrEqualTo(3)));
+    assertThat(maxInFlight.get(), is(greaterThan(1)));
+    assertThat(monitor.getPendingQueryCount(), is(0));
+  }
+
+  @Test
+  public void testConcurrentFailuresKeepTheirOwnErrors() throws Exception {
+    SFBaseSession session = mockSession(5);
+    String otherQueryId = "01b2c3d4-0000-0000-0000-000000000002";
+    // both status requests are in flight before either returns
+    CyclicBarrier bothPolling = new CyclicBarrier(2);
+    when(session.getQueryStatusV2(anyString()))
+        .thenAnswer(
+            invocation -> {
+              String queryId = invocation.getArgument(0);
+              bothPolling.await(1, TimeUnit.MINUTES);
+              return status(QueryStatus.FAILED_WITH_ERROR, "Error of query " + queryId);
+            });
+    CompletableFuture<QueryStatus> first = monitor.awaitCompletion(session, QUERY_ID);
+    CompletableFuture<QueryStatus> second = monitor.awaitCompletion(session, otherQueryId);
+    assertFailsWith(first, "Error of query " + QUERY_ID);
+    assertFailsWith(second, "Error of query " + otherQueryId);
+  }
+
+  private static void assertFailsWith(CompletableFuture<QueryStatus> future, String message)
+      throws Exception {
+    try {
+      future.get(1, TimeUnit.MINUTES);
+      fail("A failed query must complete the future exceptionally");
+    } catch (ExecutionException ex) {
+      assertThat(ex.getCause().getMessage(), containsString(message));
+    }
+  }
+
+  @Test
+  public void testPollIntervalStretchesUpToTheLongestBackoff() {
+    // few queries are polled at their backoff
+    assertThat(QueryStatusMonitor.getPollDelayMillis(500, 10, 100, 5000), is(500L));
+    // the interval stretches to keep the request rate of the session
+    assertThat(QueryStatusMonitor.getPollDelayMillis(500, 200, 100, 5000), is(2000L));
+    // but not beyond the longest backoff
+    assertThat(QueryStatusMonitor.getPollDelayMillis(500, 2000, 100, 5000), is(5000L));
+    assertThat(QueryStatusMonitor.getPollDelayMillis(5000, 10, 100, 5000), is(5000L));
+  }
+
+  @Test
+  public void testObservedStatusCompletesWaiters() throws Exception {
+    SFBaseSession session = mockSession(5);
+    when(session.getQueryStatusV2(QUERY_ID)).thenReturn(status(QueryStatus.RUNNING));
+    QueryStatusMonitor slowMonitor = newMonitor(60_000);
+    CompletableFuture<QueryStatus> future = slowMonitor.awaitCompletion(session, QUERY_ID);
+    verify(session, timeout(60_000)).getQueryStatusV2(QUERY_ID);
+
+    slowMonitor.statusObserved(session, QUERY_ID, status(QueryStatus.RUNNING));
+    assertThat(future.isDone(), is(false));
+    slowMonitor.statusObserved(session, QUERY_ID, status(QueryStatus.SUCCESS));
+    assertThat(future.getNow(null), is(QueryStatus.SUCCESS));
+    assertThat(slowMonitor.getPendingQueryCount(), is(0));
+  }
+
+  @Test
+  public void testObservedFailureOfDeprecatedStatusIsPolled() throws Exception {
+    SFBaseSession session = mockSession(5);
+    when(session.getQueryStatusV2(QUERY_ID))
+        .thenReturn(
+            status(QueryStatus.RUNNING), status(QueryStatus.FAILED_WITH_ERROR, "Division by zero"));
+    QueryStatusMonitor slowMonitor = newMonitor(60_000);
+    CompletableFuture<QueryStatus> future = slowMonitor.awaitCompletion(session, QUERY_ID);
+    verify(session, timeout(60_000)).getQueryStatusV2(QUERY_ID);
+
+    // the error held by the enum constant is not used, the query is polled right away
+    slowMonitor.statusObserved(session, QUERY_ID, QueryStatus.FAILED_WITH_ERROR);
+    try {
+      future.get(1, TimeUnit.MINUTES);
+      fail("A failed query must complete the future exceptionally");
+    } catch (ExecutionException ex) {
+      assertThat(ex.getCause().getMessage(), containsString("Division by zero"));
+    }
+    verify(session, times(2)).getQueryStatusV2(QUERY_ID);
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class ResultChunkMemoryBudgetTest {
+  private static final long LIMIT = 1000;
+
+  @Test
+  public void testReserveAndReleaseWithinLimit() {
+    ResultChunkMemoryBudget budget = new ResultChunkMemoryBudget();
+    ResultChunkMemoryBudget.Account account = budget.register(null);
+
+    assertTrue(budget.tryReserve(account, 600, LIMIT));
+    assertFalse(budget.tryReserve(account, 600, LIMIT));
+    assertEquals(600, budget.getCurrentUsage());
+
+    budget.release(account, 600);
+    assertEquals(0, budget.getCurrentUsage());
+    assertEquals(600, budget.getPeakUsage());
+    assertEquals(1, budget.getGrantedReservations());
+    assertEquals(1, budget.getDeniedReservations());
+  }
+
+  @Test
+  public void testUnregisterReleasesRemainingMemory() {
+    ResultChunkMemoryBudget budget = new ResultChunkMemoryBudget();
+    Object connection = new Object();
+    ResultChunkMemoryBudget.Account first = budget.register(connection);
+    ResultChunkMemoryBudget.Account second = budget.register(connection);
+    assertEquals(2, budget.getActiveResultSets());
+    assertEquals(1, budget.getActiveConnections());
+
+    assertTrue(budget.tryReserve(first, 300, LIMIT));
+    budget.unregister(first);
+    assertEquals(0, budget.getCurrentUsage());
+    assertEquals(1, budget.getActiveResultSets());
+
+    // releasing after unregister must not drive the usage negative
+    budget.release(first, 300);
+    assertEquals(0, budget.getCurrentUsage());
+
+    budget.unregister(second);
+    assertEquals(0, budget.getActiveConnections());
+  }
+
+  @Test
+  public void testBlockingReserveIsWokenUpByRelease() throws Exception {
+    ResultChunkMemoryBudget budget = new ResultChunkMemoryBudget();
+    ResultChunkMemoryBudget.Account greedy = budget.register(new Object());
+    ResultChunkMemoryBudget.Account waiting = budget.register(new Object());
+    assertTrue(budget.tryReserve(greedy, 900, LIMIT));
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Boolean> reserved =
+          executor.submit(() -> budget.reserve(waiting, 400, LIMIT, TimeUnit.MINUTES.toMillis(1)));
+      while (budget.getBlockedResultSets() == 0) {
+        Thread.sleep(10);
+      }
+
+      // greedy result set is above its fair share while another result set is waiting
+      budget.release(greedy, 200);
+      assertFalse(budget.tryReserve(greedy, 100, LIMIT));
+
+      budget.release(greedy, 200);
+      assertTrue(reserved.get(1, TimeUnit.MINUTES));
+      assertEquals(900, budget.getCurrentUsage());
+      assertEquals(1, budget.getBlockedReservations());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDeniedReservationIsNotifiedOnRelease() {
+    ResultChunkMemoryBudget budget = new ResultChunkMemoryBudget();
+    ResultChunkMemoryBudget.Account owner = budget.register(null);
+    ResultChunkMemoryBudget.Account waiter = budget.register(null);
+    AtomicInteger notifications = new AtomicInteger();
+
+    assertTrue(budget.tryReserve(owner, 800, LIMIT));
+    assertFalse(budget.tryReserveOrNotify(waiter, 400, LIMIT, notifications::incrementAndGet));
+    assertEquals(0, notifications.get());
+
+    // the listener runs once, on the next release
+    budget.release(owner, 500);
+    assertEquals(1, notifications.get());
+    budget.release(owner, 100);
+    assertEquals(1, notifications.get());
+
+    assertTrue(budget.tryReserveOrNotify(waiter, 400, LIMIT, notifications::incrementAndGet));
+    assertEquals(600, budget.getCurrentUsage());
+    budget.unregister(owner);
+    budget.unregister(waiter);
+    assertEquals(1, notifications.get());
+  }
+
+  @Test
+  public void testBlockingReserveTimesOut() throws Exception {
+    ResultChunkMemoryBudget budget = new ResultChunkMemoryBudget();
+    ResultChunkMemoryBudget.Account first = budget.register(null);
+    ResultChunkMemoryBudget.Account second = budget.register(null);
+    assertTrue(budget.tryReserve(first, LIMIT, LIMIT));
+
+    assertFalse(budget.reserve(second, 1, LIMIT, 50));
+    assertEquals(0, budget.getBlockedResultSets());
+    assertEquals(1, budget.getDeniedReservations());
+  }
+
+  @Test
+  public void testFairShareSplitsAcrossConnections() throws Exception {
+    ResultChunkMemoryBudget budget = new ResultChunkMemoryBudget();
+    Object connection = new Object();
+    ResultChunkMemoryBudget.Account first = budget.register(connection);
+    ResultChunkMemoryBudget.Account second = budget.register(connection);
+    ResultChunkMemoryBudget.Account other = budget.register(new Object());
+    assertTrue(budget.tryReserve(first, 100, LIMIT));
+    assertTrue(budget.tryReserve(second, 100, LIMIT));
+    assertTrue(budget.tryReserve(other, 700, LIMIT));
+
+    CountDownLatch started = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      ResultChunkMemoryBudget.Account waiting = budget.register(new Object());
+      Future<Boolean> reserved =
+          executor.submit(
+              () -> {
+                started.countDown();
+                return budget.reserve(waiting, 200, LIMIT, TimeUnit.MINUTES.toMillis(1));
+              });
+      started.await();
+      while (budget.getBlockedResultSets() == 0) {
+        Thread.sleep(10);
+      }
+      budget.release(other, 50);
+
+      // three connections: share of a connection is 333, each of its two result sets gets 166
+      assertFalse(budget.tryReserve(first, 100, LIMIT));
+      assertTrue(budget.tryReserve(first, 50, LIMIT));
+
+      budget.release(other, 600);
+      assertTrue(reserved.get(1, TimeUnit.MINUTES));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class ResultChunkSlabPoolTest {
+
+  @Test
+  public void testReleasedSlabsAreReused() {
+    ResultChunkSlabPool pool = new ResultChunkSlabPool(ResultChunkSlabPool.DATA_SLAB_SIZE, false);
+    ByteBuffer slab = pool.acquireDataSlab();
+    assertEquals(ResultChunkSlabPool.DATA_SLAB_SIZE, slab.capacity());
+    assertEquals(1, pool.getMisses());
+
+    pool.releaseDataSlab(slab);
+    assertEquals(ResultChunkSlabPool.DATA_SLAB_SIZE, pool.getPooledBytes());
+    assertSame(slab, pool.acquireDataSlab());
+    assertEquals(1, pool.getHits());
+    assertEquals(0, pool.getPooledBytes());
+  }
+
+  @Test
+  public void testPoolIsBounded() {
+    ResultChunkSlabPool pool = new ResultChunkSlabPool(ResultChunkSlabPool.DATA_SLAB_SIZE, false);
+    ByteBuffer first = pool.acquireDataSlab();
+    ByteBuffer second = pool.acquireDataSlab();
+    pool.releaseDataSlab(first);
+    pool.releaseDataSlab(second);
+    assertEquals(2, pool.getReleases());
+    assertEquals(1, pool.getDiscards());
+    assertEquals(ResultChunkSlabPool.DATA_SLAB_SIZE, pool.getPooledBytes());
+  }
+
+  @Test
+  public void testReusedOffsetSlabHasNoNullFlags() {
+    ResultChunkSlabPool pool = new ResultChunkSlabPool(Long.MAX_VALUE, true);
+    ResultChunkSlabPool.OffsetSlab slab = pool.acquireOffsetSlab();
+    assertTrue(slab.offsets.isDirect());
+    slab.isNulls.set(5);
+    pool.releaseOffsetSlab(slab);
+    assertTrue(pool.acquireOffsetSlab().isNulls.isEmpty());
+  }
+
+  @Test
+  public void testChunkReleasesSlabsOnlyAfterSuccessfulDownload() throws Exception {
+    ResultChunkSlabPool pool = ResultChunkSlabPool.getInstance();
+    byte[] data = "[\"a\", null],[\"bc\", \"d\"]".getBytes(StandardCharsets.UTF_8);
+
+    JsonResultChunk failed = new JsonResultChunk("", 2, 2, data.length, null);
+    new ResultJsonParserV2().parse(new ByteArrayInputStream(data), failed, null);
+    failed.setDownloadState(SnowflakeResultChunk.DownloadState.FAILURE);
+    long releases = pool.getReleases();
+    failed.freeData();
+    assertEquals(releases, pool.getReleases());
+
+    JsonResultChunk chunk = new JsonResultChunk("", 2, 2, data.length, null);
+    new ResultJsonParserV2().parse(new ByteArrayInputStream(data), chunk, null);
+    assertEquals("a", chunk.getCell(0, 0));
+    assertNull(chunk.getCell(0, 1));
+    assertEquals("bc", chunk.getCell(1, 0));
+    assertEquals("d", chunk.getCell(1, 1));
+    chunk.setDownloadState(SnowflakeResultChunk.DownloadState.SUCCESS);
+    chunk.freeData();
+    // one data slab and one offset slab
+    assertEquals(releases + 2, pool.getReleases());
+    assertFalse(pool.getPooledBytes() > pool.getMaxPooledBytes());
+  }
+}
@@ -4,11 +4,19 @@
 package net.snowflake.client.jdbc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
 import net.snowflake.client.core.SFSession;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.junit.Test;
 
@@ -211,6 +219,98 @@ public class ResultJsonParserV2Test {
     assertEquals("03 C3 A4 00 ", stringToHex(chunk.getCell(0, 0).toString()));
   }
 
+  @Test
+  public void typedColumnsTest() throws SnowflakeSQLException {
+    SFSession session = null;
+    String simple =
+        "[\"1\", \"1.01\", \"1\", \"19000\", \"text\"],"
+            + "[null, null, null, null, null],"
+            + "[\"-123456789012345678\", \"0.13\", \"0\", \"-5\", \"\"],"
+            + "[\"1234567890123456789\", \"2\", \"true\", \"0\", \"last\"],"
+            + "[\"007\", \"3\", \"1\", \"-0\", \"\\\"escape\\\"\"]";
+    List<SnowflakeColumnMetadata> columns =
+        Arrays.asList(
+            column(Types.BIGINT, 18, 0, SnowflakeType.FIXED),
+            column(Types.DECIMAL, 38, 2, SnowflakeType.FIXED),
+            column(Types.BOOLEAN, 0, 0, SnowflakeType.BOOLEAN),
+            column(Types.DATE, 0, 0, SnowflakeType.DATE),
+            column(Types.VARCHAR, 0, 0, SnowflakeType.TEXT));
+    byte[] data = simple.getBytes(StandardCharsets.UTF_8);
+    JsonResultChunk chunk = new JsonResultChunk("", 5, 5, data.length, session, columns);
+    ResultJsonParserV2 jp = new ResultJsonParserV2();
+    jp.startParsing(chunk, session);
+    // parse in small pieces so values are split across buffers
+    int len = 7;
+    for (int i = 0; i < data.length; i += len) {
+      ByteBuffer byteBuffer = ByteBuffer.wrap(data, i, Math.min(len, data.length - i));
+      jp.continueParsing(byteBuffer, session);
+      assertEquals(0, byteBuffer.remaining());
+    }
+    jp.endParsing(ByteBuffer.allocate(0), session);
+
+    assertTrue(chunk.isTypedCell(0, 0));
+    assertEquals(1L, chunk.getTypedCell(0, 0));
+    assertEquals(1L, chunk.getCell(0, 0));
+    assertFalse(chunk.isTypedCell(0, 1));
+    assertEquals("1.01", chunk.getCell(0, 1));
+    assertTrue(chunk.isTypedCell(0, 2));
+    assertEquals("1", chunk.getCell(0, 2));
+    assertEquals(19000L, chunk.getTypedCell(0, 3));
+    assertEquals("text", chunk.getCell(0, 4));
+
+    for (int col = 0; col < 5; col++) {
+      assertFalse(chunk.isTypedCell(1, col));
+      assertNull(chunk.getCell(1, col));
+    }
+
+    assertEquals(-123456789012345678L, chunk.getCell(2, 0));
+    assertEquals("0", chunk.getCell(2, 2));
+    assertEquals(-5L, chunk.getCell(2, 3));
+    assertEquals("", chunk.getCell(2, 4));
+
+    // values which do not fit or are not canonical keep their text
+    assertFalse(chunk.isTypedCell(3, 0));
+    assertEquals("1234567890123456789", chunk.getCell(3, 0));
+    assertFalse(chunk.isTypedCell(3, 2));
+    assertEquals("true", chunk.getCell(3, 2));
+    assertEquals(0L, chunk.getCell(3, 3));
+    assertEquals("last", chunk.getCell(3, 4));
+    assertEquals("007", chunk.getCell(4, 0));
+    assertEquals("-0", chunk.getCell(4, 3));
+    assertEquals("\"escape\"", chunk.getCell(4, 4));
+  }
+
+  @Test
+  public void streamParsingTest() throws Exception {
+    SFSession session = null;
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      json.append("[\"\\u2605\\\"\\ud841\\udf0e\\\\\", null, \"").append(i).append("\"],");
+    }
+    byte[] data = json.substring(0, json.length() - 1).getBytes(StandardCharsets.UTF_8);
+    JsonResultChunk chunk = new JsonResultChunk("", 100, 3, data.length, session);
+    // return a few bytes per read, so unicode escapes are split across reads
+    InputStream in =
+        new ByteArrayInputStream(data) {
+          @Override
+          public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 5));
+          }
+        };
+    new ResultJsonParserV2().parse(in, chunk, session);
+    for (int i = 0; i < 100; i++) {
+      assertEquals("★\"𠜎\\", chunk.getCell(i, 0));
+      assertNull(chunk.getCell(i, 1));
+      assertEquals(String.valueOf(i), chunk.getCell(i, 2));
+    }
+  }
+
+  private static SnowflakeColumnMetadata column(
+      int type, int precision, int scale, SnowflakeType base) {
+    return new SnowflakeColumnMetadata(
+        "C", type, true, 0, precision, scale, base.name(), false, base, "", "", "", false);
+  }
+
   public static String stringToHex(String input) {
     byte[] byteArray = input.getBytes(StandardCharsets.UTF_8);
     StringBuilder sb = new StringBuilder();
@@ -223,4 +323,25 @@ public class ResultJsonParserV2Test {
     }
     return sb.toString().toUpperCase();
   }
+
+  @Test
+  public void testCellStreams() throws Exception {
+    SFSession session = null;
+    String simple =
+        "[\"1\", null]," + "[\"\", \"\\\"escape\\\"\"]," + "[\"\\u2605\", \"\\ud841\\udf0e\"]";
+    byte[] data = simple.getBytes(StandardCharsets.UTF_8);
+    JsonResultChunk chunk = new JsonResultChunk("", 3, 2, data.length, session);
+    new ResultJsonParserV2().parse(new ByteArrayInputStream(data), chunk, session);
+    for (int row = 0; row < 3; row++) {
+      for (int col = 0; col < 2; col++) {
+        Object cell = chunk.getCell(row, col);
+        InputStream cellStream = chunk.getCellStream(row, col);
+        if (cell == null) {
+          assertNull(cellStream);
+        } else {
+          assertEquals(cell, IOUtils.toString(cellStream, StandardCharsets.UTF_8));
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import net.snowflake.client.core.ObjectMapperFactory;
+import net.snowflake.client.core.SFBaseSession;
+import net.snowflake.client.core.SFResultSet;
+import net.snowflake.client.jdbc.telemetry.NoOpTelemetryClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResultSetPublisherTest {
+  private static final Object COMPLETE = new Object();
+
+  private final Set<Integer> requestedChunks = ConcurrentHashMap.newKeySet();
+  private ExecutorService executor;
+  private ResultSet resultSet;
+
+  /** Subscriber which records the rows, errors and completion, in order */
+  private static final class RecordingSubscriber implements SnowflakeFlow.Subscriber<SnowflakeRow> {
+    private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+    private final long initialRequest;
+    private volatile SnowflakeFlow.Subscription subscription;
+
+    RecordingSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(SnowflakeFlow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(initialRequest);
+    }
+
+    @Override
+    public void onNext(SnowflakeRow item) {
+      events.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      events.add(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      events.add(COMPLETE);
+    }
+
+    Object nextEvent() throws InterruptedException {
+      return events.poll(1, TimeUnit.MINUTES);
+    }
+
+    String nextValue() throws InterruptedException {
+      return ((SnowflakeRow) nextEvent()).getObject("c1").toString();
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    executor = Executors.newSingleThreadExecutor();
+    ResultStreamProvider provider =
+        context -> {
+          requestedChunks.add(context.getChunkIndex());
+          return new ByteArrayInputStream(
+              ("[\"" + context.getChunkIndex() + "\"]").getBytes(StandardCharsets.UTF_8));
+        };
+    // a single prefetch thread gives two prefetch slots
+    JsonNode rootNode =
+        ObjectMapperFactory.getObjectMapper()
+            .readTree(
+                SnowflakeChunkDownloaderTest.THREE_CHUNKS_RESULT_JSON.replace(
+                    "\"value\": 4}", "\"value\": 1}"));
+    SFBaseSession session = new MockConnectionTest.MockSnowflakeConnectionImpl().getSFSession();
+    SnowflakeResultSetSerializableV1 serializable =
+        SnowflakeResultSetSerializableV1.create(
+            rootNode,
+            session,
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFStatement(),
+            provider);
+    resultSet =
+        new SnowflakeResultSetV1(
+            new SFResultSet(serializable, session, new NoOpTelemetryClient(), false), serializable);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    resultSet.close();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testRowsAreEmittedOnDemand() throws Exception {
+    RecordingSubscriber subscriber = new RecordingSubscriber(1);
+    resultSet.unwrap(SnowflakeResultSet.class).publish(executor).subscribe(subscriber);
+    assertThat(subscriber.nextValue(), is("0"));
+    assertNull(subscriber.events.poll(100, TimeUnit.MILLISECONDS));
+    // the prefetch stops at the next chunk until more rows are requested
+    assertThat(requestedChunks.contains(2), is(false));
+
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertThat(subscriber.nextValue(), is("1"));
+    assertThat(subscriber.nextValue(), is("2"));
+    assertThat(subscriber.nextEvent(), is(COMPLETE));
+    assertTrue(resultSet.isClosed());
+  }
+
+  @Test
+  public void testCancelClosesResultSet() throws Exception {
+    RecordingSubscriber subscriber = new RecordingSubscriber(1);
+    resultSet.unwrap(SnowflakeResultSet.class).publish(executor).subscribe(subscriber);
+    assertThat(subscriber.nextValue(), is("0"));
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(1);
+    executor.submit(() -> {}).get(1, TimeUnit.MINUTES);
+    assertTrue(resultSet.isClosed());
+    assertNull(subscriber.events.poll(100, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testInvalidRequestFailsSubscription() throws Exception {
+    RecordingSubscriber subscriber = new RecordingSubscriber(0);
+    resultSet.unwrap(SnowflakeResultSet.class).publish(executor).subscribe(subscriber);
+    assertThat(subscriber.nextEvent(), instanceOf(IllegalArgumentException.class));
+    assertTrue(resultSet.isClosed());
+  }
+
+  @Test
+  public void testSingleSubscriber() throws Exception {
+    SnowflakeFlow.Publisher<SnowflakeRow> publisher =
+        resultSet.unwrap(SnowflakeResultSet.class).publish(executor);
+    RecordingSubscriber first = new RecordingSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(first);
+    RecordingSubscriber second = new RecordingSubscriber(1);
+    publisher.subscribe(second);
+    assertThat(second.nextEvent(), instanceOf(IllegalStateException.class));
+    assertThat(first.nextValue(), is("0"));
+    assertThat(first.nextValue(), is("1"));
+    assertThat(first.nextValue(), is("2"));
+    assertThat(first.nextEvent(), is(COMPLETE));
+  }
+}
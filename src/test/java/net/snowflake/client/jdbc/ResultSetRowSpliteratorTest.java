@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class ResultSetRowSpliteratorTest {
+  private static final int ROWS_PER_PIECE = 100;
+
+  // number of times the chunk downloads of the ResultSet have been stopped
+  private final AtomicInteger stoppedDownloads = new AtomicInteger();
+
+  private Stream<SnowflakeRow> stream(
+      ResultSet resultSet, List<SnowflakeResultSetSerializableV1> pieces) throws SQLException {
+    return ResultSetRowSpliterator.stream(resultSet, pieces, stoppedDownloads::incrementAndGet);
+  }
+
+  /** ResultSet of a single column ID, with the values first, first + 1, ... */
+  private static ResultSet mockResultSet(int first, int rowCount) throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class);
+    AtomicInteger row = new AtomicInteger();
+    when(resultSet.next()).thenAnswer(invocation -> row.incrementAndGet() <= rowCount);
+    when(resultSet.getObject(anyInt())).thenAnswer(invocation -> (long) first + row.get() - 1);
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(metaData.getColumnCount()).thenReturn(1);
+    when(metaData.getColumnLabel(1)).thenReturn("ID");
+    when(resultSet.getMetaData()).thenReturn(metaData);
+    return resultSet;
+  }
+
+  private static List<SnowflakeResultSetSerializableV1> mockPieces(
+      int pieceCount, List<ResultSet> readers) throws SQLException {
+    List<SnowflakeResultSetSerializableV1> pieces = new ArrayList<>();
+    for (int i = 0; i < pieceCount; i++) {
+      SnowflakeResultSetSerializableV1 piece = mock(SnowflakeResultSetSerializableV1.class);
+      ResultSet reader = mockResultSet(i * ROWS_PER_PIECE, ROWS_PER_PIECE);
+      readers.add(reader);
+      when(piece.getRowCount()).thenReturn((long) ROWS_PER_PIECE);
+      when(piece.createSessionlessResultSet()).thenReturn(reader);
+      pieces.add(piece);
+    }
+    return pieces;
+  }
+
+  @Test
+  public void testSequentialStreamReadsTheResultSet() throws SQLException {
+    List<ResultSet> readers = new ArrayList<>();
+    List<SnowflakeResultSetSerializableV1> pieces = mockPieces(3, readers);
+    ResultSet resultSet = mockResultSet(0, 3 * ROWS_PER_PIECE);
+    List<Object> ids;
+    try (Stream<SnowflakeRow> stream = stream(resultSet, pieces)) {
+      ids = stream.map(row -> row.getObject("id")).collect(Collectors.toList());
+    }
+    assertThat(ids.size(), is(3 * ROWS_PER_PIECE));
+    for (int i = 0; i < ids.size(); i++) {
+      assertThat(ids.get(i), is((long) i));
+    }
+    // the chunks prefetched by the ResultSet are used, no chunk is downloaded again
+    for (SnowflakeResultSetSerializableV1 piece : pieces) {
+      verify(piece, never()).createSessionlessResultSet();
+    }
+    assertThat(stoppedDownloads.get(), is(0));
+    verify(resultSet, never()).close();
+  }
+
+  @Test
+  public void testRowsOfAllPiecesInOrderAfterSplit() throws SQLException {
+    List<ResultSet> readers = new ArrayList<>();
+    Spliterator<SnowflakeRow> spliterator =
+        stream(mockResultSet(0, 0), mockPieces(3, readers)).spliterator();
+    Spliterator<SnowflakeRow> prefix = spliterator.trySplit();
+    assertThat(stoppedDownloads.get(), is(1));
+    List<Object> ids = new ArrayList<>();
+    prefix.forEachRemaining(row -> ids.add(row.getObject("id")));
+    spliterator.forEachRemaining(row -> ids.add(row.getObject("id")));
+    assertThat(ids.size(), is(3 * ROWS_PER_PIECE));
+    for (int i = 0; i < ids.size(); i++) {
+      assertThat(ids.get(i), is((long) i));
+    }
+    for (ResultSet reader : readers) {
+      verify(reader).close();
+    }
+  }
+
+  @Test
+  public void testParallelStream() throws SQLException {
+    List<ResultSet> readers = new ArrayList<>();
+    List<Object> ids;
+    try (Stream<SnowflakeRow> stream = stream(mockResultSet(0, 0), mockPieces(8, readers))) {
+      ids = stream.parallel().map(row -> row.getObject(1)).collect(Collectors.toList());
+    }
+    assertThat(ids.size(), is(8 * ROWS_PER_PIECE));
+    assertThat(stoppedDownloads.get(), is(1));
+    for (int i = 0; i < ids.size(); i++) {
+      assertThat(ids.get(i), is((long) i));
+    }
+  }
+
+  @Test
+  public void testSplitOnPieceBoundaries() throws SQLException {
+    List<ResultSet> readers = new ArrayList<>();
+    Spliterator<SnowflakeRow> spliterator =
+        stream(mockResultSet(0, 0), mockPieces(3, readers)).spliterator();
+    assertThat(spliterator.hasCharacteristics(Spliterator.SIZED), is(true));
+    assertThat(spliterator.estimateSize(), is(3L * ROWS_PER_PIECE));
+
+    Spliterator<SnowflakeRow> prefix = spliterator.trySplit();
+    assertThat(prefix.estimateSize(), is((long) ROWS_PER_PIECE));
+    assertThat(spliterator.estimateSize(), is(2L * ROWS_PER_PIECE));
+    assertNull(prefix.trySplit());
+
+    prefix.tryAdvance(row -> assertThat(row.getObject(1), is(0L)));
+    spliterator.tryAdvance(row -> assertThat(row.getObject(1), is((long) ROWS_PER_PIECE)));
+    // a piece which is being read is not split
+    assertNull(spliterator.trySplit());
+    assertThat(spliterator.estimateSize(), is(2L * ROWS_PER_PIECE - 1));
+  }
+
+  @Test
+  public void testNoSplitOnceTheResultSetIsRead() throws SQLException {
+    List<ResultSet> readers = new ArrayList<>();
+    Spliterator<SnowflakeRow> spliterator =
+        stream(mockResultSet(0, 3 * ROWS_PER_PIECE), mockPieces(3, readers)).spliterator();
+    spliterator.tryAdvance(row -> assertThat(row.getObject(1), is(0L)));
+    assertNull(spliterator.trySplit());
+    assertThat(stoppedDownloads.get(), is(0));
+    assertThat(spliterator.estimateSize(), is(3L * ROWS_PER_PIECE - 1));
+  }
+
+  @Test
+  public void testCloseReleasesOpenReaders() throws SQLException {
+    List<ResultSet> readers = new ArrayList<>();
+    List<SnowflakeResultSetSerializableV1> pieces = mockPieces(2, readers);
+    Stream<SnowflakeRow> stream = stream(mockResultSet(0, 0), pieces);
+    Spliterator<SnowflakeRow> spliterator = stream.spliterator();
+    Spliterator<SnowflakeRow> prefix = spliterator.trySplit();
+    prefix.tryAdvance(row -> assertThat(row.getObject(1), is(0L)));
+    verify(readers.get(0), never()).close();
+    stream.close();
+    verify(readers.get(0)).close();
+    verify(pieces.get(1), never()).createSessionlessResultSet();
+  }
+
+  @Test
+  public void testResultSetWithoutPieces() throws SQLException {
+    ResultSet resultSet = mockResultSet(5, 3);
+    Spliterator<SnowflakeRow> spliterator = stream(resultSet, null).spliterator();
+    assertNull(spliterator.trySplit());
+    List<SnowflakeRow> rows = new ArrayList<>();
+    spliterator.forEachRemaining(rows::add);
+    assertThat(rows.size(), is(3));
+    assertThat(rows.get(2).getObject("ID"), is(7L));
+    assertThat(rows.get(2).isNull(1), is(false));
+    try {
+      rows.get(0).getObject("NAME");
+      fail("Unknown columns must be reported");
+    } catch (IllegalArgumentException ex) {
+      assertThat(ex.getMessage(), is("Column not found: NAME"));
+    }
+    // the ResultSet is closed by its owner
+    verify(resultSet, never()).close();
+  }
+
+  @Test
+  public void testErrorsAreUnchecked() throws SQLException {
+    ResultSet resultSet = mockResultSet(0, 1);
+    SQLException error = new SQLException("failed");
+    when(resultSet.next()).thenThrow(error);
+    try {
+      stream(resultSet, null).count();
+      fail("Errors of the ResultSet must be thrown");
+    } catch (SnowflakeUncheckedSQLException ex) {
+      assertThat(ex.getCause(), is(error));
+    }
+  }
+}
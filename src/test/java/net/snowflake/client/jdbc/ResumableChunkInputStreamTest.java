@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.protocol.ResponseContentEncoding;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+public class ResumableChunkInputStreamTest {
+
+  /** Returns the given bytes and then fails with a connection reset */
+  private static InputStream failingAfter(byte[] data, int failAfter) {
+    ByteArrayInputStream delegate = new ByteArrayInputStream(data, 0, failAfter);
+    return new InputStream() {
+      @Override
+      public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        int n = delegate.read(b, off, len);
+        if (n < 0) {
+          throw new SocketException("Connection reset");
+        }
+        return n;
+      }
+    };
+  }
+
+  private static HttpResponse response(int status, byte[] body, String contentRange) {
+    HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, status, null);
+    response.setEntity(new ByteArrayEntity(body));
+    response.addHeader("ETag", "\"abc\"");
+    if (contentRange != null) {
+      response.addHeader("Content-Range", contentRange);
+    }
+    return response;
+  }
+
+  private static byte[] readFully(InputStream is) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[7];
+    int n;
+    while ((n = is.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] sampleText() {
+    byte[] text = new byte[10000];
+    for (int i = 0; i < text.length; i++) {
+      text[i] = (byte) ('a' + i % 26);
+    }
+    return text;
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(data);
+    }
+    return compressed.toByteArray();
+  }
+
+  /** Response with a gzip Content-Encoding whose connection drops after the given bytes */
+  private static HttpResponse gzipEncodedResponse(byte[] body, int failAfter) {
+    HttpResponse response = response(HttpStatus.SC_OK, body, null);
+    response.addHeader("Content-Encoding", "gzip");
+    ByteArrayEntity entity =
+        new ByteArrayEntity(body) {
+          @Override
+          public InputStream getContent() {
+            return failingAfter(body, failAfter);
+          }
+        };
+    entity.setContentEncoding("gzip");
+    response.setEntity(entity);
+    return response;
+  }
+
+  @Test
+  public void testResumesGzipBodyFromLastByte() throws Exception {
+    byte[] text = sampleText();
+    byte[] body = gzip(text);
+    int failAfter = body.length / 2;
+
+    List<Long> requestedOffsets = new ArrayList<>();
+    ResumableChunkInputStream stream =
+        new ResumableChunkInputStream(
+            response(HttpStatus.SC_OK, body, null),
+            failingAfter(body, failAfter),
+            offset -> {
+              requestedOffsets.add(offset);
+              byte[] rest = Arrays.copyOfRange(body, (int) (long) offset, body.length);
+              return response(
+                  HttpStatus.SC_PARTIAL_CONTENT,
+                  rest,
+                  "bytes " + offset + "-" + (body.length - 1) + "/" + body.length);
+            },
+            "url");
+
+    assertArrayEquals(text, readFully(new GZIPInputStream(stream)));
+    assertEquals(Arrays.asList((long) failAfter), requestedOffsets);
+    assertEquals(body.length, stream.getBytesRead());
+    assertEquals(1, stream.getResumeAttempts());
+  }
+
+  @Test
+  public void testResumesRawGzipEncodedBody() throws Exception {
+    byte[] text = sampleText();
+    byte[] body = gzip(text);
+    InputStream stream =
+        ResumableChunkInputStream.open(
+            gzipEncodedResponse(body, body.length / 2),
+            offset ->
+                response(
+                    HttpStatus.SC_PARTIAL_CONTENT,
+                    Arrays.copyOfRange(body, (int) (long) offset, body.length),
+                    "bytes " + offset + "-" + (body.length - 1) + "/" + body.length),
+            "url");
+    assertTrue(stream instanceof ResumableChunkInputStream);
+    // the driver decodes the Content-Encoding above the resumable stream
+    assertArrayEquals(text, readFully(new GZIPInputStream(stream)));
+  }
+
+  @Test
+  public void testBodyDecodedByHttpClientIsNotResumed() throws Exception {
+    byte[] body = gzip(sampleText());
+    HttpResponse response = gzipEncodedResponse(body, body.length / 2);
+    // decode the Content-Encoding like the HTTP client does unless gzip is disabled
+    new ResponseContentEncoding().process(response, HttpClientContext.create());
+    List<Long> requestedOffsets = new ArrayList<>();
+    InputStream stream =
+        ResumableChunkInputStream.open(
+            response,
+            offset -> {
+              requestedOffsets.add(offset);
+              return response(HttpStatus.SC_PARTIAL_CONTENT, body, null);
+            },
+            "url");
+    assertFalse(stream instanceof ResumableChunkInputStream);
+    try {
+      readFully(stream);
+      fail("Expected the original error");
+    } catch (SocketException ex) {
+      assertEquals("Connection reset", ex.getMessage());
+    }
+    // offsets of the decoded bytes do not match the stored object, no range is requested
+    assertTrue(requestedOffsets.isEmpty());
+  }
+
+  @Test
+  public void testRethrowsOriginalErrorWhenRangeIsNotSupported() throws Exception {
+    byte[] body = "0123456789".getBytes(StandardCharsets.UTF_8);
+    ResumableChunkInputStream stream =
+        new ResumableChunkInputStream(
+            response(HttpStatus.SC_OK, body, null),
+            failingAfter(body, 4),
+            offset -> response(HttpStatus.SC_OK, body, null),
+            "url");
+    try {
+      readFully(stream);
+      fail("Expected the original error");
+    } catch (SocketException ex) {
+      assertEquals("Connection reset", ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testRethrowsOriginalErrorWhenObjectChanged() throws Exception {
+    byte[] body = "0123456789".getBytes(StandardCharsets.UTF_8);
+    HttpResponse changed = response(HttpStatus.SC_PARTIAL_CONTENT, body, "bytes 4-9/10");
+    changed.setHeader("ETag", "\"other\"");
+    ResumableChunkInputStream stream =
+        new ResumableChunkInputStream(
+            response(HttpStatus.SC_OK, body, null),
+            failingAfter(body, 4),
+            offset -> changed,
+            "url");
+    try {
+      readFully(stream);
+      fail("Expected the original error");
+    } catch (SocketException ex) {
+      assertEquals(4, stream.getBytesRead());
+    }
+  }
+
+  @Test
+  public void testGivesUpAfterMaxResumeAttempts() throws Exception {
+    byte[] body = "0123456789".getBytes(StandardCharsets.UTF_8);
+    ResumableChunkInputStream stream =
+        new ResumableChunkInputStream(
+            response(HttpStatus.SC_OK, body, null),
+            failingAfter(body, 1),
+            offset -> {
+              byte[] rest = Arrays.copyOfRange(body, (int) (long) offset, body.length);
+              HttpResponse response =
+                  response(HttpStatus.SC_PARTIAL_CONTENT, rest, "bytes " + offset + "-9/10");
+              response.setEntity(
+                  new ByteArrayEntity(rest) {
+                    @Override
+                    public InputStream getContent() {
+                      return failingAfter(rest, 1);
+                    }
+                  });
+              return response;
+            },
+            "url");
+    try {
+      readFully(stream);
+      fail("Expected the original error");
+    } catch (SocketException ex) {
+      assertEquals("Connection reset", ex.getMessage());
+    }
+    assertEquals(ResumableChunkInputStream.MAX_RESUME_ATTEMPTS, stream.getResumeAttempts());
+    assertEquals(ResumableChunkInputStream.MAX_RESUME_ATTEMPTS + 1, stream.getBytesRead());
+  }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static net.snowflake.client.jdbc.SnowflakeUtil.systemGetProperty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.snowflake.client.core.ChunkDownloader;
+import net.snowflake.client.core.Constants;
+import net.snowflake.client.core.ObjectMapperFactory;
+import net.snowflake.client.core.SFBaseSession;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnowflakeChunkDownloaderTest {
+  @Rule public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  /** Result with an empty first row set and three JSON chunks of one row each */
+  static final String THREE_CHUNKS_RESULT_JSON =
+      "{\"data\": {"
+          + "\"parameters\": [{\"name\": \"CLIENT_PREFETCH_THREADS\", \"value\": 4},"
+          + " {\"name\": \"CLIENT_RESULT_CHUNK_SIZE\", \"value\": 16}],"
+          + "\"rowtype\": [{\"name\": \"C1\", \"type\": \"fixed\", \"length\": 10,"
+          + " \"scale\": 0, \"precision\": 10, \"nullable\": false}],"
+          + "\"rowset\": [],"
+          + "\"chunks\": ["
+          + "{\"url\": \"https://example.com/chunk0\", \"rowCount\": 1, \"uncompressedSize\": 5},"
+          + "{\"url\": \"https://example.com/chunk1\", \"rowCount\": 1, \"uncompressedSize\": 5},"
+          + "{\"url\": \"https://example.com/chunk2\", \"rowCount\": 1, \"uncompressedSize\": 5}"
+          + "],"
+          + "\"total\": 3, \"queryId\": \"query-id\", \"queryResultFormat\": \"json\"},"
+          + "\"success\": true}";
+
+  @Test
+  public void testVirtualThreadExecutorDependsOnRuntime() throws Exception {
+    ExecutorService executor = SnowflakeChunkDownloader.createVirtualThreadExecutorService();
+    String specVersion = systemGetProperty("java.specification.version");
+    boolean supportsVirtualThreads =
+        !specVersion.startsWith("1.") && Integer.parseInt(specVersion) >= 21;
+    if (!supportsVirtualThreads) {
+      assertNull(executor);
+      return;
+    }
+
+    assertNotNull(executor);
+    try {
+      Object isVirtual =
+          executor
+              .submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+              .get(1, TimeUnit.MINUTES);
+      assertEquals(Boolean.TRUE, isVirtual);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testUnorderedConsumptionIsNotBlockedBySlowChunk() throws Exception {
+    SFBaseSession session = new MockConnectionTest.MockSnowflakeConnectionImpl().getSFSession();
+    session.setEnableUnorderedChunkConsumption(true);
+    CountDownLatch firstChunkReleased = new CountDownLatch(1);
+    AtomicBoolean firstChunkDownloaded = new AtomicBoolean();
+    ResultStreamProvider provider =
+        context -> {
+          int index = context.getChunkIndex();
+          if (index == 0) {
+            firstChunkReleased.await(1, TimeUnit.MINUTES);
+            firstChunkDownloaded.set(true);
+          }
+          return new ByteArrayInputStream(("[\"" + index + "\"]").getBytes(StandardCharsets.UTF_8));
+        };
+    JsonNode rootNode = ObjectMapperFactory.getObjectMapper().readTree(THREE_CHUNKS_RESULT_JSON);
+    SnowflakeResultSetSerializableV1 serializable =
+        SnowflakeResultSetSerializableV1.create(
+            rootNode,
+            session,
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFStatement(),
+            provider);
+    ChunkDownloader downloader = serializable.chunkDownloader;
+    try {
+      List<String> values = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        values.add(((JsonResultChunk) downloader.getNextChunkToConsume()).getCell(0, 0).toString());
+      }
+      // the chunks after the slow first chunk have been consumed before it completed
+      assertFalse(firstChunkDownloaded.get());
+      firstChunkReleased.countDown();
+      values.add(((JsonResultChunk) downloader.getNextChunkToConsume()).getCell(0, 0).toString());
+      assertNull(downloader.getNextChunkToConsume());
+
+      values.sort(String::compareTo);
+      assertEquals("[0, 1, 2]", values.toString());
+    } finally {
+      downloader.terminate();
+    }
+  }
+
+  @Test
+  public void testChunksBeyondMemoryLimitAreSpilled() throws Exception {
+    SFBaseSession session = new MockConnectionTest.MockSnowflakeConnectionImpl().getSFSession();
+    session.setEnableResultChunkSpill(true);
+    // only one chunk fits into memory
+    session.setMemoryLimitForTesting(
+        new JsonResultChunk("", 1, 1, 5, null).computeNeededChunkMemory());
+    ResultStreamProvider provider =
+        context ->
+            new ByteArrayInputStream(
+                ("[\"" + context.getChunkIndex() + "\"]").getBytes(StandardCharsets.UTF_8));
+    JsonNode rootNode = ObjectMapperFactory.getObjectMapper().readTree(THREE_CHUNKS_RESULT_JSON);
+    SnowflakeResultSetSerializableV1 serializable =
+        SnowflakeResultSetSerializableV1.create(
+            rootNode,
+            session,
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFStatement(),
+            provider);
+    SnowflakeChunkDownloader downloader = (SnowflakeChunkDownloader) serializable.chunkDownloader;
+    try {
+      for (int i = 0; i < 3; i++) {
+        JsonResultChunk chunk = (JsonResultChunk) downloader.getNextChunkToConsume();
+        assertEquals(String.valueOf(i), chunk.getCell(0, 0).toString());
+        assertNull(chunk.getSpillFile());
+      }
+      assertNull(downloader.getNextChunkToConsume());
+      assertEquals(2, downloader.getSpilledChunkCount());
+    } finally {
+      downloader.terminate();
+    }
+  }
+
+  @Test
+  public void testSpillFilesAreOwnerOnlyInTheSpillDirectory() throws Exception {
+    SFBaseSession session = new MockConnectionTest.MockSnowflakeConnectionImpl().getSFSession();
+    session.setEnableResultChunkSpill(true);
+    session.setResultChunkSpillDirectory(tmpFolder.getRoot().getPath());
+    // only one chunk fits into memory
+    session.setMemoryLimitForTesting(
+        new JsonResultChunk("", 1, 1, 5, null).computeNeededChunkMemory());
+    ResultStreamProvider provider =
+        context ->
+            new ByteArrayInputStream(
+                ("[\"" + context.getChunkIndex() + "\"]").getBytes(StandardCharsets.UTF_8));
+    JsonNode rootNode = ObjectMapperFactory.getObjectMapper().readTree(THREE_CHUNKS_RESULT_JSON);
+    SnowflakeResultSetSerializableV1 serializable =
+        SnowflakeResultSetSerializableV1.create(
+            rootNode,
+            session,
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFStatement(),
+            provider);
+    SnowflakeChunkDownloader downloader = (SnowflakeChunkDownloader) serializable.chunkDownloader;
+    try {
+      downloader.getNextChunkToConsume();
+      // the two chunks after the first one are spilled in the background
+      long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+      File[] spillFiles = tmpFolder.getRoot().listFiles();
+      while (spillFiles.length < 2 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+        spillFiles = tmpFolder.getRoot().listFiles();
+      }
+      assertEquals(2, spillFiles.length);
+      if (Constants.getOS() != Constants.OS.WINDOWS) {
+        for (File spillFile : spillFiles) {
+          assertEquals(
+              PosixFilePermissions.fromString("rw-------"),
+              Files.getPosixFilePermissions(spillFile.toPath()));
+        }
+      }
+    } finally {
+      downloader.terminate();
+    }
+    assertEquals(0, tmpFolder.getRoot().listFiles().length);
+  }
+
+  @Test
+  public void testSpilledChunkParsedWithoutMemoryReleasesNoOtherMemory() throws Exception {
+    SFBaseSession session = new MockConnectionTest.MockSnowflakeConnectionImpl().getSFSession();
+    session.setEnableResultChunkSpill(true);
+    long chunkMemory = new JsonResultChunk("", 1, 1, 5, null).computeNeededChunkMemory();
+    // only one chunk fits into memory
+    session.setMemoryLimitForTesting(chunkMemory);
+    ResultStreamProvider provider =
+        context ->
+            new ByteArrayInputStream(
+                ("[\"" + context.getChunkIndex() + "\"]").getBytes(StandardCharsets.UTF_8));
+    JsonNode rootNode = ObjectMapperFactory.getObjectMapper().readTree(THREE_CHUNKS_RESULT_JSON);
+    SnowflakeResultSetSerializableV1 serializable =
+        SnowflakeResultSetSerializableV1.create(
+            rootNode,
+            session,
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFStatement(),
+            provider);
+    SnowflakeChunkDownloader downloader = (SnowflakeChunkDownloader) serializable.chunkDownloader;
+    try {
+      downloader.getNextChunkToConsume();
+      // the consumer keeps the memory of the first chunk, the spilled chunks time out waiting for
+      // memory and are parsed without a reservation
+      Runnable release = downloader.holdChunkMemory();
+      for (int i = 1; i < 3; i++) {
+        JsonResultChunk chunk = (JsonResultChunk) downloader.getNextChunkToConsume();
+        assertEquals(String.valueOf(i), chunk.getCell(0, 0).toString());
+        assertEquals(chunkMemory, downloader.getMemoryUsage());
+      }
+      assertNull(downloader.getNextChunkToConsume());
+      assertEquals(chunkMemory, downloader.getMemoryUsage());
+      release.run();
+      assertEquals(0, downloader.getMemoryUsage());
+    } finally {
+      downloader.terminate();
+    }
+  }
+
+  @Test
+  public void testHeldChunkMemoryIsReleasedByTheConsumer() throws Exception {
+    ResultStreamProvider provider =
+        context ->
+            new ByteArrayInputStream(
+                ("[\"" + context.getChunkIndex() + "\"]").getBytes(StandardCharsets.UTF_8));
+    JsonNode rootNode = ObjectMapperFactory.getObjectMapper().readTree(THREE_CHUNKS_RESULT_JSON);
+    SnowflakeResultSetSerializableV1 serializable =
+        SnowflakeResultSetSerializableV1.create(
+            rootNode,
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFSession(),
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFStatement(),
+            provider);
+    SnowflakeChunkDownloader downloader = (SnowflakeChunkDownloader) serializable.chunkDownloader;
+    long chunkMemory = new JsonResultChunk("", 1, 1, 5, null).computeNeededChunkMemory();
+    try {
+      downloader.getNextChunkToConsume();
+      Runnable release = downloader.holdChunkMemory();
+      downloader.getNextChunkToConsume();
+      downloader.getNextChunkToConsume();
+      assertNull(downloader.getNextChunkToConsume());
+      // all chunks have been freed, the first one is still held by the consumer
+      assertEquals(chunkMemory, downloader.getMemoryUsage());
+      release.run();
+      release.run();
+      assertEquals(0, downloader.getMemoryUsage());
+    } finally {
+      downloader.terminate();
+    }
+  }
+
+  @Test
+  public void testNextChunkWaitsForMemoryWithoutBlocking() throws Exception {
+    SFBaseSession session = new MockConnectionTest.MockSnowflakeConnectionImpl().getSFSession();
+    // only one chunk fits into memory
+    session.setMemoryLimitForTesting(
+        new JsonResultChunk("", 1, 1, 5, null).computeNeededChunkMemory());
+    Set<Integer> requestedChunks = ConcurrentHashMap.newKeySet();
+    ResultStreamProvider provider =
+        context -> {
+          requestedChunks.add(context.getChunkIndex());
+          return new ByteArrayInputStream(
+              ("[\"" + context.getChunkIndex() + "\"]").getBytes(StandardCharsets.UTF_8));
+        };
+    JsonNode rootNode = ObjectMapperFactory.getObjectMapper().readTree(THREE_CHUNKS_RESULT_JSON);
+    SnowflakeResultSetSerializableV1 serializable =
+        SnowflakeResultSetSerializableV1.create(
+            rootNode,
+            session,
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFStatement(),
+            provider);
+    SnowflakeChunkDownloader downloader = (SnowflakeChunkDownloader) serializable.chunkDownloader;
+    AtomicInteger notifications = new AtomicInteger();
+    try {
+      assertEquals(
+          "0", ((JsonResultChunk) downloader.getNextChunkToConsume()).getCell(0, 0).toString());
+      // the consumer keeps the memory of the first chunk
+      Runnable release = downloader.holdChunkMemory();
+      downloader.setChunkCompletionListener(notifications::incrementAndGet);
+
+      assertFalse(downloader.isNextChunkReady());
+      assertFalse(downloader.isNextChunkReady());
+      assertEquals("[0]", new TreeSet<>(requestedChunks).toString());
+      assertEquals(0, notifications.get());
+
+      // the listener is notified when the memory is released, and the chunk is submitted
+      release.run();
+      assertTrue(notifications.get() > 0);
+      long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+      while (!downloader.isNextChunkReady()) {
+        assertTrue(System.currentTimeMillis() < deadline);
+        Thread.sleep(10);
+      }
+      assertEquals(
+          "1", ((JsonResultChunk) downloader.getNextChunkToConsume()).getCell(0, 0).toString());
+      assertEquals("[0, 1]", new TreeSet<>(requestedChunks).toString());
+    } finally {
+      downloader.terminate();
+    }
+  }
+
+  @Test
+  public void testPrefetchFollowsRowDemand() throws Exception {
+    Set<Integer> requestedChunks = ConcurrentHashMap.newKeySet();
+    ResultStreamProvider provider =
+        context -> {
+          requestedChunks.add(context.getChunkIndex());
+          return new ByteArrayInputStream(
+              ("[\"" + context.getChunkIndex() + "\"]").getBytes(StandardCharsets.UTF_8));
+        };
+    // a single prefetch thread gives two prefetch slots
+    JsonNode rootNode =
+        ObjectMapperFactory.getObjectMapper()
+            .readTree(THREE_CHUNKS_RESULT_JSON.replace("\"value\": 4}", "\"value\": 1}"));
+    SnowflakeResultSetSerializableV1 serializable =
+        SnowflakeResultSetSerializableV1.create(
+            rootNode,
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFSession(),
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFStatement(),
+            provider);
+    ChunkDownloader downloader = serializable.chunkDownloader;
+    AtomicInteger completions = new AtomicInteger();
+    downloader.setChunkCompletionListener(completions::incrementAndGet);
+    try {
+      downloader.setPrefetchRowDemand(1);
+      assertEquals(
+          "0", ((JsonResultChunk) downloader.getNextChunkToConsume()).getCell(0, 0).toString());
+      // the next chunk is downloaded whatever the demand, the one after is not prefetched
+      long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+      while (!downloader.isNextChunkReady()) {
+        assertTrue(System.currentTimeMillis() < deadline);
+        Thread.sleep(10);
+      }
+      assertEquals("[0, 1]", new TreeSet<>(requestedChunks).toString());
+
+      downloader.setPrefetchRowDemand(2);
+      downloader.isNextChunkReady();
+      assertEquals(
+          "1", ((JsonResultChunk) downloader.getNextChunkToConsume()).getCell(0, 0).toString());
+      assertEquals(
+          "2", ((JsonResultChunk) downloader.getNextChunkToConsume()).getCell(0, 0).toString());
+      assertNull(downloader.getNextChunkToConsume());
+      assertTrue(downloader.isNextChunkReady());
+      assertEquals(3, requestedChunks.size());
+      // the listener is notified after the chunk has been marked as ready
+      while (completions.get() == 0) {
+        assertTrue(System.currentTimeMillis() < deadline);
+        Thread.sleep(10);
+      }
+    } finally {
+      downloader.terminate();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import net.snowflake.client.core.ObjectMapperFactory;
+import net.snowflake.client.core.SFBaseSession;
+import net.snowflake.client.core.SFException;
+import net.snowflake.client.core.SFResultSet;
+import net.snowflake.client.jdbc.telemetry.NoOpTelemetryClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TypedJsonResultColumnsTest {
+  // one NUMBER(10, 0) value per chunk
+  private static final String[] VALUES = {"100", "100000", "5000000000"};
+
+  private SFResultSet resultSet;
+
+  @Before
+  public void setUp() throws Throwable {
+    ResultStreamProvider provider =
+        context ->
+            new ByteArrayInputStream(
+                ("[\"" + VALUES[context.getChunkIndex()] + "\"]").getBytes(StandardCharsets.UTF_8));
+    JsonNode rootNode =
+        ObjectMapperFactory.getObjectMapper()
+            .readTree(
+                SnowflakeChunkDownloaderTest.THREE_CHUNKS_RESULT_JSON.replace(
+                    "\"uncompressedSize\": 5", "\"uncompressedSize\": 20"));
+    SFBaseSession session = new MockConnectionTest.MockSnowflakeConnectionImpl().getSFSession();
+    session.setEnableTypedJsonResultColumns(true);
+    SnowflakeResultSetSerializableV1 serializable =
+        SnowflakeResultSetSerializableV1.create(
+            rootNode,
+            session,
+            new MockConnectionTest.MockSnowflakeConnectionImpl().getSFStatement(),
+            provider);
+    resultSet = new SFResultSet(serializable, session, new NoOpTelemetryClient(), false);
+  }
+
+  @After
+  public void tearDown() throws SnowflakeSQLException {
+    resultSet.close();
+  }
+
+  private static void assertOutOfRange(ThrowingRunnable read, String value) {
+    try {
+      read.run();
+      fail("Expected the value " + value + " to be out of range");
+    } catch (SFException ex) {
+      assertThat(ex.getVendorCode(), is(ErrorCode.INVALID_VALUE_CONVERT.getMessageCode()));
+      assertTrue(ex.getMessage(), ex.getMessage().contains(value));
+    }
+  }
+
+  private interface ThrowingRunnable {
+    void run() throws SFException;
+  }
+
+  @Test
+  public void testValuesInRange() throws Throwable {
+    assertTrue(resultSet.next());
+    assertThat(resultSet.getByte(1), is((byte) 100));
+    assertThat(resultSet.getShort(1), is((short) 100));
+    assertThat(resultSet.getInt(1), is(100));
+    assertThat(resultSet.getLong(1), is(100L));
+  }
+
+  @Test
+  public void testValuesOutOfRangeAreNotTruncated() throws Throwable {
+    assertTrue(resultSet.next());
+    assertTrue(resultSet.next());
+    assertOutOfRange(() -> resultSet.getByte(1), "100000");
+    assertOutOfRange(() -> resultSet.getShort(1), "100000");
+    assertThat(resultSet.getInt(1), is(100000));
+
+    assertTrue(resultSet.next());
+    assertOutOfRange(() -> resultSet.getByte(1), "5000000000");
+    assertOutOfRange(() -> resultSet.getShort(1), "5000000000");
+    assertOutOfRange(() -> resultSet.getInt(1), "5000000000");
+    assertThat(resultSet.getLong(1), is(5000000000L));
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class Utf8ToAsciiInputStreamTest {
+
+  private static String toAscii(String text, boolean byteByByte) throws Exception {
+    InputStream stream =
+        new Utf8ToAsciiInputStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    if (!byteByByte) {
+      return IOUtils.toString(stream, StandardCharsets.US_ASCII);
+    }
+    StringBuilder sb = new StringBuilder();
+    int b;
+    while ((b = stream.read()) != -1) {
+      sb.append((char) b);
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testNonAsciiCharactersAreReplaced() throws Exception {
+    for (boolean byteByByte : new boolean[] {false, true}) {
+      assertEquals("plain ASCII", toAscii("plain ASCII", byteByByte));
+      assertEquals("Z?rich ? ?", toAscii("Zürich ★ 𠜎", byteByByte));
+      assertEquals("??", toAscii("日本", byteByByte));
+      assertEquals("", toAscii("", byteByByte));
+    }
+  }
+}